@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates the records for the benchmarks.
+ * All values are created with a fixed seed, so every run of a benchmark works on the same data.
+ */
+final class BenchmarkRecords {
+    static final long SEED = 42L;
+
+    private BenchmarkRecords() {
+        // Do not instantiate
+    }
+
+    /**
+     * Creates the name of a channel.
+     *
+     * @param index of the channel
+     * @return the name of the channel
+     */
+    static String channel(int index) {
+        return "channel" + index;
+    }
+
+    /**
+     * Creates one record with values of mixed types.
+     * The channels cycle through double, long, boolean and string values.
+     *
+     * @param random    delivers the values
+     * @param source    of the record
+     * @param timestamp of the record
+     * @param channels  number of channels in the record
+     * @return the record
+     */
+    static UntypedValues record(Random random, String source, long timestamp, int channels) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < channels; i++) {
+            values.put(channel(i), value(random, i));
+        }
+        return new UntypedValues(source, timestamp, "", values);
+    }
+
+    /**
+     * Creates records of the given sources, which are interleaved and ordered by their timestamps.
+     *
+     * @param count    number of records
+     * @param sources  number of sources
+     * @param channels number of channels per record
+     * @return the records
+     */
+    static List<MRecord> records(int count, int sources, int channels) {
+        Random random = new Random(SEED);
+        List<MRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(record(random, "source" + (i % sources), i, channels));
+        }
+        return records;
+    }
+
+    private static Object value(Random random, int index) {
+        switch (index % 4) {
+            case 0:
+                return random.nextDouble() * 100;
+            case 1:
+                return (long) random.nextInt(100);
+            case 2:
+                return random.nextBoolean();
+            default:
+                return "value" + random.nextInt(100);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.Prototype;
+import org.pragmaticminds.crunch.api.trigger.TriggerEvaluationFunction;
+import org.pragmaticminds.crunch.api.trigger.handler.GenericExtractorTriggerHandler;
+import org.pragmaticminds.crunch.api.windowed.extractor.DefaultGenericEventGroupAggregationFinalizer;
+import org.pragmaticminds.crunch.api.windowed.extractor.GroupByExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.extractor.Extractors.channelMapExtractor;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategies.onBecomeTrue;
+
+/**
+ * Benchmarks {@link ClonerUtil#clone(java.io.Serializable)} on typical prototypes, which are cloned for every
+ * {@link org.pragmaticminds.crunch.api.pipe.SubStream} and every lane.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClonerUtilBenchmark {
+
+    private TriggerEvaluationFunction<GenericEvent> triggerFunction;
+    private GroupByExtractor<GenericEvent> groupByExtractor;
+    private Prototype<GroupByExtractor<GenericEvent>> groupByExtractorPrototype;
+
+    @Setup
+    public void setUp() {
+        triggerFunction = TriggerEvaluationFunction.<GenericEvent>builder()
+                .withTriggerStrategy(onBecomeTrue(greaterThan(50.0, doubleChannel("channel0"))))
+                .withTriggerHandler(new GenericExtractorTriggerHandler("rising", channelMapExtractor(doubleChannel("channel0"))))
+                .build();
+        groupByExtractor = GroupByExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.max(), doubleChannel("channel0"))
+                .aggregate(Aggregations.min(), doubleChannel("channel0"))
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+        groupByExtractorPrototype = new Prototype<>(groupByExtractor);
+    }
+
+    @Benchmark
+    public TriggerEvaluationFunction<GenericEvent> cloneTriggerEvaluationFunction() {
+        return ClonerUtil.clone(triggerFunction);
+    }
+
+    @Benchmark
+    public GroupByExtractor<GenericEvent> cloneGroupByExtractor() {
+        return ClonerUtil.clone(groupByExtractor);
+    }
+
+    @Benchmark
+    public GroupByExtractor<GenericEvent> newGroupByExtractorFromPrototype() {
+        return groupByExtractorPrototype.newInstance();
+    }
+}
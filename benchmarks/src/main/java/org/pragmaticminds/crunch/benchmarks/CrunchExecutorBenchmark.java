@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pragmaticminds.crunch.api.pipe.EvaluationPipeline;
+import org.pragmaticminds.crunch.api.pipe.SubStream;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.TriggerEvaluationFunction;
+import org.pragmaticminds.crunch.api.trigger.handler.GenericExtractorTriggerHandler;
+import org.pragmaticminds.crunch.events.GenericEvent;
+import org.pragmaticminds.crunch.execution.CrunchExecutor;
+import org.pragmaticminds.crunch.execution.ExecutionMode;
+import org.pragmaticminds.crunch.execution.MRecordSources;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.extractor.Extractors.channelMapExtractor;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategies.onBecomeTrue;
+
+/**
+ * Benchmarks a complete run of a {@link CrunchExecutor} over records from {@link MRecordSources#of(List)}.
+ * The {@link ExecutionMode#BACKFILL} is used, so the result does not depend on the wall clock driven sort window.
+ * The time is reported per record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrunchExecutorBenchmark {
+    private static final int RECORDS = 10_000;
+
+    @Param({"10", "100"})
+    public int channels;
+
+    @Param({"1", "10", "100"})
+    public int sources;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private List<MRecord> records;
+    private final LongAdder events = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        records = BenchmarkRecords.records(RECORDS, sources, channels);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long run() {
+        EvaluationPipeline<GenericEvent> pipeline = EvaluationPipeline.<GenericEvent>builder()
+                .withIdentifier("benchmark")
+                .withParallelism(parallelism)
+                .withSubStream(
+                        SubStream.<GenericEvent>builder()
+                                .withIdentifier("rising")
+                                .withPredicate(record -> true)
+                                .withEvaluationFunction(
+                                        TriggerEvaluationFunction.<GenericEvent>builder()
+                                                .withTriggerStrategy(
+                                                        onBecomeTrue(greaterThan(50.0, doubleChannel("channel0")))
+                                                )
+                                                .withTriggerHandler(new GenericExtractorTriggerHandler("rising", channelMapExtractor(doubleChannel("channel0"))))
+                                                .build()
+                                )
+                                .build()
+                )
+                .build();
+        new CrunchExecutor(
+                MRecordSources.of(records),
+                pipeline,
+                event -> events.increment(),
+                ExecutionMode.BACKFILL
+        ).run();
+        return events.sum();
+    }
+}
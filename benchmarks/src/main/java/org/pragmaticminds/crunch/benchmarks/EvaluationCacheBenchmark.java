@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.and;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.stringChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Mathematics.add;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.StringOperators.match;
+import static org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategies.onTrue;
+
+/**
+ * Benchmarks many {@link TriggerStrategy}s with the same condition on each record, once with an open
+ * {@link EvaluationCache}, as the runtimes do, and once without.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluationCacheBenchmark {
+    private static final int RECORDS = 1_000;
+
+    @Param({"1", "100"})
+    public int strategies;
+
+    private List<MRecord> records;
+    private List<TriggerStrategy> triggerStrategies;
+    private final EvaluationCache cache = new EvaluationCache();
+
+    @Setup
+    public void setUp() {
+        records = BenchmarkRecords.records(RECORDS, 1, 10);
+        triggerStrategies = new ArrayList<>();
+        for (int i = 0; i < strategies; i++) {
+            // every function builds its own instance of the condition
+            triggerStrategies.add(onTrue(and(
+                    greaterThan(50.0, add(doubleChannel("channel0"), longChannel("channel1"))),
+                    match("value[0-4].*", stringChannel("channel3"))
+            )));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void uncached(Blackhole blackhole) {
+        for (MRecord record : records) {
+            for (TriggerStrategy strategy : triggerStrategies) {
+                blackhole.consume(strategy.isToBeTriggered(record));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void cached(Blackhole blackhole) {
+        for (MRecord record : records) {
+            try (EvaluationCache ignored = cache.open(record)) {
+                for (TriggerStrategy strategy : triggerStrategies) {
+                    blackhole.consume(strategy.isToBeTriggered(record));
+                }
+            }
+        }
+    }
+}
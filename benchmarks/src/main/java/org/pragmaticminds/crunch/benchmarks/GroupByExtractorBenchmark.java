@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.windowed.extractor.DefaultGenericEventGroupAggregationFinalizer;
+import org.pragmaticminds.crunch.api.windowed.extractor.GroupByExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannel;
+
+/**
+ * Benchmarks the aggregation of a window of records in a {@link GroupByExtractor}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GroupByExtractorBenchmark {
+    private static final int RECORDS = 1_000;
+
+    @Param({"10", "100"})
+    public int channels;
+
+    private List<MRecord> records;
+    private GroupByExtractor<GenericEvent> extractor;
+
+    @Setup
+    public void setUp() {
+        records = BenchmarkRecords.records(RECORDS, 1, channels);
+        extractor = GroupByExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.max(), doubleChannel("channel0"))
+                .aggregate(Aggregations.min(), doubleChannel("channel0"))
+                .aggregate(Aggregations.avg(), doubleChannel("channel0"))
+                .aggregate(Aggregations.sum(), longChannel("channel1"))
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public List<GenericEvent> aggregate() {
+        // the aggregations are not reset by finish, this does not change the cost of an aggregation
+        for (MRecord record : records) {
+            extractor.apply(record);
+        }
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(records.get(RECORDS - 1));
+        extractor.finish(context);
+        return context.getEvents();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.DoubleAggregation;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.SlidingAggregation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rolling statistics over a window of the last values, with {@link SlidingAggregation}s that evict the
+ * oldest value against recomputing the window with {@link DoubleAggregation}s for every value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlidingAggregationBenchmark {
+    private static final int VALUES = 10_000;
+
+    @Param({"100", "10000"})
+    public int window;
+
+    private double[] values;
+    private SlidingAggregation<Double> slidingMax;
+    private SlidingAggregation<Double> slidingAvg;
+    private DoubleAggregation<Double> max;
+    private DoubleAggregation<Double> avg;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = random.nextDouble();
+        }
+        slidingMax = Aggregations.slidingMax();
+        slidingAvg = Aggregations.slidingAvg();
+        max = Aggregations.max();
+        avg = Aggregations.avg();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void sliding(Blackhole blackhole) {
+        slidingMax.reset();
+        slidingAvg.reset();
+        for (double value : values) {
+            slidingMax.aggregateDouble(value);
+            slidingAvg.aggregateDouble(value);
+            if (slidingMax.size() > window) {
+                slidingMax.evict();
+                slidingAvg.evict();
+            }
+            blackhole.consume(slidingMax.getAggregated());
+            blackhole.consume(slidingAvg.getAggregated());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void recompute(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            max.reset();
+            avg.reset();
+            for (int j = Math.max(0, i - window + 1); j <= i; j++) {
+                max.aggregateDouble(values[j]);
+                avg.aggregateDouble(values[j]);
+            }
+            blackhole.consume(max.getAggregated());
+            blackhole.consume(avg.getAggregated());
+        }
+    }
+}
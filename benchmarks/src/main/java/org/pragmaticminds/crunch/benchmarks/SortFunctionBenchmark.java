@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pragmaticminds.crunch.execution.LongHeapSortFunction;
+import org.pragmaticminds.crunch.execution.SortFunction;
+import org.pragmaticminds.crunch.execution.TimestampSortFunction;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the sort buffers behind the {@link SortFunction} interface.
+ * The timestamps are shuffled within the disorder, and the buffer is drained with a watermark that lags the
+ * disorder behind the highest timestamp, like in the sort stages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortFunctionBenchmark {
+    private static final int RECORDS = 10_000;
+
+    @Param({"timestamp", "longHeap"})
+    public String implementation;
+
+    @Param({"0", "10", "1000"})
+    public int disorder;
+
+    private long[] timestamps;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkRecords.SEED);
+        timestamps = new long[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            timestamps[i] = i + (disorder == 0 ? 0 : random.nextInt(disorder));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void processAndDrain(Blackhole blackhole) {
+        SortFunction<Long, Long> function = "longHeap".equals(implementation)
+                ? new LongHeapSortFunction<>()
+                : new TimestampSortFunction<>();
+        long maxTimestamp = Long.MIN_VALUE;
+        for (long timestamp : timestamps) {
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            long watermark = maxTimestamp - disorder;
+            function.process(timestamp, watermark, timestamp);
+            blackhole.consume(function.onTimer(watermark));
+        }
+        blackhole.consume(function.onTimer(Long.MAX_VALUE));
+    }
+}
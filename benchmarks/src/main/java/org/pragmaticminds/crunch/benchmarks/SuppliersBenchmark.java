@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.Suppliers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.and;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.not;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.or;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.booleanChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.booleanChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.stringChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.lowerThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Mathematics.add;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.StringOperators.match;
+
+/**
+ * Benchmarks the evaluation of a {@link Supplier} expression tree, that combines channel extraction, arithmetic,
+ * comparisons, a regular expression and boolean operators, as it is, compiled by the
+ * {@link org.pragmaticminds.crunch.api.trigger.comparator.SupplierCompiler} and built from primitive channels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuppliersBenchmark {
+    private static final int RECORDS = 1_000;
+
+    @Param({"10", "100"})
+    public int channels;
+
+    private List<MRecord> records;
+    private Supplier<Boolean> expression;
+    private Supplier<Boolean> compiled;
+    private Supplier<Boolean> primitive;
+
+    @Setup
+    public void setUp() {
+        records = BenchmarkRecords.records(RECORDS, 1, channels);
+        expression = or(
+                and(
+                        greaterThan(50.0, add(doubleChannel("channel0"), longChannel("channel1"))),
+                        not(booleanChannel("channel2"))
+                ),
+                and(
+                        match("value[0-4].*", stringChannel("channel3")),
+                        lowerThan(10L, longChannel("channel1"))
+                )
+        );
+        compiled = Suppliers.compile(expression);
+        primitive = or(
+                and(
+                        greaterThan(50.0, add(doubleChannelPrimitive("channel0"), longChannelPrimitive("channel1"))),
+                        not(booleanChannelPrimitive("channel2"))
+                ),
+                and(
+                        match("value[0-4].*", stringChannel("channel3")),
+                        lowerThan(10L, longChannel("channel1"))
+                )
+        );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void extract(Blackhole blackhole) {
+        for (MRecord record : records) {
+            blackhole.consume(expression.extract(record));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void extractCompiled(Blackhole blackhole) {
+        for (MRecord record : records) {
+            blackhole.consume(compiled.extract(record));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void extractPrimitive(Blackhole blackhole) {
+        for (MRecord record : records) {
+            blackhole.consume(primitive.extract(record));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.TriggerEvaluationFunction;
+import org.pragmaticminds.crunch.api.trigger.handler.GenericExtractorTriggerHandler;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.extractor.Extractors.channelMapExtractor;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategies.onBecomeTrue;
+
+/**
+ * Benchmarks {@link TriggerEvaluationFunction#eval(org.pragmaticminds.crunch.api.pipe.EvaluationContext)} with a
+ * trigger that fires whenever a channel rises above a threshold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TriggerEvaluationFunctionBenchmark {
+    private static final int RECORDS = 1_000;
+
+    @Param({"10", "100"})
+    public int channels;
+
+    private List<MRecord> records;
+    private TriggerEvaluationFunction<GenericEvent> function;
+
+    @Setup
+    public void setUp() {
+        records = BenchmarkRecords.records(RECORDS, 1, channels);
+        function = TriggerEvaluationFunction.<GenericEvent>builder()
+                .withTriggerStrategy(onBecomeTrue(greaterThan(50.0, doubleChannel("channel0"))))
+                .withTriggerHandler(new GenericExtractorTriggerHandler("rising", channelMapExtractor(doubleChannel("channel0"))))
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void eval(Blackhole blackhole) {
+        for (MRecord record : records) {
+            SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record);
+            function.eval(context);
+            blackhole.consume(context.getEvents());
+        }
+    }
+}
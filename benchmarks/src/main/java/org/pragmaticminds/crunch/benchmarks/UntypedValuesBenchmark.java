@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pragmaticminds.crunch.api.values.TypedValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link UntypedValues#merge(UntypedValues)} and {@link UntypedValues#toTypedValues()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UntypedValuesBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int channels;
+
+    private UntypedValues current;
+    private UntypedValues next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkRecords.SEED);
+        current = BenchmarkRecords.record(random, "source", 1L, channels);
+        next = BenchmarkRecords.record(random, "source", 2L, channels);
+    }
+
+    @Benchmark
+    public UntypedValues merge() {
+        return current.merge(next);
+    }
+
+    @Benchmark
+    public TypedValues toTypedValues() {
+        return current.toTypedValues();
+    }
+}
@@ -20,9 +20,13 @@
 package org.pragmaticminds.crunch.api.pipe;
 
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSlot;
+import org.pragmaticminds.crunch.api.values.SlottedRecord;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * This class filters incoming {@link MRecord}s by the channel identifiers of all elements inside the {@link SubStream}.
@@ -32,6 +36,7 @@ import java.util.Collection;
  */
 public class ChannelFilter<T extends Serializable> implements Serializable {
     private final Collection<String> channels;
+    private final List<ChannelSlot> slots;
 
     /**
      * Main constructor taking the SubStream, the source of all filtering operations.
@@ -40,6 +45,7 @@ public class ChannelFilter<T extends Serializable> implements Serializable {
      */
     public ChannelFilter(SubStream<T> subStream) {
         this.channels = subStream.getChannelIdentifiers();
+        this.slots = channels.stream().map(ChannelSlot::of).collect(Collectors.toList());
     }
 
     /**
@@ -50,6 +56,15 @@ public class ChannelFilter<T extends Serializable> implements Serializable {
      * @return true if record can pass trough else false
      */
     public boolean filter(MRecord record){
+        if (record instanceof SlottedRecord) {
+            // check the slots of the processed channels instead of hashing all channel names of the record
+            for (ChannelSlot slot : slots) {
+                if (slot.isPresentIn(record)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         Collection<String> recordChannels = record.getChannels();
         for (String recordChannel : recordChannels){
             if (channels.contains(recordChannel)) {
@@ -47,6 +47,8 @@ public final class ClonerUtil {
 
     /**
      * Clones the given serializable object using Java serialization.
+     * Objects implementing {@link Copyable} are copied directly instead. For repeated clones of the same object use a
+     * {@link Prototype}, which serializes it only once.
      *
      * @param obj Object to clone
      * @param <T> Type of the object to clone
@@ -54,9 +56,12 @@ public final class ClonerUtil {
      * @throws IOException
      * @throws ClassNotFoundException
      */
+    @SuppressWarnings("unchecked")
     public static <T extends Serializable> T clone(T obj) {
         if (obj == null) {
             return null;
+        } else if (obj instanceof Copyable) {
+            return (T) ((Copyable<?>) obj).copy();
         } else {
             try {
                 return clone(obj, obj.getClass().getClassLoader());
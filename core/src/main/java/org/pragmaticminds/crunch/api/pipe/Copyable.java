@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import java.io.Serializable;
+
+/**
+ * Opt-in contract for classes that can create fresh instances of themselves faster than a Java serialization round
+ * trip. If a class implements this interface {@link ClonerUtil#clone(Serializable)} and {@link Prototype#newInstance()}
+ * use {@link #copy()} instead of serializing the object.
+ * <p>
+ * The copy has to behave exactly like a serialized and deserialized instance: it must not share any mutable state
+ * with the original object.
+ *
+ * @param <T> type of the copy, usually the implementing class itself
+ */
+public interface Copyable<T extends Serializable> extends Serializable {
+
+    /**
+     * Creates an independent copy of this object.
+     *
+     * @return a new instance that shares no mutable state with this object
+     */
+    T copy();
+}
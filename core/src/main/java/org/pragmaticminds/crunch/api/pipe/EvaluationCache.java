@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.util.HashMap;
+
+/**
+ * Caches the values of {@link org.pragmaticminds.crunch.api.trigger.comparator.Supplier}s for a single record, so
+ * suppliers that are used by many {@link EvaluationFunction}s are only evaluated once per record.
+ *
+ * The runtimes open the cache of the {@link EvaluationContext} for the current record, before the
+ * {@link EvaluationFunction}s are evaluated, and close it afterwards. While it is open, it is the active cache of
+ * the current thread and suppliers look up their values with {@link #active(MRecord)}. A lookup with any other
+ * record than the one the cache was opened for finds no cache, so functions that evaluate buffered records are not
+ * affected.
+ */
+public final class EvaluationCache implements AutoCloseable {
+    /** Returned by {@link #get(Object)} if no value is cached for a key */
+    public static final Object ABSENT = new Object();
+
+    private static final Object NULL_VALUE = new Object();
+    private static final ThreadLocal<EvaluationCache> ACTIVE = new ThreadLocal<>();
+
+    private HashMap<Object, Object> values;
+    private MRecord record;
+    private EvaluationCache previous;
+    private boolean opened;
+
+    /**
+     * Finds the active cache of the current thread for the record.
+     *
+     * @param record the values are extracted from
+     * @return the active cache or null if no cache is open for the record
+     */
+    public static EvaluationCache active(MRecord record) {
+        EvaluationCache cache = ACTIVE.get();
+        if (cache == null || cache.record != record) {
+            return null;
+        }
+        return cache;
+    }
+
+    /**
+     * Clears the cache and makes it the active cache of the current thread for the given record.
+     * An open cache can be opened again for the next record.
+     *
+     * @param record that is evaluated next
+     * @return this cache, to be closed after the evaluation
+     */
+    public EvaluationCache open(MRecord record) {
+        if (values != null) {
+            values.clear();
+        }
+        if (!opened) {
+            previous = ACTIVE.get();
+            ACTIVE.set(this);
+            opened = true;
+        }
+        this.record = record;
+        return this;
+    }
+
+    /**
+     * Clears the cache and restores the cache that was active before it was opened.
+     */
+    @Override
+    public void close() {
+        if (values != null) {
+            values.clear();
+        }
+        record = null;
+        if (!opened) {
+            return;
+        }
+        opened = false;
+        if (previous == null) {
+            ACTIVE.remove();
+        } else {
+            ACTIVE.set(previous);
+        }
+        previous = null;
+    }
+
+    /**
+     * @param key identifies the value
+     * @return the cached value, which can be null, or {@link #ABSENT}
+     */
+    public Object get(Object key) {
+        if (values == null) {
+            return ABSENT;
+        }
+        Object value = values.get(key);
+        if (value == null) {
+            return ABSENT;
+        }
+        return value == NULL_VALUE ? null : value;
+    }
+
+    /**
+     * @param key identifies the value
+     * @param value to be cached, can be null
+     */
+    public void put(Object key, Object value) {
+        if (values == null) {
+            values = new HashMap<>();
+        }
+        values.put(key, value == null ? NULL_VALUE : value);
+    }
+}
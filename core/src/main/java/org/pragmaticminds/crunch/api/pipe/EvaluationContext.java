@@ -32,6 +32,8 @@ import java.io.Serializable;
  */
 @SuppressWarnings("squid:S1610") // not converting into an interface
 public abstract class EvaluationContext<T extends Serializable> implements Serializable {
+    private transient EvaluationCache evaluationCache;
+
     /**
      * delivers the next {@link MRecord} data to be processed
      * @return the next record to be processed
@@ -43,4 +45,35 @@ public abstract class EvaluationContext<T extends Serializable> implements Seria
      * @param event result of the processing of an {@link EvaluationFunction}
      */
     public abstract void collect(T event);
+
+    /**
+     * Takes a record, that arrived too late to be evaluated by an {@link EvaluationFunction}, e.g. because its time
+     * window is already finished. The runtime passes it to the {@link LateRecords} of the {@link SubStream}, by
+     * default it is ignored.
+     *
+     * @param record that is not evaluated
+     */
+    public void late(MRecord record) { /* ignored by default */ }
+
+    /**
+     * Reports keys, whose state an {@link EvaluationFunction} evicted to bound its memory, so their results are
+     * partial. The runtime counts them in its metrics, by default they are ignored.
+     *
+     * @param count number of evicted keys
+     */
+    public void evictedKeys(long count) { /* ignored by default */ }
+
+    /**
+     * The cache for the values of the suppliers, that are evaluated for the current record.
+     * It is opened by the runtime for the record of this context, before the {@link EvaluationFunction}s are
+     * evaluated.
+     *
+     * @return the {@link EvaluationCache} of this context
+     */
+    public EvaluationCache getEvaluationCache() {
+        if (evaluationCache == null) {
+            evaluationCache = new EvaluationCache();
+        }
+        return evaluationCache;
+    }
 }
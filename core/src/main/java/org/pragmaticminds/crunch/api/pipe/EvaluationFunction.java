@@ -48,6 +48,17 @@ public interface EvaluationFunction<T extends Serializable> extends Serializable
      */
     void eval(EvaluationContext<T> ctx);
 
+    /**
+     * Is called when the event time advanced without a new record, so functions that are driven by time can emit
+     * their results without waiting for the next record. Records are passed in the order of their timestamps, so
+     * the timestamp of each record is the watermark for its {@link #eval(EvaluationContext)} call.
+     * When a finite source ends the watermark {@link Long#MAX_VALUE} is passed.
+     *
+     * @param watermark all records up to this timestamp have been evaluated
+     * @param ctx       contains the last evaluated record and a collector for the outgoing data
+     */
+    default void onWatermark(long watermark, EvaluationContext<T> ctx) { /* Does nothing by default. */ }
+
     /** Is called after last value is evaluated (if ever). */
     default void close() { /* Does nothing by default. */ }
 
@@ -58,4 +69,15 @@ public interface EvaluationFunction<T extends Serializable> extends Serializable
      * @return a {@link Set} all channel identifiers that are needed by the Evaluation Function.
      */
     Set<String> getChannelIdentifiers();
+
+    /**
+     * A {@link SubStream} with incremental evaluation only evaluates a function if one of its channels has been
+     * written by the merged records. Functions that depend on every record, like counting or timeouts, return true
+     * to be evaluated anyways.
+     *
+     * @return true if this function has to be evaluated for every record, false by default.
+     */
+    default boolean requiresEveryRecord() {
+        return false;
+    }
 }
@@ -26,6 +26,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -37,18 +38,36 @@ import java.util.stream.Collectors;
  * Created by Erwin Wagasow on 01.08.2018
  */
 public class EvaluationPipeline<T extends Serializable> implements Serializable {
+    public static final int DEFAULT_MAX_SOURCES = 10_000;
+    public static final long DEFAULT_SOURCE_IDLE_TIMEOUT_MS = TimeUnit.HOURS.toMillis(1);
+
     private final String identifier;
     private final List<SubStream<T>> subStreams;
+    private final int parallelism;
+    private final int maxSources;
+    private final long sourceIdleTimeoutMs;
 
     /**
      * private constructor for the builder
      * @param identifier of the {@link EvaluationPipeline}
      * @param subStreams of the {@link EvaluationPipeline}, containing all {@link EvaluationFunction}s of the
      *                   pipeline to process
+     * @param parallelism number of lanes each {@link SubStream} is partitioned into by the record source
+     * @param maxSources maximum number of sources whose merged values are kept per lane
+     * @param sourceIdleTimeoutMs time in ms after which the merged values of a source without new records are evicted
      */
-    private EvaluationPipeline(String identifier, List<SubStream<T>> subStreams) {
+    private EvaluationPipeline(
+            String identifier,
+            List<SubStream<T>> subStreams,
+            int parallelism,
+            int maxSources,
+            long sourceIdleTimeoutMs
+    ) {
         this.identifier = identifier;
         this.subStreams = subStreams;
+        this.parallelism = parallelism;
+        this.maxSources = maxSources;
+        this.sourceIdleTimeoutMs = sourceIdleTimeoutMs;
     }
 
     // getter
@@ -60,6 +79,36 @@ public class EvaluationPipeline<T extends Serializable> implements Serializable
         return subStreams;
     }
 
+    /**
+     * The number of parallel lanes every {@link SubStream} is split into.
+     * Records are assigned to a lane by the hash of their source, so all records of one source are processed
+     * in order by the same lane.
+     *
+     * @return the parallelism of this pipeline, 1 means serial execution
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The maximum number of sources whose merged values are kept in each lane.
+     * If more sources are present, the merged values of the least recently active source are dropped.
+     *
+     * @return the maximum number of sources
+     */
+    public int getMaxSources() {
+        return maxSources;
+    }
+
+    /**
+     * The time after which the merged values of a source, that did not send any records, are dropped.
+     *
+     * @return the idle timeout in ms
+     */
+    public long getSourceIdleTimeoutMs() {
+        return sourceIdleTimeoutMs;
+    }
+
     /**
      * Creates a builder for this class
      * @return a builder
@@ -72,6 +121,9 @@ public class EvaluationPipeline<T extends Serializable> implements Serializable
     public static final class Builder<T extends Serializable> implements Serializable {
         private String identifier;
         private List<SubStream<T>> subStreams;
+        private int parallelism = 1;
+        private int maxSources = DEFAULT_MAX_SOURCES;
+        private long sourceIdleTimeoutMs = DEFAULT_SOURCE_IDLE_TIMEOUT_MS;
 
         private Builder() {}
 
@@ -102,13 +154,56 @@ public class EvaluationPipeline<T extends Serializable> implements Serializable
             return this;
         }
 
+        /**
+         * Sets the number of lanes each {@link SubStream} is partitioned into.
+         * Every lane gets its own copies of the {@link EvaluationFunction}s, so these have to be cloneable.
+         * As the lanes run concurrently the {@link org.pragmaticminds.crunch.execution.EventSink} has to be
+         * thread safe if the parallelism is greater than 1.
+         *
+         * @param parallelism number of lanes, has to be at least 1
+         * @return this builder
+         */
+        public Builder<T> withParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of sources whose merged values are kept in each lane.
+         *
+         * @param maxSources maximum number of sources, has to be at least 1
+         * @return this builder
+         */
+        public Builder<T> withMaxSources(int maxSources) {
+            this.maxSources = maxSources;
+            return this;
+        }
+
+        /**
+         * Sets the time after which the merged values of a source without new records are dropped.
+         *
+         * @param sourceIdleTimeoutMs idle timeout in ms, has to be positive
+         * @return this builder
+         */
+        public Builder<T> withSourceIdleTimeoutMs(long sourceIdleTimeoutMs) {
+            this.sourceIdleTimeoutMs = sourceIdleTimeoutMs;
+            return this;
+        }
+
         public Builder<T> but() {
-            return new Builder<T>().withIdentifier(identifier).withSubStreams(subStreams);
+            return new Builder<T>().withIdentifier(identifier)
+                    .withSubStreams(subStreams)
+                    .withParallelism(parallelism)
+                    .withMaxSources(maxSources)
+                    .withSourceIdleTimeoutMs(sourceIdleTimeoutMs);
         }
 
         public EvaluationPipeline<T> build() {
             checkConstructorParameters(identifier, subStreams);
-            return new EvaluationPipeline<>(identifier, subStreams);
+            Preconditions.checkArgument(parallelism >= 1, "the parallelism of the EvaluationPipeline has to be at least 1");
+            Preconditions.checkArgument(maxSources >= 1, "the maxSources of the EvaluationPipeline has to be at least 1");
+            Preconditions.checkArgument(sourceIdleTimeoutMs > 0, "the sourceIdleTimeoutMs of the EvaluationPipeline has to be positive");
+            return new EvaluationPipeline<>(identifier, subStreams, parallelism, maxSources, sourceIdleTimeoutMs);
         }
 
         /**
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.io.Serializable;
+
+/**
+ * Side channel of a {@link SubStream} that receives all records, that arrived too late to be sorted in, which means
+ * their timestamp is older than the current watermark minus the allowed lateness.
+ * Instead of discarding them, they can be collected here and re-processed in bulk.
+ */
+@FunctionalInterface
+public interface LateRecordSink extends Serializable {
+
+    /**
+     * Is called by the sort stage whenever a record arrived too late.
+     *
+     * @param record that is older than the current watermark minus the allowed lateness
+     */
+    void handle(MRecord record);
+}
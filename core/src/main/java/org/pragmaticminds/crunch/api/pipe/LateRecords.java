@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the late records of a {@link SubStream} per source and forwards them to the {@link LateRecordSink} of the
+ * {@link SubStream}, if one is set.
+ * The counters are thread safe, as the sort stages of parallel lanes share one instance.
+ */
+public class LateRecords implements Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(LateRecords.class);
+
+    private final LateRecordSink sink;
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Main constructor
+     *
+     * @param sink receives all late records, can be null if they are only to be counted
+     */
+    public LateRecords(LateRecordSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Counts the late record for its source and passes it to the {@link LateRecordSink}.
+     *
+     * @param record that arrived too late
+     */
+    public void handle(MRecord record) {
+        String source = record.getSource() == null ? "" : record.getSource();
+        counters.computeIfAbsent(source, key -> new LongAdder()).increment();
+        if (sink != null) {
+            sink.handle(record);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Late record is discarded {} for {}", record.getTimestamp(), record);
+        }
+    }
+
+    /**
+     * @param source of the records
+     * @return the number of late records of the given source
+     */
+    public long getCount(String source) {
+        LongAdder counter = counters.get(source == null ? "" : source);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    /**
+     * @return the number of late records of all sources
+     */
+    public long getTotal() {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * @return a snapshot of the numbers of late records per source
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        counters.forEach((source, counter) -> counts.put(source, counter.sum()));
+        return counts;
+    }
+}
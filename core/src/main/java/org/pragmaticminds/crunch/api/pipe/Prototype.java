@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.exceptions.CloneFailedException;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Holds a prototype object from which fresh instances are created repeatedly, e.g. after each closed window or for
+ * each new group.
+ * <p>
+ * Instead of serializing the prototype on every call like {@link ClonerUtil#clone(Serializable)}, the serialized
+ * form is created once and only deserialized afterwards. Prototypes implementing {@link Copyable} are copied
+ * directly.
+ * <p>
+ * Both ways create the instances from the state of the prototype when this {@link Prototype} is created: a
+ * {@link Copyable} is copied and all other prototypes are serialized in the constructor, so later modifications of
+ * the passed object do not affect the instances.
+ *
+ * @param <T> type of the prototype
+ */
+public final class Prototype<T extends Serializable> implements Serializable {
+    private final T prototype;
+    private transient byte[] serialized;
+
+    /**
+     * @param prototype blueprint for all created instances, not null, its current state is captured
+     * @throws CloneFailedException if the prototype cannot be serialized
+     */
+    @SuppressWarnings("unchecked")
+    public Prototype(T prototype) {
+        Preconditions.checkNotNull(prototype, "the prototype must not be null");
+        if (prototype instanceof Copyable) {
+            this.prototype = (T) ((Copyable<?>) prototype).copy();
+        } else {
+            this.serialized = serialize(prototype);
+            this.prototype = ClonerUtil.deserializeObject(serialized, prototype.getClass().getClassLoader());
+        }
+    }
+
+    /**
+     * @return the captured prototype, which must not be modified
+     */
+    public T get() {
+        return prototype;
+    }
+
+    /**
+     * Creates a new instance that is equal to the prototype and shares no state with it.
+     *
+     * @return a fresh instance
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        if (prototype instanceof Copyable) {
+            return (T) ((Copyable<?>) prototype).copy();
+        }
+        if (serialized == null) {
+            // the transient form is lost when this Prototype is serialized, the held copy has the captured state
+            serialized = serialize(prototype);
+        }
+        return ClonerUtil.deserializeObject(serialized, prototype.getClass().getClassLoader());
+    }
+
+    private static byte[] serialize(Serializable prototype) {
+        try {
+            return ClonerUtil.serializeObject(prototype);
+        } catch (IOException ex) {
+            throw new CloneFailedException(ex);
+        }
+    }
+}
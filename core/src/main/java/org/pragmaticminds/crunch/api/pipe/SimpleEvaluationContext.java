@@ -35,6 +35,7 @@ public class SimpleEvaluationContext<T extends Serializable> extends EvaluationC
 
     private final MRecord values;
     private ArrayList<T> events;
+    private long evictedKeys;
 
     /**
      * Simple constructor, getting the values to be processed by a {@link EvaluationFunction}
@@ -62,4 +63,15 @@ public class SimpleEvaluationContext<T extends Serializable> extends EvaluationC
             events.add(event);
         }
     }
+
+    /** @inheritDoc */
+    @Override
+    public void evictedKeys(long count) {
+        evictedKeys += count;
+    }
+
+    /** @return the number of evicted keys, that are reported to this context */
+    public long getEvictedKeys() {
+        return evictedKeys;
+    }
 }
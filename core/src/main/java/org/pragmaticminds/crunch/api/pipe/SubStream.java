@@ -49,12 +49,18 @@ import java.util.stream.Collectors;
  * Created by Erwin Wagasow on 01.08.2018
  */
 public class SubStream<T extends Serializable> implements Serializable {
+    public static final long DEFAULT_WATERMARK_INTERVAL_MS = 1000L;
 
     private final String identifier;
     private final SubStreamPredicate predicate;
     private final List<EvaluationFunction<T>> evaluationFunctions;
     private final List<RecordHandler> recordHandlers;
     private final long sortWindowMs;
+    private final boolean adaptiveSortWindow;
+    private final long allowedLatenessMs;
+    private final LateRecords lateRecords;
+    private final boolean incrementalEvaluation;
+    private final long watermarkIntervalMs;
 
     /**
      * private constructor for the builder
@@ -64,6 +70,15 @@ public class SubStream<T extends Serializable> implements Serializable {
      *                            that {@link SubStream}
      * @param sortWindowMs describes a time window in which incoming {@link UntypedValues} can be sorted before they
      *                   are processed
+     * @param adaptiveSortWindow if true the sort window is adapted to the observed disorder of the records, the
+     *                           sortWindowMs is the upper limit then
+     * @param allowedLatenessMs describes how much older than the watermark a record may be, before it is passed to
+     *                          the {@link LateRecordSink}
+     * @param lateRecordSink receives all records that arrived too late, can be null
+     * @param incrementalEvaluation if true an {@link EvaluationFunction} is only evaluated if one of its channels
+     *                              has been written since the last merged record
+     * @param watermarkIntervalMs time without records after which the {@link EvaluationFunction}s are notified about
+     *                            the advanced watermark, 0 to disable
      */
     @SuppressWarnings("unchecked") // is manually checked
     private SubStream(
@@ -71,7 +86,12 @@ public class SubStream<T extends Serializable> implements Serializable {
             SubStreamPredicate predicate,
             List<EvaluationFunction<T>> evaluationFunctions,
             List<RecordHandler> recordHandlers,
-            long sortWindowMs
+            long sortWindowMs,
+            boolean adaptiveSortWindow,
+            long allowedLatenessMs,
+            LateRecordSink lateRecordSink,
+            boolean incrementalEvaluation,
+            long watermarkIntervalMs
     ) {
         this.identifier = identifier;
         this.predicate = predicate;
@@ -88,6 +108,11 @@ public class SubStream<T extends Serializable> implements Serializable {
             }
         }
         this.sortWindowMs = sortWindowMs;
+        this.adaptiveSortWindow = adaptiveSortWindow;
+        this.allowedLatenessMs = allowedLatenessMs;
+        this.lateRecords = new LateRecords(lateRecordSink);
+        this.incrementalEvaluation = incrementalEvaluation;
+        this.watermarkIntervalMs = watermarkIntervalMs;
     }
 
     // getter
@@ -121,6 +146,43 @@ public class SubStream<T extends Serializable> implements Serializable {
         return sortWindowMs;
     }
 
+    public boolean isAdaptiveSortWindow() {
+        return adaptiveSortWindow;
+    }
+
+    public long getAllowedLatenessMs() {
+        return allowedLatenessMs;
+    }
+
+    /**
+     * All sort stages of this {@link SubStream} report their late records to this instance.
+     * @return the counters of the late records per source
+     */
+    public LateRecords getLateRecords() {
+        return lateRecords;
+    }
+
+    /**
+     * If true an {@link EvaluationFunction} is only evaluated for a merged record, if one of its channels has been
+     * written by the records merged into it, or if it {@link EvaluationFunction#requiresEveryRecord()}.
+     * @return true if the functions are evaluated incrementally, false if every function gets every record
+     */
+    public boolean isIncrementalEvaluation() {
+        return incrementalEvaluation;
+    }
+
+    /**
+     * If no record arrived for this time, the {@link EvaluationFunction}s are notified by
+     * {@link EvaluationFunction#onWatermark(long, EvaluationContext)}, so time based functions can emit their results
+     * on time. Only used by the streaming execution, as the event time does not advance without records otherwise.
+     * The watermark follows the wall clock only after the sort window and the allowed lateness passed, as records up to
+     * that age can still arrive.
+     * @return the interval in ms, 0 if disabled
+     */
+    public long getWatermarkIntervalMs() {
+        return watermarkIntervalMs;
+    }
+
     /**
      * Collect all channel identifiers that are used in the {@link EvaluationFunction}s.
      *
@@ -158,6 +220,11 @@ public class SubStream<T extends Serializable> implements Serializable {
         private List<EvaluationFunction<R>> evaluationFunctions;
         private long sortWindow;
         private List<RecordHandler> recordHandlers;
+        private boolean adaptiveSortWindow;
+        private long allowedLateness;
+        private LateRecordSink lateRecordSink;
+        private boolean incrementalEvaluation;
+        private long watermarkInterval = DEFAULT_WATERMARK_INTERVAL_MS;
 
         private Builder() {}
 
@@ -210,18 +277,63 @@ public class SubStream<T extends Serializable> implements Serializable {
             return this;
         }
 
+        public Builder<R> withAdaptiveSortWindow(boolean adaptiveSortWindow) {
+            this.adaptiveSortWindow = adaptiveSortWindow;
+            return this;
+        }
+
+        public Builder<R> withAllowedLateness(long allowedLateness) {
+            this.allowedLateness = allowedLateness;
+            return this;
+        }
+
+        public Builder<R> withLateRecordSink(LateRecordSink lateRecordSink) {
+            this.lateRecordSink = lateRecordSink;
+            return this;
+        }
+
+        /**
+         * Evaluates each {@link EvaluationFunction} only for the merged records, in which one of its channels has
+         * been written. Functions that need every record override {@link EvaluationFunction#requiresEveryRecord()}.
+         *
+         * @param incrementalEvaluation true to skip functions whose channels did not change, false by default
+         * @return this builder
+         */
+        public Builder<R> withIncrementalEvaluation(boolean incrementalEvaluation) {
+            this.incrementalEvaluation = incrementalEvaluation;
+            return this;
+        }
+
+        /**
+         * Sets the time without records, after which the {@link EvaluationFunction}s are notified about the
+         * advanced watermark.
+         *
+         * @param watermarkInterval in ms, 0 to disable, {@link #DEFAULT_WATERMARK_INTERVAL_MS} by default
+         * @return this builder
+         */
+        public Builder<R> withWatermarkInterval(long watermarkInterval) {
+            this.watermarkInterval = watermarkInterval;
+            return this;
+        }
+
         @SuppressWarnings("unchecked") // is manually checked
         public Builder<R> but() {
             return new Builder<R>().withIdentifier(identifier)
                     .withPredicate(predicate)
                     .withEvaluationFunctions(evaluationFunctions)
-                    .withSortWindow(sortWindow);
+                    .withSortWindow(sortWindow)
+                    .withAdaptiveSortWindow(adaptiveSortWindow)
+                    .withAllowedLateness(allowedLateness)
+                    .withLateRecordSink(lateRecordSink)
+                    .withIncrementalEvaluation(incrementalEvaluation)
+                    .withWatermarkInterval(watermarkInterval);
         }
 
         @SuppressWarnings("unchecked") // is manually checked
         public SubStream<R> build() {
             checkParameters();
-            return new SubStream(identifier, predicate, evaluationFunctions, recordHandlers, sortWindow);
+            return new SubStream(identifier, predicate, evaluationFunctions, recordHandlers, sortWindow,
+                    adaptiveSortWindow, allowedLateness, lateRecordSink, incrementalEvaluation, watermarkInterval);
         }
 
         /**
@@ -230,6 +342,8 @@ public class SubStream<T extends Serializable> implements Serializable {
         private void checkParameters() {
             Preconditions.checkNotNull(identifier, "identifier is not set for SubStream");
             Preconditions.checkNotNull(predicate, "predicate is not set for SubStream");
+            Preconditions.checkArgument(allowedLateness >= 0, "allowedLateness must not be negative in SubStream");
+            Preconditions.checkArgument(watermarkInterval >= 0, "watermarkInterval must not be negative in SubStream");
             Preconditions.checkArgument(
                     (evaluationFunctions == null || !evaluationFunctions.isEmpty())
                             && (recordHandlers == null || !recordHandlers.isEmpty()),
@@ -19,8 +19,8 @@
 
 package org.pragmaticminds.crunch.api.state;
 
-import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
 import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.pipe.Prototype;
 
 import java.io.Serializable;
 import java.util.Collection;
@@ -34,14 +34,14 @@ import java.util.List;
  * Created by Erwin Wagasow on 07.08.2018
  */
 public class CloneStateEvaluationFunctionFactory<T extends Serializable> implements EvaluationFunctionStateFactory<T> {
-    private final EvaluationFunction<T> prototype;
+    private final Prototype<EvaluationFunction<T>> prototype;
 
     /**
      * private constructor for the builder
      * @param prototype of the EvaluationFunction to be cloned and used
      */
     private CloneStateEvaluationFunctionFactory(EvaluationFunction<T> prototype) {
-        this.prototype = prototype;
+        this.prototype = new Prototype<>(prototype);
     }
 
     /**
@@ -51,7 +51,7 @@ public class CloneStateEvaluationFunctionFactory<T extends Serializable> impleme
      */
     @Override
     public EvaluationFunction<T> create() {
-        return ClonerUtil.clone(prototype);
+        return prototype.newInstance();
     }
 
     /**
@@ -61,7 +61,7 @@ public class CloneStateEvaluationFunctionFactory<T extends Serializable> impleme
      */
     @Override
     public Collection<String> getChannelIdentifiers() {
-        return prototype.getChannelIdentifiers();
+        return prototype.get().getChannelIdentifiers();
     }
 
     /**
@@ -205,6 +205,16 @@ public class MultiStepEvaluationFunction<T extends Serializable> implements Eval
       return result;
     }
 
+    /**
+     * The timeouts are checked with the timestamps of all records, even if no channel of a step changed.
+     *
+     * @return always true
+     */
+    @Override
+    public boolean requiresEveryRecord() {
+      return true;
+    }
+
     /**
      * checks if a timeout occured and throws the corresponding Exception
      */
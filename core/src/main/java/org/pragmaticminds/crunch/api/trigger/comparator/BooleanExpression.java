@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * A {@link BooleanSupplier} on primitive operands, created by {@link Suppliers}.
+ * Like an {@link ExpressionSupplier} it looks up its value in the active {@link EvaluationCache}, unless it only
+ * reads a channel.
+ */
+public final class BooleanExpression extends PrimitiveExpression<Boolean> implements BooleanSupplier {
+    private final boolean cached;
+    private final Operation operation;
+    private final Threshold threshold;
+
+    BooleanExpression(
+            String identifier,
+            CacheKey cacheKey,
+            Set<String> channelIdentifiers,
+            boolean cached,
+            Operation operation
+    ) {
+        this(identifier, cacheKey, channelIdentifiers, cached, operation, null);
+    }
+
+    BooleanExpression(
+            String identifier,
+            CacheKey cacheKey,
+            Set<String> channelIdentifiers,
+            boolean cached,
+            Operation operation,
+            Threshold threshold
+    ) {
+        super(identifier, cacheKey, channelIdentifiers);
+        this.cached = cached;
+        this.operation = operation;
+        this.threshold = threshold;
+    }
+
+    /**
+     * If this expression compares a channel with a constant value, the comparison is described by a
+     * {@link Threshold}, so it can be indexed by a rule engine.
+     *
+     * @return the {@link Threshold} of this comparison or null if it is no such comparison
+     */
+    public Threshold getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Computes the value, or takes it from the active {@link EvaluationCache}.
+     *
+     * @param values incoming values
+     * @return the value or null if it is not available
+     */
+    @Override
+    public Boolean extract(MRecord values) {
+        EvaluationCache cache = cached && getCacheKey() != null ? EvaluationCache.active(values) : null;
+        if (cache == null) {
+            return operation.apply(values);
+        }
+        Object value = cache.get(getCacheKey());
+        if (value != EvaluationCache.ABSENT) {
+            return (Boolean) value;
+        }
+        Boolean result = operation.apply(values);
+        cache.put(getCacheKey(), result);
+        return result;
+    }
+
+    /** Computes the value of the expression, null if it is not available */
+    @FunctionalInterface
+    interface Operation extends Serializable {
+        Boolean apply(MRecord values);
+    }
+}
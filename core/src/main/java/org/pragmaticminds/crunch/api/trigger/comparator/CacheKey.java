@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Structural key of an expression in the {@link org.pragmaticminds.crunch.api.pipe.EvaluationCache}.
+ * Two keys are equal if their operators are equal, their constants are equal and of the same class, and the keys of
+ * their operands are equal. The constants are compared by their own equals, not by their string representation,
+ * as e.g. two {@link java.util.Date}s can print the same but differ in their milliseconds.
+ */
+public final class CacheKey implements Serializable {
+    private final String operator;
+    private final Object constant;
+    private final CacheKey first;
+    private final CacheKey second;
+    private final int hash;
+
+    /**
+     * @param operator identifies the operation
+     * @param constant operand of the operation or null
+     * @param first    key of the first operand or null
+     * @param second   key of the second operand or null
+     */
+    CacheKey(String operator, Object constant, CacheKey first, CacheKey second) {
+        this.operator = operator;
+        this.constant = constant;
+        this.first = first;
+        this.second = second;
+        this.hash = Objects.hash(operator, constant, first, second);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CacheKey that = (CacheKey) o;
+        return hash == that.hash
+                && operator.equals(that.operator)
+                && Objects.equals(constant, that.constant)
+                && (constant == null || constant.getClass() == that.constant.getClass())
+                && Objects.equals(first, that.first)
+                && Objects.equals(second, that.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(operator).append('(');
+        if (constant != null) {
+            builder.append(constant.getClass().getName()).append(':').append(constant);
+        }
+        if (first != null) {
+            builder.append(',').append(first);
+        }
+        if (second != null) {
+            builder.append(',').append(second);
+        }
+        return builder.append(')').toString();
+    }
+}
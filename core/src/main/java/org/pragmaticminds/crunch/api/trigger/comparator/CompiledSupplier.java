@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A {@link Supplier} expression tree, that is compiled by the {@link SupplierCompiler} into a flat program.
+ * Every step of the program computes one distinct sub-expression from the results of former steps, so each
+ * sub-expression is evaluated once per record, regardless how often it occurs in the tree.
+ *
+ * The result is looked up in the active {@link EvaluationCache} with the key of the source expression, so
+ * identical expressions of different functions are evaluated once per record.
+ *
+ * The intermediate results are kept in a reused array, so an instance must not be used by multiple threads at
+ * the same time. Cloned instances, as they are used by the parallel lanes of a pipeline, are independent.
+ */
+public final class CompiledSupplier<T> implements Supplier<T> {
+    private final Supplier<T> source;
+    private final ExpressionSupplier.Operation<?>[] operations;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final CacheKey cacheKey;
+    private transient Object[] results;
+
+    /**
+     * Only created by the {@link SupplierCompiler}.
+     *
+     * @param source the original expression tree
+     * @param operations of the steps, the last step delivers the result
+     * @param firsts index of the step with the first operand for each step, or -1
+     * @param seconds index of the step with the second operand for each step, or -1
+     */
+    CompiledSupplier(Supplier<T> source, ExpressionSupplier.Operation<?>[] operations, int[] firsts, int[] seconds) {
+        this.source = source;
+        this.operations = operations;
+        this.firsts = firsts;
+        this.seconds = seconds;
+        this.cacheKey = ExpressionSupplier.keyOf(source);
+    }
+
+    /**
+     * Runs all steps of the program on the record, if the result is not found in the active
+     * {@link EvaluationCache}.
+     *
+     * @param values incoming values
+     * @return the result of the last step
+     */
+    @Override
+    @SuppressWarnings("unchecked") // only values of the source expression are cached with its key
+    public T extract(MRecord values) {
+        EvaluationCache cache = cacheKey == null ? null : EvaluationCache.active(values);
+        if (cache == null) {
+            return run(values);
+        }
+        Object cached = cache.get(cacheKey);
+        if (cached != EvaluationCache.ABSENT) {
+            return (T) cached;
+        }
+        T result = run(values);
+        cache.put(cacheKey, result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked") // the last step is the root of the source expression
+    private T run(MRecord values) {
+        if (results == null) {
+            results = new Object[operations.length];
+        }
+        for (int i = 0; i < operations.length; i++) {
+            int first = firsts[i];
+            int second = seconds[i];
+            results[i] = operations[i].apply(
+                    values,
+                    first < 0 ? null : results[first],
+                    second < 0 ? null : results[second]
+            );
+        }
+        T result = (T) results[operations.length - 1];
+        Arrays.fill(results, null);
+        return result;
+    }
+
+    /** @return the original expression tree */
+    public Supplier<T> getSource() {
+        return source;
+    }
+
+    /** @return the number of distinct sub-expressions, that are evaluated per record */
+    public int getSteps() {
+        return operations.length;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public String getIdentifier() {
+        return source.getIdentifier();
+    }
+
+    /** @inheritDoc */
+    @Override
+    public Set<String> getChannelIdentifiers() {
+        return source.getChannelIdentifiers();
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A {@link DoubleSupplier} that computes its value without boxing, created by {@link Suppliers}.
+ */
+public final class DoubleExpression extends PrimitiveExpression<Double> implements DoubleSupplier {
+    private final Operation operation;
+
+    DoubleExpression(String identifier, CacheKey cacheKey, Set<String> channelIdentifiers, Operation operation) {
+        super(identifier, cacheKey, channelIdentifiers);
+        this.operation = operation;
+    }
+
+    private DoubleExpression(String channel, CacheKey cacheKey, Operation operation) {
+        super(channel, cacheKey, Collections.singleton(channel), channel);
+        this.operation = operation;
+    }
+
+    /**
+     * Creates an expression that only reads a channel.
+     *
+     * @param channel   name of the channel
+     * @param cacheKey  of the expression
+     * @param operation reads the channel
+     * @return the channel expression
+     */
+    static DoubleExpression channel(String channel, CacheKey cacheKey, Operation operation) {
+        return new DoubleExpression(channel, cacheKey, operation);
+    }
+
+    /** @inheritDoc */
+    @Override
+    public double extractAsDouble(MRecord values) {
+        return operation.apply(values);
+    }
+
+    /** Computes the value of the expression, {@link Double#NaN} if it is not available */
+    @FunctionalInterface
+    interface Operation extends Serializable {
+        double apply(MRecord values);
+    }
+}
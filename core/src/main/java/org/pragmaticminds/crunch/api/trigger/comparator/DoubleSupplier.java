@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+/**
+ * A {@link Supplier} of primitive double values, {@link Double#NaN} signals that no value is available.
+ */
+public interface DoubleSupplier extends NumberSupplier<Double> {
+
+    /**
+     * Boxes the primitive value for code that works on {@link Supplier}s.
+     *
+     * @param values incoming values
+     * @return the value or null if it is not available
+     */
+    @Override
+    default Double extract(MRecord values) {
+        double value = extractAsDouble(values);
+        return Double.isNaN(value) ? null : value;
+    }
+}
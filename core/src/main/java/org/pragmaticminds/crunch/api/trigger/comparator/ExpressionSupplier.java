@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A node of a {@link Supplier} expression tree, as created by the factories in {@link Suppliers}.
+ * In contrast to a {@link NamedSupplier} it exposes its structure: the operator, a constant operand and up to two
+ * operand {@link Supplier}s. Every operand is extracted exactly once per call of {@link #extract(MRecord)} and
+ * passed to the {@link ExpressionSupplier.Operation}, which is also responsible for the handling of null values.
+ *
+ * The structure is used by the {@link SupplierCompiler} to find identical sub-expressions, so they are only
+ * evaluated once per record. Expressions with operands look up their values in the active {@link EvaluationCache},
+ * so identical expressions of different functions are also evaluated once per record. The {@link CacheKey} is
+ * derived from the structure and compares the constants by their own equals and class, as e.g. a
+ * <code>longChannel("x")</code> and a <code>doubleChannel("x")</code> have the same identifier.
+ * Other {@link Supplier} implementations are opaque, two of them may share an identifier but deliver different
+ * values. Thus expressions with such an operand have no key and are never cached.
+ */
+public final class ExpressionSupplier<R extends Serializable> implements Supplier<R> {
+    private final String identifier;
+    private final String operator;
+    private final Object constant;
+    private final Supplier<?> first;
+    private final Supplier<?> second;
+    private final Operation<R> operation;
+    private final HashSet<String> channelIdentifiers;
+    private final CacheKey cacheKey;
+
+    private ExpressionSupplier(
+            String identifier,
+            String operator,
+            Object constant,
+            Supplier<?> first,
+            Supplier<?> second,
+            Operation<R> operation,
+            Set<String> channelIdentifiers
+    ) {
+        this.identifier = Preconditions.checkNotNull(identifier);
+        this.operator = Preconditions.checkNotNull(operator);
+        this.constant = constant;
+        this.first = first;
+        this.second = second;
+        this.operation = Preconditions.checkNotNull(operation);
+        this.channelIdentifiers = new HashSet<>(channelIdentifiers);
+        this.cacheKey = cacheKey(operator, constant, first, second);
+    }
+
+    /**
+     * Creates the key of an expression in the {@link EvaluationCache}.
+     *
+     * @param operator identifies the operation
+     * @param constant operand of the operation or null
+     * @param first operand or null
+     * @param second operand or null
+     * @return the structural key of the operator, the constant and the keys of the operands, null if an operand has
+     * no key
+     */
+    static CacheKey cacheKey(String operator, Object constant, Supplier<?> first, Supplier<?> second) {
+        CacheKey firstKey = null;
+        CacheKey secondKey = null;
+        if (first != null && (firstKey = keyOf(first)) == null) {
+            return null;
+        }
+        if (second != null && (secondKey = keyOf(second)) == null) {
+            return null;
+        }
+        return new CacheKey(operator, constant, firstKey, secondKey);
+    }
+
+    /**
+     * @param supplier an operand
+     * @return the cache key of an expression, null for other {@link Supplier} implementations, as their identifier
+     * does not identify their values
+     */
+    static CacheKey keyOf(Supplier<?> supplier) {
+        Supplier<?> source = supplier instanceof CompiledSupplier ? ((CompiledSupplier<?>) supplier).getSource() : supplier;
+        if (source instanceof ExpressionSupplier) {
+            return ((ExpressionSupplier<?>) source).cacheKey;
+        }
+        if (source instanceof PrimitiveExpression) {
+            return ((PrimitiveExpression<?>) source).getCacheKey();
+        }
+        return null;
+    }
+
+    /**
+     * Creates a leaf of an expression tree, which reads a channel from the record.
+     *
+     * @param identifier of the {@link Supplier}
+     * @param operator name of the extraction, together with the channel it identifies the expression
+     * @param channel name of the channel that is read
+     * @param extraction reads the value from the record
+     * @param <R> type of the extracted value
+     * @return a new {@link ExpressionSupplier}
+     */
+    public static <R extends Serializable> ExpressionSupplier<R> channel(
+            String identifier,
+            String operator,
+            String channel,
+            SerializableFunction<MRecord, R> extraction
+    ) {
+        Preconditions.checkNotNull(extraction);
+        return new ExpressionSupplier<>(
+                identifier,
+                operator,
+                channel,
+                null,
+                null,
+                (record, v1, v2) -> extraction.apply(record),
+                Collections.singleton(channel)
+        );
+    }
+
+    /**
+     * Creates an expression with one operand and an optional constant.
+     * The operator and the constant have to identify the function, so two expressions with the same operator,
+     * constant and operand deliver the same results.
+     *
+     * @param identifier of the {@link Supplier}
+     * @param operator name of the operation
+     * @param constant operand of the operation, that does not change, or null
+     * @param operand delivers the changing operand
+     * @param function computes the result from the extracted operand, which may be null
+     * @param <I> type of the operand
+     * @param <R> type of the result
+     * @return a new {@link ExpressionSupplier}
+     */
+    @SuppressWarnings("unchecked") // the operand value is always delivered by the operand supplier
+    public static <I, R extends Serializable> ExpressionSupplier<R> unary(
+            String identifier,
+            String operator,
+            Object constant,
+            Supplier<I> operand,
+            UnaryOperation<I, R> function
+    ) {
+        Preconditions.checkNotNull(operand);
+        Preconditions.checkNotNull(function);
+        return new ExpressionSupplier<>(
+                identifier,
+                operator,
+                constant,
+                operand,
+                null,
+                (record, v1, v2) -> function.apply((I) v1),
+                operand.getChannelIdentifiers()
+        );
+    }
+
+    /**
+     * Creates an expression with two operands.
+     * The operator has to identify the function, so two expressions with the same operator and operands deliver
+     * the same results.
+     *
+     * @param identifier of the {@link Supplier}
+     * @param operator name of the operation
+     * @param s1 delivers the first operand
+     * @param s2 delivers the second operand
+     * @param function computes the result from the extracted operands, which may be null
+     * @param <T> type of the first operand
+     * @param <I> type of the second operand
+     * @param <R> type of the result
+     * @return a new {@link ExpressionSupplier}
+     */
+    @SuppressWarnings("unchecked") // the operand values are always delivered by the operand suppliers
+    public static <T, I, R extends Serializable> ExpressionSupplier<R> binary(
+            String identifier,
+            String operator,
+            Supplier<T> s1,
+            Supplier<I> s2,
+            BinaryOperation<T, I, R> function
+    ) {
+        Preconditions.checkNotNull(s1);
+        Preconditions.checkNotNull(s2);
+        Preconditions.checkNotNull(function);
+        HashSet<String> channels = new HashSet<>(s1.getChannelIdentifiers());
+        channels.addAll(s2.getChannelIdentifiers());
+        return new ExpressionSupplier<>(
+                identifier,
+                operator,
+                null,
+                s1,
+                s2,
+                (record, v1, v2) -> function.apply((T) v1, (I) v2),
+                channels
+        );
+    }
+
+    /**
+     * Extracts the operands once and applies the operation on them.
+     * The result of an expression with operands is taken from the active {@link EvaluationCache}, if the expression
+     * was already evaluated for the record and has a key.
+     *
+     * @param values incoming values
+     * @return the result of the operation
+     */
+    @Override
+    @SuppressWarnings("unchecked") // only values of this expression are cached with its key
+    public R extract(MRecord values) {
+        EvaluationCache cache = first == null || cacheKey == null ? null : EvaluationCache.active(values);
+        if (cache == null) {
+            return evaluate(values);
+        }
+        Object cached = cache.get(cacheKey);
+        if (cached != EvaluationCache.ABSENT) {
+            return (R) cached;
+        }
+        R result = evaluate(values);
+        cache.put(cacheKey, result);
+        return result;
+    }
+
+    private R evaluate(MRecord values) {
+        return operation.apply(
+                values,
+                first == null ? null : first.extract(values),
+                second == null ? null : second.extract(values)
+        );
+    }
+
+    /**
+     * Applies the operation on already extracted operand values.
+     *
+     * @param values incoming values, only read by channel expressions
+     * @param v1 value of the first operand or null
+     * @param v2 value of the second operand or null
+     * @return the result of the operation
+     */
+    R apply(MRecord values, Object v1, Object v2) {
+        return operation.apply(values, v1, v2);
+    }
+
+    Operation<R> getOperation() {
+        return operation;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public Set<String> getChannelIdentifiers() {
+        return new HashSet<>(channelIdentifiers);
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    /** @return the key of this expression in the {@link EvaluationCache} */
+    public CacheKey getCacheKey() {
+        return cacheKey;
+    }
+
+    public Object getConstant() {
+        return constant;
+    }
+
+    /** @return the first operand {@link Supplier} or null if there is none */
+    public Supplier<?> getFirst() {
+        return first;
+    }
+
+    /** @return the second operand {@link Supplier} or null if there is none */
+    public Supplier<?> getSecond() {
+        return second;
+    }
+
+    @Override
+    public String toString() {
+        return identifier;
+    }
+
+    /**
+     * Operation of an expression with one operand.
+     *
+     * @param <I> type of the operand
+     * @param <R> type of the result
+     */
+    @FunctionalInterface
+    public interface UnaryOperation<I, R extends Serializable> extends Serializable {
+        R apply(I value);
+    }
+
+    /**
+     * Operation of an expression with two operands.
+     *
+     * @param <T> type of the first operand
+     * @param <I> type of the second operand
+     * @param <R> type of the result
+     */
+    @FunctionalInterface
+    public interface BinaryOperation<T, I, R extends Serializable> extends Serializable {
+        R apply(T v1, I v2);
+    }
+
+    /** Untyped form of the operation, as it is evaluated by the {@link ExpressionSupplier} and the compiler. */
+    @FunctionalInterface
+    interface Operation<R extends Serializable> extends Serializable {
+        R apply(MRecord record, Object v1, Object v2);
+    }
+}
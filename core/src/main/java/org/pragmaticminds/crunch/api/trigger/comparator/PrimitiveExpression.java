@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Base of the primitive {@link Supplier} implementations created by {@link Suppliers}.
+ * Like {@link ExpressionSupplier}s they carry a key, which identifies the expression in the
+ * {@link org.pragmaticminds.crunch.api.pipe.EvaluationCache} and in the {@link SupplierCompiler}.
+ */
+public abstract class PrimitiveExpression<T> implements Supplier<T> {
+    private final String identifier;
+    private final CacheKey cacheKey;
+    private final HashSet<String> channelIdentifiers;
+    private final String channel;
+
+    PrimitiveExpression(String identifier, CacheKey cacheKey, Set<String> channelIdentifiers) {
+        this(identifier, cacheKey, channelIdentifiers, null);
+    }
+
+    PrimitiveExpression(String identifier, CacheKey cacheKey, Set<String> channelIdentifiers, String channel) {
+        this.identifier = identifier;
+        this.cacheKey = cacheKey;
+        this.channelIdentifiers = new HashSet<>(channelIdentifiers);
+        this.channel = channel;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public Set<String> getChannelIdentifiers() {
+        return new HashSet<>(channelIdentifiers);
+    }
+
+    /**
+     * @return the key of this expression in the {@link org.pragmaticminds.crunch.api.pipe.EvaluationCache}, null if
+     * it depends on an opaque {@link Supplier} and is never cached
+     */
+    public CacheKey getCacheKey() {
+        return cacheKey;
+    }
+
+    /** @return the name of the channel, if this expression only reads this channel, otherwise null */
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public String toString() {
+        return identifier;
+    }
+}
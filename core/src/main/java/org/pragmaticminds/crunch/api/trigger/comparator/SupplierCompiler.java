@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiles {@link Supplier} expression trees into {@link CompiledSupplier}s, which evaluate every distinct
+ * sub-expression exactly once per record.
+ *
+ * Sub-expressions are identical if they are {@link ExpressionSupplier}s with the same operator, the same constant
+ * and identical operands, e.g. the channel extraction in
+ * <code>and(greaterThan(10.0, doubleChannel("temp")), lowerThan(80.0, doubleChannel("temp")))</code>.
+ * All {@link Supplier}s compiled by the same instance share their identical sub-expressions, so one compiler can be
+ * used for all functions of a {@link org.pragmaticminds.crunch.api.pipe.SubStream}.
+ * {@link PrimitiveExpression}s are evaluated as a single step and shared if they have the same key. Other
+ * {@link Supplier} implementations are not inspected and only shared if they are the same instance.
+ */
+public final class SupplierCompiler {
+    private final Map<ExpressionKey, ExpressionSupplier<?>> expressions = new HashMap<>();
+    private final Map<CacheKey, PrimitiveExpression<?>> primitives = new HashMap<>();
+    private final Map<Supplier<?>, Supplier<?>> canonicals = new IdentityHashMap<>();
+
+    /**
+     * Compiles the expression tree of the {@link Supplier} into a flat program, where each distinct sub-expression
+     * is a single step. The program is built from the shared instances of identical expressions, which have the same
+     * identifiers. {@link PrimitiveExpression}s are returned as their shared instance, {@link Supplier}s that are no
+     * expressions are returned unchanged.
+     *
+     * @param supplier to be compiled
+     * @param <T> type of the supplied value
+     * @return a {@link CompiledSupplier} or the given {@link Supplier} if there is nothing to compile
+     */
+    public <T> Supplier<T> compile(Supplier<T> supplier) {
+        Preconditions.checkNotNull(supplier);
+        Supplier<T> source = supplier instanceof CompiledSupplier ? ((CompiledSupplier<T>) supplier).getSource() : supplier;
+        if (!(source instanceof ExpressionSupplier) && !(source instanceof PrimitiveExpression)) {
+            return source;
+        }
+
+        @SuppressWarnings("unchecked") // identical expressions deliver the same type
+        Supplier<T> root = (Supplier<T>) canonical(source);
+        if (root instanceof PrimitiveExpression) {
+            return root;
+        }
+        Program program = new Program();
+        program.add(root);
+        return new CompiledSupplier<>(
+                root,
+                program.operations.toArray(new ExpressionSupplier.Operation<?>[0]),
+                program.firsts.stream().mapToInt(Integer::intValue).toArray(),
+                program.seconds.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * Finds the shared instance of an identical expression, or registers the given one.
+     *
+     * @param supplier to be looked up
+     * @return the shared instance
+     */
+    private Supplier<?> canonical(Supplier<?> supplier) {
+        if (supplier instanceof CompiledSupplier) {
+            return canonical(((CompiledSupplier<?>) supplier).getSource());
+        }
+        Supplier<?> known = canonicals.get(supplier);
+        if (known != null) {
+            return known;
+        }
+        Supplier<?> result = supplier;
+        if (supplier instanceof ExpressionSupplier) {
+            ExpressionSupplier<?> expression = (ExpressionSupplier<?>) supplier;
+            ExpressionKey key = new ExpressionKey(
+                    expression.getOperator(),
+                    expression.getConstant(),
+                    expression.getFirst() == null ? null : canonical(expression.getFirst()),
+                    expression.getSecond() == null ? null : canonical(expression.getSecond())
+            );
+            result = expressions.computeIfAbsent(key, k -> expression);
+        } else if (supplier instanceof PrimitiveExpression) {
+            PrimitiveExpression<?> primitive = (PrimitiveExpression<?>) supplier;
+            // without a key it depends on an opaque supplier, so it is only identical to itself
+            result = primitive.getCacheKey() == null
+                    ? primitive
+                    : primitives.computeIfAbsent(primitive.getCacheKey(), k -> primitive);
+        }
+        canonicals.put(supplier, result);
+        return result;
+    }
+
+    /** Collects the steps of one {@link CompiledSupplier}, every step after the steps of its operands */
+    private final class Program {
+        private final Map<Supplier<?>, Integer> steps = new IdentityHashMap<>();
+        private final List<ExpressionSupplier.Operation<?>> operations = new ArrayList<>();
+        private final List<Integer> firsts = new ArrayList<>();
+        private final List<Integer> seconds = new ArrayList<>();
+
+        /**
+         * Adds the steps of a canonical {@link Supplier} and its operands.
+         *
+         * @param supplier canonical instance
+         * @return the index of the step that computes the value of the supplier
+         */
+        private int add(Supplier<?> supplier) {
+            Integer step = steps.get(supplier);
+            if (step != null) {
+                return step;
+            }
+            int first = -1;
+            int second = -1;
+            ExpressionSupplier.Operation<?> operation;
+            if (supplier instanceof ExpressionSupplier) {
+                ExpressionSupplier<?> expression = (ExpressionSupplier<?>) supplier;
+                if (expression.getFirst() != null) {
+                    first = add(canonical(expression.getFirst()));
+                }
+                if (expression.getSecond() != null) {
+                    second = add(canonical(expression.getSecond()));
+                }
+                operation = expression.getOperation();
+            } else {
+                operation = (record, v1, v2) -> (Serializable) supplier.extract(record);
+            }
+            operations.add(operation);
+            firsts.add(first);
+            seconds.add(second);
+            steps.put(supplier, operations.size() - 1);
+            return operations.size() - 1;
+        }
+    }
+
+    /** Identifies an expression by its operator, constant and canonical operand instances */
+    private static final class ExpressionKey {
+        private final String operator;
+        private final Object constant;
+        private final Supplier<?> first;
+        private final Supplier<?> second;
+
+        private ExpressionKey(String operator, Object constant, Supplier<?> first, Supplier<?> second) {
+            this.operator = operator;
+            this.constant = constant;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ExpressionKey that = (ExpressionKey) o;
+            return operator.equals(that.operator)
+                    && Objects.equals(constant, that.constant)
+                    && (constant == null || constant.getClass() == that.constant.getClass())
+                    && first == that.first
+                    && second == that.second;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    operator,
+                    constant,
+                    System.identityHashCode(first),
+                    System.identityHashCode(second)
+            );
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.pragmaticminds.crunch.api.trigger.comparator;
 
+import org.pragmaticminds.crunch.api.values.ChannelSlot;
 import org.pragmaticminds.crunch.api.values.dates.Value;
 import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.AggregationUtils;
 
@@ -26,8 +27,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
-
-import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.IdentifierCombiner.combine;
+import java.util.regex.Pattern;
 
 /**
  * This class holds factories for {@link Supplier} implementations to extract a channel value from a TypedValue
@@ -45,7 +45,22 @@ public final class Suppliers {
     }
 
     /**
-     * Holds all the channel extraction {@link Supplier}s
+     * Compiles the expression tree of a {@link Supplier}, so every distinct sub-expression is evaluated once per
+     * record. Use a shared {@link SupplierCompiler} to share sub-expressions between multiple {@link Supplier}s.
+     *
+     * @param supplier to be compiled
+     * @param <T> type of the supplied value
+     * @return the compiled {@link Supplier}
+     */
+    public static <T> Supplier<T> compile(Supplier<T> supplier) {
+        return new SupplierCompiler().compile(supplier);
+    }
+
+    /**
+     * Holds all the channel extraction {@link Supplier}s.
+     * The channels are read by {@link ChannelSlot}s, so records with slot information are read without a lookup by name.
+     * The <code>*ChannelPrimitive</code> factories deliver primitive {@link Supplier}s, which are read without boxing
+     * by the primitive overloads of the operators.
      */
     public static class ChannelExtractors {
         /** hidden constructor */
@@ -60,11 +75,8 @@ public final class Suppliers {
          * @return the value of the channel
          */
         public static Supplier<Boolean> booleanChannel(String name) {
-            return new NamedSupplier<>(
-                    name,
-                    values -> values.getBoolean(name),
-                    () -> new HashSet<>(Collections.singletonList(name))
-            );
+            ChannelSlot channel = ChannelSlot.of(name);
+            return ExpressionSupplier.channel(name, "booleanChannel", name, channel::getBoolean);
         }
 
         /**
@@ -74,11 +86,8 @@ public final class Suppliers {
          * @return the value of the channel
          */
         public static Supplier<Double> doubleChannel(String name) {
-            return new NamedSupplier<>(
-                    name,
-                    values -> values.getDouble(name),
-                    () -> new HashSet<>(Collections.singletonList(name))
-            );
+            ChannelSlot channel = ChannelSlot.of(name);
+            return ExpressionSupplier.channel(name, "doubleChannel", name, channel::getDouble);
         }
 
         /**
@@ -88,10 +97,57 @@ public final class Suppliers {
          * @return the value of the channel
          */
         public static Supplier<Long> longChannel(String name) {
-            return new NamedSupplier<>(
+            ChannelSlot channel = ChannelSlot.of(name);
+            return ExpressionSupplier.channel(name, "longChannel", name, channel::getLong);
+        }
+
+        /**
+         * extracts a boolean value from the values, for the primitive overloads of the operators
+         *
+         * @param name of the channel
+         * @return the value of the channel, null if the channel is not present
+         */
+        public static BooleanSupplier booleanChannelPrimitive(String name) {
+            ChannelSlot channel = ChannelSlot.of(name);
+            return new BooleanExpression(
+                    name,
+                    ExpressionSupplier.cacheKey("booleanChannelPrimitive", name, null, null),
+                    Collections.singleton(name),
+                    false,
+                    channel::getBoolean
+            );
+        }
+
+        /**
+         * extracts a double value from the values without boxing, for the primitive overloads of the operators.
+         * {@link Double#NaN} signals an absent value, so a channel that holds NaN reads as absent as well.
+         *
+         * @param name of the channel
+         * @return the value of the channel, NaN if the channel is not present
+         */
+        public static DoubleSupplier doubleChannelPrimitive(String name) {
+            ChannelSlot channel = ChannelSlot.of(name);
+            return DoubleExpression.channel(
                     name,
-                    values -> values.getLong(name),
-                    () -> new HashSet<>(Collections.singletonList(name))
+                    ExpressionSupplier.cacheKey("doubleChannelPrimitive", name, null, null),
+                    channel::getAsDouble
+            );
+        }
+
+        /**
+         * extracts a long value from the values without boxing, for the primitive overloads of the operators.
+         * {@link LongSupplier#ABSENT}, which is {@link Long#MIN_VALUE}, signals an absent value, so a channel that holds
+         * {@link Long#MIN_VALUE} reads as absent as well.
+         *
+         * @param name of the channel
+         * @return the value of the channel, {@link LongSupplier#ABSENT} if the channel is not present
+         */
+        public static LongSupplier longChannelPrimitive(String name) {
+            ChannelSlot channel = ChannelSlot.of(name);
+            return LongExpression.channel(
+                    name,
+                    ExpressionSupplier.cacheKey("longChannelPrimitive", name, null, null),
+                    record -> channel.getAsLong(record, LongSupplier.ABSENT)
             );
         }
 
@@ -102,11 +158,8 @@ public final class Suppliers {
          * @return the value of the channel
          */
         public static Supplier<Date> dateChannel(String name) {
-            return new NamedSupplier<>(
-                    name,
-                    values -> values.getDate(name),
-                    () -> new HashSet<>(Collections.singletonList(name))
-            );
+            ChannelSlot channel = ChannelSlot.of(name);
+            return ExpressionSupplier.channel(name, "dateChannel", name, channel::getDate);
         }
 
         /**
@@ -116,11 +169,8 @@ public final class Suppliers {
          * @return the value of the channel
          */
         public static Supplier<String> stringChannel(String name) {
-            return new NamedSupplier<>(
-                    name,
-                    values -> values.getString(name),
-                    () -> new HashSet<>(Collections.singletonList(name))
-            );
+            ChannelSlot channel = ChannelSlot.of(name);
+            return ExpressionSupplier.channel(name, "stringChannel", name, channel::getString);
         }
 
         /**
@@ -130,11 +180,8 @@ public final class Suppliers {
          * @return a {@link Supplier} for the given channel
          */
         public static Supplier<Value> channel(String name) {
-            return new NamedSupplier<>(
-                    name,
-                    values -> values.getValue(name),
-                    () -> new HashSet<>(Collections.singletonList(name))
-            );
+            ChannelSlot channel = ChannelSlot.of(name);
+            return ExpressionSupplier.channel(name, "channel", name, channel::getValue);
         }
     }
 
@@ -156,6 +203,7 @@ public final class Suppliers {
          */
         public static Supplier<Boolean> and(Supplier<Boolean> s1, Supplier<Boolean> s2){
             return createSupplier(
+                    "and(supplier,supplier)",
                     s1,
                     s2,
                     String.format("and(%s,%s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -172,6 +220,7 @@ public final class Suppliers {
          */
         public static Supplier<Boolean> or(Supplier<Boolean> s1, Supplier<Boolean> s2){
             return createSupplier(
+                    "or(supplier,supplier)",
                     s1,
                     s2,
                     String.format("or(%s,%s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -179,6 +228,58 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Creates an AND Operation on two {@link BooleanSupplier}s
+         * @param s1 the first {@link BooleanSupplier}
+         * @param s2 the second {@link BooleanSupplier}
+         * @return a {@link BooleanSupplier} that combines both supplier values, null if one of the
+         * {@link BooleanSupplier}s delivered null.
+         */
+        public static BooleanSupplier and(BooleanSupplier s1, BooleanSupplier s2){
+            return createBooleanSupplier(
+                    "and(boolean,boolean)",
+                    String.format("and(%s,%s)", s1.getIdentifier(), s2.getIdentifier()),
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 && v2
+            );
+        }
+
+        /**
+         * Creates an OR Operation on two {@link BooleanSupplier}s
+         * @param s1 the first {@link BooleanSupplier}
+         * @param s2 the second {@link BooleanSupplier}
+         * @return a {@link BooleanSupplier} that combines both supplier values, null if one of the
+         * {@link BooleanSupplier}s delivered null.
+         */
+        public static BooleanSupplier or(BooleanSupplier s1, BooleanSupplier s2){
+            return createBooleanSupplier(
+                    "or(boolean,boolean)",
+                    String.format("or(%s,%s)", s1.getIdentifier(), s2.getIdentifier()),
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 || v2
+            );
+        }
+
+        /**
+         * Creates an inversion of the {@link BooleanSupplier} value
+         * @param supplier with the result to be inverted
+         * @return the inverted result of the inner {@link BooleanSupplier} or null if it delivered null.
+         */
+        public static BooleanSupplier not(BooleanSupplier supplier){
+            return new BooleanExpression(
+                    String.format("not(%s)", supplier.getIdentifier()),
+                    ExpressionSupplier.cacheKey("not(boolean)", null, supplier, null),
+                    supplier.getChannelIdentifiers(),
+                    true,
+                    values -> {
+                        Boolean value = supplier.extract(values);
+                        return value != null ? !value : null;
+                    }
+            );
+        }
+
         /**
          * Craetes an inversion of the {@link Supplier} value
          * @param supplier with the result to be inverted
@@ -186,16 +287,18 @@ public final class Suppliers {
          */
         public static Supplier<Boolean> not(Supplier<Boolean> supplier){
             String identifier = String.format("not(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.unary(
                     identifier,
-                    values ->
+                    "not",
+                    null,
+                    supplier,
+                    value ->
                             // null check
-                            supplier.extract(values) != null
+                            value != null
                                     // "invert" the extracted value
-                                    ? !supplier.extract(values)
+                                    ? !value
                                     // return null of delivered value is null
-                                    : null,
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                                    : null
             );
         }
     }
@@ -218,16 +321,18 @@ public final class Suppliers {
         @SuppressWarnings("squid:S1221") // using of the name equal
         public static Supplier<Boolean> equal(String expected, Supplier<String> supplier){
             String identifier = String.format("equal(\"%s\",%s)", expected, supplier.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.unary(
                     identifier,
-                    values ->
+                    "equal(expected,supplier)",
+                    expected,
+                    supplier,
+                    value ->
                             // null check
-                            supplier.extract(values) != null
+                            value != null
                                     // compare expected with delivered value
-                                    ? expected.equals(supplier.extract(values))
+                                    ? expected.equals(value)
                                     // return null if delivered value is null
-                                    : null,
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                                    : null
             );
         }
 
@@ -240,37 +345,44 @@ public final class Suppliers {
         @SuppressWarnings("squid:S1221") // using of the name equal
         public static Supplier<Boolean> equal(Supplier<String> s1, Supplier<String> s2){
             String identifier = String.format("equal(%s,%s)", s1.getIdentifier(), s2.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.binary(
                     identifier,
-                    values ->
+                    "equal(supplier,supplier)",
+                    s1,
+                    s2,
+                    (v1, v2) ->
                             // null check
-                            s1.extract(values) != null && s2.extract(values) != null
+                            v1 != null && v2 != null
                                     // compare supplied values with each other
-                                    ? s1.extract(values).equals(s2.extract(values))
+                                    ? v1.equals(v2)
                                     // return null if one of the supplied values is null
-                                    : null,
-                    () -> combine(s1, s2)
+                                    : null
             );
         }
 
         /**
-         * Compares a {@link Supplier} value against a regex value for matching
+         * Compares a {@link Supplier} value against a regex value for matching.
+         * The regex is compiled once, when the {@link Supplier} is created.
+         *
          * @param regex regular expression style {@link String}
          * @param supplier delivers values for matching
          * @return A {@link Supplier} that is matching values
          */
         public static Supplier<Boolean> match(String regex, Supplier<String> supplier){
             String identifier = String.format("match(\"%s\",%s)", regex, supplier.getIdentifier());
-            return new NamedSupplier<>(
+            Pattern pattern = Pattern.compile(regex);
+            return ExpressionSupplier.unary(
                     identifier,
-                    values ->
+                    "match",
+                    regex,
+                    supplier,
+                    value ->
                             // null check
-                            supplier.extract(values) != null
+                            value != null
                                     // match the supplied value to regex
-                                    ? supplier.extract(values).matches(regex)
+                                    ? pattern.matcher(value).matches()
                                     // if supplied value was null return null
-                                    : null,
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                                    : null
             );
         }
 
@@ -282,16 +394,18 @@ public final class Suppliers {
          */
         public static Supplier<Boolean> contains(String string, Supplier<String> supplier){
             String identifier = String.format("contains(\"%s\",%s)", string, supplier.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.unary(
                     identifier,
-                    values ->
+                    "contains",
+                    string,
+                    supplier,
+                    value ->
                             // null check
-                            supplier.extract(values) != null
+                            value != null
                                     // check if supplied value contains the string given
-                                    ? supplier.extract(values).contains(string)
+                                    ? value.contains(string)
                                     // return null if supplied value was null
-                                    : null,
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                                    : null
             );
         }
 
@@ -302,21 +416,20 @@ public final class Suppliers {
          */
         public static Supplier<Long> length(Supplier<String> supplier){
             String identifier = String.format("length(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.unary(
                     identifier,
-                    values ->
-                            // null check
-                    {
-                        String extract = supplier.extract(values);
+                    "length",
+                    null,
+                    supplier,
+                    value -> {
                         // extract length
                         // return null if supplied value was null
-                        if (extract != null) {
-                            return (long) extract.length();
+                        if (value != null) {
+                            return (long) value.length();
                         } else {
                             return null;
                         }
-                    },
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                    }
             );
         }
     }
@@ -341,12 +454,16 @@ public final class Suppliers {
         @SuppressWarnings("squid:S1201") // use of equals
         public static <T> Supplier<Boolean> equals(T value, Supplier<T> supplier){
             String identifier = String.format("equals(%s, %s)", value.toString(), supplier.getIdentifier());
-            return new NamedSupplier<>(identifier, values ->
-                    // null check
-                    supplier.extract(values) != null
-                            // apply condition
-                            && value.equals(supplier.extract(values)),
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+            return ExpressionSupplier.unary(
+                    identifier,
+                    "equals(value,supplier)",
+                    value,
+                    supplier,
+                    extracted ->
+                            // null check
+                            extracted != null
+                                    // apply condition
+                                    && value.equals(extracted)
             );
         }
 
@@ -361,6 +478,7 @@ public final class Suppliers {
         @SuppressWarnings("squid:S1201") // use of equals
         public static <T extends Comparable & Serializable, I extends Comparable & Serializable> Supplier<Boolean> equals(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "equals(supplier,supplier)",
                     s1,
                     s2,
                     String.format("equals(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -381,6 +499,7 @@ public final class Suppliers {
          */
         public static <T extends Comparable & Serializable, I extends Comparable & Serializable> Supplier<Long> compare(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "compare(supplier,supplier)",
                     s1,
                     s2,
                     String.format("compare(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -401,6 +520,7 @@ public final class Suppliers {
          */
         public static <T extends Comparable & Serializable, I extends Comparable & Serializable> Supplier<Long> compare(T value, Supplier<I> supplier){
             return createSupplier(
+                    "compare(value,supplier)",
                     value,
                     supplier,
                     String.format("compare(%s, %s)", value.toString(), supplier.getIdentifier()),
@@ -419,6 +539,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> lowerThan(T value, Supplier<I> supplier){
             return createSupplier(
+                    "lowerThan(value,supplier)",
                     value,
                     supplier,
                     String.format("lowerThan(%s, %s)", value, supplier.getIdentifier()),
@@ -437,6 +558,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> lowerThan(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "lowerThan(supplier,supplier)",
                     s1,
                     s2,
                     String.format("lowerThan(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -444,6 +566,41 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Logical operation: value &lt; supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link BooleanSupplier}, null if the supplier delivered no value
+         */
+        public static BooleanSupplier lowerThan(double value, NumberSupplier<?> supplier) {
+            return createBooleanSupplier(
+                    "lowerThan(double,number)",
+                    String.format("lowerThan(%s, %s)", value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    Threshold.Comparison.GREATER_THAN,
+                    (v1, v2) -> v1 < v2
+            );
+        }
+
+        /**
+         * Logical operation: s1 &lt; s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link BooleanSupplier}, null if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> BooleanSupplier lowerThan(NumberSupplier<T> s1, NumberSupplier<I> s2) {
+            return createBooleanSupplier(
+                    "lowerThan(number,number)",
+                    String.format("lowerThan(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 < v2
+            );
+        }
+
         /**
          * Logical operation: value &lt;= supplier
          *
@@ -455,6 +612,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> lowerThanEquals(T value, Supplier<I> supplier) {
             return createSupplier(
+                    "lowerThanEquals(value,supplier)",
                     value,
                     supplier,
                     String.format("lowerThanEquals(%s, %s)", value, supplier.getIdentifier()),
@@ -473,6 +631,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> lowerThanEquals(Supplier<T> s1, Supplier<I> s2) {
             return createSupplier(
+                    "lowerThanEquals(supplier,supplier)",
                     s1,
                     s2,
                     String.format("lowerThanEquals(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -480,6 +639,41 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Logical operation: value &lt;= supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link BooleanSupplier}, null if the supplier delivered no value
+         */
+        public static BooleanSupplier lowerThanEquals(double value, NumberSupplier<?> supplier) {
+            return createBooleanSupplier(
+                    "lowerThanEquals(double,number)",
+                    String.format("lowerThanEquals(%s, %s)", value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    Threshold.Comparison.GREATER_THAN_EQUALS,
+                    (v1, v2) -> v1 <= v2
+            );
+        }
+
+        /**
+         * Logical operation: s1 &lt;= s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link BooleanSupplier}, null if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> BooleanSupplier lowerThanEquals(NumberSupplier<T> s1, NumberSupplier<I> s2) {
+            return createBooleanSupplier(
+                    "lowerThanEquals(number,number)",
+                    String.format("lowerThanEquals(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 <= v2
+            );
+        }
+
         /**
          * Logical operation: value &gt; supplier
          *
@@ -491,6 +685,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> greaterThan(T value, Supplier<I> supplier) {
             return createSupplier(
+                    "greaterThan(value,supplier)",
                     value,
                     supplier,
                     String.format("greaterThan(%s, %s)", value, supplier.getIdentifier()),
@@ -509,6 +704,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> greaterThan(Supplier<T> s1, Supplier<I> s2) {
             return createSupplier(
+                    "greaterThan(supplier,supplier)",
                     s1,
                     s2,
                     String.format("greaterThan(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
@@ -516,6 +712,41 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Logical operation: value &gt; supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link BooleanSupplier}, null if the supplier delivered no value
+         */
+        public static BooleanSupplier greaterThan(double value, NumberSupplier<?> supplier) {
+            return createBooleanSupplier(
+                    "greaterThan(double,number)",
+                    String.format("greaterThan(%s, %s)", value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    Threshold.Comparison.LOWER_THAN,
+                    (v1, v2) -> v1 > v2
+            );
+        }
+
+        /**
+         * Logical operation: s1 &gt; s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link BooleanSupplier}, null if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> BooleanSupplier greaterThan(NumberSupplier<T> s1, NumberSupplier<I> s2) {
+            return createBooleanSupplier(
+                    "greaterThan(number,number)",
+                    String.format("greaterThan(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 > v2
+            );
+        }
+
         /**
          * Logical operation: value &gt;= supplier
          *
@@ -527,6 +758,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> greaterThanEquals(T value, Supplier<I> supplier) {
             return createSupplier(
+                    "greaterThanEquals(value,supplier)",
                     value,
                     supplier,
                     String.format("greaterThanEquals(%s, %s)", value, supplier.getIdentifier()),
@@ -545,12 +777,48 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Boolean> greaterThanEquals(Supplier<T> s1, Supplier<I> s2) {
             return createSupplier(
+                    "greaterThanEquals(supplier,supplier)",
                     s1,
                     s2,
                     String.format("greaterThanEquals(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
                     (NumberSupplierLambda<T,I,Boolean>) (v1, v2) -> v1.doubleValue() >= v2.doubleValue()
             );
         }
+
+        /**
+         * Logical operation: value &gt;= supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link BooleanSupplier}, null if the supplier delivered no value
+         */
+        public static BooleanSupplier greaterThanEquals(double value, NumberSupplier<?> supplier) {
+            return createBooleanSupplier(
+                    "greaterThanEquals(double,number)",
+                    String.format("greaterThanEquals(%s, %s)", value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    Threshold.Comparison.LOWER_THAN_EQUALS,
+                    (v1, v2) -> v1 >= v2
+            );
+        }
+
+        /**
+         * Logical operation: s1 &gt;= s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link BooleanSupplier}, null if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> BooleanSupplier greaterThanEquals(NumberSupplier<T> s1, NumberSupplier<I> s2) {
+            return createBooleanSupplier(
+                    "greaterThanEquals(number,number)",
+                    String.format("greaterThanEquals(%s, %s)", s1.getIdentifier(), s2.getIdentifier()),
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 >= v2
+            );
+        }
     }
 
     public static class Caster implements Serializable {
@@ -568,16 +836,17 @@ public final class Suppliers {
          */
         public static <T extends Number> Supplier<Long> castToLong(Supplier<T> supplier){
             String identifier = String.format("castToInteger(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.unary(
                     identifier,
-                    values -> {
-                        T extract = supplier.extract(values);
+                    "castToLong",
+                    null,
+                    supplier,
+                    extract -> {
                         if(extract == null){
                             return null;
                         }
                         return extract.longValue();
-                    },
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                    }
             );
         }
 
@@ -590,16 +859,34 @@ public final class Suppliers {
          */
         public static <T extends Number> Supplier<Double> castToDouble(Supplier<T> supplier){
             String identifier = String.format("castToDouble(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
+            return ExpressionSupplier.unary(
                     identifier,
-                    values -> {
-                        T extract = supplier.extract(values);
+                    "castToDouble",
+                    null,
+                    supplier,
+                    extract -> {
                         if(extract == null){
                             return null;
                         }
                         return extract.doubleValue();
-                    },
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                    }
+            );
+        }
+
+        /**
+         * Casting operation from a number to double, without boxing.
+         *
+         * @param supplier for number values
+         * @return a {@link DoubleSupplier}
+         */
+        public static <T extends Number> DoubleSupplier castToDouble(NumberSupplier<T> supplier){
+            return createDoubleSupplier(
+                    "castToDouble(number)",
+                    String.format("castToDouble(%s)", supplier.getIdentifier()),
+                    null,
+                    supplier,
+                    null,
+                    (v1, v2) -> v1
             );
         }
 
@@ -611,17 +898,18 @@ public final class Suppliers {
          * @return a {@link Supplier} of {@link String} type
          */
         public static <T extends Number> Supplier<String> castToString(Supplier<T> supplier){
-            String identifier = String.format("castToDouble(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
+            String identifier = String.format("castToString(%s)", supplier.getIdentifier());
+            return ExpressionSupplier.unary(
                     identifier,
-                    values -> {
-                        T extract = supplier.extract(values);
+                    "castToString",
+                    null,
+                    supplier,
+                    extract -> {
                         if(extract == null){
                             return null;
                         }
                         return extract.toString();
-                    },
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
+                    }
             );
         }
     }
@@ -641,11 +929,7 @@ public final class Suppliers {
          */
         public static Supplier<Long> parseLong(Supplier<String> supplier){
             String identifier = String.format("parseLong(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
-                    identifier,
-                    values -> Long.parseLong(supplier.extract(values)),
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
-            );
+            return ExpressionSupplier.unary(identifier, "parseLong", null, supplier, Long::parseLong);
         }
 
         /**
@@ -656,11 +940,7 @@ public final class Suppliers {
          */
         public static Supplier<Double> parseDouble(Supplier<String> supplier){
             String identifier = String.format("parseDouble(%s)", supplier.getIdentifier());
-            return new NamedSupplier<>(
-                    identifier,
-                    values -> Double.parseDouble(supplier.extract(values)),
-                    () -> new HashSet<>(supplier.getChannelIdentifiers())
-            );
+            return ExpressionSupplier.unary(identifier, "parseDouble", null, supplier, Double::parseDouble);
         }
     }
 
@@ -686,6 +966,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> add(Supplier<T> supplier, I value){
             return createSupplier(
+                    "add(supplier,value)",
                     value,
                     supplier,
                     String.format(ADD_NAME, value, supplier.getIdentifier()),
@@ -717,6 +998,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> add(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "add(supplier,supplier)",
                     s1,
                     s2,
                     String.format(ADD_NAME, s1.getIdentifier(), s2.getIdentifier()),
@@ -724,6 +1006,60 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Arithmetical operation: supplier + value, without boxing.
+         *
+         * @param supplier first operand supplier
+         * @param value    second operand
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier add(NumberSupplier<?> supplier, double value){
+            return createDoubleSupplier(
+                    "add(number,double)",
+                    String.format(ADD_NAME, value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v1 + v2
+            );
+        }
+
+        /**
+         * Arithmetical operation: value + supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier add(double value, NumberSupplier<?> supplier){
+            return createDoubleSupplier(
+                    "add(double,number)",
+                    String.format(ADD_NAME, value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v2 + v1
+            );
+        }
+
+        /**
+         * Arithmetical operation: s1 + s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link DoubleSupplier}, NaN if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> DoubleSupplier add(NumberSupplier<T> s1, NumberSupplier<I> s2){
+            return createDoubleSupplier(
+                    "add(number,number)",
+                    String.format(ADD_NAME, s1.getIdentifier(), s2.getIdentifier()),
+                    null,
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 + v2
+            );
+        }
+
         /**
          * Arithmetical operation: supplier - value
          *
@@ -735,9 +1071,10 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> subtract(Supplier<T> supplier, I value){
             return createSupplier(
+                    "subtract(supplier,value)",
                     value,
                     supplier,
-                    String.format(SUBTRACT_NAME, value, supplier.getIdentifier()),
+                    String.format(SUBTRACT_NAME, supplier.getIdentifier(), value),
                     (v1, v2) -> AggregationUtils.subtract(v2, v1)
             );
         }
@@ -753,6 +1090,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> subtract(I value, Supplier<T> supplier){
             return createSupplier(
+                    "subtract(value,supplier)",
                     value,
                     supplier,
                     String.format(SUBTRACT_NAME, value, supplier.getIdentifier()),
@@ -771,6 +1109,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> subtract(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "subtract(supplier,supplier)",
                     s1,
                     s2,
                     String.format(SUBTRACT_NAME, s1.getIdentifier(), s2.getIdentifier()),
@@ -778,6 +1117,60 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Arithmetical operation: supplier - value, without boxing.
+         *
+         * @param supplier first operand supplier
+         * @param value    second operand
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier subtract(NumberSupplier<?> supplier, double value){
+            return createDoubleSupplier(
+                    "subtract(number,double)",
+                    String.format(SUBTRACT_NAME, supplier.getIdentifier(), value),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v1 - v2
+            );
+        }
+
+        /**
+         * Arithmetical operation: value - supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier subtract(double value, NumberSupplier<?> supplier){
+            return createDoubleSupplier(
+                    "subtract(double,number)",
+                    String.format(SUBTRACT_NAME, value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v2 - v1
+            );
+        }
+
+        /**
+         * Arithmetical operation: s1 - s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link DoubleSupplier}, NaN if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> DoubleSupplier subtract(NumberSupplier<T> s1, NumberSupplier<I> s2){
+            return createDoubleSupplier(
+                    "subtract(number,number)",
+                    String.format(SUBTRACT_NAME, s1.getIdentifier(), s2.getIdentifier()),
+                    null,
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 - v2
+            );
+        }
+
         /**
          * Arithmetical operation: value * supplier
          *
@@ -789,6 +1182,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> multiply(Supplier<T> supplier, I value){
             return createSupplier(
+                    "multiply(supplier,value)",
                     value,
                     supplier,
                     String.format(MULTIPLY_NAME, value, supplier.getIdentifier()),
@@ -820,6 +1214,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> multiply(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "multiply(supplier,supplier)",
                     s1,
                     s2,
                     String.format(MULTIPLY_NAME, s1.getIdentifier(), s2.getIdentifier()),
@@ -827,6 +1222,60 @@ public final class Suppliers {
             );
         }
 
+        /**
+         * Arithmetical operation: supplier * value, without boxing.
+         *
+         * @param supplier first operand supplier
+         * @param value    second operand
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier multiply(NumberSupplier<?> supplier, double value){
+            return createDoubleSupplier(
+                    "multiply(number,double)",
+                    String.format(MULTIPLY_NAME, value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v1 * v2
+            );
+        }
+
+        /**
+         * Arithmetical operation: value * supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier multiply(double value, NumberSupplier<?> supplier){
+            return createDoubleSupplier(
+                    "multiply(double,number)",
+                    String.format(MULTIPLY_NAME, value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v2 * v1
+            );
+        }
+
+        /**
+         * Arithmetical operation: s1 * s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link DoubleSupplier}, NaN if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> DoubleSupplier multiply(NumberSupplier<T> s1, NumberSupplier<I> s2){
+            return createDoubleSupplier(
+                    "multiply(number,number)",
+                    String.format(MULTIPLY_NAME, s1.getIdentifier(), s2.getIdentifier()),
+                    null,
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 * v2
+            );
+        }
+
         /**
          * Arithmetical operation: supplier / value
          *
@@ -838,9 +1287,10 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> divide(Supplier<T> supplier, I value){
             return createSupplier(
+                    "divide(supplier,value)",
                     value,
                     supplier,
-                    String.format(DIVIDE_NAME, value, supplier.getIdentifier()),
+                    String.format(DIVIDE_NAME, supplier.getIdentifier(), value),
                     (v1, v2) -> AggregationUtils.divide(v2, v1)
             );
         }
@@ -856,6 +1306,7 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> divide(I value, Supplier<T> supplier){
             return createSupplier(
+                    "divide(value,supplier)",
                     value,
                     supplier,
                     String.format(DIVIDE_NAME, value, supplier.getIdentifier()),
@@ -874,17 +1325,73 @@ public final class Suppliers {
          */
         public static <T extends Number, I extends Number> Supplier<Double> divide(Supplier<T> s1, Supplier<I> s2){
             return createSupplier(
+                    "divide(supplier,supplier)",
                     s1,
                     s2,
                     String.format(DIVIDE_NAME, s1.getIdentifier(), s2.getIdentifier()),
                     (NumberSupplierLambda<T, I, Double>) AggregationUtils::divide
             );
         }
+
+        /**
+         * Arithmetical operation: supplier / value, without boxing.
+         *
+         * @param supplier first operand supplier
+         * @param value    second operand
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier divide(NumberSupplier<?> supplier, double value){
+            return createDoubleSupplier(
+                    "divide(number,double)",
+                    String.format(DIVIDE_NAME, supplier.getIdentifier(), value),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v1 / v2
+            );
+        }
+
+        /**
+         * Arithmetical operation: value / supplier, without boxing.
+         *
+         * @param value    first operand
+         * @param supplier second operand supplier
+         * @return {@link DoubleSupplier}, NaN if the supplier delivered no value
+         */
+        public static DoubleSupplier divide(double value, NumberSupplier<?> supplier){
+            return createDoubleSupplier(
+                    "divide(double,number)",
+                    String.format(DIVIDE_NAME, value, supplier.getIdentifier()),
+                    value,
+                    supplier,
+                    null,
+                    (v1, v2) -> v2 / v1
+            );
+        }
+
+        /**
+         * Arithmetical operation: s1 / s2, without boxing.
+         *
+         * @param s1 first operand supplier
+         * @param s2 second operand supplier
+         * @return {@link DoubleSupplier}, NaN if one of the suppliers delivered no value
+         */
+        public static <T extends Number, I extends Number> DoubleSupplier divide(NumberSupplier<T> s1, NumberSupplier<I> s2){
+            return createDoubleSupplier(
+                    "divide(number,number)",
+                    String.format(DIVIDE_NAME, s1.getIdentifier(), s2.getIdentifier()),
+                    null,
+                    s1,
+                    s2,
+                    (v1, v2) -> v1 / v2
+            );
+        }
     }
 
     /**
      * creates a Supplier that operates on two Suppliers
      *
+     * @param operator   identifies the operation, together with the value
      * @param value      first operand
      * @param supplier   second operand supplier
      * @param identifier of the {@link Supplier} to be created
@@ -895,28 +1402,30 @@ public final class Suppliers {
      * @return {@link Supplier} of R type
      */
     private static <T extends Serializable, I extends Serializable, R extends Serializable> Supplier<R> createSupplier(
+            String operator,
             T value,
             Supplier<I> supplier,
             String identifier,
             SupplierLambda<T,I,R> lambda
     ) {
-        return new NamedSupplier<>(
+        return ExpressionSupplier.unary(
                 identifier,
-                values -> {
-                    // extract value
-                    I value2 = supplier.extract(values);
+                operator,
+                value,
+                supplier,
+                value2 -> {
                     if(value2 == null){
                         return null;
                     }
                     return lambda.apply(value, value2);
-                },
-                () -> new HashSet<>(supplier.getChannelIdentifiers())
+                }
         );
     }
 
     /**
      * creates a Supplier that operates on two Suppliers
      *
+     * @param operator identifies the operation
      * @param s1 first operand supplier
      * @param s2 second operand supplier
      * @param identifier of the {@link Supplier} to be created
@@ -927,26 +1436,181 @@ public final class Suppliers {
      * @return {@link Supplier} of R type
      */
     private static <T extends Serializable, I extends Serializable, R extends Serializable> Supplier<R> createSupplier(
+            String operator,
             Supplier<T> s1,
             Supplier<I> s2,
             String identifier,
             SupplierLambda<T,I,R> lambda
     ) {
-        return new NamedSupplier<>(
+        return ExpressionSupplier.binary(
                 identifier,
-                values -> {
-                    // extract values
-                    T value = s1.extract(values);
-                    I value2 = s2.extract(values);
+                operator,
+                s1,
+                s2,
+                (value, value2) -> {
                     if(value == null || value2 == null){
                         return null;
                     }
                     return lambda.apply(value, value2);
+                }
+        );
+    }
+
+    /**
+     * creates a {@link BooleanSupplier} that compares a value with the value of a {@link NumberSupplier}
+     *
+     * @param operator   identifies the operation, together with the value
+     * @param identifier of the {@link Supplier} to be created
+     * @param value      first operand
+     * @param supplier   second operand supplier
+     * @param comparison the same comparison as the lambda, in the form: supplier value compared to value
+     * @param lambda     the comparison
+     * @return {@link BooleanSupplier} that delivers null if the supplier has no value
+     */
+    private static BooleanSupplier createBooleanSupplier(
+            String operator,
+            String identifier,
+            double value,
+            NumberSupplier<?> supplier,
+            Threshold.Comparison comparison,
+            DoublePredicateLambda lambda
+    ) {
+        // comparisons of a channel with a constant can be indexed by their threshold
+        Threshold threshold = supplier instanceof PrimitiveExpression
+                && ((PrimitiveExpression<?>) supplier).getChannel() != null
+                ? new Threshold(supplier, comparison, value)
+                : null;
+        return new BooleanExpression(
+                identifier,
+                ExpressionSupplier.cacheKey(operator, value, supplier, null),
+                supplier.getChannelIdentifiers(),
+                true,
+                values -> {
+                    double value2 = supplier.extractAsDouble(values);
+                    if (Double.isNaN(value2)) {
+                        return null;
+                    }
+                    return lambda.test(value, value2);
                 },
-                () -> combine(s1, s2)
+                threshold
+        );
+    }
+
+    /**
+     * creates a {@link BooleanSupplier} that compares the values of two {@link NumberSupplier}s
+     *
+     * @param operator   identifies the operation
+     * @param identifier of the {@link Supplier} to be created
+     * @param s1         first operand supplier
+     * @param s2         second operand supplier
+     * @param lambda     the comparison
+     * @return {@link BooleanSupplier} that delivers null if one of the suppliers has no value
+     */
+    private static BooleanSupplier createBooleanSupplier(
+            String operator,
+            String identifier,
+            NumberSupplier<?> s1,
+            NumberSupplier<?> s2,
+            DoublePredicateLambda lambda
+    ) {
+        return new BooleanExpression(
+                identifier,
+                ExpressionSupplier.cacheKey(operator, null, s1, s2),
+                IdentifierCombiner.combine(s1, s2),
+                true,
+                values -> {
+                    double value = s1.extractAsDouble(values);
+                    double value2 = s2.extractAsDouble(values);
+                    if (Double.isNaN(value) || Double.isNaN(value2)) {
+                        return null;
+                    }
+                    return lambda.test(value, value2);
+                }
+        );
+    }
+
+    /**
+     * creates a {@link BooleanSupplier} that combines the values of two {@link BooleanSupplier}s
+     *
+     * @param operator   identifies the operation
+     * @param identifier of the {@link Supplier} to be created
+     * @param s1         first operand supplier
+     * @param s2         second operand supplier
+     * @param lambda     the combination
+     * @return {@link BooleanSupplier} that delivers null if one of the suppliers has no value
+     */
+    private static BooleanSupplier createBooleanSupplier(
+            String operator,
+            String identifier,
+            BooleanSupplier s1,
+            BooleanSupplier s2,
+            SupplierLambda<Boolean, Boolean, Boolean> lambda
+    ) {
+        return new BooleanExpression(
+                identifier,
+                ExpressionSupplier.cacheKey(operator, null, s1, s2),
+                IdentifierCombiner.combine(s1, s2),
+                true,
+                values -> {
+                    Boolean value = s1.extract(values);
+                    Boolean value2 = s2.extract(values);
+                    if (value == null || value2 == null) {
+                        return null;
+                    }
+                    return lambda.apply(value, value2);
+                }
         );
     }
 
+    /**
+     * creates a {@link DoubleSupplier} that computes its value from one or two {@link NumberSupplier}s and an
+     * optional constant. Missing values are NaN, which is kept by all operations.
+     *
+     * @param operator   identifies the operation, together with the value
+     * @param identifier of the {@link Supplier} to be created
+     * @param value      constant operand, passed as second value to the lambda, or null
+     * @param s1         first operand supplier
+     * @param s2         second operand supplier or null
+     * @param lambda     the operation
+     * @return {@link DoubleSupplier} that delivers NaN if one of the suppliers has no value
+     */
+    private static DoubleSupplier createDoubleSupplier(
+            String operator,
+            String identifier,
+            Double value,
+            NumberSupplier<?> s1,
+            NumberSupplier<?> s2,
+            DoubleOperatorLambda lambda
+    ) {
+        DoubleExpression.Operation operation;
+        if (s2 != null) {
+            operation = values -> lambda.apply(s1.extractAsDouble(values), s2.extractAsDouble(values));
+        } else if (value != null) {
+            double constant = value;
+            operation = values -> lambda.apply(s1.extractAsDouble(values), constant);
+        } else {
+            operation = values -> lambda.apply(s1.extractAsDouble(values), Double.NaN);
+        }
+        return new DoubleExpression(
+                identifier,
+                ExpressionSupplier.cacheKey(operator, value, s1, s2),
+                s2 == null ? s1.getChannelIdentifiers() : IdentifierCombiner.combine(s1, s2),
+                operation
+        );
+    }
+
+    /** Comparison of two primitive values */
+    @FunctionalInterface
+    interface DoublePredicateLambda extends Serializable {
+        boolean test(double v1, double v2);
+    }
+
+    /** Arithmetical operation on two primitive values */
+    @FunctionalInterface
+    interface DoubleOperatorLambda extends Serializable {
+        double apply(double v1, double v2);
+    }
+
     /** @inheritDoc */
     @FunctionalInterface
     interface NumberSupplierLambda<
@@ -964,8 +1628,8 @@ public final class Suppliers {
 
     /**
      * Lambda definition interface for definition of operations inside a {@link Supplier} that is created by the
-     * {@link #createSupplier(Serializable, Supplier, String, SupplierLambda)} and the
-     * {@link #createSupplier(Supplier, Supplier, String, SupplierLambda)} methods.
+     * {@link #createSupplier(String, Serializable, Supplier, String, SupplierLambda)} and the
+     * {@link #createSupplier(String, Supplier, Supplier, String, SupplierLambda)} methods.
      *
      * @param <T> type of the first operand
      * @param <I> type of the second operand
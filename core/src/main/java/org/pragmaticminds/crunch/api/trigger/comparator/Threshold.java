@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import java.io.Serializable;
+
+/**
+ * Describes a comparison of a channel value with a constant threshold, in the form:
+ * <code>channel value comparison threshold</code>, e.g. <code>greaterThan(80.0, doubleChannel("temp"))</code> is
+ * <code>temp LOWER_THAN 80.0</code>.
+ * It is created by the comparators in {@link Suppliers} for {@link BooleanExpression}s, so rule engines can index
+ * the comparisons by their thresholds.
+ */
+public final class Threshold implements Serializable {
+
+    /** Comparison of the channel value with the threshold */
+    public enum Comparison {
+        LOWER_THAN,
+        LOWER_THAN_EQUALS,
+        GREATER_THAN,
+        GREATER_THAN_EQUALS
+    }
+
+    private final NumberSupplier<?> channel;
+    private final Comparison comparison;
+    private final double value;
+
+    /**
+     * Main constructor.
+     *
+     * @param channel    reads the channel value
+     * @param comparison of the channel value with the threshold
+     * @param value      of the threshold
+     */
+    Threshold(NumberSupplier<?> channel, Comparison comparison, double value) {
+        this.channel = channel;
+        this.comparison = comparison;
+        this.value = value;
+    }
+
+    /** @return the {@link NumberSupplier} of the channel value */
+    public NumberSupplier<?> getChannel() {
+        return channel;
+    }
+
+    public Comparison getComparison() {
+        return comparison;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Compares a channel value with the threshold, like the {@link BooleanExpression} does.
+     *
+     * @param channelValue value of the channel, NaN if it is not available
+     * @return the result of the comparison or null if the channel value is not available
+     */
+    public Boolean test(double channelValue) {
+        if (Double.isNaN(channelValue)) {
+            return null;
+        }
+        switch (comparison) {
+            case LOWER_THAN:
+                return channelValue < value;
+            case LOWER_THAN_EQUALS:
+                return channelValue <= value;
+            case GREATER_THAN:
+                return channelValue > value;
+            default:
+                return channelValue >= value;
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.pragmaticminds.crunch.api.trigger.filter;
 
+import org.pragmaticminds.crunch.api.pipe.Copyable;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
 import org.pragmaticminds.crunch.events.Event;
@@ -48,34 +49,56 @@ public class EventFilters {
      */
     @SuppressWarnings("squid:S00119")
     public static <EVENT extends Serializable, T extends Serializable> EventFilter<EVENT> onValueChanged(Supplier<T> supplier) {
-        return new EventFilter<EVENT>() {
-            private T lastValue;
+        return new ValueChangedFilter<>(supplier);
+    }
 
-            /**
-             * Applies the filtering checking on the current {@link Event} and {@link MRecord}
-             *
-             * @param event the extracted from the processing
-             * @param values the processed values
-             * @return true if this {@link Event} is to be filtered out, otherwise false
-             */
-            @Override
-            public boolean apply(EVENT event, MRecord values) {
-                boolean keep = false; // filter by default
-                T value = supplier.extract(values);
-                if(value == null){
-                    return false;
-                }
-                if(lastValue != null){
-                    keep = !value.equals(lastValue);
-                }
-                lastValue = value;
-                return keep;
-            }
+    /**
+     * Keeps events only if the supplied value has changed since the last processing
+     *
+     * SuppressWarnings : squid:S00119 : Usage of named templates instead of one character
+     */
+    @SuppressWarnings("squid:S00119")
+    private static final class ValueChangedFilter<EVENT extends Serializable, T extends Serializable>
+            implements EventFilter<EVENT>, Copyable<ValueChangedFilter<EVENT, T>> {
+        private final Supplier<T> supplier;
+        private T lastValue;
+
+        private ValueChangedFilter(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
 
-            @Override
-            public Collection<String> getChannelIdentifiers() {
-                return supplier.getChannelIdentifiers();
+        /**
+         * Applies the filtering checking on the current {@link Event} and {@link MRecord}
+         *
+         * @param event the extracted from the processing
+         * @param values the processed values
+         * @return true if this {@link Event} is to be filtered out, otherwise false
+         */
+        @Override
+        public boolean apply(EVENT event, MRecord values) {
+            boolean keep = false; // filter by default
+            T value = supplier.extract(values);
+            if(value == null){
+                return false;
+            }
+            if(lastValue != null){
+                keep = !value.equals(lastValue);
             }
-        };
+            lastValue = value;
+            return keep;
+        }
+
+        @Override
+        public Collection<String> getChannelIdentifiers() {
+            return supplier.getChannelIdentifiers();
+        }
+
+        /** @return a new instance with the same supplier and last value, values are immutable */
+        @Override
+        public ValueChangedFilter<EVENT, T> copy() {
+            ValueChangedFilter<EVENT, T> copy = new ValueChangedFilter<>(supplier);
+            copy.lastValue = lastValue;
+            return copy;
+        }
     }
 }
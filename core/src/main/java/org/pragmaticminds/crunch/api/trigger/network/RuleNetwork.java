@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.network;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.TriggerEvaluationFunction;
+import org.pragmaticminds.crunch.api.trigger.comparator.BooleanExpression;
+import org.pragmaticminds.crunch.api.trigger.comparator.CacheKey;
+import org.pragmaticminds.crunch.api.trigger.comparator.CompiledSupplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.PrimitiveExpression;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.SupplierCompiler;
+import org.pragmaticminds.crunch.api.trigger.comparator.Threshold;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates a large set of {@link TriggerRule}s as one {@link EvaluationFunction}, instead of one
+ * {@link TriggerEvaluationFunction} per trigger.
+ * <p>
+ * The conditions of all rules are merged into a network:
+ * <ul>
+ * <li>identical conditions are compiled to the same instance by a shared {@link SupplierCompiler} and evaluated
+ * once for all their rules</li>
+ * <li>comparisons of a channel with a constant ({@link Threshold}s) are indexed per channel in sorted threshold
+ * arrays by a {@link ThresholdIndex}, so a changed value only tests the conditions it can flip</li>
+ * <li>all other conditions are only evaluated again if one of their channels changed its value</li>
+ * </ul>
+ * The result of each condition is kept, so the rules are only touched if their condition changed, except the rules
+ * that trigger on every record while their condition holds. Thus the cost of a record scales with the changed
+ * conditions and the triggered rules, not with the number of rules.
+ */
+public class RuleNetwork<T extends Serializable> implements EvaluationFunction<T> {
+
+    private final List<TriggerRule<T>> rules;
+    private final List<Supplier<Boolean>> conditions;
+    private final Threshold[] thresholds;
+    private final int[][] rulesOfCondition;
+    private final ThresholdIndex[] thresholdIndices;
+    private final String[] channels;
+    private final int[][] conditionsOfChannel;
+    private final int[] unconditioned;
+    private final boolean levelTriggered;
+
+    // state
+    private final Object[] lastValues;
+    private final boolean[] seen;
+    private final Boolean[] results;
+    private final Boolean[] lastNonNullResults;
+    /** rules that trigger on every record, as their condition holds */
+    private final BitSet active;
+    private final BitSet dirty = new BitSet();
+    private final BitSet triggered = new BitSet();
+    private transient ThresholdIndex.Changed onThreshold;
+
+    /**
+     * Private constructor for the {@link Builder}, builds the network.
+     *
+     * @param rules to be evaluated
+     */
+    private RuleNetwork(List<TriggerRule<T>> rules) {
+        this.rules = new ArrayList<>(rules);
+
+        // merge identical conditions
+        SupplierCompiler compiler = new SupplierCompiler();
+        Map<Supplier<?>, Integer> ids = new IdentityHashMap<>();
+        this.conditions = new ArrayList<>();
+        List<List<Integer>> ruleLists = new ArrayList<>();
+        boolean hasLevelRules = false;
+        for (int rule = 0; rule < rules.size(); rule++) {
+            Supplier<Boolean> compiled = compiler.compile(rules.get(rule).getCondition());
+            Supplier<?> canonical = compiled instanceof CompiledSupplier
+                    ? ((CompiledSupplier<?>) compiled).getSource()
+                    : compiled;
+            Integer id = ids.get(canonical);
+            if (id == null) {
+                id = conditions.size();
+                ids.put(canonical, id);
+                conditions.add(compiled);
+                ruleLists.add(new ArrayList<>());
+            }
+            ruleLists.get(id).add(rule);
+            TriggerRule.Mode mode = rules.get(rule).getMode();
+            hasLevelRules |= mode == TriggerRule.Mode.ON_TRUE || mode == TriggerRule.Mode.ON_FALSE;
+        }
+        this.levelTriggered = hasLevelRules;
+        this.rulesOfCondition = toArrays(ruleLists);
+
+        // index the thresholds per channel, all other conditions by their channels
+        this.thresholds = new Threshold[conditions.size()];
+        Map<CacheKey, List<Integer>> thresholdsByChannel = new LinkedHashMap<>();
+        Map<String, List<Integer>> conditionsByChannel = new LinkedHashMap<>();
+        List<Integer> withoutChannels = new ArrayList<>();
+        for (int id = 0; id < conditions.size(); id++) {
+            Supplier<Boolean> condition = conditions.get(id);
+            Threshold threshold = condition instanceof BooleanExpression
+                    ? ((BooleanExpression) condition).getThreshold()
+                    : null;
+            if (threshold != null) {
+                thresholds[id] = threshold;
+                CacheKey key = ((PrimitiveExpression<?>) threshold.getChannel()).getCacheKey();
+                thresholdsByChannel.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+            } else if (condition.getChannelIdentifiers().isEmpty()) {
+                withoutChannels.add(id);
+            } else {
+                for (String channel : condition.getChannelIdentifiers()) {
+                    conditionsByChannel.computeIfAbsent(channel, k -> new ArrayList<>()).add(id);
+                }
+            }
+        }
+        this.thresholdIndices = thresholdsByChannel.values().stream()
+                .map(list -> new ThresholdIndex(
+                        thresholds[list.get(0)].getChannel(),
+                        list.stream().map(id -> thresholds[id]).collect(Collectors.toList()),
+                        list
+                ))
+                .toArray(ThresholdIndex[]::new);
+        this.channels = conditionsByChannel.keySet().toArray(new String[0]);
+        this.conditionsOfChannel = toArrays(new ArrayList<>(conditionsByChannel.values()));
+        this.unconditioned = withoutChannels.stream().mapToInt(Integer::intValue).toArray();
+
+        this.lastValues = new Object[channels.length];
+        this.seen = new boolean[channels.length];
+        this.results = new Boolean[conditions.size()];
+        this.lastNonNullResults = new Boolean[conditions.size()];
+        this.active = new BitSet(rules.size());
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+
+    /**
+     * Updates all conditions that could have changed with the current record and passes the record to the
+     * {@link org.pragmaticminds.crunch.api.trigger.handler.TriggerHandler}s of all triggered rules.
+     *
+     * @param ctx contains incoming data and a collector for the outgoing data
+     */
+    @Override
+    public void eval(EvaluationContext<T> ctx) {
+        MRecord record = ctx.get();
+        dirty.clear();
+        triggered.clear();
+
+        // thresholds, only the ones between the last and the current value are visited
+        if (onThreshold == null) {
+            onThreshold = (id, value) -> update(id, thresholds[id].test(value));
+        }
+        for (ThresholdIndex index : thresholdIndices) {
+            index.update(record, onThreshold);
+        }
+
+        // other conditions, if one of their channels changed
+        for (int channel = 0; channel < channels.length; channel++) {
+            Object value = record.get(channels[channel]);
+            if (!seen[channel] || !Objects.equals(value, lastValues[channel])) {
+                seen[channel] = true;
+                lastValues[channel] = value;
+                for (int id : conditionsOfChannel[channel]) {
+                    dirty.set(id);
+                }
+            }
+        }
+        for (int id : unconditioned) {
+            dirty.set(id);
+        }
+        for (int id = dirty.nextSetBit(0); id >= 0; id = dirty.nextSetBit(id + 1)) {
+            update(id, conditions.get(id).extract(record));
+        }
+
+        // trigger the rules in the order they have been added
+        triggered.or(active);
+        for (int rule = triggered.nextSetBit(0); rule >= 0; rule = triggered.nextSetBit(rule + 1)) {
+            trigger(rules.get(rule), ctx, record);
+        }
+    }
+
+    /**
+     * Sets the new result of a condition and marks the rules that are triggered by the change.
+     *
+     * @param id     of the condition
+     * @param result of the condition for the current record
+     */
+    private void update(int id, Boolean result) {
+        if (Objects.equals(results[id], result)) {
+            return;
+        }
+        results[id] = result;
+        Boolean last = lastNonNullResults[id];
+        for (int rule : rulesOfCondition[id]) {
+            switch (rules.get(rule).getMode()) {
+                case ON_TRUE:
+                    active.set(rule, Boolean.TRUE.equals(result));
+                    break;
+                case ON_FALSE:
+                    active.set(rule, Boolean.FALSE.equals(result));
+                    break;
+                case ON_BECOME_TRUE:
+                    if (Boolean.FALSE.equals(last) && Boolean.TRUE.equals(result)) {
+                        triggered.set(rule);
+                    }
+                    break;
+                default:
+                    if (Boolean.TRUE.equals(last) && Boolean.FALSE.equals(result)) {
+                        triggered.set(rule);
+                    }
+                    break;
+            }
+        }
+        // null values are ignored by the become rules
+        if (result != null) {
+            lastNonNullResults[id] = result;
+        }
+    }
+
+    /**
+     * Creates the events of a triggered rule, like the {@link TriggerEvaluationFunction} does.
+     *
+     * @param rule   that is triggered
+     * @param ctx    collects the resulting events
+     * @param record current record
+     */
+    private void trigger(TriggerRule<T> rule, EvaluationContext<T> ctx, MRecord record) {
+        SimpleEvaluationContext<T> simpleContext = new SimpleEvaluationContext<>(record);
+        rule.getHandler().handle(simpleContext);
+        List<T> events = simpleContext.getEvents();
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        for (T event : events) {
+            if (rule.getFilter() == null || rule.getFilter().apply(event, record)) {
+                ctx.collect(event);
+            }
+        }
+    }
+
+    /**
+     * Collects the channel identifiers of all conditions, handlers and filters.
+     *
+     * @return a {@link Set} all channel identifiers that are needed by the rules
+     */
+    @Override
+    public Set<String> getChannelIdentifiers() {
+        Set<String> results = new HashSet<>();
+        for (TriggerRule<T> rule : rules) {
+            results.addAll(rule.getCondition().getChannelIdentifiers());
+            results.addAll(rule.getHandler().getChannelIdentifiers());
+            if (rule.getFilter() != null) {
+                results.addAll(rule.getFilter().getChannelIdentifiers());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Rules that trigger while their condition holds have to see every record.
+     *
+     * @return true if the network has {@link TriggerRule.Mode#ON_TRUE} or {@link TriggerRule.Mode#ON_FALSE} rules
+     */
+    @Override
+    public boolean requiresEveryRecord() {
+        return levelTriggered;
+    }
+
+    /** @return the number of distinct conditions of all rules */
+    public int getConditionCount() {
+        return conditions.size();
+    }
+
+    /** @return the number of distinct conditions, that are indexed by their thresholds */
+    public int getThresholdConditionCount() {
+        int count = 0;
+        for (ThresholdIndex index : thresholdIndices) {
+            count += index.size();
+        }
+        return count;
+    }
+
+    /**
+     * Creates a new instance of the {@link Builder} for this class.
+     *
+     * @return a {@link Builder} for this class.
+     */
+    public static <T extends Serializable> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Builder of this class.
+     */
+    public static final class Builder<T extends Serializable> {
+        private List<TriggerRule<T>> rules = new ArrayList<>();
+
+        private Builder() { /* use RuleNetwork.builder() */ }
+
+        public Builder<T> withRule(TriggerRule<T> rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        public Builder<T> withRules(List<TriggerRule<T>> rules) {
+            this.rules.addAll(rules);
+            return this;
+        }
+
+        public RuleNetwork<T> build() {
+            Preconditions.checkArgument(!rules.isEmpty(), "no rules are set for the RuleNetwork");
+            rules.forEach(Preconditions::checkNotNull);
+            return new RuleNetwork<>(rules);
+        }
+    }
+}
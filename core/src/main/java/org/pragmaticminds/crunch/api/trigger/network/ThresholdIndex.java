@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.network;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.comparator.NumberSupplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.Threshold;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of all {@link Threshold} conditions on one channel.
+ * The thresholds are held in sorted arrays per {@link Threshold.Comparison}, so a change of the channel value only
+ * visits the conditions whose thresholds are between the old and the new value. These are exactly the conditions,
+ * whose result can be flipped by the change.
+ */
+class ThresholdIndex implements Serializable {
+    private final NumberSupplier<?> channel;
+    private final Map<Threshold.Comparison, double[]> thresholds = new EnumMap<>(Threshold.Comparison.class);
+    private final Map<Threshold.Comparison, int[]> conditions = new EnumMap<>(Threshold.Comparison.class);
+    private final int[] all;
+    private double lastValue = Double.NaN;
+
+    /**
+     * Main constructor.
+     *
+     * @param channel    reads the channel value of all thresholds
+     * @param thresholds of the conditions on the channel
+     * @param ids        of the conditions, in the same order as the thresholds
+     */
+    ThresholdIndex(NumberSupplier<?> channel, List<Threshold> thresholds, List<Integer> ids) {
+        this.channel = channel;
+        this.all = ids.stream().mapToInt(Integer::intValue).toArray();
+        for (Threshold.Comparison comparison : Threshold.Comparison.values()) {
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < thresholds.size(); i++) {
+                if (thresholds.get(i).getComparison() == comparison) {
+                    positions.add(i);
+                }
+            }
+            positions.sort(Comparator.comparingDouble(position -> thresholds.get(position).getValue()));
+            this.thresholds.put(comparison, positions.stream().mapToDouble(position -> thresholds.get(position).getValue()).toArray());
+            this.conditions.put(comparison, positions.stream().mapToInt(ids::get).toArray());
+        }
+    }
+
+    /**
+     * Reads the channel value from the record and passes the ids of all conditions, that could have changed since
+     * the last record, to the consumer.
+     *
+     * @param record  current record
+     * @param changed receives the ids of the conditions to be updated
+     */
+    void update(MRecord record, Changed changed) {
+        double value = channel.extractAsDouble(record);
+        double last = lastValue;
+        if (Double.doubleToLongBits(value) == Double.doubleToLongBits(last)) {
+            return;
+        }
+        lastValue = value;
+        if (Double.isNaN(value) || Double.isNaN(last)) {
+            // all conditions change from or to null
+            for (int id : all) {
+                changed.accept(id, value);
+            }
+            return;
+        }
+        double low = Math.min(last, value);
+        double high = Math.max(last, value);
+        // "value < t" and "value >= t" flip for thresholds in (low, high]
+        visit(Threshold.Comparison.LOWER_THAN, upperBound(Threshold.Comparison.LOWER_THAN, low),
+                upperBound(Threshold.Comparison.LOWER_THAN, high), value, changed);
+        visit(Threshold.Comparison.GREATER_THAN_EQUALS, upperBound(Threshold.Comparison.GREATER_THAN_EQUALS, low),
+                upperBound(Threshold.Comparison.GREATER_THAN_EQUALS, high), value, changed);
+        // "value <= t" and "value > t" flip for thresholds in [low, high)
+        visit(Threshold.Comparison.LOWER_THAN_EQUALS, lowerBound(Threshold.Comparison.LOWER_THAN_EQUALS, low),
+                lowerBound(Threshold.Comparison.LOWER_THAN_EQUALS, high), value, changed);
+        visit(Threshold.Comparison.GREATER_THAN, lowerBound(Threshold.Comparison.GREATER_THAN, low),
+                lowerBound(Threshold.Comparison.GREATER_THAN, high), value, changed);
+    }
+
+    /** @return the number of conditions in this index */
+    int size() {
+        return all.length;
+    }
+
+    private void visit(Threshold.Comparison comparison, int from, int to, double value, Changed changed) {
+        int[] ids = conditions.get(comparison);
+        for (int i = from; i < to; i++) {
+            changed.accept(ids[i], value);
+        }
+    }
+
+    /** @return the index of the first threshold greater than the value */
+    private int upperBound(Threshold.Comparison comparison, double value) {
+        double[] values = thresholds.get(comparison);
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** @return the index of the first threshold greater than or equal to the value */
+    private int lowerBound(Threshold.Comparison comparison, double value) {
+        double[] values = thresholds.get(comparison);
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Receives the conditions that could have changed */
+    @FunctionalInterface
+    interface Changed {
+        /**
+         * @param condition id of the condition
+         * @param value     current value of the channel, NaN if not available
+         */
+        void accept(int condition, double value);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.network;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.trigger.filter.EventFilter;
+import org.pragmaticminds.crunch.api.trigger.handler.TriggerHandler;
+import org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategies;
+
+import java.io.Serializable;
+
+/**
+ * Definition of a trigger for the {@link RuleNetwork}.
+ * Like a {@link org.pragmaticminds.crunch.api.trigger.TriggerEvaluationFunction} it consists of a condition, the
+ * way the condition triggers, a {@link TriggerHandler} and an optional {@link EventFilter}. The modes are the same as
+ * the {@link TriggerStrategies} with the same names.
+ */
+public final class TriggerRule<T extends Serializable> implements Serializable {
+
+    /** Decides when the condition triggers the {@link TriggerHandler} */
+    public enum Mode {
+        /** like {@link TriggerStrategies#onTrue(Supplier)}: on every record the condition is true */
+        ON_TRUE,
+        /** like {@link TriggerStrategies#onFalse(Supplier)}: on every record the condition is false */
+        ON_FALSE,
+        /** like {@link TriggerStrategies#onBecomeTrue(Supplier)}: if the condition changes from false to true */
+        ON_BECOME_TRUE,
+        /** like {@link TriggerStrategies#onBecomeFalse(Supplier)}: if the condition changes from true to false */
+        ON_BECOME_FALSE
+    }
+
+    private final Supplier<Boolean> condition;
+    private final Mode mode;
+    private final TriggerHandler<T> handler;
+    private final EventFilter<T> filter;
+
+    private TriggerRule(Supplier<Boolean> condition, Mode mode, TriggerHandler<T> handler, EventFilter<T> filter) {
+        Preconditions.checkNotNull(condition, "condition has to be set");
+        Preconditions.checkNotNull(mode, "mode has to be set");
+        Preconditions.checkNotNull(handler, "Trigger handler has to be set");
+        this.condition = condition;
+        this.mode = mode;
+        this.handler = handler;
+        this.filter = filter;
+    }
+
+    /**
+     * Triggers on every record the condition is true.
+     *
+     * @param condition decides if triggered
+     * @param handler   creates the resulting events
+     * @param <T>       type of the resulting events
+     * @return the rule
+     */
+    public static <T extends Serializable> TriggerRule<T> onTrue(Supplier<Boolean> condition, TriggerHandler<T> handler) {
+        return new TriggerRule<>(condition, Mode.ON_TRUE, handler, null);
+    }
+
+    /**
+     * Triggers on every record the condition is false.
+     *
+     * @param condition decides if triggered
+     * @param handler   creates the resulting events
+     * @param <T>       type of the resulting events
+     * @return the rule
+     */
+    public static <T extends Serializable> TriggerRule<T> onFalse(Supplier<Boolean> condition, TriggerHandler<T> handler) {
+        return new TriggerRule<>(condition, Mode.ON_FALSE, handler, null);
+    }
+
+    /**
+     * Triggers if the condition is true and was false before, records without a value are ignored.
+     *
+     * @param condition decides if triggered
+     * @param handler   creates the resulting events
+     * @param <T>       type of the resulting events
+     * @return the rule
+     */
+    public static <T extends Serializable> TriggerRule<T> onBecomeTrue(Supplier<Boolean> condition, TriggerHandler<T> handler) {
+        return new TriggerRule<>(condition, Mode.ON_BECOME_TRUE, handler, null);
+    }
+
+    /**
+     * Triggers if the condition is false and was true before, records without a value are ignored.
+     *
+     * @param condition decides if triggered
+     * @param handler   creates the resulting events
+     * @param <T>       type of the resulting events
+     * @return the rule
+     */
+    public static <T extends Serializable> TriggerRule<T> onBecomeFalse(Supplier<Boolean> condition, TriggerHandler<T> handler) {
+        return new TriggerRule<>(condition, Mode.ON_BECOME_FALSE, handler, null);
+    }
+
+    /**
+     * Creates a copy of this rule, whose events are filtered.
+     *
+     * @param filter filters the resulting events
+     * @return a new rule with the filter
+     */
+    public TriggerRule<T> withFilter(EventFilter<T> filter) {
+        return new TriggerRule<>(condition, mode, handler, filter);
+    }
+
+    public Supplier<Boolean> getCondition() {
+        return condition;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public TriggerHandler<T> getHandler() {
+        return handler;
+    }
+
+    public EventFilter<T> getFilter() {
+        return filter;
+    }
+}
@@ -21,6 +21,7 @@ package org.pragmaticminds.crunch.api.trigger.strategy;
 
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.Suppliers;
 import org.pragmaticminds.crunch.api.values.TypedValues;
 
 import java.io.Serializable;
@@ -42,8 +43,9 @@ public class TriggerStrategies {
      * @return true if triggered
      */
     public static TriggerStrategy onTrue(Supplier<Boolean> supplier){
+        Supplier<Boolean> compiled = Suppliers.compile(supplier);
         return new LambdaTriggerStrategy(
-                values -> supplier.extract(values) != null && supplier.extract(values),
+                values -> Boolean.TRUE.equals(compiled.extract(values)),
                 () -> new HashSet<>(supplier.getChannelIdentifiers())
         );
     }
@@ -54,12 +56,10 @@ public class TriggerStrategies {
      * @return true if triggered, false if not or supplied value is null
      */
     public static TriggerStrategy onFalse(Supplier<Boolean> supplier){
+        Supplier<Boolean> compiled = Suppliers.compile(supplier);
         return new LambdaTriggerStrategy(
-                values ->
-                        // null check
-                        supplier.extract(values) != null
-                                // on false check
-                                && !supplier.extract(values),
+                // null check and on false check
+                values -> Boolean.FALSE.equals(compiled.extract(values)),
                 () -> new HashSet<>(supplier.getChannelIdentifiers())
         );
     }
@@ -80,7 +80,7 @@ public class TriggerStrategies {
      * @return true if triggered
      */
     public static TriggerStrategy onBecomeTrue(Supplier<Boolean> supplier, Boolean initialValue){
-        return new MemoryTriggerStrategy<Boolean>(supplier, 1, initialValue) {
+        return new MemoryTriggerStrategy<Boolean>(Suppliers.compile(supplier), 1, initialValue) {
             @Override
             public boolean isToBeTriggered(Boolean decisionBase) {
                 return
@@ -108,7 +108,7 @@ public class TriggerStrategies {
      * @return true if triggered
      */
     public static TriggerStrategy onBecomeFalse(Supplier<Boolean> supplier, Boolean initialValue){
-        return new MemoryTriggerStrategy<Boolean>(supplier, 1, initialValue) {
+        return new MemoryTriggerStrategy<Boolean>(Suppliers.compile(supplier), 1, initialValue) {
             @Override
             public boolean isToBeTriggered(Boolean decisionBase) {
                 return
@@ -136,7 +136,7 @@ public class TriggerStrategies {
      * @return true if triggered
      */
     public static <T extends Serializable> TriggerStrategy onChange(Supplier<T> supplier, T initialValue){
-        return new MemoryTriggerStrategy<T>(supplier, 1, initialValue) {
+        return new MemoryTriggerStrategy<T>(Suppliers.compile(supplier), 1, initialValue) {
             /**
              * This method is to be implemented by the user of this class, with the final decision making.
              *
@@ -161,8 +161,9 @@ public class TriggerStrategies {
      * @return true if triggered
      */
     public static <T> TriggerStrategy onNull(Supplier<T> supplier){
+        Supplier<T> compiled = Suppliers.compile(supplier);
         return new LambdaTriggerStrategy(
-                values -> supplier.extract(values) == null,
+                values -> compiled.extract(values) == null,
                 () -> new HashSet<>(supplier.getChannelIdentifiers())
         );
     }
@@ -174,8 +175,9 @@ public class TriggerStrategies {
      * @return true if triggered
      */
     public static <T> TriggerStrategy onNotNull(Supplier<T> supplier){
+        Supplier<T> compiled = Suppliers.compile(supplier);
         return new LambdaTriggerStrategy(
-                values -> supplier.extract(values) != null,
+                values -> compiled.extract(values) != null,
                 () -> new HashSet<>(supplier.getChannelIdentifiers())
         );
     }
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import com.google.common.collect.MapMaker;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps channel names to int slots, which index the columns of {@link ColumnarValues}.
+ * One schema is shared by all records of a pipeline, so the name of a channel has to be resolved only once and all
+ * further accesses can use the slot.
+ * <p>
+ * The schema only grows: unknown channels get the next free slot when they are registered, a slot never changes.
+ * Lookups are lock free, registering new channels is synchronized.
+ * <p>
+ * Every schema has a unique id and is shared per JVM: a deserialized schema resolves to the instance with the same
+ * id, so that caches like the one of {@link ChannelSlot} stay valid for deserialized records. {@link ColumnarValues}
+ * only serialize the id of their schema and the names of their channels.
+ */
+public final class ChannelSchema implements Serializable {
+    /** all schemas of this JVM by their id, weak so unused schemas can be collected */
+    private static final ConcurrentMap<String, ChannelSchema> SHARED = new MapMaker().weakValues().makeMap();
+
+    private final String id;
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private volatile String[] channels = new String[16];
+    private volatile int size = 0;
+
+    /**
+     * Creates an empty schema, channels are added by {@link #register(String)}.
+     */
+    public ChannelSchema() {
+        this(UUID.randomUUID().toString());
+    }
+
+    /** Creates an empty schema with the id and shares it */
+    private ChannelSchema(String id) {
+        this.id = id;
+        SHARED.put(id, this);
+    }
+
+    /**
+     * Creates a schema with the given channels in the given order.
+     *
+     * @param channels names of the channels, duplicates are ignored
+     */
+    public ChannelSchema(Collection<String> channels) {
+        this();
+        for (String channel : channels) {
+            register(channel);
+        }
+    }
+
+    /**
+     * Returns the schema of this JVM with the id, an empty one is created if it is not known yet.
+     *
+     * @param id of the schema
+     * @return the shared schema
+     */
+    static ChannelSchema shared(String id) {
+        ChannelSchema schema = SHARED.get(id);
+        return schema == null ? SHARED.computeIfAbsent(id, ChannelSchema::new) : schema;
+    }
+
+    /**
+     * @return the unique id of this schema
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @param channel name of the channel
+     * @return the slot of the channel or -1 if it is not registered
+     */
+    public int slotOf(String channel) {
+        Integer slot = slots.get(channel);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the slot of the channel and registers it if it is not known yet.
+     *
+     * @param channel name of the channel, not null
+     * @return the slot of the channel
+     */
+    public int register(String channel) {
+        Integer slot = slots.get(channel);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (this) {
+            slot = slots.get(channel);
+            if (slot != null) {
+                return slot;
+            }
+            int newSlot = size;
+            String[] current = channels;
+            if (newSlot == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[newSlot] = channel;
+            channels = current;
+            size = newSlot + 1;
+            slots.put(channel, newSlot);
+            return newSlot;
+        }
+    }
+
+    /**
+     * @param slot of the channel
+     * @return the name of the channel
+     */
+    public String channelAt(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IllegalArgumentException("No channel with slot " + slot + " in the schema");
+        }
+        return channels[slot];
+    }
+
+    /**
+     * @return the number of registered channels, all slots are smaller than this
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces a deserialized schema with the shared instance with the same id. Channels unknown to the shared
+     * instance are registered in their order.
+     *
+     * @return the shared schema
+     */
+    private Object readResolve() {
+        ChannelSchema shared = SHARED.putIfAbsent(id, this);
+        if (shared == null) {
+            return this;
+        }
+        for (int slot = 0; slot < size; slot++) {
+            shared.register(channels[slot]);
+        }
+        return shared;
+    }
+}
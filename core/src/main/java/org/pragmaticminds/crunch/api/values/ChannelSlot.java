@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Reference to a channel that resolves its slot in the {@link ChannelSchema} of {@link SlottedRecord}s like
+ * {@link ColumnarValues} once and then reads the values by the slot, thus without hashing the channel name for every
+ * record.
+ * The resolved slot is cached for the last seen schema, as all records of a pipeline share one schema it is resolved
+ * only once, deserialized records resolve to the shared schema as well.
+ * <p>
+ * All other {@link MRecord}s carry no slot information, they are read by the channel name, as are channels which are
+ * not part of the schema.
+ */
+public final class ChannelSlot implements Serializable {
+
+    private final String name;
+    /** immutable, so it can be replaced without synchronization */
+    private transient Resolved resolved;
+
+    /**
+     * @param name of the channel
+     */
+    public ChannelSlot(String name) {
+        Preconditions.checkNotNull(name, "the name of the channel must not be null");
+        this.name = name;
+    }
+
+    public static ChannelSlot of(String name) {
+        return new ChannelSlot(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Resolves the slot of this channel. Reading never registers a channel, so the shared schema does not grow by
+     * channels that are only asked for. As the channel may be registered by a later record, only found slots are
+     * cached.
+     *
+     * @param schema to resolve the slot in
+     * @return the slot of this channel in the schema or -1 if it is not part of the schema
+     */
+    public int slotIn(ChannelSchema schema) {
+        Resolved current = resolved;
+        if (current == null || current.schema != schema) {
+            int slot = schema.slotOf(name);
+            if (slot < 0) {
+                return slot;
+            }
+            current = new Resolved(schema, slot);
+            resolved = current;
+        }
+        return current.slot;
+    }
+
+    /**
+     * @param record to check
+     * @return true if the record contains this channel
+     */
+    public boolean isPresentIn(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            return columnar.isPresent(slotIn(columnar.getSchema()));
+        }
+        return record.getChannels().contains(name);
+    }
+
+    public Double getDouble(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getDoubleAsPrimitive(slot);
+            }
+        }
+        return record.getDouble(name);
+    }
+
+    public Long getLong(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getLongAsPrimitive(slot);
+            }
+        }
+        return record.getLong(name);
+    }
+
+    /**
+     * Reads the value without boxing it, if the record has slot information.
+     *
+     * @param record to read from
+     * @return the value or {@link Double#NaN} if the channel is not present
+     */
+    public double getAsDouble(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getDoubleAsPrimitive(slot);
+            }
+        }
+        Double value = record.getDouble(name);
+        return value == null ? Double.NaN : value;
+    }
+
+    /**
+     * Reads the value without boxing it, if the record has slot information.
+     *
+     * @param record to read from
+     * @param absent the value to be returned if the channel is not present
+     * @return the value or absent
+     */
+    public long getAsLong(MRecord record, long absent) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getLongAsPrimitive(slot);
+            }
+        }
+        Long value = record.getLong(name);
+        return value == null ? absent : value;
+    }
+
+    @SuppressWarnings("squid:S2447") // null should not be returned, in this case it is necessary
+    public Boolean getBoolean(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getBooleanAsPrimitive(slot);
+            }
+        }
+        return record.getBoolean(name);
+    }
+
+    public Date getDate(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return new Date(columnar.getDateAsPrimitive(slot));
+            }
+        }
+        return record.getDate(name);
+    }
+
+    public String getString(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getStringAt(slot);
+            }
+        }
+        return record.getString(name);
+    }
+
+    public Value getValue(MRecord record) {
+        if (record instanceof SlottedRecord) {
+            SlottedRecord columnar = (SlottedRecord) record;
+            int slot = slotIn(columnar.getSchema());
+            if (columnar.isPresent(slot)) {
+                return columnar.getValueAt(slot);
+            }
+        }
+        return record.getValue(name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /** Slot of the channel in one schema */
+    private static final class Resolved {
+        private final ChannelSchema schema;
+        private final int slot;
+
+        private Resolved(ChannelSchema schema, int slot) {
+            this.schema = schema;
+            this.slot = slot;
+        }
+    }
+}
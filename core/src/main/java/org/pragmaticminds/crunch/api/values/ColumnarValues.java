@@ -0,0 +1,688 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.exceptions.UnknownRecordItemException;
+import org.pragmaticminds.crunch.api.records.DataType;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar implementation of {@link SlottedRecord} for records with many channels.
+ * The channels are resolved to slots by a {@link ChannelSchema} which is shared by all records. Each record only
+ * holds its present channels as sorted slots with a type tag and the raw bits (booleans, longs, doubles and dates as
+ * epoch ms) each, strings are kept in an extra array that is only allocated if the record contains strings. Thus no
+ * boxed values and no map entries are held per channel, and a record with a few channels stays small even if the
+ * shared schema contains thousands of channels.
+ * <p>
+ * The primitive getters like {@link #getDoubleAsPrimitive(int)} work on slots and do not allocate for matching types.
+ * The getters by channel name behave like the ones of {@link UntypedValues}, missing channels return null, and all
+ * conversions that are not natively supported are done by {@link Value}.
+ * <p>
+ * Null values are not stored, a channel set to null is not contained in the record.
+ * <p>
+ * A serialized record only contains the id of its schema and the names of its present channels. On
+ * deserialization the channels are resolved in the shared schema with the same id, so the schema is not copied per
+ * record.
+ *
+ * @see UntypedValues
+ */
+public class ColumnarValues implements SlottedRecord {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarValues.class);
+
+    private static final byte BOOL = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte DATE = 4;
+    private static final byte STRING = 5;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private transient ChannelSchema schema;
+    private String source;
+    private long timestamp;
+    private String prefix;
+    /** slots of the present channels in ascending order, the other arrays are indexed like this one */
+    private transient int[] slots;
+    /** type tag per present channel */
+    private transient byte[] types;
+    /** raw bits per present channel, booleans are 0 or 1, dates are ms since epoch */
+    private transient long[] bits;
+    /** only allocated if a string is set */
+    private transient String[] strings;
+    /** number of present channels */
+    private transient int size;
+
+    /**
+     * Creates an empty record.
+     *
+     * @param schema    resolves the channel names to slots, shared by all records
+     * @param source    identifier of the source
+     * @param timestamp of the record in ms since epoch
+     * @param prefix    of the channels, see {@link UntypedValues#toTypedValues()}
+     */
+    public ColumnarValues(ChannelSchema schema, String source, long timestamp, String prefix) {
+        Preconditions.checkNotNull(schema, "the schema of ColumnarValues must not be null");
+        this.schema = schema;
+        this.source = source;
+        this.timestamp = timestamp;
+        this.prefix = prefix;
+        allocate();
+    }
+
+    /**
+     * Converts any {@link MRecord} into {@link ColumnarValues}, unknown channels are registered in the schema.
+     *
+     * @param record to convert
+     * @param schema resolves the channel names to slots
+     * @return a new record with the same values
+     */
+    public static ColumnarValues of(MRecord record, ChannelSchema schema) {
+        String prefix = null;
+        if (record instanceof UntypedValues) {
+            prefix = ((UntypedValues) record).getPrefix();
+        } else if (record instanceof ColumnarValues) {
+            prefix = ((ColumnarValues) record).getPrefix();
+        }
+        return new ColumnarValues(schema, record.getSource(), record.getTimestamp(), prefix).merge(record);
+    }
+
+    @Override
+    public ChannelSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    @Override
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * @param slot of the channel in the schema
+     * @return true if the record contains a value for the slot
+     */
+    @Override
+    public boolean isPresent(int slot) {
+        return indexOf(slot) >= 0;
+    }
+
+    /**
+     * @return the number of channels present in this record
+     */
+    public int channelCount() {
+        return size;
+    }
+
+    /**
+     * Allows to iterate the present channels without looking at every slot of the schema.
+     *
+     * @param index of the present channel, between 0 and {@link #channelCount()}
+     * @return the slot of the present channel, present channels are ordered by their slots
+     */
+    public int slotAt(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return slots[index];
+    }
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the type of the value in the slot or null if it is not present
+     */
+    public DataType getType(int slot) {
+        int index = indexOf(slot);
+        if (index < 0) {
+            return null;
+        }
+        switch (types[index]) {
+            case BOOL:
+                return DataType.BOOL;
+            case LONG:
+                return DataType.LONG;
+            case DOUBLE:
+                return DataType.DOUBLE;
+            case DATE:
+                return DataType.TIMESTAMP;
+            default:
+                return DataType.STRING;
+        }
+    }
+
+    /**
+     * Allocation free for doubles and longs, all other types are converted like {@link Value#getAsDouble()}.
+     *
+     * @param slot of the channel in the schema
+     * @return the value as double
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    @Override
+    public double getDoubleAsPrimitive(int slot) {
+        return doubleAt(indexAt(slot));
+    }
+
+    /**
+     * Allocation free for longs, all other types are converted like {@link Value#getAsLong()}.
+     *
+     * @param slot of the channel in the schema
+     * @return the value as long
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    @Override
+    public long getLongAsPrimitive(int slot) {
+        return longAt(indexAt(slot));
+    }
+
+    /**
+     * Allocation free for booleans, all other types are converted like {@link Value#getAsBoolean()}.
+     *
+     * @param slot of the channel in the schema
+     * @return the value as boolean
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    @Override
+    public boolean getBooleanAsPrimitive(int slot) {
+        return booleanAt(indexAt(slot));
+    }
+
+    /**
+     * Allocation free for dates, all other types are converted like {@link Value#getAsDate()}.
+     *
+     * @param slot of the channel in the schema
+     * @return the value as ms since epoch
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    @Override
+    public long getDateAsPrimitive(int slot) {
+        return dateAt(indexAt(slot));
+    }
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value as string, all types other than strings are converted like {@link Value#getAsString()}
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    @Override
+    public String getStringAt(int slot) {
+        return stringAt(indexAt(slot));
+    }
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value wrapped in a {@link Value}
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    @Override
+    public Value getValueAt(int slot) {
+        return valueAt(indexAt(slot));
+    }
+
+    @Override
+    public Double getDouble(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return doubleAt(index);
+    }
+
+    @Override
+    public Long getLong(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return longAt(index);
+    }
+
+    @Override
+    @SuppressWarnings("squid:S2447") // null should not be returned, in this case it is necessary
+    public Boolean getBoolean(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return booleanAt(index);
+    }
+
+    @Override
+    public Date getDate(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return new Date(dateAt(index));
+    }
+
+    @Override
+    public String getString(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return stringAt(index);
+    }
+
+    @Override
+    public Value getValue(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return valueAt(index);
+    }
+
+    @Override
+    public Object get(String channel) {
+        int index = indexOf(schema.slotOf(channel));
+        if (index < 0) {
+            printError(channel);
+            return null;
+        }
+        return objectAt(index);
+    }
+
+    @Override
+    public Collection<String> getChannels() {
+        List<String> channels = new ArrayList<>();
+        for (int index = 0; index < size; index++) {
+            channels.add(schema.channelAt(slots[index]));
+        }
+        return channels;
+    }
+
+    public void setBoolean(int slot, boolean value) {
+        setBits(slot, BOOL, value ? 1L : 0L);
+    }
+
+    public void setLong(int slot, long value) {
+        setBits(slot, LONG, value);
+    }
+
+    public void setDouble(int slot, double value) {
+        setBits(slot, DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @param slot   of the channel in the schema
+     * @param timeMs date as ms since epoch
+     */
+    public void setDate(int slot, long timeMs) {
+        setBits(slot, DATE, timeMs);
+    }
+
+    /**
+     * @param slot  of the channel in the schema
+     * @param value to set, null removes the slot
+     */
+    public void setString(int slot, String value) {
+        if (value == null) {
+            remove(slot);
+            return;
+        }
+        int index = insert(slot);
+        if (strings == null) {
+            strings = new String[slots.length];
+        }
+        types[index] = STRING;
+        strings[index] = value;
+    }
+
+    /**
+     * Sets an untyped value like it is contained in {@link UntypedValues}.
+     *
+     * @param slot  of the channel in the schema
+     * @param value to set, null removes the slot
+     */
+    public void set(int slot, Object value) {
+        if (value == null) {
+            remove(slot);
+        } else if (value instanceof Boolean) {
+            setBoolean(slot, (Boolean) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            setDouble(slot, ((Number) value).doubleValue());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            setLong(slot, ((Number) value).longValue());
+        } else if (value instanceof String) {
+            setString(slot, (String) value);
+        } else if (value instanceof Date) {
+            setDate(slot, ((Date) value).getTime());
+        } else {
+            // let the Value decide how to interpret all other shapes, fails for unknown types
+            set(slot, Value.of(value).getAsObject());
+        }
+    }
+
+    /**
+     * Sets an untyped value and registers the channel in the schema if necessary.
+     *
+     * @param channel name of the channel
+     * @param value   to set, null removes the channel
+     */
+    public void set(String channel, Object value) {
+        set(schema.register(channel), value);
+    }
+
+    /**
+     * @param slot of the channel in the schema, that is removed from this record
+     */
+    public void remove(int slot) {
+        int index = indexOf(slot);
+        if (index < 0) {
+            return;
+        }
+        int moved = size - index - 1;
+        System.arraycopy(slots, index + 1, slots, index, moved);
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(bits, index + 1, bits, index, moved);
+        size--;
+        if (strings != null) {
+            System.arraycopy(strings, index + 1, strings, index, moved);
+            strings[size] = null;
+        }
+    }
+
+    /**
+     * Merges the values of another record into this record, like {@link UntypedValues#merge(UntypedValues)}.
+     * Records with the same schema are merged slot by slot without any conversion.
+     * This record is updated!
+     *
+     * @param record values to merge in
+     * @return this record
+     */
+    public ColumnarValues merge(MRecord record) {
+        Preconditions.checkArgument(Objects.equals(source, record.getSource()), "Both values have to come from the same source!");
+        Preconditions.checkArgument(record.getTimestamp() >= timestamp, "You try to merge a record that is older than the current state.");
+        if (record instanceof ColumnarValues && ((ColumnarValues) record).schema == schema) {
+            ColumnarValues other = (ColumnarValues) record;
+            Preconditions.checkArgument(Objects.equals(prefix, other.prefix), "Both prefixes must be the same.");
+            mergeSlots(other);
+        } else if (record instanceof UntypedValues) {
+            Preconditions.checkArgument(Objects.equals(prefix, ((UntypedValues) record).getPrefix()), "Both prefixes must be the same.");
+            for (Map.Entry<String, Object> entry : ((UntypedValues) record).getValues().entrySet()) {
+                set(entry.getKey(), entry.getValue());
+            }
+        } else {
+            for (String channel : record.getChannels()) {
+                Value value = record.getValue(channel);
+                set(channel, value == null ? null : value.getAsObject());
+            }
+        }
+        return this;
+    }
+
+    private void mergeSlots(ColumnarValues other) {
+        for (int index = 0; index < other.size; index++) {
+            byte type = other.types[index];
+            if (type == STRING) {
+                setString(other.slots[index], other.strings[index]);
+            } else {
+                setBits(other.slots[index], type, other.bits[index]);
+            }
+        }
+    }
+
+    /**
+     * @return {@link UntypedValues} with the same values
+     */
+    public UntypedValues toUntypedValues() {
+        Map<String, Object> values = new HashMap<>();
+        for (int index = 0; index < size; index++) {
+            values.put(schema.channelAt(slots[index]), objectAt(index));
+        }
+        return new UntypedValues(source, timestamp, prefix, values);
+    }
+
+    private void setBits(int slot, byte type, long value) {
+        int index = insert(slot);
+        types[index] = type;
+        bits[index] = value;
+        if (strings != null) {
+            strings[index] = null;
+        }
+    }
+
+    private void allocate() {
+        slots = new int[INITIAL_CAPACITY];
+        types = new byte[INITIAL_CAPACITY];
+        bits = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the index of the slot in the arrays or a negative value if it is not present
+     */
+    private int indexOf(int slot) {
+        // records holding the first channels of the schema are dense, there each slot is its own index
+        if (slot >= 0 && slot < size && slots[slot] == slot) {
+            return slot;
+        }
+        return Arrays.binarySearch(slots, 0, size, slot);
+    }
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the index of the slot in the arrays, a new entry is inserted if it is not present
+     */
+    private int insert(int slot) {
+        int index = indexOf(slot);
+        if (index >= 0) {
+            return index;
+        }
+        if (slot < 0) {
+            throw new IllegalArgumentException("Invalid slot " + slot);
+        }
+        index = -index - 1;
+        if (size == slots.length) {
+            int capacity = slots.length * 2;
+            slots = Arrays.copyOf(slots, capacity);
+            types = Arrays.copyOf(types, capacity);
+            bits = Arrays.copyOf(bits, capacity);
+            if (strings != null) {
+                strings = Arrays.copyOf(strings, capacity);
+            }
+        }
+        int moved = size - index;
+        System.arraycopy(slots, index, slots, index + 1, moved);
+        System.arraycopy(types, index, types, index + 1, moved);
+        System.arraycopy(bits, index, bits, index + 1, moved);
+        if (strings != null) {
+            System.arraycopy(strings, index, strings, index + 1, moved);
+            strings[index] = null;
+        }
+        slots[index] = slot;
+        size++;
+        return index;
+    }
+
+    private int indexAt(int slot) {
+        int index = indexOf(slot);
+        if (index < 0) {
+            throw new UnknownRecordItemException("The slot " + slot + " is not present in the record");
+        }
+        return index;
+    }
+
+    private double doubleAt(int index) {
+        switch (types[index]) {
+            case DOUBLE:
+                return Double.longBitsToDouble(bits[index]);
+            case LONG:
+                return bits[index];
+            default:
+                return valueAt(index).getAsDouble();
+        }
+    }
+
+    private long longAt(int index) {
+        if (types[index] == LONG) {
+            return bits[index];
+        }
+        return valueAt(index).getAsLong();
+    }
+
+    private boolean booleanAt(int index) {
+        if (types[index] == BOOL) {
+            return bits[index] != 0;
+        }
+        return valueAt(index).getAsBoolean();
+    }
+
+    private long dateAt(int index) {
+        if (types[index] == DATE) {
+            return bits[index];
+        }
+        return valueAt(index).getAsDate().getTime();
+    }
+
+    private String stringAt(int index) {
+        if (types[index] == STRING) {
+            return strings[index];
+        }
+        return valueAt(index).getAsString();
+    }
+
+    private Object objectAt(int index) {
+        switch (types[index]) {
+            case BOOL:
+                return bits[index] != 0;
+            case LONG:
+                return bits[index];
+            case DOUBLE:
+                return Double.longBitsToDouble(bits[index]);
+            case DATE:
+                return new Date(bits[index]);
+            default:
+                return strings[index];
+        }
+    }
+
+    private Value valueAt(int index) {
+        return Value.of(objectAt(index));
+    }
+
+    private void printError(String channel) {
+        logger.error("Channel with the name \"{}\" is not present!", channel);
+    }
+
+    /**
+     * Writes the id of the schema and the present channels by their name, as the slots are only valid in the schema.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeUTF(schema.getId());
+        out.writeInt(size);
+        for (int index = 0; index < size; index++) {
+            out.writeUTF(schema.channelAt(slots[index]));
+            out.writeByte(types[index]);
+            if (types[index] == STRING) {
+                out.writeObject(strings[index]);
+            } else {
+                out.writeLong(bits[index]);
+            }
+        }
+    }
+
+    /**
+     * Resolves the shared schema and the slots of the channels, which may differ from the writing JVM.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        schema = ChannelSchema.shared(in.readUTF());
+        allocate();
+        int present = in.readInt();
+        for (int i = 0; i < present; i++) {
+            int slot = schema.register(in.readUTF());
+            byte type = in.readByte();
+            if (type == STRING) {
+                setString(slot, (String) in.readObject());
+            } else {
+                setBits(slot, type, in.readLong());
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ColumnarValues that = (ColumnarValues) o;
+        if (timestamp != that.timestamp || !Objects.equals(source, that.source) || !Objects.equals(prefix, that.prefix)) {
+            return false;
+        }
+        return toUntypedValues().getValues().equals(that.toUntypedValues().getValues());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, timestamp, prefix);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarValues(source=" + source + ", timestamp=" + timestamp + ", prefix=" + prefix
+                + ", values=" + toUntypedValues().getValues() + ")";
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import org.pragmaticminds.crunch.api.exceptions.UnknownRecordItemException;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+
+/**
+ * {@link MRecord} whose channels are resolved to slots by a {@link ChannelSchema}, so they can be read by the slot
+ * instead of hashing the channel name. {@link ChannelSlot} reads all such records by their slots.
+ * <p>
+ * The primitive getters do not allocate for matching types, all other conversions are done like by {@link Value}.
+ *
+ * @see ColumnarValues
+ */
+public interface SlottedRecord extends MRecord {
+
+    /**
+     * @return the schema that resolves the channel names to the slots of this record
+     */
+    ChannelSchema getSchema();
+
+    /**
+     * @param slot of the channel in the schema
+     * @return true if the record contains a value for the slot
+     */
+    boolean isPresent(int slot);
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value as double
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    double getDoubleAsPrimitive(int slot);
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value as long
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    long getLongAsPrimitive(int slot);
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value as boolean
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    boolean getBooleanAsPrimitive(int slot);
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value as ms since epoch
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    long getDateAsPrimitive(int slot);
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value as string
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    String getStringAt(int slot);
+
+    /**
+     * @param slot of the channel in the schema
+     * @return the value wrapped in a {@link Value}
+     * @throws UnknownRecordItemException if the slot is not present
+     */
+    Value getValueAt(int slot);
+}
@@ -19,6 +19,7 @@
 
 package org.pragmaticminds.crunch.api.windowed;
 
+import org.pragmaticminds.crunch.api.pipe.Copyable;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.trigger.comparator.SerializableFunction;
 import org.pragmaticminds.crunch.api.trigger.comparator.SerializableResultFunction;
@@ -29,11 +30,12 @@ import java.util.List;
 
 /**
  * Wraps the {@link RecordWindow} interface so that it can be implemented with lambdas.
+ * The lambdas must not hold any state, so copies share them.
  *
  * @author Erwin Wagasow
  * Created by Erwin Wagasow on 27.09.2018
  */
-public class LambdaRecordWindow implements RecordWindow {
+public class LambdaRecordWindow implements RecordWindow, Copyable<LambdaRecordWindow> {
 
     private SerializableFunction<MRecord, Boolean> inWindowLambda;
     private SerializableResultFunction<ArrayList<String>> getChannelIdentifiers;
@@ -68,4 +70,10 @@ public class LambdaRecordWindow implements RecordWindow {
     public Collection<String> getChannelIdentifiers() {
         return getChannelIdentifiers.get();
     }
+
+    /** @return a new instance with the same lambdas */
+    @Override
+    public LambdaRecordWindow copy() {
+        return new LambdaRecordWindow(inWindowLambda, getChannelIdentifiers);
+    }
 }
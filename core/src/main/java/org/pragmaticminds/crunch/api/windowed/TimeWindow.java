@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed;
+
+import java.io.Serializable;
+
+/**
+ * Describes windows over the event time of the records, created by {@link TimeWindows}.
+ * Tumbling and sliding windows are aligned to the epoch and cover the interval [start, start + size), a new window
+ * starts every slide. A session window starts with a record and covers all following records, until no record arrived
+ * for the gap.
+ */
+public final class TimeWindow implements Serializable {
+    private final long sizeMs;
+    private final long slideMs;
+    private final long gapMs;
+
+    /**
+     * Constructor for {@link TimeWindows}.
+     *
+     * @param sizeMs  length of a window, 0 for sessions
+     * @param slideMs distance between the starts of two windows, 0 for sessions
+     * @param gapMs   time without records after which a session is closed, 0 for tumbling and sliding windows
+     */
+    TimeWindow(long sizeMs, long slideMs, long gapMs) {
+        this.sizeMs = sizeMs;
+        this.slideMs = slideMs;
+        this.gapMs = gapMs;
+    }
+
+    /** @return true if this is a session window */
+    public boolean isSession() {
+        return gapMs > 0;
+    }
+
+    public long getSizeMs() {
+        return sizeMs;
+    }
+
+    public long getSlideMs() {
+        return slideMs;
+    }
+
+    public long getGapMs() {
+        return gapMs;
+    }
+
+    @Override
+    public String toString() {
+        return isSession()
+                ? String.format("TimeWindow{gapMs=%d}", gapMs)
+                : String.format("TimeWindow{sizeMs=%d, slideMs=%d}", sizeMs, slideMs);
+    }
+}
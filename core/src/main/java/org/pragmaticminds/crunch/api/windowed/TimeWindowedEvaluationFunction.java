@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.pipe.Prototype;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.filter.EventFilter;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.windowed.extractor.MergeableWindowExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.WindowExtractor;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This class aggregates records in windows over their event time, see {@link TimeWindows}.
+ * The windows are kept per source, records of different sources are never aggregated together. Every window has its
+ * own {@link WindowExtractor}, which aggregates the records incrementally, so no records are buffered. A window is
+ * finished as soon as a record of its source or the watermark reaches its end, thus results are also emitted if no
+ * records arrive anymore, see {@link EvaluationFunction#onWatermark(long, EvaluationContext)}.
+ * <p>
+ * Sliding windows with a {@link MergeableWindowExtractor} aggregate each record only once, in a pane of one slide.
+ * When a window ends, its first pane takes the other panes of the window and is finished, as no later window
+ * contains it. Other extractors aggregate each record in all sizeMs / slideMs windows it belongs to.
+ * <p>
+ * The {@link WindowExtractor} finishes with a record that has the source of the window and the end of the window
+ * as timestamp. Records that belong only to already finished windows of their source are passed to
+ * {@link EvaluationContext#late(MRecord)}.
+ */
+public class TimeWindowedEvaluationFunction<T extends Serializable> implements EvaluationFunction<T> {
+    private final TimeWindow timeWindow;
+    private final Prototype<WindowExtractor<T>> extractorPrototype;
+    private final EventFilter<T> filter;
+    // true if the records are aggregated once per slide, see the class comment
+    private final boolean panes;
+
+    // the open windows of each source
+    private final Map<String, SourceWindows<T>> sources = new LinkedHashMap<>();
+
+    /**
+     * Private Constructor for the Builder of this class.
+     *
+     * @param timeWindow describes the windows
+     * @param extractor  prototype of the aggregation of each window
+     * @param filter     (optional) filters the results of the windows
+     */
+    private TimeWindowedEvaluationFunction(
+            TimeWindow timeWindow,
+            WindowExtractor<T> extractor,
+            EventFilter<T> filter
+    ) {
+        Preconditions.checkNotNull(timeWindow, "the timeWindow of the TimeWindowedEvaluationFunction is not set");
+        Preconditions.checkNotNull(extractor, "the extractor of the TimeWindowedEvaluationFunction is not set");
+        this.timeWindow = timeWindow;
+        this.extractorPrototype = new Prototype<>(extractor);
+        this.filter = filter;
+        // tumbling windows are their own single pane
+        this.panes = !timeWindow.isSession() && (timeWindow.getSlideMs() == timeWindow.getSizeMs()
+                || extractor instanceof MergeableWindowExtractor
+                && ((MergeableWindowExtractor<T>) extractor).isMergeable());
+    }
+
+    /**
+     * Creates a builder for this class
+     *
+     * @return a builder for this class
+     */
+    public static <B extends Serializable> Builder<B> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Finishes all windows of the source that end before the record and then aggregates the record in the windows
+     * it belongs to. If all of these windows are already finished, the record is late.
+     *
+     * @param context contains incoming data and a collector for the outgoing data
+     */
+    @Override
+    public void eval(EvaluationContext<T> context) {
+        MRecord record = context.get();
+        long timestamp = record.getTimestamp();
+        SourceWindows<T> windows = sources.computeIfAbsent(record.getSource(), SourceWindows::new);
+        finishUntil(windows, timestamp, context);
+        if (timeWindow.isSession()) {
+            if (timestamp < windows.finishedUntil) {
+                // the session of the record is already finished
+                context.late(record);
+                return;
+            }
+            if (windows.session == null) {
+                windows.session = extractorPrototype.newInstance();
+                windows.sessionStart = timestamp;
+                windows.sessionLast = timestamp;
+            }
+            windows.sessionStart = Math.min(windows.sessionStart, timestamp);
+            windows.sessionLast = Math.max(windows.sessionLast, timestamp);
+            windows.session.apply(record);
+        } else if (panes) {
+            long slide = timeWindow.getSlideMs();
+            long pane = Math.floorDiv(timestamp, slide) * slide;
+            // the window starting with the pane is the last one containing the record
+            if (pane + timeWindow.getSizeMs() <= windows.finishedUntil) {
+                context.late(record);
+                return;
+            }
+            windows.open.computeIfAbsent(pane, key -> extractorPrototype.newInstance()).apply(record);
+        } else {
+            long slide = timeWindow.getSlideMs();
+            boolean aggregated = false;
+            for (long start = Math.floorDiv(timestamp, slide) * slide; start > timestamp - timeWindow.getSizeMs();
+                 start -= slide) {
+                if (start + timeWindow.getSizeMs() <= windows.finishedUntil) {
+                    break;
+                }
+                windows.open.computeIfAbsent(start, key -> extractorPrototype.newInstance()).apply(record);
+                aggregated = true;
+            }
+            if (!aggregated) {
+                context.late(record);
+            }
+        }
+    }
+
+    /**
+     * Finishes all windows of all sources that end before the watermark.
+     *
+     * @param watermark all records up to this timestamp have been evaluated
+     * @param ctx       collects the results of the finished windows
+     */
+    @Override
+    public void onWatermark(long watermark, EvaluationContext<T> ctx) {
+        for (SourceWindows<T> windows : sources.values()) {
+            finishUntil(windows, watermark, ctx);
+        }
+    }
+
+    /**
+     * Finishes all windows of a source with an end up to the timestamp in the order of their ends.
+     *
+     * @param windows   of the source
+     * @param timestamp up to which the windows are finished
+     * @param context   collects the results
+     */
+    private void finishUntil(SourceWindows<T> windows, long timestamp, EvaluationContext<T> context) {
+        if (timeWindow.isSession()) {
+            if (windows.session != null && windows.sessionLast + timeWindow.getGapMs() <= timestamp) {
+                WindowExtractor<T> finished = windows.session;
+                windows.session = null;
+                finish(windows, finished, windows.sessionLast + timeWindow.getGapMs(), context);
+            }
+            return;
+        }
+        long size = timeWindow.getSizeMs();
+        while (!windows.open.isEmpty()) {
+            long first = windows.open.firstKey();
+            long start = panes ? firstWindowOf(first, windows.finishedUntil) : first;
+            if (start + size > timestamp) {
+                return;
+            }
+            if (panes) {
+                finishPanes(windows, start, context);
+            } else {
+                finish(windows, windows.open.pollFirstEntry().getValue(), start + size, context);
+            }
+        }
+    }
+
+    /**
+     * @param pane          start of the first open pane
+     * @param finishedUntil end of the latest finished window
+     * @return the start of the first window that contains the pane and is not finished yet
+     */
+    private long firstWindowOf(long pane, long finishedUntil) {
+        long slide = timeWindow.getSlideMs();
+        // the windows starting after this contain the pane and end after finishedUntil
+        long after = Math.max(pane, finishedUntil) - timeWindow.getSizeMs();
+        return Math.floorDiv(after, slide) * slide + slide;
+    }
+
+    /**
+     * Finishes the window from the panes. The first pane of the window is not part of any later window, so it
+     * takes all other panes of the window, which are kept for the following windows.
+     *
+     * @param windows of the source
+     * @param start   of the window
+     * @param context collects the results
+     */
+    @SuppressWarnings("unchecked") // panes are only used for mergeable extractors
+    private void finishPanes(SourceWindows<T> windows, long start, EvaluationContext<T> context) {
+        long end = start + timeWindow.getSizeMs();
+        WindowExtractor<T> window = windows.open.firstKey() == start
+                ? windows.open.pollFirstEntry().getValue()
+                : extractorPrototype.newInstance();
+        for (WindowExtractor<T> pane : windows.open.headMap(end).values()) {
+            ((MergeableWindowExtractor<T>) window).merge((MergeableWindowExtractor<T>) pane);
+        }
+        finish(windows, window, end, context);
+    }
+
+    /**
+     * Extracts the results of a window, filters and collects them.
+     *
+     * @param windows   of the source
+     * @param extractor of the window
+     * @param end       of the window
+     * @param context   collects the results
+     */
+    private void finish(
+            SourceWindows<T> windows,
+            WindowExtractor<T> extractor,
+            long end,
+            EvaluationContext<T> context
+    ) {
+        windows.finishedUntil = Math.max(windows.finishedUntil, end);
+        MRecord windowRecord = UntypedValues.builder()
+                .source(windows.source)
+                .prefix("")
+                .timestamp(end)
+                .values(Collections.emptyMap())
+                .build();
+        SimpleEvaluationContext<T> windowContext = new SimpleEvaluationContext<>(windowRecord);
+        extractor.finish(windowContext);
+        for (T result : windowContext.getEvents()) {
+            if (filter == null || filter.apply(result, windowRecord)) {
+                context.collect(result);
+            }
+        }
+        if (windowContext.getEvictedKeys() > 0) {
+            context.evictedKeys(windowContext.getEvictedKeys());
+        }
+    }
+
+    /**
+     * Collects all channel identifiers, that are aggregated and filtered
+     *
+     * @return a {@link Set} of all channel identifiers
+     */
+    @Override
+    public Set<String> getChannelIdentifiers() {
+        Set<String> results = new HashSet<>(extractorPrototype.get().getChannelIdentifiers());
+        if (filter != null) {
+            results.addAll(filter.getChannelIdentifiers());
+        }
+        return results;
+    }
+
+    /**
+     * The windows aggregate every record and are finished by the timestamps of the records.
+     *
+     * @return always true
+     */
+    @Override
+    public boolean requiresEveryRecord() {
+        return true;
+    }
+
+    /**
+     * The open windows of one source.
+     */
+    private static final class SourceWindows<T extends Serializable> implements Serializable {
+        private final String source;
+        // open tumbling and sliding windows or panes by their start
+        private final TreeMap<Long, WindowExtractor<T>> open = new TreeMap<>();
+        // the open session window
+        private WindowExtractor<T> session;
+        private long sessionStart;
+        private long sessionLast;
+        // end of the latest finished window
+        private long finishedUntil = Long.MIN_VALUE;
+
+        private SourceWindows(String source) {
+            this.source = source;
+        }
+    }
+
+    /**
+     * Builder for this class
+     */
+    public static final class Builder<T extends Serializable> {
+        private TimeWindow timeWindow;
+        private WindowExtractor<T> extractor;
+        private EventFilter<T> filter;
+
+        private Builder() {}
+
+        public Builder<T> timeWindow(TimeWindow timeWindow) {
+            this.timeWindow = timeWindow;
+            return this;
+        }
+
+        public Builder<T> extractor(WindowExtractor<T> extractor) {
+            this.extractor = extractor;
+            return this;
+        }
+
+        public Builder<T> filter(EventFilter<T> filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        public Builder<T> but() {
+            return new Builder<T>().timeWindow(timeWindow)
+                    .extractor(extractor)
+                    .filter(filter);
+        }
+
+        public TimeWindowedEvaluationFunction<T> build() {
+            return new TimeWindowedEvaluationFunction<>(timeWindow, extractor, filter);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This is a collection of {@link TimeWindow}s over the event time, for the usage in a
+ * {@link TimeWindowedEvaluationFunction}
+ */
+public class TimeWindows {
+    private TimeWindows() { /* hide constructor */ }
+
+    /**
+     * Windows of a fixed size that do not overlap, each record belongs to exactly one window.
+     *
+     * @param sizeMs length of each window in ms
+     * @return the described windows
+     */
+    public static TimeWindow tumbling(long sizeMs) {
+        return sliding(sizeMs, sizeMs);
+    }
+
+    /**
+     * Windows of a fixed size, a new one starts every slideMs. Each record belongs to sizeMs / slideMs windows.
+     *
+     * @param sizeMs  length of each window in ms
+     * @param slideMs distance of the window starts in ms, sizeMs has to be a multiple of it
+     * @return the described windows
+     */
+    public static TimeWindow sliding(long sizeMs, long slideMs) {
+        Preconditions.checkArgument(slideMs > 0, "the slide of a TimeWindow has to be positive");
+        Preconditions.checkArgument(
+                sizeMs >= slideMs && sizeMs % slideMs == 0,
+                "the size of a TimeWindow has to be a multiple of its slide"
+        );
+        return new TimeWindow(sizeMs, slideMs, 0L);
+    }
+
+    /**
+     * Windows that start with a record and are closed when no record arrived for gapMs.
+     *
+     * @param gapMs time without records in ms after which the session is closed
+     * @return the described windows
+     */
+    public static TimeWindow session(long gapMs) {
+        Preconditions.checkArgument(gapMs > 0, "the gap of a session TimeWindow has to be positive");
+        return new TimeWindow(0L, 0L, gapMs);
+    }
+}
@@ -20,9 +20,9 @@
 package org.pragmaticminds.crunch.api.windowed;
 
 import com.google.common.base.Preconditions;
-import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
 import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
 import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.pipe.Prototype;
 import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.trigger.filter.EventFilter;
@@ -42,9 +42,9 @@ import java.util.stream.Collectors;
  * Created by Erwin Wagasow on 16.08.2018
  */
 public class WindowedEvaluationFunction<T extends Serializable> implements EvaluationFunction<T> {
-  private RecordWindow recordWindowPrototype;
-    private WindowExtractor<T> extractorPrototype;
-    private EventFilter<T> filterPrototype;
+  private Prototype<RecordWindow> recordWindowPrototype;
+    private Prototype<WindowExtractor<T>> extractorPrototype;
+    private Prototype<EventFilter<T>> filterPrototype;
   private RecordWindow recordWindow;
     private WindowExtractor<T> extractor;
     private EventFilter<T> filter;
@@ -63,26 +63,27 @@ public class WindowedEvaluationFunction<T extends Serializable> implements Evalu
             WindowExtractor<T> extractor,
             EventFilter<T> filter
     ) {
-        this.recordWindowPrototype = recordWindow;
-        this.extractorPrototype = extractor;
-        this.filterPrototype = filter;
+        checkValues(recordWindow, extractor);
 
-        makeLocalInstances();
+        this.recordWindowPrototype = new Prototype<>(recordWindow);
+        this.extractorPrototype = new Prototype<>(extractor);
+        this.filterPrototype = filter == null ? null : new Prototype<>(filter);
 
-        checkValues();
+        makeLocalInstances();
     }
 
     /** Check if all necessary members are available */
-    private void checkValues() {
-        Preconditions.checkNotNull(recordWindowPrototype);
-        Preconditions.checkNotNull(extractorPrototype);
+    private void checkValues(RecordWindow recordWindow, WindowExtractor<T> extractor) {
+        Preconditions.checkNotNull(recordWindow);
+        Preconditions.checkNotNull(extractor);
     }
 
+    /** Creates fresh instances from the prototypes, these only serialize once and then deserialize on each call */
     private void makeLocalInstances(){
-        recordWindow = ClonerUtil.clone(recordWindowPrototype);
-        extractor = ClonerUtil.clone(extractorPrototype);
+        recordWindow = recordWindowPrototype.newInstance();
+        extractor = extractorPrototype.newInstance();
         if(filterPrototype != null){
-            filter = ClonerUtil.clone(filterPrototype);
+            filter = filterPrototype.newInstance();
         }
     }
 
@@ -123,6 +124,9 @@ public class WindowedEvaluationFunction<T extends Serializable> implements Evalu
 
             // filter results and call collect on each
             collectResults(context, simpleContext.getEvents());
+            if (simpleContext.getEvictedKeys() > 0) {
+                context.evictedKeys(simpleContext.getEvictedKeys());
+            }
 
             // recreate local instances to set everything on the start conditions
             makeLocalInstances();
@@ -141,12 +145,22 @@ public class WindowedEvaluationFunction<T extends Serializable> implements Evalu
     public Set<String> getChannelIdentifiers() {
         Set<String> results = new HashSet<>();
         if(filterPrototype != null){
-            results.addAll(filterPrototype.getChannelIdentifiers());
+            results.addAll(filterPrototype.get().getChannelIdentifiers());
         }
-        results.addAll(recordWindowPrototype.getChannelIdentifiers());
+        results.addAll(recordWindowPrototype.get().getChannelIdentifiers());
         return results;
     }
 
+    /**
+     * The extractors aggregate every record while the window is open, even if no channel of the window changed.
+     *
+     * @return always true
+     */
+    @Override
+    public boolean requiresEveryRecord() {
+        return true;
+    }
+
     /**
      * Checks if the results are set and if a filter is set, applies the filter on the results and collects them by
      * the context.
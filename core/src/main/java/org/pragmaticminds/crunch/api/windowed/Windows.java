@@ -40,7 +40,7 @@ public class Windows {
      */
     public static RecordWindow bitActive(Supplier<Boolean> supplier) {
         return new LambdaRecordWindow(
-                values -> supplier.extract(values) != null && supplier.extract(values),
+                values -> Boolean.TRUE.equals(supplier.extract(values)),
                 () -> new ArrayList<>(supplier.getChannelIdentifiers())
         );
     }
@@ -54,7 +54,7 @@ public class Windows {
      */
     public static RecordWindow bitNotActive(Supplier<Boolean> supplier) {
         return new LambdaRecordWindow(
-                record -> supplier.extract(record) != null && !supplier.extract(record),
+                record -> Boolean.FALSE.equals(supplier.extract(record)),
                 () -> new ArrayList<>(supplier.getChannelIdentifiers())
         );
     }
@@ -67,7 +67,10 @@ public class Windows {
      */
     public static <T> RecordWindow valueEquals(Supplier<T> supplier, T expected) {
         return new LambdaRecordWindow(
-                record -> supplier.extract(record) != null && supplier.extract(record).equals(expected),
+                record -> {
+                    T value = supplier.extract(record);
+                    return value != null && value.equals(expected);
+                },
                 () -> new ArrayList<>(supplier.getChannelIdentifiers())
         );
     }
@@ -80,7 +83,10 @@ public class Windows {
      */
     public static <T> RecordWindow valueNotEquals(Supplier<T> supplier, T notExpected) {
         return new LambdaRecordWindow(
-                record -> supplier.extract(record) != null && !supplier.extract(record).equals(notExpected),
+                record -> {
+                    T value = supplier.extract(record);
+                    return value != null && !value.equals(notExpected);
+                },
                 () -> new ArrayList<>(supplier.getChannelIdentifiers())
         );
     }
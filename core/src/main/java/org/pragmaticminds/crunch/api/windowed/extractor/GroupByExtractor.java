@@ -20,18 +20,25 @@
 package org.pragmaticminds.crunch.api.windowed.extractor;
 
 import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
 import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
 import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.trigger.Tuple2;
+import org.pragmaticminds.crunch.api.trigger.comparator.NumberSupplier;
 import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
 import org.pragmaticminds.crunch.api.windowed.WindowedEvaluationFunction;
 import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregation;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.DoubleAggregation;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.MergeableAggregation;
 import org.pragmaticminds.crunch.events.GenericEvent;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -40,11 +47,15 @@ import java.util.stream.Collectors;
  * specific values like sums etc. All aggregated values are passed optionally to a {@link GroupAggregationFinalizer},
  * which creates the resulting {@link GenericEvent}s. Is the {@link GroupAggregationFinalizer} not set all aggregated values
  * are put into an resulting {@link GenericEvent}.
+ * <p>
+ * If all {@link Aggregation}s are {@link MergeableAggregation}s, two extractors of the same configuration can be
+ * merged, see {@link MergeableWindowExtractor}.
  *
  * @author Erwin Wagasow
  * Created by Erwin Wagasow on 16.08.2018
  */
-public class GroupByExtractor<T extends Serializable> implements WindowExtractor<T> {
+public class GroupByExtractor<T extends Serializable>
+        implements MergeableWindowExtractor<T>, Copyable<GroupByExtractor<T>> {
     private HashMap<String, Tuple2<Aggregation, Supplier>> aggregations;
     private GroupAggregationFinalizer<T> finalizer;
 
@@ -73,19 +84,34 @@ public class GroupByExtractor<T extends Serializable> implements WindowExtractor
     /**
      * This method collects single values for the later made extraction.
      * The value is passed to each {@link Supplier} and the result to the {@link Aggregation}.
+     * A {@link NumberSupplier} feeds a {@link DoubleAggregation} with primitive values, absent values are skipped.
      *
      * @param record from the eval call of the {@link WindowedEvaluationFunction}.
      */
     @Override
-    @SuppressWarnings("unchecked") // is insured to be safe
     public void apply(MRecord record) {
-        aggregations.forEach(
-                // aggregate the current record value
-                (key, tuple2) -> tuple2.getF0().aggregate(
-                        // extract the value of interest from the record with the Supplier
-                        (Serializable) tuple2.getF1().extract(record)
-                )
-        );
+        // aggregate the current record value
+        aggregations.forEach((key, tuple2) -> aggregate(tuple2.getF0(), tuple2.getF1(), record));
+    }
+
+    /**
+     * Passes the value of the {@link Supplier} for the record to the {@link Aggregation}.
+     *
+     * @param aggregation that takes the value
+     * @param supplier    extracts the value from the record
+     * @param record      to be aggregated
+     */
+    @SuppressWarnings("unchecked") // is insured to be safe
+    static void aggregate(Aggregation aggregation, Supplier supplier, MRecord record) {
+        if (aggregation instanceof DoubleAggregation && supplier instanceof NumberSupplier) {
+            double value = ((NumberSupplier) supplier).extractAsDouble(record);
+            if (!Double.isNaN(value)) {
+                ((DoubleAggregation) aggregation).aggregateDouble(value);
+            }
+        } else {
+            // extract the value of interest from the record with the Supplier
+            aggregation.aggregate((Serializable) supplier.extract(record));
+        }
     }
 
     /**
@@ -110,6 +136,60 @@ public class GroupByExtractor<T extends Serializable> implements WindowExtractor
         finalizer.onFinalize(results, context);
     }
 
+    /**
+     * @return true if all aggregations are {@link MergeableAggregation}s
+     */
+    @Override
+    public boolean isMergeable() {
+        return aggregations.values().stream()
+                .allMatch(tuple2 -> tuple2.getF0() instanceof MergeableAggregation);
+    }
+
+    /**
+     * Merges each aggregation with the aggregation of the same identifier of the other extractor.
+     *
+     * @param other extractor with the same aggregations
+     */
+    @Override
+    @SuppressWarnings("unchecked") // is insured to be safe
+    public void merge(MergeableWindowExtractor<T> other) {
+        Preconditions.checkArgument(
+                other instanceof GroupByExtractor
+                        && ((GroupByExtractor<T>) other).aggregations.keySet().equals(aggregations.keySet()),
+                "only a GroupByExtractor with the same aggregations can be merged"
+        );
+        Preconditions.checkState(isMergeable(), "not all aggregations of the GroupByExtractor are mergeable");
+        Map<String, Tuple2<Aggregation, Supplier>> others = ((GroupByExtractor<T>) other).aggregations;
+        aggregations.forEach((key, tuple2) -> ((MergeableAggregation) tuple2.getF0())
+                .merge((MergeableAggregation) others.get(key).getF0()));
+    }
+
+    /**
+     * Copies the {@link Aggregation}s with their current state, the {@link Supplier}s and the
+     * {@link GroupAggregationFinalizer} hold no state and are shared.
+     *
+     * @return a new instance with the current aggregation state
+     */
+    @Override
+    public GroupByExtractor<T> copy() {
+        Map<String, Tuple2<Aggregation, Supplier>> copies = new HashMap<>();
+        aggregations.forEach((key, tuple2) ->
+                copies.put(key, new Tuple2<>(ClonerUtil.clone(tuple2.getF0()), tuple2.getF1())));
+        return new GroupByExtractor<>(copies, finalizer);
+    }
+
+    /**
+     * Collects the channel identifiers of all {@link Supplier}s of the aggregations.
+     *
+     * @return a {@link Set} of all channel identifiers, that are aggregated
+     */
+    @Override
+    public Set<String> getChannelIdentifiers() {
+        Set<String> results = new HashSet<>();
+        aggregations.values().forEach(tuple2 -> results.addAll(tuple2.getF1().getChannelIdentifiers()));
+        return results;
+    }
+
     /**
      * Creates a Builder for this class
      * @return a Builder for this class
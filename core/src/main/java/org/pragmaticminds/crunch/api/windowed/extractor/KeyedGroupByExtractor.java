@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.pipe.Prototype;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.windowed.WindowedEvaluationFunction;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregation;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class implements {@link WindowExtractor} like the {@link GroupByExtractor}, but groups the records by a key,
+ * that is delivered by a {@link Supplier}, e.g. the id of a tool or the type of a product. Each key gets its own
+ * instances of the {@link Aggregation}s, these are kept in a compact {@link KeyedStateMap}.
+ * <p>
+ * The memory is bounded by the maximal number of keys: if a new key exceeds it, the approximately least recently
+ * used key is evicted. Optionally keys without records for the idle timeout are evicted. Only the aggregated values
+ * of an evicted key are kept until the finish, a key that reappears afterwards starts with new {@link Aggregation}s.
+ * Records without a key are ignored.
+ * <p>
+ * On finish the aggregated values of each key are passed with the key to the {@link GroupAggregationFinalizer}, so
+ * it creates the resulting events for each key. The values of evicted keys are passed first and are flagged by the
+ * evicted identifier, as they are partial. The number of evicted keys is reported to the
+ * {@link EvaluationContext#evictedKeys(long)}.
+ */
+public class KeyedGroupByExtractor<T extends Serializable> implements WindowExtractor<T> {
+    public static final int DEFAULT_MAX_KEYS = 10_000;
+    public static final String DEFAULT_KEY_IDENTIFIER = "key";
+    public static final String DEFAULT_EVICTED_IDENTIFIER = "evicted";
+    // number of keys that are compared to find the least recently used one
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final Supplier<?> keySupplier;
+    private final String keyIdentifier;
+    private final String evictedIdentifier;
+    private final String[] identifiers;
+    private final Supplier[] suppliers;
+    private final Prototype<Aggregation>[] prototypes;
+    private final int maxKeys;
+    private final long idleTimeoutMs;
+    private final GroupAggregationFinalizer<T> finalizer;
+
+    private final KeyedStateMap<Aggregation[]> states = new KeyedStateMap<>();
+    // aggregated values of the evicted keys, which are finalized with the remaining keys
+    private final List<Map<String, Object>> evictedResults = new ArrayList<>();
+    private long nextIdleCheck = Long.MIN_VALUE;
+    private long evictedKeys;
+
+    /**
+     * Private constructor for the {@link Builder}.
+     *
+     * @param keySupplier       delivers the key of each record
+     * @param keyIdentifier     name of the key in the aggregated values that are passed to the finalizer
+     * @param evictedIdentifier name of the flag in the aggregated values that marks the values of an evicted key
+     * @param aggregations      all {@link Aggregation}s with their {@link Supplier}s by their identifier
+     * @param maxKeys           maximal number of keys, that are aggregated at the same time
+     * @param idleTimeoutMs     time after which a key without records is evicted, 0 to keep them
+     * @param finalizer         creates the resulting events for each key
+     */
+    @SuppressWarnings("unchecked") // generic array creation
+    private KeyedGroupByExtractor(
+            Supplier<?> keySupplier,
+            String keyIdentifier,
+            String evictedIdentifier,
+            Map<String, Tuple> aggregations,
+            int maxKeys,
+            long idleTimeoutMs,
+            GroupAggregationFinalizer<T> finalizer
+    ) {
+        Preconditions.checkNotNull(keySupplier, "the key supplier of the KeyedGroupByExtractor is not set");
+        Preconditions.checkNotNull(keyIdentifier, "the key identifier of the KeyedGroupByExtractor is not set");
+        Preconditions.checkNotNull(
+                evictedIdentifier,
+                "the evicted identifier of the KeyedGroupByExtractor is not set"
+        );
+        Preconditions.checkNotNull(finalizer, "the finalizer of the KeyedGroupByExtractor is not set");
+        Preconditions.checkArgument(
+                aggregations != null && !aggregations.isEmpty(),
+                "the aggregations of the KeyedGroupByExtractor are not set"
+        );
+        Preconditions.checkArgument(maxKeys >= 1, "the maxKeys of the KeyedGroupByExtractor has to be at least 1");
+        Preconditions.checkArgument(idleTimeoutMs >= 0, "the idleTimeoutMs of the KeyedGroupByExtractor is negative");
+        this.keySupplier = keySupplier;
+        this.keyIdentifier = keyIdentifier;
+        this.evictedIdentifier = evictedIdentifier;
+        this.identifiers = new String[aggregations.size()];
+        this.suppliers = new Supplier[aggregations.size()];
+        this.prototypes = new Prototype[aggregations.size()];
+        int i = 0;
+        for (Map.Entry<String, Tuple> entry : aggregations.entrySet()) {
+            identifiers[i] = entry.getKey();
+            suppliers[i] = entry.getValue().supplier;
+            prototypes[i] = new Prototype<>(entry.getValue().aggregation);
+            i++;
+        }
+        this.maxKeys = maxKeys;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.finalizer = finalizer;
+    }
+
+    /**
+     * Looks up the {@link Aggregation}s of the key of the record and passes the values of their {@link Supplier}s
+     * to them.
+     *
+     * @param record from the eval call of the {@link WindowedEvaluationFunction}.
+     */
+    @Override
+    public void apply(MRecord record) {
+        Object key = keySupplier.extract(record);
+        if (key == null) {
+            return;
+        }
+        long timestamp = record.getTimestamp();
+        Aggregation[] aggregations = states.get(key, timestamp);
+        if (aggregations == null) {
+            aggregations = newAggregations(timestamp);
+            states.put(key, aggregations, timestamp);
+        }
+        for (int i = 0; i < aggregations.length; i++) {
+            GroupByExtractor.aggregate(aggregations[i], suppliers[i], record);
+        }
+    }
+
+    /**
+     * Passes the aggregated values of each evicted and each remaining key to the finalizer, the key is added by the
+     * key identifier and whether it was evicted by the evicted identifier.
+     *
+     * @param context of the current eval call to the parent {@link WindowedEvaluationFunction}. also collects the
+     *                resulting {@link GenericEvent}s and the number of evicted keys
+     */
+    @Override
+    public void finish(EvaluationContext<T> context) {
+        for (Map<String, Object> results : evictedResults) {
+            finalizer.onFinalize(results, context);
+        }
+        states.forEach((key, aggregations) -> finalizer.onFinalize(results(key, aggregations, false), context));
+        if (evictedKeys > 0) {
+            context.evictedKeys(evictedKeys);
+        }
+    }
+
+    /**
+     * Collects the channel identifiers of the key {@link Supplier} and of all aggregated {@link Supplier}s.
+     *
+     * @return a {@link Set} of all channel identifiers
+     */
+    @Override
+    @SuppressWarnings("unchecked") // suppliers are raw
+    public Set<String> getChannelIdentifiers() {
+        Set<String> results = new HashSet<>(keySupplier.getChannelIdentifiers());
+        for (Supplier supplier : suppliers) {
+            results.addAll(supplier.getChannelIdentifiers());
+        }
+        return results;
+    }
+
+    /** @return the number of keys that are currently aggregated */
+    public int getKeyCount() {
+        return states.size();
+    }
+
+    /** @return the number of keys that were evicted because they were idle or exceeded the maxKeys */
+    public long getEvictedKeys() {
+        return evictedKeys;
+    }
+
+    /**
+     * Collects the aggregated values of a key.
+     *
+     * @param key          of the aggregations
+     * @param aggregations of the key
+     * @param evicted      whether the key is evicted
+     * @return the aggregated values with the key and the evicted flag
+     */
+    private Map<String, Object> results(Object key, Aggregation[] aggregations, boolean evicted) {
+        Map<String, Object> results = new HashMap<>();
+        for (int i = 0; i < aggregations.length; i++) {
+            results.put(identifiers[i], aggregations[i].getAggregated());
+        }
+        results.put(keyIdentifier, key);
+        results.put(evictedIdentifier, evicted);
+        return results;
+    }
+
+    /** Keeps the aggregated values of an evicted key for the finish */
+    private void evict(Object key, Aggregation[] aggregations) {
+        evictedResults.add(results(key, aggregations, true));
+        evictedKeys++;
+    }
+
+    /**
+     * Makes room for a new key and creates its {@link Aggregation}s.
+     *
+     * @param timestamp of the record with the new key
+     * @return fresh instances of all {@link Aggregation}s
+     */
+    private Aggregation[] newAggregations(long timestamp) {
+        // idle keys are searched at most twice per idle timeout, as all keys are scanned
+        if (idleTimeoutMs > 0 && timestamp >= nextIdleCheck) {
+            states.evictIdle(timestamp - idleTimeoutMs, this::evict);
+            nextIdleCheck = timestamp + idleTimeoutMs / 2;
+        }
+        if (states.size() >= maxKeys) {
+            states.evictSample(EVICTION_SAMPLES, this::evict);
+        }
+        Aggregation[] aggregations = new Aggregation[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            aggregations[i] = prototypes[i].newInstance();
+        }
+        return aggregations;
+    }
+
+    /**
+     * Creates a Builder for this class
+     * @return a Builder for this class
+     */
+    public static <T extends Serializable> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /** An {@link Aggregation} with the {@link Supplier} of its values */
+    private static final class Tuple implements Serializable {
+        private final Aggregation aggregation;
+        private final Supplier supplier;
+
+        private Tuple(Aggregation aggregation, Supplier supplier) {
+            this.aggregation = aggregation;
+            this.supplier = supplier;
+        }
+    }
+
+    /** Builder for this class */
+    public static final class Builder<T extends Serializable> {
+        private Supplier<?> keySupplier;
+        private String keyIdentifier = DEFAULT_KEY_IDENTIFIER;
+        private String evictedIdentifier = DEFAULT_EVICTED_IDENTIFIER;
+        private Map<String, Tuple> aggregations = new LinkedHashMap<>();
+        private int maxKeys = DEFAULT_MAX_KEYS;
+        private long idleTimeoutMs;
+        private GroupAggregationFinalizer<T> finalizer;
+
+        private Builder() { /* do nothing */ }
+
+        /**
+         * Sets the {@link Supplier} of the key by which the records are grouped.
+         *
+         * @param keySupplier delivers the key of each record, records with the key null are ignored
+         * @return self
+         */
+        public Builder<T> groupBy(Supplier<?> keySupplier) {
+            this.keySupplier = keySupplier;
+            return this;
+        }
+
+        /**
+         * @param keyIdentifier name of the key in the aggregated values, {@link #DEFAULT_KEY_IDENTIFIER} by default
+         * @return self
+         */
+        public Builder<T> keyIdentifier(String keyIdentifier) {
+            this.keyIdentifier = keyIdentifier;
+            return this;
+        }
+
+        /**
+         * @param evictedIdentifier name of the flag in the aggregated values, that is true for the partial values of
+         *                          an evicted key, {@link #DEFAULT_EVICTED_IDENTIFIER} by default
+         * @return self
+         */
+        public Builder<T> evictedIdentifier(String evictedIdentifier) {
+            this.evictedIdentifier = evictedIdentifier;
+            return this;
+        }
+
+        public Builder<T> aggregate(Aggregation aggregation, Supplier supplier) {
+            return aggregate(
+                    aggregation,
+                    supplier,
+                    String.format("%s.%s", aggregation.getIdentifier(), supplier.getIdentifier())
+            );
+        }
+
+        public Builder<T> aggregate(Aggregation aggregation, Supplier supplier, String identifier) {
+            // create a unique identifier
+            String id = identifier;
+            int count = 0;
+            while (aggregations.containsKey(id)) {
+                id = identifier + "$" + count;
+                count++;
+            }
+            aggregations.put(id, new Tuple(aggregation, supplier));
+            return this;
+        }
+
+        /**
+         * @param maxKeys maximal number of keys that are aggregated, {@link #DEFAULT_MAX_KEYS} by default
+         * @return self
+         */
+        public Builder<T> maxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        /**
+         * @param idleTimeoutMs time after which a key without records is evicted, 0 (the default) to keep them
+         * @return self
+         */
+        public Builder<T> idleTimeoutMs(long idleTimeoutMs) {
+            this.idleTimeoutMs = idleTimeoutMs;
+            return this;
+        }
+
+        /**
+         * The finalizer packs the aggregated values of each key into resulting Ts.
+         *
+         * If T is GenericEvent the class {@link DefaultGenericEventGroupAggregationFinalizer} can be used.
+         *
+         * @param finalizer instance of {@link GroupAggregationFinalizer}.
+         * @return self
+         */
+        public Builder<T> finalizer(GroupAggregationFinalizer<T> finalizer) {
+            this.finalizer = finalizer;
+            return this;
+        }
+
+        public Builder<T> but() {
+            Builder<T> builder = new Builder<T>()
+                    .groupBy(keySupplier)
+                    .keyIdentifier(keyIdentifier)
+                    .evictedIdentifier(evictedIdentifier)
+                    .maxKeys(maxKeys)
+                    .idleTimeoutMs(idleTimeoutMs)
+                    .finalizer(finalizer);
+            builder.aggregations = new LinkedHashMap<>(aggregations);
+            return builder;
+        }
+
+        public KeyedGroupByExtractor<T> build() {
+            return new KeyedGroupByExtractor<>(
+                    keySupplier, keyIdentifier, evictedIdentifier, aggregations, maxKeys, idleTimeoutMs, finalizer
+            );
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+
+/**
+ * A compact hash map from keys to their state with open addressing and linear probing, used by the
+ * {@link KeyedGroupByExtractor}.
+ * Keys, values and the timestamps of their last access are kept in parallel arrays, so no entry objects are
+ * created. Removed entries are closed by shifting their successors back, so no tombstones are needed.
+ * <p>
+ * The least recently used keys can be evicted approximately by {@link #evictSample(int)} in constant time, idle keys
+ * by {@link #evictIdle(long)} with a scan of all entries.
+ *
+ * @param <V> type of the states
+ */
+final class KeyedStateMap<V> implements Serializable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private long[] lastAccess = new long[INITIAL_CAPACITY];
+    private int size;
+    // slot at which the next sampling for an eviction starts
+    private int cursor;
+
+    /**
+     * Looks up the state of the key and marks it as accessed.
+     *
+     * @param key       not null
+     * @param timestamp of the access
+     * @return the state or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key, long timestamp) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(key)) {
+                lastAccess[slot] = Math.max(lastAccess[slot], timestamp);
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a key that is not present yet.
+     *
+     * @param key       not null
+     * @param value     state of the key
+     * @param timestamp of the access
+     */
+    void put(Object key, V value, long timestamp) {
+        // keep the load factor below 1/2, so the probe sequences stay short
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        lastAccess[slot] = timestamp;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes the least recently accessed key of the next occupied slots, which approximates the least recently used
+     * key of the map.
+     *
+     * @param samples   number of keys that are compared
+     * @param onEvicted receives the evicted key and its state before it is removed
+     */
+    @SuppressWarnings("unchecked")
+    void evictSample(int samples, BiConsumer<Object, V> onEvicted) {
+        if (size == 0) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int oldest = -1;
+        for (int seen = 0; seen < samples && seen < size; cursor = (cursor + 1) & mask) {
+            if (keys[cursor] != null) {
+                if (oldest < 0 || lastAccess[cursor] < lastAccess[oldest]) {
+                    oldest = cursor;
+                }
+                seen++;
+            }
+        }
+        onEvicted.accept(keys[oldest], (V) values[oldest]);
+        removeAt(oldest);
+    }
+
+    /**
+     * Removes all keys that were not accessed since the timestamp.
+     *
+     * @param timestamp the oldest access that is kept
+     * @param onEvicted receives each evicted key and its state before it is removed
+     * @return the number of removed keys
+     */
+    @SuppressWarnings("unchecked")
+    int evictIdle(long timestamp, BiConsumer<Object, V> onEvicted) {
+        int removed = 0;
+        int slot = 0;
+        while (slot < keys.length) {
+            if (keys[slot] != null && lastAccess[slot] < timestamp) {
+                // a successor may be shifted into this slot, so it is checked again
+                onEvicted.accept(keys[slot], (V) values[slot]);
+                removeAt(slot);
+                removed++;
+            } else {
+                slot++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Passes all keys and their states in no particular order.
+     *
+     * @param consumer of the keys and states
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<Object, V> consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                consumer.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    /** Removes the entry of the slot and shifts back the following entries of the probe sequence */
+    private void removeAt(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int ideal = slot(keys[next], mask);
+            // the entry may only move back, if its ideal slot is not between the hole and its current slot
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                lastAccess[hole] = lastAccess[next];
+                hole = next;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+    }
+
+    /** Rehashes all entries into arrays of the new capacity */
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] oldLastAccess = lastAccess;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        lastAccess = new long[capacity];
+        cursor = 0;
+        int mask = capacity - 1;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != null) {
+                int slot = slot(oldKeys[old], mask);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[old];
+                values[slot] = oldValues[old];
+                lastAccess[slot] = oldLastAccess[old];
+            }
+        }
+    }
+
+    /** @return the ideal slot of the key, the hash is spread, so similar hash codes do not cluster */
+    private static int slot(Object key, int mask) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
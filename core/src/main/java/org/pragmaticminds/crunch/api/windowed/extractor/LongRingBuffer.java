@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable ring buffer of primitive long values, that is used as a queue of timestamps by the
+ * {@link RollingExtractor}. The capacity is always a power of two, so all operations are amortized O(1) without
+ * boxing.
+ */
+final class LongRingBuffer implements Serializable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    /** @param value appended at the end */
+    void addLast(long value) {
+        if (size == values.length) {
+            grow();
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    /** @return the first value, which is removed */
+    long removeFirst() {
+        long value = peekFirst();
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    /** @return the first value */
+    long peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("the LongRingBuffer is empty");
+        }
+        return values[head];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** doubles the capacity and moves the values to the start of the new array */
+    private void grow() {
+        long[] grown = new long[values.length * 2];
+        int tail = values.length - head;
+        System.arraycopy(values, head, grown, 0, tail);
+        System.arraycopy(values, 0, grown, tail, head);
+        values = grown;
+        head = 0;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import org.pragmaticminds.crunch.api.windowed.TimeWindowedEvaluationFunction;
+
+import java.io.Serializable;
+
+/**
+ * A {@link WindowExtractor} whose state can be combined with the state of another instance of the same
+ * configuration, as if all records of both had been applied to one. The
+ * {@link TimeWindowedEvaluationFunction} uses this to aggregate the records of sliding windows only once per slide
+ * and to combine these panes for each window.
+ *
+ * @param <T> type of the results
+ */
+public interface MergeableWindowExtractor<T extends Serializable> extends WindowExtractor<T> {
+
+    /**
+     * @return true if {@link #merge(MergeableWindowExtractor)} is supported by this instance, true by default
+     */
+    default boolean isMergeable() {
+        return true;
+    }
+
+    /**
+     * Adds the state of the other extractor to this one, the other one is not changed.
+     *
+     * @param other extractor of the same configuration
+     * @throws IllegalArgumentException if the other extractor has another configuration
+     */
+    void merge(MergeableWindowExtractor<T> other);
+}
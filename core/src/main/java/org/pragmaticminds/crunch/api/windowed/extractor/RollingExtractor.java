@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.windowed.WindowedEvaluationFunction;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.SlidingAggregation;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class implements {@link WindowExtractor} with {@link SlidingAggregation}s, which only hold the last values of
+ * the window, so their memory is bounded. The values are evicted if more than the last values are aggregated or
+ * if they are older than the last milliseconds before the latest record. Both bounds can be combined, at least one
+ * of them has to be set.
+ * <p>
+ * The results of {@link #finish(EvaluationContext)} are the rolling statistics of the aggregated values that are
+ * left, e.g. the average of the last 100 values before a {@link WindowedEvaluationFunction} closes its window.
+ * As finishing does not change the aggregations, it can be called after every record as well.
+ * Records have to be applied in the order of their timestamps.
+ */
+public class RollingExtractor<T extends Serializable> implements WindowExtractor<T> {
+    private final String[] identifiers;
+    private final Supplier[] suppliers;
+    private final SlidingAggregation[] aggregations;
+    // timestamps of the values of each aggregation, only kept if the values are evicted by their age
+    private final LongRingBuffer[] timestamps;
+    private final int lastValues;
+    private final long lastMs;
+    private final GroupAggregationFinalizer<T> finalizer;
+
+    /**
+     * Private constructor for the {@link Builder}.
+     *
+     * @param aggregations all {@link SlidingAggregation}s with their {@link Supplier}s by their identifier
+     * @param lastValues   maximal number of values per aggregation, 0 for no limit
+     * @param lastMs       maximal age of the values relative to the latest record, 0 for no limit
+     * @param finalizer    creates the resulting events
+     */
+    private RollingExtractor(
+            Map<String, Tuple> aggregations,
+            int lastValues,
+            long lastMs,
+            GroupAggregationFinalizer<T> finalizer
+    ) {
+        Preconditions.checkNotNull(finalizer, "the finalizer of the RollingExtractor is not set");
+        Preconditions.checkArgument(
+                aggregations != null && !aggregations.isEmpty(),
+                "the aggregations of the RollingExtractor are not set"
+        );
+        Preconditions.checkArgument(lastValues >= 0, "the lastValues of the RollingExtractor is negative");
+        Preconditions.checkArgument(lastMs >= 0, "the lastMs of the RollingExtractor is negative");
+        Preconditions.checkArgument(
+                lastValues > 0 || lastMs > 0,
+                "the RollingExtractor needs lastValues or lastMs, else the aggregations are never evicted"
+        );
+        this.identifiers = new String[aggregations.size()];
+        this.suppliers = new Supplier[aggregations.size()];
+        this.aggregations = new SlidingAggregation[aggregations.size()];
+        this.timestamps = new LongRingBuffer[aggregations.size()];
+        int i = 0;
+        for (Map.Entry<String, Tuple> entry : aggregations.entrySet()) {
+            identifiers[i] = entry.getKey();
+            suppliers[i] = entry.getValue().supplier;
+            this.aggregations[i] = entry.getValue().aggregation;
+            timestamps[i] = lastMs > 0 ? new LongRingBuffer() : null;
+            i++;
+        }
+        this.lastValues = lastValues;
+        this.lastMs = lastMs;
+        this.finalizer = finalizer;
+    }
+
+    /**
+     * Aggregates the values of the record and evicts all values that are out of the bounds.
+     *
+     * @param record from the eval call of the {@link WindowedEvaluationFunction}.
+     */
+    @Override
+    public void apply(MRecord record) {
+        long timestamp = record.getTimestamp();
+        for (int i = 0; i < aggregations.length; i++) {
+            SlidingAggregation aggregation = aggregations[i];
+            int size = aggregation.size();
+            GroupByExtractor.aggregate(aggregation, suppliers[i], record);
+            if (timestamps[i] != null) {
+                // absent values are not aggregated
+                if (aggregation.size() > size) {
+                    timestamps[i].addLast(timestamp);
+                }
+                while (!timestamps[i].isEmpty() && timestamps[i].peekFirst() <= timestamp - lastMs) {
+                    timestamps[i].removeFirst();
+                    aggregation.evict();
+                }
+            }
+            while (lastValues > 0 && aggregation.size() > lastValues) {
+                if (timestamps[i] != null) {
+                    timestamps[i].removeFirst();
+                }
+                aggregation.evict();
+            }
+        }
+    }
+
+    /**
+     * Passes the rolling statistics to the finalizer.
+     *
+     * @param context of the current eval call to the parent {@link WindowedEvaluationFunction}. also collects the
+     *                resulting {@link GenericEvent}s
+     */
+    @Override
+    public void finish(EvaluationContext<T> context) {
+        Map<String, Object> results = new HashMap<>();
+        for (int i = 0; i < aggregations.length; i++) {
+            results.put(identifiers[i], aggregations[i].getAggregated());
+        }
+        finalizer.onFinalize(results, context);
+    }
+
+    /**
+     * Collects the channel identifiers of all aggregated {@link Supplier}s.
+     *
+     * @return a {@link Set} of all channel identifiers
+     */
+    @Override
+    @SuppressWarnings("unchecked") // suppliers are raw
+    public Set<String> getChannelIdentifiers() {
+        Set<String> results = new HashSet<>();
+        for (Supplier supplier : suppliers) {
+            results.addAll(supplier.getChannelIdentifiers());
+        }
+        return results;
+    }
+
+    /**
+     * Creates a Builder for this class
+     * @return a Builder for this class
+     */
+    public static <T extends Serializable> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /** A {@link SlidingAggregation} with the {@link Supplier} of its values */
+    private static final class Tuple implements Serializable {
+        private final SlidingAggregation aggregation;
+        private final Supplier supplier;
+
+        private Tuple(SlidingAggregation aggregation, Supplier supplier) {
+            this.aggregation = aggregation;
+            this.supplier = supplier;
+        }
+    }
+
+    /** Builder for this class */
+    public static final class Builder<T extends Serializable> {
+        private Map<String, Tuple> aggregations = new LinkedHashMap<>();
+        private int lastValues;
+        private long lastMs;
+        private GroupAggregationFinalizer<T> finalizer;
+
+        private Builder() { /* do nothing */ }
+
+        public Builder<T> aggregate(SlidingAggregation aggregation, Supplier supplier) {
+            return aggregate(
+                    aggregation,
+                    supplier,
+                    String.format("%s.%s", aggregation.getIdentifier(), supplier.getIdentifier())
+            );
+        }
+
+        public Builder<T> aggregate(SlidingAggregation aggregation, Supplier supplier, String identifier) {
+            // create a unique identifier
+            String id = identifier;
+            int count = 0;
+            while (aggregations.containsKey(id)) {
+                id = identifier + "$" + count;
+                count++;
+            }
+            aggregations.put(id, new Tuple(aggregation, supplier));
+            return this;
+        }
+
+        /**
+         * @param lastValues maximal number of values of each aggregation
+         * @return self
+         */
+        public Builder<T> lastValues(int lastValues) {
+            this.lastValues = lastValues;
+            return this;
+        }
+
+        /**
+         * @param lastMs maximal age of the values relative to the timestamp of the latest record
+         * @return self
+         */
+        public Builder<T> lastMs(long lastMs) {
+            this.lastMs = lastMs;
+            return this;
+        }
+
+        /**
+         * The finalizer packs the rolling statistics into resulting Ts.
+         *
+         * If T is GenericEvent the class {@link DefaultGenericEventGroupAggregationFinalizer} can be used.
+         *
+         * @param finalizer instance of {@link GroupAggregationFinalizer}.
+         * @return self
+         */
+        public Builder<T> finalizer(GroupAggregationFinalizer<T> finalizer) {
+            this.finalizer = finalizer;
+            return this;
+        }
+
+        public Builder<T> but() {
+            Builder<T> builder = new Builder<T>()
+                    .lastValues(lastValues)
+                    .lastMs(lastMs)
+                    .finalizer(finalizer);
+            builder.aggregations = new LinkedHashMap<>(aggregations);
+            return builder;
+        }
+
+        public RollingExtractor<T> build() {
+            return new RollingExtractor<>(aggregations, lastValues, lastMs, finalizer);
+        }
+    }
+}
@@ -27,6 +27,8 @@ import org.pragmaticminds.crunch.events.GenericEvent;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Extracts resulting {@link GenericEvent}s from {@link MRecord}s for
@@ -50,4 +52,13 @@ public interface WindowExtractor<T extends Serializable> extends Serializable {
      *                {@link GenericEvent}s
      */
     void finish(EvaluationContext<T> context);
+
+    /**
+     * Returns all channel identifiers of which values are extracted.
+     *
+     * @return a {@link Set} of channel identifiers, empty by default
+     */
+    default Set<String> getChannelIdentifiers() {
+        return Collections.emptySet();
+    }
 }
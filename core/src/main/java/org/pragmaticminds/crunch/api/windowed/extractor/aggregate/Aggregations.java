@@ -35,7 +35,7 @@ public class Aggregations implements Serializable {
      * @param <T> type of the values
      * @return the biggest value
      */
-    public static <T extends Number & Comparable> Aggregation<T> max(){
+    public static <T extends Number & Comparable> MergeableDoubleAggregation<T> max(){
         return new Max<>();
     }
 
@@ -44,7 +44,7 @@ public class Aggregations implements Serializable {
      * @param <T> type of the values
      * @return the smallest value
      */
-    public static <T extends Number & Comparable> Aggregation<T> min(){
+    public static <T extends Number & Comparable> MergeableDoubleAggregation<T> min(){
         return new Min<>();
     }
 
@@ -53,7 +53,7 @@ public class Aggregations implements Serializable {
      * @param <T> type of the values
      * @return the sum of all aggregated values
      */
-    public static <T extends Number> Aggregation<T> sum(){
+    public static <T extends Number> MergeableDoubleAggregation<T> sum(){
         return new Sum<>();
     }
 
@@ -62,7 +62,107 @@ public class Aggregations implements Serializable {
      * @param <T> type of the values
      * @return the calculated avg value from aggregated values
      */
-    public static <T extends Number> Aggregation<T> avg(){
+    public static <T extends Number> MergeableDoubleAggregation<T> avg(){
         return new Avg<>();
     }
+
+    /**
+     * Creates a {@link SlidingAggregation} that holds the biggest value of the sliding window.
+     * @param <T> type of the values
+     * @return the biggest value in the window
+     */
+    public static <T extends Number & Comparable> SlidingAggregation<T> slidingMax(){
+        return new SlidingExtremum<>(true);
+    }
+
+    /**
+     * Creates a {@link SlidingAggregation} that holds the smallest value of the sliding window.
+     * @param <T> type of the values
+     * @return the smallest value in the window
+     */
+    public static <T extends Number & Comparable> SlidingAggregation<T> slidingMin(){
+        return new SlidingExtremum<>(false);
+    }
+
+    /**
+     * Creates a {@link SlidingAggregation} that sums up the values of the sliding window.
+     * @param <T> type of the values
+     * @return the sum of the values in the window
+     */
+    public static <T extends Number> SlidingAggregation<T> slidingSum(){
+        return new SlidingSum<>();
+    }
+
+    /**
+     * Creates a {@link SlidingAggregation} that calculates the avg value of the sliding window.
+     * @param <T> type of the values
+     * @return the avg value of the values in the window
+     */
+    public static <T extends Number> SlidingAggregation<T> slidingAvg(){
+        return new SlidingAvg<>();
+    }
+
+    /**
+     * Creates a {@link MergeableAggregation} that estimates a quantile of the aggregated values in a memory bounded
+     * sketch, with a relative error of at most 1%.
+     * @param quantile between 0 and 1, e.g. 0.95 for the 95th percentile
+     * @param <T> type of the values
+     * @return the estimated quantile, its identifier is the percentile, e.g. "p95"
+     */
+    public static <T extends Number> MergeableDoubleAggregation<T> quantile(double quantile){
+        return new Quantile<>(quantile, Quantile.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * Creates a {@link MergeableAggregation} that estimates a quantile of the aggregated values in a memory bounded
+     * sketch.
+     * @param quantile between 0 and 1, e.g. 0.95 for the 95th percentile
+     * @param relativeAccuracy maximal relative error of the estimation, between 0 and 1
+     * @param <T> type of the values
+     * @return the estimated quantile, its identifier is the percentile, e.g. "p95"
+     */
+    public static <T extends Number> MergeableDoubleAggregation<T> quantile(double quantile, double relativeAccuracy){
+        return new Quantile<>(quantile, relativeAccuracy);
+    }
+
+    /**
+     * Creates a {@link MergeableAggregation} that estimates the number of distinct aggregated values with a
+     * HyperLogLog sketch of 16 KiB, the standard error is about 0.8%.
+     * @param <T> type of the values
+     * @return the estimated number of distinct values
+     */
+    public static <T extends Serializable> MergeableAggregation<T> distinctCount(){
+        return new DistinctCount<>(DistinctCount.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a {@link MergeableAggregation} that estimates the number of distinct aggregated values with a
+     * HyperLogLog sketch of 2^precision bytes.
+     * @param precision between 4 and 18, the standard error is about 1.04 / sqrt(2^precision)
+     * @param <T> type of the values
+     * @return the estimated number of distinct values
+     */
+    public static <T extends Serializable> MergeableAggregation<T> distinctCount(int precision){
+        return new DistinctCount<>(precision);
+    }
+
+    /**
+     * Creates a {@link MergeableAggregation} that calculates the sample variance of the aggregated values in
+     * constant memory.
+     * @param <T> type of the values
+     * @return the variance of all aggregated values
+     */
+    public static <T extends Number> MergeableDoubleAggregation<T> variance(){
+        return new Variance<>(false);
+    }
+
+    /**
+     * Creates a {@link MergeableAggregation} that calculates the sample standard deviation of the aggregated values
+     * in constant memory.
+     * @param <T> type of the values
+     * @return the standard deviation of all aggregated values
+     */
+    public static <T extends Number> MergeableDoubleAggregation<T> stddev(){
+        return new Variance<>(true);
+    }
 }
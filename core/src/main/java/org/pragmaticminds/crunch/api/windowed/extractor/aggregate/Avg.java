@@ -19,6 +19,9 @@
 
 package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
 
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
 /**
  * Aggregates all values to calculate am avg value as {@link Double}
  * @param <T> type of the incoming values
@@ -26,8 +29,8 @@ package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
  * @author Erwin Wagasow
  * craeted by Erwin Wagasow on 23.08.2018
  */
-class Avg<T extends Number> implements Aggregation<T> {
-    private Double sum;
+class Avg<T extends Number> implements MergeableDoubleAggregation<T>, Copyable<Avg<T>> {
+    private double sum;
     private int count = 0;
 
     /**
@@ -43,17 +46,9 @@ class Avg<T extends Number> implements Aggregation<T> {
      * @param value to be aggregated.
      */
     @Override
-    public void aggregate(T value) {
-        // ignore null values
-        if(value == null){
-            return;
-        }
+    public void aggregateDouble(double value) {
         count++;
-        if(sum == null){
-            sum = value.doubleValue();
-        }else{
-            sum = AggregationUtils.add(sum, value);
-        }
+        sum += value;
     }
 
     /**
@@ -61,7 +56,7 @@ class Avg<T extends Number> implements Aggregation<T> {
      */
     @Override
     public Double getAggregated() {
-        return AggregationUtils.divide(sum, count);
+        return count == 0 ? null : sum / count;
     }
 
     /**
@@ -69,7 +64,30 @@ class Avg<T extends Number> implements Aggregation<T> {
      */
     @Override
     public void reset() {
-        sum = null;
+        sum = 0;
         count = 0;
     }
+
+    /**
+     * Adds the sums and the counts of both.
+     * @param other aggregation of the same kind
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof Avg, "only a %s can be merged into a %s", getIdentifier(), getIdentifier()
+        );
+        Avg<T> avg = (Avg<T>) other;
+        sum += avg.sum;
+        count += avg.count;
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public Avg<T> copy() {
+        Avg<T> copy = new Avg<>();
+        copy.sum = sum;
+        copy.count = count;
+        return copy;
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Estimates the number of distinct values with a HyperLogLog sketch, so the memory does not depend on the number of
+ * values. The sketch has 2^precision registers of one byte each, the standard error of the estimation is about
+ * 1.04 / sqrt(2^precision), e.g. 0.8% for the default precision of 14 with 16 KiB.
+ * Small counts are estimated by linear counting, which is nearly exact.
+ * @param <T> type of values, equal values have to be of the same type
+ */
+class DistinctCount<T extends Serializable> implements MergeableAggregation<T>, Copyable<DistinctCount<T>> {
+    static final int DEFAULT_PRECISION = 14;
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int precision;
+    private byte[] registers;
+    private boolean present;
+
+    /**
+     * @param precision number of bits that select the register, between 4 and 18
+     */
+    DistinctCount(int precision) {
+        Preconditions.checkArgument(precision >= 4 && precision <= 18, "the precision has to be between 4 and 18");
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * @return default identifier
+     */
+    @Override
+    public String getIdentifier() {
+        return "distinctCount";
+    }
+
+    /**
+     * Hashes the value, the first bits select the register, which keeps the maximal position of the first set bit
+     * of the remaining bits.
+     * @param value to be aggregated, ignored if null.
+     */
+    @Override
+    public void aggregate(T value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value);
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        // the appended bit limits the position, if all remaining bits are 0
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+        present = true;
+    }
+
+    /**
+     * @return the estimated number of distinct values, null if no value was aggregated
+     */
+    @Override
+    public Double getAggregated() {
+        if (!present) {
+            return null;
+        }
+        int m = registers.length;
+        double sum = 0;
+        int empty = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && empty > 0) {
+            estimate = m * Math.log((double) m / empty);
+        }
+        return (double) Math.round(estimate);
+    }
+
+    /**
+     * removes all values
+     */
+    @Override
+    public void reset() {
+        registers = new byte[1 << precision];
+        present = false;
+    }
+
+    /**
+     * Keeps the maximum of each register.
+     * @param other aggregation with the same precision
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof DistinctCount && ((DistinctCount) other).precision == precision,
+                "only a distinctCount with the same precision can be merged into a distinctCount"
+        );
+        DistinctCount<T> sketch = (DistinctCount<T>) other;
+        for (int i = 0; i < registers.length; i++) {
+            if (sketch.registers[i] > registers[i]) {
+                registers[i] = sketch.registers[i];
+            }
+        }
+        present |= sketch.present;
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public DistinctCount<T> copy() {
+        DistinctCount<T> copy = new DistinctCount<>(precision);
+        copy.registers = registers.clone();
+        copy.present = present;
+        return copy;
+    }
+
+    /** @return a 64 bit hash of the value, integral numbers are hashed by their long value */
+    private static long hash(Object value) {
+        if (value instanceof String) {
+            return HASH.hashString((String) value, StandardCharsets.UTF_8).asLong();
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return HASH.hashLong(((Number) value).longValue()).asLong();
+        }
+        if (value instanceof Number) {
+            return HASH.hashLong(Double.doubleToLongBits(((Number) value).doubleValue())).asLong();
+        }
+        return HASH.hashInt(value.hashCode()).asLong();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+/**
+ * An {@link Aggregation} of numbers, that can also take primitive double values, so a
+ * {@link org.pragmaticminds.crunch.api.trigger.comparator.NumberSupplier} can feed it without boxing.
+ * @param <T> type of values
+ */
+public interface DoubleAggregation<T extends Number> extends Aggregation<T> {
+    /**
+     * Takes the given primitive value and stores it until the getAggregated method is called.
+     * @param value to be aggregated, never NaN for absent values, these are skipped by the caller.
+     */
+    void aggregateDouble(double value);
+
+    /**
+     * Boxed values are passed to the primitive aggregation.
+     * @param value to be aggregated, ignored if null.
+     */
+    @Override
+    default void aggregate(T value) {
+        if(value == null){
+            return;
+        }
+        aggregateDouble(value.doubleValue());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A growable ring buffer of primitive double values, that can be used as a queue and as a deque.
+ * The capacity is always a power of two, so all operations are amortized O(1) without boxing.
+ */
+final class DoubleRingBuffer implements Copyable<DoubleRingBuffer> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    /** @param value appended at the end */
+    void addLast(double value) {
+        if (size == values.length) {
+            grow();
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    /** @return the first value, which is removed */
+    double removeFirst() {
+        double value = peekFirst();
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    /** @return the last value, which is removed */
+    double removeLast() {
+        double value = peekLast();
+        size--;
+        return value;
+    }
+
+    /** @return the first value */
+    double peekFirst() {
+        checkNotEmpty();
+        return values[head];
+    }
+
+    /** @return the last value */
+    double peekLast() {
+        checkNotEmpty();
+        return values[(head + size - 1) & (values.length - 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** removes all values, the capacity is kept */
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** @return a new buffer with the same values */
+    @Override
+    public DoubleRingBuffer copy() {
+        DoubleRingBuffer copy = new DoubleRingBuffer();
+        copy.values = values.clone();
+        copy.head = head;
+        copy.size = size;
+        return copy;
+    }
+
+    /** doubles the capacity and moves the values to the start of the new array */
+    private void grow() {
+        double[] grown = new double[values.length * 2];
+        int tail = values.length - head;
+        System.arraycopy(values, head, grown, 0, tail);
+        System.arraycopy(values, 0, grown, tail, head);
+        values = grown;
+        head = 0;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("the DoubleRingBuffer is empty");
+        }
+    }
+}
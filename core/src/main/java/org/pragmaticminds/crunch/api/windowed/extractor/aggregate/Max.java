@@ -19,6 +19,9 @@
 
 package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
 
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
 /**
  * Aggregates a maximal value.
  * Should not be directly visible.
@@ -27,8 +30,9 @@ package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
  * @author Erwin Wagasow
  * craeted by Erwin Wagasow on 23.08.2018
  */
-class Max<T extends Number & Comparable> implements Aggregation<T> {
-    private Double maxValue;
+class Max<T extends Number & Comparable> implements MergeableDoubleAggregation<T>, Copyable<Max<T>> {
+    private double maxValue;
+    private boolean present;
 
     /**
      * @return default identifier
@@ -43,13 +47,10 @@ class Max<T extends Number & Comparable> implements Aggregation<T> {
      * @param value to be aggregated.
      */
     @Override
-    public void aggregate(T value) {
-        if(value == null){
-            return;
-        }
-        double innerValue = value.doubleValue();
-        if(maxValue == null || AggregationUtils.compare(innerValue, maxValue) > 0){
-            maxValue = value.doubleValue();
+    public void aggregateDouble(double value) {
+        if(!present || Double.compare(value, maxValue) > 0){
+            maxValue = value;
+            present = true;
         }
     }
 
@@ -58,7 +59,7 @@ class Max<T extends Number & Comparable> implements Aggregation<T> {
      */
     @Override
     public Double getAggregated() {
-        return maxValue;
+        return present ? maxValue : null;
     }
 
     /**
@@ -66,6 +67,31 @@ class Max<T extends Number & Comparable> implements Aggregation<T> {
      */
     @Override
     public void reset() {
-        maxValue = null;
+        maxValue = 0;
+        present = false;
+    }
+
+    /**
+     * Keeps the bigger maximum of both.
+     * @param other aggregation of the same kind
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof Max, "only a %s can be merged into a %s", getIdentifier(), getIdentifier()
+        );
+        Max<T> max = (Max<T>) other;
+        if (max.present) {
+            aggregateDouble(max.maxValue);
+        }
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public Max<T> copy() {
+        Max<T> copy = new Max<>();
+        copy.maxValue = maxValue;
+        copy.present = present;
+        return copy;
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import java.io.Serializable;
+
+/**
+ * An {@link Aggregation} whose state can be combined with the state of another instance of the same kind, as if all
+ * values of both had been aggregated by one. This allows aggregating parts of the values separately, e.g. in the
+ * lanes of a partitioned execution, and combining the results afterwards.
+ * @param <T> type of values
+ */
+public interface MergeableAggregation<T extends Serializable> extends Aggregation<T> {
+    /**
+     * Adds the state of the other aggregation to this one, the other one is not changed.
+     * @param other aggregation of the same kind and configuration
+     * @throws IllegalArgumentException if the other aggregation is of another kind or configuration
+     */
+    void merge(MergeableAggregation<T> other);
+}
@@ -19,6 +19,9 @@
 
 package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
 
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
 /**
  * Aggregates a minimum value
  * @param <T> type of value
@@ -26,8 +29,9 @@ package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
  * @author Erwin Wagasow
  * craeted by Erwin Wagasow on 23.08.2018
  */
-class Min<T extends Number & Comparable> implements Aggregation<T> {
-    private Double minValue;
+class Min<T extends Number & Comparable> implements MergeableDoubleAggregation<T>, Copyable<Min<T>> {
+    private double minValue;
+    private boolean present;
 
     /**
      * @return default identifier
@@ -42,9 +46,10 @@ class Min<T extends Number & Comparable> implements Aggregation<T> {
      * @param value to be aggregated.
      */
     @Override
-    public void aggregate(T value) {
-        if(value != null && (minValue == null || AggregationUtils.compare(value, minValue) < 0)){
-            minValue = value.doubleValue();
+    public void aggregateDouble(double value) {
+        if(!present || Double.compare(value, minValue) < 0){
+            minValue = value;
+            present = true;
         }
     }
 
@@ -53,7 +58,7 @@ class Min<T extends Number & Comparable> implements Aggregation<T> {
      */
     @Override
     public Double getAggregated() {
-        return minValue;
+        return present ? minValue : null;
     }
 
     /**
@@ -61,6 +66,31 @@ class Min<T extends Number & Comparable> implements Aggregation<T> {
      */
     @Override
     public void reset() {
-        minValue = null;
+        minValue = 0;
+        present = false;
+    }
+
+    /**
+     * Keeps the smaller minimum of both.
+     * @param other aggregation of the same kind
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof Min, "only a %s can be merged into a %s", getIdentifier(), getIdentifier()
+        );
+        Min<T> min = (Min<T>) other;
+        if (min.present) {
+            aggregateDouble(min.minValue);
+        }
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public Min<T> copy() {
+        Min<T> copy = new Min<>();
+        copy.minValue = minValue;
+        copy.present = present;
+        return copy;
     }
 }
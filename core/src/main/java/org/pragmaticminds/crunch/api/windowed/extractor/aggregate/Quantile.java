@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Aggregates a quantile of all values in a sketch with logarithmic buckets (like DDSketch), so the memory does not
+ * depend on the number of values.
+ * A value v is counted in the bucket i with gamma^(i - 1) &lt; |v| &lt;= gamma^i, where
+ * gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy). So the returned quantile differs by at most the relative
+ * accuracy from the exact value. Each sign has at most {@link #MAX_BUCKETS} buckets, if the values span a wider
+ * range the buckets of the smallest magnitudes are collapsed. Values that are not finite are ignored.
+ * @param <T> type of values
+ */
+class Quantile<T extends Number> implements MergeableDoubleAggregation<T>, Copyable<Quantile<T>> {
+    static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    static final int MAX_BUCKETS = 2048;
+
+    private final double quantile;
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private Buckets positive = new Buckets();
+    private Buckets negative = new Buckets();
+    private long zeros;
+
+    /**
+     * @param quantile         to be aggregated between 0 and 1, e.g. 0.95 for the 95th percentile
+     * @param relativeAccuracy maximal relative error of the result between 0 and 1
+     */
+    Quantile(double quantile, double relativeAccuracy) {
+        Preconditions.checkArgument(quantile >= 0 && quantile <= 1, "the quantile has to be between 0 and 1");
+        Preconditions.checkArgument(
+                relativeAccuracy > 0 && relativeAccuracy < 1,
+                "the relative accuracy has to be between 0 and 1"
+        );
+        this.quantile = quantile;
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * @return the percentile as identifier, e.g. "p95" or "p99.9"
+     */
+    @Override
+    public String getIdentifier() {
+        return "p" + BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * counts the value in its bucket
+     * @param value to be aggregated.
+     */
+    @Override
+    public void aggregateDouble(double value) {
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            return;
+        }
+        if (value >= Double.MIN_NORMAL) {
+            positive.add(index(value), 1);
+        } else if (value <= -Double.MIN_NORMAL) {
+            negative.add(index(-value), 1);
+        } else {
+            zeros++;
+        }
+    }
+
+    /**
+     * @return the quantile of the aggregated values, null if no value was aggregated
+     */
+    @Override
+    public Double getAggregated() {
+        long count = negative.count + zeros + positive.count;
+        if (count == 0) {
+            return null;
+        }
+        double rank = quantile * (count - 1);
+        long seen = 0;
+        // the negative values with the biggest magnitude are the smallest values
+        for (int index = negative.maxIndex; negative.count > 0 && index >= negative.minIndex; index--) {
+            seen += negative.get(index);
+            if (seen > rank) {
+                return -value(index);
+            }
+        }
+        seen += zeros;
+        if (seen > rank) {
+            return 0.0;
+        }
+        for (int index = positive.minIndex; index < positive.maxIndex; index++) {
+            seen += positive.get(index);
+            if (seen > rank) {
+                return value(index);
+            }
+        }
+        return value(positive.maxIndex);
+    }
+
+    /**
+     * removes all counted values
+     */
+    @Override
+    public void reset() {
+        positive = new Buckets();
+        negative = new Buckets();
+        zeros = 0;
+    }
+
+    /**
+     * Adds the counts of all buckets of the other sketch.
+     * @param other aggregation of the same quantile and relative accuracy
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof Quantile
+                        && ((Quantile) other).quantile == quantile
+                        && ((Quantile) other).relativeAccuracy == relativeAccuracy,
+                "only a %s with the same relative accuracy can be merged into a %s", getIdentifier(), getIdentifier()
+        );
+        Quantile<T> sketch = (Quantile<T>) other;
+        positive.addAll(sketch.positive);
+        negative.addAll(sketch.negative);
+        zeros += sketch.zeros;
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public Quantile<T> copy() {
+        Quantile<T> copy = new Quantile<>(quantile, relativeAccuracy);
+        copy.positive = positive.copy();
+        copy.negative = negative.copy();
+        copy.zeros = zeros;
+        return copy;
+    }
+
+    /** @return the bucket of a positive value */
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /** @return the value in the middle of a bucket, which has the smallest relative error to all its values */
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Counts of consecutive buckets in a dense array, that grows in both directions as needed.
+     * If more than {@link #MAX_BUCKETS} buckets would be needed, the lowest buckets are collapsed.
+     */
+    private static final class Buckets implements Serializable {
+        private long[] counts = new long[0];
+        private int offset;
+        private int minIndex;
+        private int maxIndex;
+        private long count;
+
+        /** @return the count of the bucket */
+        long get(int index) {
+            return counts[index - offset];
+        }
+
+        /** adds the count to the bucket */
+        void add(int index, long increment) {
+            if (count == 0 || index < minIndex || index > maxIndex) {
+                index = extend(index);
+            }
+            counts[index - offset] += increment;
+            count += increment;
+        }
+
+        /** adds the counts of all buckets of the other one */
+        void addAll(Buckets other) {
+            for (int index = other.minIndex; other.count > 0 && index <= other.maxIndex; index++) {
+                long increment = other.get(index);
+                if (increment > 0) {
+                    add(index, increment);
+                }
+            }
+        }
+
+        /** @return a new instance with the same counts */
+        Buckets copy() {
+            Buckets copy = new Buckets();
+            copy.counts = counts.clone();
+            copy.offset = offset;
+            copy.minIndex = minIndex;
+            copy.maxIndex = maxIndex;
+            copy.count = count;
+            return copy;
+        }
+
+        /**
+         * Extends the range of the buckets to the index and collapses the lowest buckets if necessary.
+         * @return the index of the bucket that counts the index after collapsing
+         */
+        private int extend(int index) {
+            int newMin = count == 0 ? index : Math.min(minIndex, index);
+            int newMax = count == 0 ? index : Math.max(maxIndex, index);
+            if ((long) newMax - newMin + 1 > MAX_BUCKETS) {
+                newMin = newMax - MAX_BUCKETS + 1;
+            }
+            int width = newMax - newMin + 1;
+            if (counts.length == 0 || newMin < offset || newMax >= offset + counts.length) {
+                // grow with space on both sides, so further extensions are amortized
+                int length = Math.min(MAX_BUCKETS, Math.max(width, counts.length * 2));
+                length = Math.max(length, Math.min(MAX_BUCKETS, 16));
+                int newOffset = newMin - (length - width) / 2;
+                long[] grown = new long[length];
+                for (int old = minIndex; count > 0 && old <= maxIndex; old++) {
+                    grown[Math.max(old, newMin) - newOffset] += get(old);
+                }
+                counts = grown;
+                offset = newOffset;
+            } else if (count > 0 && newMin > minIndex) {
+                // collapse the lowest buckets in place
+                long collapsed = 0;
+                for (int old = minIndex; old < newMin; old++) {
+                    collapsed += get(old);
+                    counts[old - offset] = 0;
+                }
+                counts[newMin - offset] += collapsed;
+            }
+            minIndex = newMin;
+            maxIndex = newMax;
+            return Math.max(index, newMin);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+/**
+ * A {@link DoubleAggregation} over a sliding window of values. Values are evicted in the order in which they were
+ * aggregated, so the aggregated value always covers the last {@link #size()} values. Aggregating and evicting have
+ * an amortized cost of O(1) per value.
+ * <p>
+ * The eviction is driven by the {@link org.pragmaticminds.crunch.api.windowed.extractor.RollingExtractor}, which
+ * bounds the values by their count or age. Other extractors never evict, so the values of a whole window are held.
+ * @param <T> type of values
+ */
+public interface SlidingAggregation<T extends Number> extends DoubleAggregation<T> {
+    /**
+     * Removes the oldest value from the aggregation.
+     * @throws java.util.NoSuchElementException if no value is left
+     */
+    void evict();
+
+    /** @return the number of values in the window */
+    int size();
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+/**
+ * Aggregates the avg value of a sliding window of values, from their compensated sum, see {@link SlidingSum}.
+ * @param <T> type of values
+ */
+class SlidingAvg<T extends Number> extends SlidingSum<T> {
+
+    /**
+     * @return the default identifier of this class
+     */
+    @Override
+    public String getIdentifier() {
+        return "avg";
+    }
+
+    /**
+     * @return the avg value of the window, null if it is empty
+     */
+    @Override
+    public Double getAggregated() {
+        Double sum = super.getAggregated();
+        return sum == null ? null : sum / size();
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public SlidingAvg<T> copy() {
+        return copyInto(new SlidingAvg<>());
+    }
+}
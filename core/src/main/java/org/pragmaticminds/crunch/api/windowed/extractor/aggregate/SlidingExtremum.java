@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
+/**
+ * Aggregates the maximal or minimal value of a sliding window of values.
+ * Besides the values of the window a monotonic deque holds all values that can still become the extremum, the
+ * extremum of the window is always the first one of the deque. Each value is added to and removed from the deque
+ * once, so the cost is amortized O(1) per value.
+ * @param <T> type of values
+ */
+class SlidingExtremum<T extends Number & Comparable> implements SlidingAggregation<T>, Copyable<SlidingExtremum<T>> {
+    private final boolean max;
+    private DoubleRingBuffer values = new DoubleRingBuffer();
+    private DoubleRingBuffer candidates = new DoubleRingBuffer();
+
+    /**
+     * @param max true for the maximal value, false for the minimal value
+     */
+    SlidingExtremum(boolean max) {
+        this.max = max;
+    }
+
+    /**
+     * @return default identifier
+     */
+    @Override
+    public String getIdentifier() {
+        return max ? "max" : "min";
+    }
+
+    /**
+     * adds the value and removes all candidates that it dominates, equal values are kept for their eviction
+     * @param value to be aggregated.
+     */
+    @Override
+    public void aggregateDouble(double value) {
+        values.addLast(value);
+        while (!candidates.isEmpty() && dominates(value, candidates.peekLast())) {
+            candidates.removeLast();
+        }
+        candidates.addLast(value);
+    }
+
+    /** removes the oldest value, if it is the current extremum it leaves the deque */
+    @Override
+    public void evict() {
+        double value = values.removeFirst();
+        if (Double.compare(candidates.peekFirst(), value) == 0) {
+            candidates.removeFirst();
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return the extremum of the window, null if it is empty
+     */
+    @Override
+    public Double getAggregated() {
+        return candidates.isEmpty() ? null : candidates.peekFirst();
+    }
+
+    /**
+     * removes all values
+     */
+    @Override
+    public void reset() {
+        values.clear();
+        candidates.clear();
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public SlidingExtremum<T> copy() {
+        SlidingExtremum<T> copy = new SlidingExtremum<>(max);
+        copy.values = values.copy();
+        copy.candidates = candidates.copy();
+        return copy;
+    }
+
+    /** @return true if the candidate can not become the extremum anymore, while the value is in the window */
+    private boolean dominates(double value, double candidate) {
+        int comparison = Double.compare(value, candidate);
+        return max ? comparison > 0 : comparison < 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
+/**
+ * Aggregates the sum of a sliding window of values.
+ * As the sum is invertible, an evicted value is subtracted. The rounding errors of adding and subtracting are
+ * compensated (Neumaier summation), so the sum does not drift over long windows.
+ * @param <T> type of values
+ */
+class SlidingSum<T extends Number> implements SlidingAggregation<T>, Copyable<SlidingSum<T>> {
+    private DoubleRingBuffer values = new DoubleRingBuffer();
+    private double sum;
+    private double compensation;
+
+    /**
+     * @return default identifier
+     */
+    @Override
+    public String getIdentifier() {
+        return "sum";
+    }
+
+    /**
+     * adds the value to the window
+     * @param value to be aggregated.
+     */
+    @Override
+    public void aggregateDouble(double value) {
+        values.addLast(value);
+        add(value);
+    }
+
+    /** subtracts the oldest value */
+    @Override
+    public void evict() {
+        double value = values.removeFirst();
+        if (values.isEmpty()) {
+            sum = 0;
+            compensation = 0;
+        } else {
+            add(-value);
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return the sum of the values in the window, null if it is empty
+     */
+    @Override
+    public Double getAggregated() {
+        return values.isEmpty() ? null : sum + compensation;
+    }
+
+    /**
+     * removes all values
+     */
+    @Override
+    public void reset() {
+        values.clear();
+        sum = 0;
+        compensation = 0;
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public SlidingSum<T> copy() {
+        return copyInto(new SlidingSum<>());
+    }
+
+    /**
+     * Copies the state of this instance into the given one.
+     * @param copy receives the state
+     * @return the copy
+     */
+    protected <S extends SlidingSum<T>> S copyInto(S copy) {
+        SlidingSum<T> target = copy;
+        target.values = values.copy();
+        target.sum = sum;
+        target.compensation = compensation;
+        return copy;
+    }
+
+    /** adds a value to the sum and keeps the lost low order bits in the compensation */
+    private void add(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - total) + value;
+        } else {
+            compensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
 
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
 /**
  * Aggregates the sum of all aggregated values
  * @param <T> type of values
@@ -26,8 +29,9 @@ package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
  * @author Erwin Wagasow
  * craeted by Erwin Wagasow on 23.08.2018
  */
-class Sum<T extends Number> implements Aggregation<T> {
-    protected Double sumValue;
+class Sum<T extends Number> implements MergeableDoubleAggregation<T>, Copyable<Sum<T>> {
+    private double sumValue;
+    private boolean present;
 
     /**
      * @return default identifier
@@ -41,21 +45,15 @@ class Sum<T extends Number> implements Aggregation<T> {
      * @param value to be aggregated.
      */
     @Override
-    public void aggregate(T value) {
-        if(value == null){
-            return;
-        }
-        if(sumValue == null){
-            sumValue = value.doubleValue();
-        }else{
-            sumValue = AggregationUtils.add(sumValue, value);
-        }
+    public void aggregateDouble(double value) {
+        sumValue += value;
+        present = true;
     }
 
     /** @return the Aggregation result */
     @Override
     public Double getAggregated() {
-        return sumValue;
+        return present ? sumValue : null;
     }
 
     /**
@@ -63,6 +61,32 @@ class Sum<T extends Number> implements Aggregation<T> {
      */
     @Override
     public void reset() {
-        sumValue = null;
+        sumValue = 0;
+        present = false;
+    }
+
+    /**
+     * Adds the sum of the other aggregation.
+     * @param other aggregation of the same kind
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof Sum, "only a %s can be merged into a %s", getIdentifier(), getIdentifier()
+        );
+        Sum<T> sum = (Sum<T>) other;
+        if (sum.present) {
+            sumValue += sum.sumValue;
+            present = true;
+        }
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public Sum<T> copy() {
+        Sum<T> copy = new Sum<>();
+        copy.sumValue = sumValue;
+        copy.present = present;
+        return copy;
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor.aggregate;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
+
+/**
+ * Aggregates the variance or the standard deviation of all values with the algorithm of Welford, which is
+ * numerically stable and needs constant memory. The sample variance is calculated, which is 0 for a single value.
+ * Two instances are merged with the parallel algorithm of Chan et al.
+ * @param <T> type of values
+ */
+class Variance<T extends Number> implements MergeableDoubleAggregation<T>, Copyable<Variance<T>> {
+    private final boolean standardDeviation;
+    private long count;
+    private double mean;
+    private double squaredDistances;
+
+    /**
+     * @param standardDeviation true for the standard deviation, false for the variance
+     */
+    Variance(boolean standardDeviation) {
+        this.standardDeviation = standardDeviation;
+    }
+
+    /**
+     * @return default identifier
+     */
+    @Override
+    public String getIdentifier() {
+        return standardDeviation ? "stddev" : "variance";
+    }
+
+    /**
+     * updates the mean and the sum of squared distances to it
+     * @param value to be aggregated.
+     */
+    @Override
+    public void aggregateDouble(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDistances += delta * (value - mean);
+    }
+
+    /**
+     * @return the sample variance or standard deviation, null if no value was aggregated
+     */
+    @Override
+    public Double getAggregated() {
+        if (count == 0) {
+            return null;
+        }
+        double variance = count == 1 ? 0.0 : squaredDistances / (count - 1);
+        return standardDeviation ? Math.sqrt(variance) : variance;
+    }
+
+    /**
+     * resets this structure
+     */
+    @Override
+    public void reset() {
+        count = 0;
+        mean = 0;
+        squaredDistances = 0;
+    }
+
+    /**
+     * Combines the means and the squared distances of both.
+     * @param other aggregation of the same kind and configuration
+     */
+    @Override
+    public void merge(MergeableAggregation<T> other) {
+        Preconditions.checkArgument(
+                other instanceof Variance && ((Variance) other).standardDeviation == standardDeviation,
+                "only a %s can be merged into a %s", getIdentifier(), getIdentifier()
+        );
+        Variance<T> variance = (Variance<T>) other;
+        if (variance.count == 0) {
+            return;
+        }
+        long total = count + variance.count;
+        double delta = variance.mean - mean;
+        squaredDistances += variance.squaredDistances + delta * delta * count * variance.count / total;
+        mean += delta * variance.count / total;
+        count = total;
+    }
+
+    /** @return a new instance with the current aggregation state */
+    @Override
+    public Variance<T> copy() {
+        Variance<T> copy = new Variance<>(standardDeviation);
+        copy.count = count;
+        copy.mean = mean;
+        copy.squaredDistances = squaredDistances;
+        return copy;
+    }
+}
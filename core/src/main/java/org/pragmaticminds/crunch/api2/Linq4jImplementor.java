@@ -21,8 +21,9 @@ package org.pragmaticminds.crunch.api2;
 
 import org.apache.calcite.linq4j.Enumerable;
 import org.apache.calcite.linq4j.Enumerator;
-import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
 import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.pipe.Prototype;
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
 import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.execution.UntypedValuesMergeFunction;
@@ -69,7 +70,11 @@ public class Linq4jImplementor<T extends MRecord, EVENT extends Serializable> {
     private <EVENT extends Serializable> Enumerator<Void> implementEvaluation(Enumerable<T> in, Function<T, Object> groupAssigner, List<EvaluationANdHandler<EVENT>> evaluations) {
         // Need state for each group and each Evaluation...
         final Map<GroupEvaluation<EVENT>, EvaluationFunction<EVENT>> states = new HashMap<>();
+        // Each evaluation is serialized once and then instantiated for every new group
+        final Map<EvaluationFunction<EVENT>, Prototype<EvaluationFunction<EVENT>>> prototypes = new IdentityHashMap<>();
         final Map<Object, UntypedValuesMergeFunction> mergedState = new HashMap<>();
+        // Each evaluation has its own context, so the supplier values of a record are cached for all of them here
+        final EvaluationCache evaluationCache = new EvaluationCache();
         final Enumerator<T> enumerator = in.enumerator();
 
         return new Enumerator<Void>() {
@@ -99,15 +104,17 @@ public class Linq4jImplementor<T extends MRecord, EVENT extends Serializable> {
                         // TODO fix this
                         continue;
                     }
-                    // For each evaluation
-                    for (EvaluationANdHandler<EVENT> eh : evaluations) {
-                        final SimpleEvaluationContext<EVENT> ctx = new SimpleEvaluationContext<>(mergedRecord);
-                        final GroupEvaluation<EVENT> group = new GroupEvaluation<>(hash, eh.evaluation);
-                        states.computeIfAbsent(group, g -> ClonerUtil.clone(g.evaluation));
-                        states.get(group).eval(ctx);
-
-                        for (EVENT event : ctx.getEvents()) {
-                            eh.handler.accept(event);
+                    // For each evaluation, sharing the values of suppliers for the record
+                    try (EvaluationCache ignored = evaluationCache.open(mergedRecord)) {
+                        for (EvaluationANdHandler<EVENT> eh : evaluations) {
+                            final SimpleEvaluationContext<EVENT> ctx = new SimpleEvaluationContext<>(mergedRecord);
+                            final GroupEvaluation<EVENT> group = new GroupEvaluation<>(hash, eh.evaluation);
+                            states.computeIfAbsent(group, g -> prototypes.computeIfAbsent(g.evaluation, Prototype::new).newInstance());
+                            states.get(group).eval(ctx);
+
+                            for (EVENT event : ctx.getEvents()) {
+                                eh.handler.accept(event);
+                            }
                         }
                     }
                     return true;
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Calculates the watermark offset of the sort stages from the observed disorder of the records, instead of using a
+ * fixed sort window.
+ * <p>
+ * For every source the last {@link #DEFAULT_WINDOW_SIZE} timestamp regressions are kept, which is how much older a
+ * record is than the newest record of all sources seen before (0 for records in order). The regressions are measured
+ * against all sources, as the sort buffer is shared by them, so the clocks of two sources, that are skewed against
+ * each other, are disorder, even if each source alone delivers its records in order. The offset is the highest
+ * percentile of these regressions over all sources, limited by the maximum offset, which is the sort window of the
+ * {@link org.pragmaticminds.crunch.api.pipe.SubStream}.
+ * <ul>
+ * <li>A regression that is larger than the current offset widens the offset immediately.</li>
+ * <li>The offset shrinks only when it is recalculated, once per window size of observations.</li>
+ * <li>Sources that have not yet delivered a full window are unknown, as long as one is present the maximum offset is
+ * used.</li>
+ * </ul>
+ * If all sources delivered a full window without any regression, the records are {@link #isInOrder()} and the sort
+ * stages can pass them through without buffering.
+ * <p>
+ * This class is not thread safe, every sort stage works on its own instance.
+ */
+public class AdaptiveWatermarkOffset implements Serializable {
+    public static final int DEFAULT_WINDOW_SIZE = 256;
+    public static final double DEFAULT_PERCENTILE = 0.99;
+
+    private final long maxOffsetMs;
+    private final double percentile;
+    private final int windowSize;
+    private final SourceStateCache<SourceDisorder> sources = new SourceStateCache<>();
+
+    private long offsetMs;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private boolean inOrder = false;
+    private long observations = 0;
+
+    /**
+     * Constructor with the default percentile and window size.
+     *
+     * @param maxOffsetMs upper limit of the offset
+     */
+    public AdaptiveWatermarkOffset(long maxOffsetMs) {
+        this(maxOffsetMs, DEFAULT_PERCENTILE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Main constructor.
+     *
+     * @param maxOffsetMs upper limit of the offset
+     * @param percentile  of the regressions that has to fit into the offset, between 0 and 1
+     * @param windowSize  number of regressions per source that are taken into account
+     */
+    public AdaptiveWatermarkOffset(long maxOffsetMs, double percentile, int windowSize) {
+        Preconditions.checkArgument(maxOffsetMs >= 0, "maxOffsetMs must not be negative");
+        Preconditions.checkArgument(percentile > 0 && percentile <= 1, "percentile must be in (0, 1]");
+        Preconditions.checkArgument(windowSize > 0, "windowSize must be positive");
+        this.maxOffsetMs = maxOffsetMs;
+        this.percentile = percentile;
+        this.windowSize = windowSize;
+        this.offsetMs = maxOffsetMs;
+    }
+
+    /**
+     * Takes the timestamp of a record into account.
+     *
+     * @param source    of the record
+     * @param timestamp of the record
+     */
+    public void observe(String source, long timestamp) {
+        SourceDisorder disorder = sources.get(source);
+        if (disorder == null) {
+            // nothing is known about this source yet
+            disorder = new SourceDisorder(windowSize);
+            sources.put(source, disorder);
+            offsetMs = maxOffsetMs;
+            inOrder = false;
+        }
+        long regression = maxTimestamp > timestamp ? maxTimestamp - timestamp : 0L;
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        disorder.observe(regression);
+        if (regression > 0) {
+            inOrder = false;
+        }
+        if (regression > offsetMs) {
+            offsetMs = Math.min(maxOffsetMs, regression);
+        }
+        if (++observations % windowSize == 0) {
+            recalculate();
+        }
+    }
+
+    /**
+     * @return the current offset of the watermark in milly seconds
+     */
+    public long getOffsetMs() {
+        return offsetMs;
+    }
+
+    /**
+     * @return true if all known sources delivered a full window of records without any regression
+     */
+    public boolean isInOrder() {
+        return inOrder;
+    }
+
+    private void recalculate() {
+        long offset = 0;
+        boolean ordered = true;
+        for (SourceDisorder disorder : sources.values()) {
+            if (disorder.count < windowSize) {
+                offset = maxOffsetMs;
+                ordered = false;
+                break;
+            }
+            ordered &= disorder.nonZero == 0;
+            offset = Math.max(offset, disorder.percentile(percentile));
+        }
+        offsetMs = Math.min(maxOffsetMs, offset);
+        inOrder = ordered;
+    }
+
+    /** Rolling window of the timestamp regressions of the records of one source */
+    private static final class SourceDisorder implements Serializable {
+        private final long[] regressions;
+        private long count = 0;
+        private int nonZero = 0;
+
+        private SourceDisorder(int windowSize) {
+            regressions = new long[windowSize];
+        }
+
+        private void observe(long regression) {
+            int position = (int) (count % regressions.length);
+            if (regressions[position] != 0) {
+                nonZero--;
+            }
+            if (regression != 0) {
+                nonZero++;
+            }
+            regressions[position] = regression;
+            count++;
+        }
+
+        private long percentile(double percentile) {
+            if (nonZero == 0) {
+                return 0L;
+            }
+            long[] sorted = regressions.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}
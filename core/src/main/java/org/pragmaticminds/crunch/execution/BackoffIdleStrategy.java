@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IdleStrategy} that first spins, then yields and finally parks with an exponentially growing time, until the
+ * maximum park time is reached. Thus short gaps between records add no latency, while an idle source costs nearly no
+ * cpu time.
+ * <p>
+ * Parking is done with the scheduler of Akka, whose resolution is its tick duration (10 ms by default), so shorter
+ * park times are rounded up to it.
+ */
+public class BackoffIdleStrategy implements IdleStrategy {
+
+    public static final int DEFAULT_MAX_SPINS = 100;
+    public static final int DEFAULT_MAX_YIELDS = 10;
+    public static final long DEFAULT_MIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    public static final long DEFAULT_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int maxSpins;
+    private final int maxYields;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    /**
+     * Creates a strategy with the default values.
+     */
+    public BackoffIdleStrategy() {
+        this(DEFAULT_MAX_SPINS, DEFAULT_MAX_YIELDS, DEFAULT_MIN_PARK_NANOS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    /**
+     * @param maxSpins     number of idle fetches to spin for
+     * @param maxYields    number of idle fetches to yield for, after spinning
+     * @param minParkNanos time to park after spinning and yielding
+     * @param maxParkNanos upper limit of the park time, which is doubled with every further idle fetch
+     */
+    public BackoffIdleStrategy(int maxSpins, int maxYields, long minParkNanos, long maxParkNanos) {
+        Preconditions.checkArgument(maxSpins >= 0, "maxSpins must not be negative");
+        Preconditions.checkArgument(maxYields >= 0, "maxYields must not be negative");
+        Preconditions.checkArgument(minParkNanos > 0, "minParkNanos has to be positive");
+        Preconditions.checkArgument(maxParkNanos >= minParkNanos, "maxParkNanos must not be less than minParkNanos");
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public long idle(int idleCount) {
+        if (idleCount <= maxSpins) {
+            return SPIN;
+        }
+        if (idleCount <= maxSpins + maxYields) {
+            return YIELD;
+        }
+        int parks = idleCount - maxSpins - maxYields - 1;
+        // stop doubling before the shift overflows
+        if (parks >= Long.numberOfLeadingZeros(minParkNanos) - 1) {
+            return maxParkNanos;
+        }
+        return Math.min(minParkNanos << parks, maxParkNanos);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.execution;
+
+import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.records.MRecord;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of {@link EvaluationFunction}s by the channels they use.
+ * For each merged {@link CopyOnWriteChannelStore.Snapshot} it selects only the functions, that use one of the
+ * channels which have been written since the snapshot before. Functions that require every record or have no
+ * channel identifiers are always selected, as well as all functions for records that are no snapshots.
+ */
+class ChannelIndex implements Serializable {
+    private final int size;
+    private final Map<String, int[]> functionsByChannel = new HashMap<>();
+    private final boolean[] always;
+
+    /**
+     * Main constructor.
+     *
+     * @param functions to be indexed, the selection refers to the positions in this list
+     */
+    ChannelIndex(List<? extends EvaluationFunction<?>> functions) {
+        this.size = functions.size();
+        this.always = new boolean[size];
+        Map<String, List<Integer>> indices = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            EvaluationFunction<?> function = functions.get(i);
+            Set<String> channels = function.getChannelIdentifiers();
+            if (function.requiresEveryRecord() || channels == null || channels.isEmpty()) {
+                always[i] = true;
+                continue;
+            }
+            for (String channel : channels) {
+                indices.computeIfAbsent(channel, key -> new ArrayList<>()).add(i);
+            }
+        }
+        indices.forEach((channel, list) -> functionsByChannel.put(
+                channel, list.stream().mapToInt(Integer::intValue).toArray()
+        ));
+    }
+
+    /**
+     * Marks all functions that have to be evaluated for the record.
+     *
+     * @param record   merged record
+     * @param selected receives true at the position of each function to be evaluated, has the size of the function
+     *                 list
+     * @return the number of selected functions
+     */
+    int select(MRecord record, boolean[] selected) {
+        if (!(record instanceof CopyOnWriteChannelStore.Snapshot)) {
+            Arrays.fill(selected, true);
+            return size;
+        }
+        System.arraycopy(always, 0, selected, 0, size);
+        for (String channel : ((CopyOnWriteChannelStore.Snapshot) record).getChangedChannels()) {
+            int[] functions = functionsByChannel.get(channel);
+            if (functions != null) {
+                for (int function : functions) {
+                    selected[function] = true;
+                }
+            }
+        }
+        int count = 0;
+        for (boolean function : selected) {
+            if (function) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
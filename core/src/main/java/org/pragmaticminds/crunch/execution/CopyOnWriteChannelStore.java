@@ -0,0 +1,514 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.pragmaticminds.crunch.api.exceptions.UnknownRecordItemException;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.SlottedRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the merged state of all channels of a stream and hands out immutable {@link Snapshot}s of it.
+ * <p>
+ * The channels are resolved to slots by a {@link ChannelSchema}, which may be shared with the incoming
+ * {@link ColumnarValues} and with the stores of other sources. The values are stored columnar like in
+ * {@link ColumnarValues}, as a type tag and the raw bits per slot, so booleans, longs, doubles and dates are not
+ * boxed. The slots are stored in chunks of {@link #CHUNK_SIZE} values, chunks of slots that are never written are
+ * not allocated. A {@link Snapshot} shares all chunks with the store. Only a chunk that is written after a snapshot
+ * was taken is copied (copy on write), thus taking a snapshot costs O(slots / {@link #CHUNK_SIZE}) and an update
+ * costs O(changed channels) instead of copying the whole channel map for every record.
+ * <p>
+ * A {@link Snapshot} is a {@link SlottedRecord}, so {@link org.pragmaticminds.crunch.api.values.ChannelSlot}s read
+ * it by the slot. Records with the schema of the store are merged slot by slot without boxing.
+ * <p>
+ * Each {@link Snapshot} also knows the channels that have been written since the snapshot before, so the
+ * evaluation can be restricted to the functions whose channels changed.
+ * <p>
+ * The store itself has to be updated by a single thread, the {@link Snapshot}s can be read from any thread.
+ */
+class CopyOnWriteChannelStore implements Serializable {
+
+    private static final int CHUNK_SHIFT = 5;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** never written */
+    private static final byte ABSENT = 0;
+    private static final byte BOOL = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte DATE = 4;
+    /** all other values, like strings, are kept as they are */
+    private static final byte OBJECT = 5;
+    /** written with null, the channel is known but has no value */
+    private static final byte NULL = 6;
+
+    private final ChannelSchema schema;
+    /** Slots of the channels written to the store in the order of their first write */
+    private int[] order = new int[CHUNK_SIZE];
+    private int size = 0;
+
+    private Chunk[] chunks = new Chunk[0];
+    /** Version of each chunk, a chunk can be written in place if its version equals the current version */
+    private long[] chunkVersions = new long[0];
+    private long version = 0;
+
+    /** Channels written since the last snapshot, each channel once */
+    private String[] changed = new String[CHUNK_SIZE];
+    private int changedCount = 0;
+    /** Version + 1 at which each slot was last added to {@link #changed}, so 0 marks slots never written */
+    private long[] changedVersions = new long[CHUNK_SIZE];
+
+    /**
+     * Creates a store with its own schema.
+     */
+    CopyOnWriteChannelStore() {
+        this(new ChannelSchema());
+    }
+
+    /**
+     * @param schema resolves the channel names to slots, records of this schema are merged by their slots
+     */
+    CopyOnWriteChannelStore(ChannelSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Writes all channels of the record into the store.
+     *
+     * @param record containing the changed channels
+     */
+    void update(MRecord record) {
+        if (record instanceof ColumnarValues && ((ColumnarValues) record).getSchema() == schema) {
+            ColumnarValues columnar = (ColumnarValues) record;
+            for (int index = 0; index < columnar.channelCount(); index++) {
+                put(columnar, columnar.slotAt(index));
+            }
+        } else if (record instanceof UntypedValues) {
+            for (Map.Entry<String, Object> entry : ((UntypedValues) record).getValues().entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        } else {
+            for (String channel : record.getChannels()) {
+                put(channel, record.get(channel));
+            }
+        }
+    }
+
+    /**
+     * Writes a single channel value into the store.
+     *
+     * @param channel name of the channel
+     * @param value   new value of the channel
+     */
+    void put(String channel, Object value) {
+        int slot = schema.register(channel);
+        if (value == null) {
+            write(slot, NULL, 0L, null);
+        } else if (value instanceof Boolean) {
+            write(slot, BOOL, (Boolean) value ? 1L : 0L, null);
+        } else if (value instanceof Long) {
+            write(slot, LONG, (Long) value, null);
+        } else if (value instanceof Double) {
+            write(slot, DOUBLE, Double.doubleToRawLongBits((Double) value), null);
+        } else if (value.getClass() == Date.class) {
+            write(slot, DATE, ((Date) value).getTime(), null);
+        } else {
+            write(slot, OBJECT, 0L, value);
+        }
+    }
+
+    /** Copies the slot of a record with the schema of this store without boxing the value */
+    private void put(ColumnarValues record, int slot) {
+        switch (record.getType(slot)) {
+            case BOOL:
+                write(slot, BOOL, record.getBooleanAsPrimitive(slot) ? 1L : 0L, null);
+                break;
+            case LONG:
+                write(slot, LONG, record.getLongAsPrimitive(slot), null);
+                break;
+            case DOUBLE:
+                write(slot, DOUBLE, Double.doubleToRawLongBits(record.getDoubleAsPrimitive(slot)), null);
+                break;
+            case TIMESTAMP:
+                write(slot, DATE, record.getDateAsPrimitive(slot), null);
+                break;
+            default:
+                write(slot, OBJECT, 0L, record.getStringAt(slot));
+        }
+    }
+
+    private void write(int slot, byte type, long bits, Object object) {
+        int index = slot >>> CHUNK_SHIFT;
+        if (index >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, index + 1);
+            chunkVersions = Arrays.copyOf(chunkVersions, index + 1);
+        }
+        Chunk chunk = chunks[index];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[index] = chunk;
+            chunkVersions[index] = version;
+        } else if (chunkVersions[index] != version) {
+            // the chunk is shared with a snapshot
+            chunk = chunk.copy();
+            chunks[index] = chunk;
+            chunkVersions[index] = version;
+        }
+        int offset = slot & CHUNK_MASK;
+        chunk.types[offset] = type;
+        chunk.bits[offset] = bits;
+        if (object != null || chunk.objects != null) {
+            chunk.objects()[offset] = object;
+        }
+        markChanged(slot);
+    }
+
+    private void markChanged(int slot) {
+        if (slot >= changedVersions.length) {
+            changedVersions = Arrays.copyOf(changedVersions, Math.max(changedVersions.length * 2, slot + 1));
+        }
+        if (changedVersions[slot] == 0) {
+            // first write of the slot
+            if (size == order.length) {
+                order = Arrays.copyOf(order, order.length * 2);
+            }
+            order[size++] = slot;
+        }
+        if (changedVersions[slot] != version + 1) {
+            changedVersions[slot] = version + 1;
+            if (changedCount == changed.length) {
+                changed = Arrays.copyOf(changed, changed.length * 2);
+            }
+            changed[changedCount++] = schema.channelAt(slot);
+        }
+    }
+
+    /**
+     * Creates an immutable view on the current state of the store.
+     *
+     * @param source    of the snapshot
+     * @param timestamp of the snapshot
+     * @return an {@link MRecord} with all channels that have been written to the store till now
+     */
+    Snapshot snapshot(String source, long timestamp) {
+        Snapshot snapshot = new Snapshot(
+                source, timestamp, schema, order, size, chunks.clone(), Arrays.copyOf(changed, changedCount)
+        );
+        // from now on all chunks are shared with the snapshot
+        version++;
+        changedCount = 0;
+        return snapshot;
+    }
+
+    /**
+     * Number of channels in the store.
+     *
+     * @return number of channels
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Values of {@link #CHUNK_SIZE} slots.
+     */
+    private static final class Chunk implements Serializable {
+        private final byte[] types;
+        private final long[] bits;
+        /** only allocated if an object is written */
+        private Object[] objects;
+
+        private Chunk() {
+            this(new byte[CHUNK_SIZE], new long[CHUNK_SIZE], null);
+        }
+
+        private Chunk(byte[] types, long[] bits, Object[] objects) {
+            this.types = types;
+            this.bits = bits;
+            this.objects = objects;
+        }
+
+        private Object[] objects() {
+            if (objects == null) {
+                objects = new Object[CHUNK_SIZE];
+            }
+            return objects;
+        }
+
+        private Chunk copy() {
+            return new Chunk(types.clone(), bits.clone(), objects == null ? null : objects.clone());
+        }
+    }
+
+    /**
+     * Immutable {@link SlottedRecord} view on the state of a {@link CopyOnWriteChannelStore} at a given time.
+     * It behaves like {@link org.pragmaticminds.crunch.api.values.UntypedValues} with the merged values.
+     */
+    static final class Snapshot implements SlottedRecord {
+        private static final Logger logger = LoggerFactory.getLogger(Snapshot.class);
+
+        private final String source;
+        private final long timestamp;
+        private final ChannelSchema schema;
+        private final int[] order;
+        private final int size;
+        private final Chunk[] chunks;
+        private final String[] changedChannels;
+
+        private Snapshot(
+                String source,
+                long timestamp,
+                ChannelSchema schema,
+                int[] order,
+                int size,
+                Chunk[] chunks,
+                String[] changedChannels
+        ) {
+            this.source = source;
+            this.timestamp = timestamp;
+            this.schema = schema;
+            this.order = order;
+            this.size = size;
+            this.chunks = chunks;
+            this.changedChannels = changedChannels;
+        }
+
+        /**
+         * The channels that have been written to the store since the snapshot before.
+         * The values may be the same as before, only the write is recorded.
+         *
+         * @return the names of the written channels
+         */
+        List<String> getChangedChannels() {
+            return Collections.unmodifiableList(Arrays.asList(changedChannels));
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String getSource() {
+            return source;
+        }
+
+        @Override
+        public ChannelSchema getSchema() {
+            return schema;
+        }
+
+        @Override
+        public boolean isPresent(int slot) {
+            byte type = typeOf(slot);
+            return type != ABSENT && type != NULL;
+        }
+
+        @Override
+        public double getDoubleAsPrimitive(int slot) {
+            Chunk chunk = presentChunkOf(slot);
+            int offset = slot & CHUNK_MASK;
+            switch (chunk.types[offset]) {
+                case DOUBLE:
+                    return Double.longBitsToDouble(chunk.bits[offset]);
+                case LONG:
+                    return chunk.bits[offset];
+                default:
+                    return valueOf(chunk, offset).getAsDouble();
+            }
+        }
+
+        @Override
+        public long getLongAsPrimitive(int slot) {
+            Chunk chunk = presentChunkOf(slot);
+            int offset = slot & CHUNK_MASK;
+            if (chunk.types[offset] == LONG) {
+                return chunk.bits[offset];
+            }
+            return valueOf(chunk, offset).getAsLong();
+        }
+
+        @Override
+        public boolean getBooleanAsPrimitive(int slot) {
+            Chunk chunk = presentChunkOf(slot);
+            int offset = slot & CHUNK_MASK;
+            if (chunk.types[offset] == BOOL) {
+                return chunk.bits[offset] != 0;
+            }
+            return valueOf(chunk, offset).getAsBoolean();
+        }
+
+        @Override
+        public long getDateAsPrimitive(int slot) {
+            Chunk chunk = presentChunkOf(slot);
+            int offset = slot & CHUNK_MASK;
+            if (chunk.types[offset] == DATE) {
+                return chunk.bits[offset];
+            }
+            return valueOf(chunk, offset).getAsDate().getTime();
+        }
+
+        @Override
+        public String getStringAt(int slot) {
+            Chunk chunk = presentChunkOf(slot);
+            int offset = slot & CHUNK_MASK;
+            if (chunk.types[offset] == OBJECT && chunk.objects[offset] instanceof String) {
+                return (String) chunk.objects[offset];
+            }
+            return valueOf(chunk, offset).getAsString();
+        }
+
+        @Override
+        public Value getValueAt(int slot) {
+            return valueOf(presentChunkOf(slot), slot & CHUNK_MASK);
+        }
+
+        @Override
+        public Double getDouble(String channel) {
+            int slot = slotOf(channel);
+            return isPresent(slot) ? getDoubleAsPrimitive(slot) : null;
+        }
+
+        @Override
+        public Long getLong(String channel) {
+            int slot = slotOf(channel);
+            return isPresent(slot) ? getLongAsPrimitive(slot) : null;
+        }
+
+        @Override
+        @SuppressWarnings("squid:S2447") // null should not be returned, in this case it is necessary
+        public Boolean getBoolean(String channel) {
+            int slot = slotOf(channel);
+            return isPresent(slot) ? getBooleanAsPrimitive(slot) : null;
+        }
+
+        @Override
+        public Date getDate(String channel) {
+            int slot = slotOf(channel);
+            return isPresent(slot) ? new Date(getDateAsPrimitive(slot)) : null;
+        }
+
+        @Override
+        public String getString(String channel) {
+            int slot = slotOf(channel);
+            return isPresent(slot) ? getStringAt(slot) : null;
+        }
+
+        @Override
+        public Value getValue(String channel) {
+            return Value.of(get(channel));
+        }
+
+        @Override
+        public Object get(String channel) {
+            int slot = slotOf(channel);
+            return isPresent(slot) ? objectOf(chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK) : null;
+        }
+
+        @Override
+        public Collection<String> getChannels() {
+            List<String> channels = new ArrayList<>(size);
+            for (int index = 0; index < size; index++) {
+                channels.add(schema.channelAt(order[index]));
+            }
+            return Collections.unmodifiableList(channels);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Snapshot(source=").append(source)
+                    .append(", timestamp=").append(timestamp)
+                    .append(", values={");
+            for (int index = 0; index < size; index++) {
+                int slot = order[index];
+                if (index > 0) {
+                    builder.append(", ");
+                }
+                builder.append(schema.channelAt(slot)).append('=')
+                        .append(objectOf(chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK));
+            }
+            return builder.append("})").toString();
+        }
+
+        /**
+         * @param channel name of the channel
+         * @return the slot of the channel, an error is logged if the channel was never written to the store
+         */
+        private int slotOf(String channel) {
+            int slot = schema.slotOf(channel);
+            if (typeOf(slot) == ABSENT) {
+                logger.error("Channel with the name \"{}\" is not present!", channel);
+            }
+            return slot;
+        }
+
+        private byte typeOf(int slot) {
+            int index = slot >>> CHUNK_SHIFT;
+            if (slot < 0 || index >= chunks.length || chunks[index] == null) {
+                return ABSENT;
+            }
+            return chunks[index].types[slot & CHUNK_MASK];
+        }
+
+        private Chunk presentChunkOf(int slot) {
+            if (!isPresent(slot)) {
+                throw new UnknownRecordItemException("The slot " + slot + " is not present in the record");
+            }
+            return chunks[slot >>> CHUNK_SHIFT];
+        }
+
+        private static Object objectOf(Chunk chunk, int offset) {
+            switch (chunk.types[offset]) {
+                case ABSENT:
+                case NULL:
+                    return null;
+                case BOOL:
+                    return chunk.bits[offset] != 0;
+                case LONG:
+                    return chunk.bits[offset];
+                case DOUBLE:
+                    return Double.longBitsToDouble(chunk.bits[offset]);
+                case DATE:
+                    return new Date(chunk.bits[offset]);
+                default:
+                    return chunk.objects[offset];
+            }
+        }
+
+        private static Value valueOf(Chunk chunk, int offset) {
+            return Value.of(objectOf(chunk, offset));
+        }
+    }
+}
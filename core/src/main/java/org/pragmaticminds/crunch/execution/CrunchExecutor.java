@@ -26,6 +26,7 @@ import akka.stream.Materializer;
 import akka.stream.javadsl.RunnableGraph;
 import com.google.common.base.Preconditions;
 import org.pragmaticminds.crunch.api.pipe.EvaluationPipeline;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,17 +57,65 @@ public class CrunchExecutor {
     private MRecordSource source;
     private EvaluationPipeline evaluationPipeline;
     private EventSink sink;
+    private ExecutionMode mode;
+    private IdleStrategy idleStrategy;
+    private final PipelineMetrics metrics = new PipelineMetrics();
 
     public CrunchExecutor(MRecordSource source, EvaluationPipeline evaluationPipeline, EventSink sink) {
+        this(source, evaluationPipeline, sink, ExecutionMode.STREAMING);
+    }
+
+    /**
+     * Creates an Executor with a given {@link ExecutionMode}.
+     * The {@link ExecutionMode#BACKFILL} can not be used with {@link MRecordSource.Kind#INFINITE} sources.
+     *
+     * @param source             Source of the records
+     * @param evaluationPipeline Pipeline to run
+     * @param sink               Sink to use for Events
+     * @param mode               how the pipeline is run
+     */
+    public CrunchExecutor(MRecordSource source, EvaluationPipeline evaluationPipeline, EventSink sink, ExecutionMode mode) {
+        this(source, evaluationPipeline, sink, mode, new BackoffIdleStrategy());
+    }
+
+    /**
+     * Creates an Executor with a given {@link ExecutionMode} and {@link IdleStrategy}.
+     *
+     * @param source             Source of the records
+     * @param evaluationPipeline Pipeline to run
+     * @param sink               Sink to use for Events
+     * @param mode               how the pipeline is run
+     * @param idleStrategy       decides how to wait while the source has no records
+     */
+    public CrunchExecutor(MRecordSource source, EvaluationPipeline evaluationPipeline, EventSink sink, ExecutionMode mode,
+                          IdleStrategy idleStrategy) {
+        Preconditions.checkNotNull(mode, "Please provide an ExecutionMode!");
+        Preconditions.checkNotNull(idleStrategy, "Please provide an IdleStrategy!");
+        Preconditions.checkArgument(
+                mode != ExecutionMode.BACKFILL || source.getKind() != MRecordSource.Kind.INFINITE,
+                "The ExecutionMode BACKFILL can not be used with an infinite source!"
+        );
         this.source = source;
         this.evaluationPipeline = evaluationPipeline;
         this.sink = sink;
+        this.mode = mode;
+        this.idleStrategy = idleStrategy;
     }
 
     public CrunchExecutor(MRecordSource source, EvaluationPipeline evaluationPipeline) {
         this(source, evaluationPipeline, null);
     }
 
+    /**
+     * The metrics are updated while the pipeline is running. They are registered at JMX with the identifier of the
+     * pipeline as name during the run.
+     *
+     * @return the metrics of the pipeline
+     */
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Runs the Pipeline using the Sink given in the Constructor.
      * Blocks white the Pipeline is running.
@@ -93,10 +142,14 @@ public class CrunchExecutor {
     private void runWithSink(EventSink sink) {
         Preconditions.checkNotNull(sink, "Please provide a Sink!");
         Materializer materializer = ActorMaterializer.create(SYSTEM);
+        // sort window of all SubStreams that do not define one
         Long watermarkOffsetMs = 50L;
 
-        RunnableGraph<CompletionStage<Done>> runnableGraph = GRAPH_FACTORY.create(source, evaluationPipeline, sink, watermarkOffsetMs);
+        RunnableGraph<CompletionStage<Done>> runnableGraph = GRAPH_FACTORY.create(
+                source, evaluationPipeline, sink, watermarkOffsetMs, mode, metrics, idleStrategy
+        );
 
+        metrics.register(evaluationPipeline.getIdentifier());
         try {
             runnableGraph.run(materializer).toCompletableFuture().get();
         } catch (ExecutionException e) {
@@ -104,6 +157,8 @@ public class CrunchExecutor {
         } catch (InterruptedException e){
             logger.warn("Unable to wait for execution of pipeline.", e);
             Thread.currentThread().interrupt();
+        } finally {
+            metrics.unregister();
         }
     }
 
@@ -20,8 +20,10 @@
 package org.pragmaticminds.crunch.execution;
 
 import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.pipe.LateRecords;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.events.Event;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 
 import java.io.Serializable;
 
@@ -37,10 +39,31 @@ import java.io.Serializable;
 public class EventSinkContext<T extends Serializable> extends EvaluationContext<T> {
 
     private final EventSink<T> sink;
+    private final PipelineMetrics metrics;
+    private final LateRecords lateRecords;
     private MRecord current;
 
     public EventSinkContext(EventSink<T> sink) {
+        this(sink, null);
+    }
+
+    /**
+     * @param sink    receives all events
+     * @param metrics counts the events, can be null
+     */
+    public EventSinkContext(EventSink<T> sink, PipelineMetrics metrics) {
+        this(sink, metrics, null);
+    }
+
+    /**
+     * @param sink        receives all events
+     * @param metrics     counts the events, the late records and the evicted keys, can be null
+     * @param lateRecords receives the records, that are too late for the functions, can be null
+     */
+    public EventSinkContext(EventSink<T> sink, PipelineMetrics metrics, LateRecords lateRecords) {
         this.sink = sink;
+        this.metrics = metrics;
+        this.lateRecords = lateRecords;
     }
 
     /**
@@ -60,6 +83,26 @@ public class EventSinkContext<T extends Serializable> extends EvaluationContext<
 
     @Override
     public void collect(T event) {
+        if (metrics != null) {
+            metrics.event();
+        }
         sink.handle(event);
     }
+
+    @Override
+    public void late(MRecord record) {
+        if (metrics != null) {
+            metrics.lateRecord();
+        }
+        if (lateRecords != null) {
+            lateRecords.handle(record);
+        }
+    }
+
+    @Override
+    public void evictedKeys(long count) {
+        if (metrics != null) {
+            metrics.evictedKeys(count);
+        }
+    }
 }
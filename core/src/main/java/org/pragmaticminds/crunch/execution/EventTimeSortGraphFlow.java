@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import akka.stream.Attributes;
+import akka.stream.FlowShape;
+import akka.stream.Inlet;
+import akka.stream.Outlet;
+import akka.stream.stage.AbstractInOutHandler;
+import akka.stream.stage.GraphStage;
+import akka.stream.stage.GraphStageLogic;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.LateRecords;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+/**
+ * Realizes the sorting of incoming records by timestamps in a defined sort window, like {@link SortGraphFlow}, but
+ * driven by event time only.
+ * The watermark is the highest timestamp seen so far minus the watermark offset, so no wall clock and no timers are
+ * involved. When the upstream finishes all buffered records are emitted.
+ * Records that are older than the latest already emitted record minus the allowed lateness are passed to the
+ * {@link LateRecords}.
+ * With an {@link AdaptiveWatermarkOffset} the offset follows the observed disorder of the records.
+ * This is used by the {@link ExecutionMode#BACKFILL} to process recorded data as fast as possible.
+ */
+public class EventTimeSortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>> {
+    private static final Logger logger = LoggerFactory.getLogger(EventTimeSortGraphFlow.class);
+
+    private final Long watermarkOffsetMs;
+    private final SortFunction<Long, T> sortFunctionPrototype;
+    private final long allowedLatenessMs;
+    private final LateRecords lateRecords;
+    private final AdaptiveWatermarkOffset adaptiveOffsetPrototype;
+    private final PipelineMetrics metrics;
+
+    private final Inlet<T> in = Inlet.create("EventTimeSortGraphFlow.in");
+    private final Outlet<T> out = Outlet.create("EventTimeSortGraphFlow.out");
+    private final FlowShape<T, T> shape = FlowShape.of(in, out);
+
+    /**
+     * Main constructor taking the watermark offset in milly seconds.
+     *
+     * @param watermarkOffsetMs defines the sort window
+     */
+    public EventTimeSortGraphFlow(Long watermarkOffsetMs) {
+        this(watermarkOffsetMs, new TimestampSortFunction<>());
+    }
+
+    /**
+     * Constructor taking the watermark offset in milly seconds and the {@link SortFunction} that buffers the records.
+     * The given sortFunction is used as a prototype, each materialization of this stage works on its own clone.
+     *
+     * @param watermarkOffsetMs defines the sort window
+     * @param sortFunction      prototype of the sort buffer
+     */
+    public EventTimeSortGraphFlow(Long watermarkOffsetMs, SortFunction<Long, T> sortFunction) {
+        this(watermarkOffsetMs, sortFunction, 0L, new LateRecords(null));
+    }
+
+    /**
+     * Constructor taking the watermark offset in milly seconds, the {@link SortFunction} that buffers the records and
+     * the handling of late records.
+     *
+     * @param watermarkOffsetMs defines the sort window
+     * @param sortFunction      prototype of the sort buffer
+     * @param allowedLatenessMs how much older than the latest emitted record a record may be to be still processed
+     * @param lateRecords       receives all records that are too late
+     */
+    public EventTimeSortGraphFlow(
+            Long watermarkOffsetMs,
+            SortFunction<Long, T> sortFunction,
+            long allowedLatenessMs,
+            LateRecords lateRecords
+    ) {
+        this(watermarkOffsetMs, sortFunction, allowedLatenessMs, lateRecords, null);
+    }
+
+    /**
+     * Constructor that additionally takes an {@link AdaptiveWatermarkOffset}, which replaces the fixed
+     * watermarkOffsetMs. The given adaptiveOffset is used as a prototype, each materialization of this stage works on
+     * its own clone.
+     *
+     * @param watermarkOffsetMs defines the sort window, if no adaptiveOffset is set
+     * @param sortFunction      prototype of the sort buffer
+     * @param allowedLatenessMs how much older than the latest emitted record a record may be to be still processed
+     * @param lateRecords       receives all records that are too late
+     * @param adaptiveOffset    prototype of the offset calculation, null for the fixed watermarkOffsetMs
+     */
+    public EventTimeSortGraphFlow(
+            Long watermarkOffsetMs,
+            SortFunction<Long, T> sortFunction,
+            long allowedLatenessMs,
+            LateRecords lateRecords,
+            AdaptiveWatermarkOffset adaptiveOffset
+    ) {
+        this(watermarkOffsetMs, sortFunction, allowedLatenessMs, lateRecords, adaptiveOffset, new PipelineMetrics());
+    }
+
+    /**
+     * Constructor that additionally takes the {@link PipelineMetrics}, which receive the depth of the sort buffer and
+     * the number of late records.
+     *
+     * @param watermarkOffsetMs defines the sort window, if no adaptiveOffset is set
+     * @param sortFunction      prototype of the sort buffer
+     * @param allowedLatenessMs how much older than the latest emitted record a record may be to be still processed
+     * @param lateRecords       receives all records that are too late
+     * @param adaptiveOffset    prototype of the offset calculation, null for the fixed watermarkOffsetMs
+     * @param metrics           of the pipeline
+     */
+    public EventTimeSortGraphFlow(
+            Long watermarkOffsetMs,
+            SortFunction<Long, T> sortFunction,
+            long allowedLatenessMs,
+            LateRecords lateRecords,
+            AdaptiveWatermarkOffset adaptiveOffset,
+            PipelineMetrics metrics
+    ) {
+        this.watermarkOffsetMs = watermarkOffsetMs;
+        this.sortFunctionPrototype = sortFunction;
+        this.allowedLatenessMs = allowedLatenessMs;
+        this.lateRecords = lateRecords;
+        this.adaptiveOffsetPrototype = adaptiveOffset;
+        this.metrics = metrics;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FlowShape<T, T> shape() {
+        return shape;
+    }
+
+    @Override
+    @SuppressWarnings("squid:S1171") // have to use field initializers in here
+    public GraphStageLogic createLogic(Attributes inheritedAttributes) {
+        return new GraphStageLogic(shape()) {
+            // All state MUST be inside the GraphStageLogic,
+            // never inside the enclosing GraphStage.
+            private final SortFunction<Long, T> sortFunction = ClonerUtil.clone(sortFunctionPrototype);
+            // the primitive methods of the heap neither box the timestamps nor allocate a result collection
+            private final LongHeapSortFunction<T> heap = sortFunction instanceof LongHeapSortFunction
+                    ? (LongHeapSortFunction<T>) sortFunction
+                    : null;
+            // sorted records, that wait for the downstream
+            private final ArrayDeque<T> ready = new ArrayDeque<>();
+            private long maxTimestamp = Long.MIN_VALUE;
+            private long lastEmittedTimestamp = Long.MIN_VALUE;
+            private final AdaptiveWatermarkOffset adaptiveOffset =
+                    adaptiveOffsetPrototype == null ? null : ClonerUtil.clone(adaptiveOffsetPrototype);
+
+            // Initialization in Akka Java is usually done in static init blocks
+            {
+                setHandlers(in, out, new AbstractInOutHandler() {
+                    @Override
+                    public void onPush() {
+                        T record = grab(in);
+                        if (adaptiveOffset != null) {
+                            adaptiveOffset.observe(record.getSource(), record.getTimestamp());
+                        }
+                        if (lastEmittedTimestamp != Long.MIN_VALUE
+                                && record.getTimestamp() < lastEmittedTimestamp - allowedLatenessMs) {
+                            metrics.lateRecord();
+                            lateRecords.handle(record);
+                            pull(in);
+                            return;
+                        }
+                        maxTimestamp = Math.max(maxTimestamp, record.getTimestamp());
+                        // the lateness is already checked, so the sort function has to take the record
+                        if (heap != null) {
+                            heap.process(record.getTimestamp(), Long.MIN_VALUE, record);
+                        } else {
+                            sortFunction.process(record.getTimestamp(), Long.MIN_VALUE, record);
+                        }
+                        metrics.sortBufferChanged(1);
+
+                        drain(maxTimestamp - (adaptiveOffset == null ? watermarkOffsetMs : adaptiveOffset.getOffsetMs()));
+                        // the record was pulled for the downstream, so it still waits for a record
+                        if (ready.isEmpty()) {
+                            pull(in);
+                        } else {
+                            push(out, ready.poll());
+                        }
+                    }
+
+                    @Override
+                    public void onPull() {
+                        if (!ready.isEmpty()) {
+                            push(out, ready.poll());
+                        } else if (!isClosed(in) && !hasBeenPulled(in)) {
+                            pull(in);
+                        }
+                    }
+
+                    @Override
+                    public void onUpstreamFinish() {
+                        // flush all buffered records, the completion is done after all of them are emitted
+                        drain(Long.MAX_VALUE);
+                        emitMultiple(out, ready.iterator());
+                        complete(out);
+                    }
+                });
+            }
+
+            /**
+             * Moves the sorted records of the {@link SortFunction} up to the watermark to the #ready records.
+             *
+             * @param watermark the timestamp up to which records are emitted
+             */
+            private void drain(long watermark) {
+                int count;
+                if (heap != null) {
+                    count = heap.drainTo(watermark, ready);
+                } else {
+                    Collection<T> results = sortFunction.onTimer(watermark);
+                    ready.addAll(results);
+                    count = results.size();
+                }
+                if (count > 0) {
+                    // the records are sorted, so the last one has the latest timestamp
+                    lastEmittedTimestamp = Math.max(lastEmittedTimestamp, ready.peekLast().getTimestamp());
+                    metrics.sortBufferChanged(-count);
+                }
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void preStart() {
+                logger.debug("Initializing EventTimeSortGraphFlow");
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+/**
+ * Specifies how a {@link CrunchExecutor} runs the pipeline.
+ */
+public enum ExecutionMode {
+    /**
+     * Records are sorted in a window that moves with the wall clock time, so records are emitted in (nearly) real
+     * time. Records that are still buffered when the source ends are emitted in order before the stream completes.
+     */
+    STREAMING,
+    /**
+     * Sorting and watermarks are driven purely by the timestamps of the records, no timers are used.
+     * All buffers are flushed when the source ends, thus recorded data is processed as fast as possible.
+     * Only suitable for sources that are not {@link MRecordSource.Kind#INFINITE}.
+     */
+    BACKFILL
+}
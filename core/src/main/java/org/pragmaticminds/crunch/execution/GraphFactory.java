@@ -25,6 +25,7 @@ import akka.japi.function.Function;
 import akka.japi.function.Function2;
 import akka.japi.function.Predicate;
 import akka.stream.ClosedShape;
+import akka.stream.FlowShape;
 import akka.stream.Outlet;
 import akka.stream.SinkShape;
 import akka.stream.UniformFanInShape;
@@ -33,23 +34,29 @@ import akka.stream.javadsl.Broadcast;
 import akka.stream.javadsl.Flow;
 import akka.stream.javadsl.GraphDSL;
 import akka.stream.javadsl.Merge;
+import akka.stream.javadsl.Partition;
 import akka.stream.javadsl.RunnableGraph;
 import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import org.pragmaticminds.crunch.api.pipe.ChannelFilter;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
 import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
 import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
 import org.pragmaticminds.crunch.api.pipe.EvaluationPipeline;
+import org.pragmaticminds.crunch.api.pipe.LateRecords;
 import org.pragmaticminds.crunch.api.pipe.RecordHandler;
 import org.pragmaticminds.crunch.api.pipe.SubStream;
 import org.pragmaticminds.crunch.api.records.MRecord;
-import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.metrics.LatencyHistogram;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -78,18 +85,28 @@ class GraphFactory<T extends Serializable> {
      * Creates a {@link RunnableGraph} from Akka Streams.
      * This graph can then be Materialized and run.
      *
-     * @param source   Source of MRecords
-     * @param pipeline Pipeline to use
+     * @param source            Source of MRecords
+     * @param pipeline          Pipeline to use
+     * @param sink              result output
+     * @param watermarkOffsetMs defines the sort window
+     * @param mode              decides whether the sorting is driven by wall clock or by event time
+     * @param metrics           are updated by all stages of the graph
+     * @param idleStrategy      decides how to wait while the source has no records
      * @return RunnableGraph for Materialization.
      */
     RunnableGraph<CompletionStage<Done>> create(
             MRecordSource source,
             EvaluationPipeline<T> pipeline,
             EventSink<T> sink,
-            Long watermarkOffsetMs
+            Long watermarkOffsetMs,
+            ExecutionMode mode,
+            PipelineMetrics metrics,
+            IdleStrategy idleStrategy
     ) {
         // Source from the MRecordSourceWrapper
-        Source<MRecord, NotUsed> streamSource = Source.fromGraph(new MRecordSourceWrapper(source));
+        Source<MRecord, NotUsed> streamSource = Source.fromGraph(new MRecordSourceWrapper(
+                source, metrics, MRecordSourceWrapper.DEFAULT_BATCH_SIZE, idleStrategy
+        ));
         // The Sink is only for the MRecords, thus ignores them
         Sink<Object, CompletionStage<Done>> streamSink = Sink.ignore();
 
@@ -97,7 +114,7 @@ class GraphFactory<T extends Serializable> {
         return RunnableGraph.fromGraph(
                 GraphDSL.create(             // we need to reference out's shape in the builder DSL below (in to() function)
                         streamSink,                // previously created sink (Sink)
-                        buildGraph(streamSource, pipeline, sink, watermarkOffsetMs)
+                        buildGraph(streamSource, pipeline, sink, watermarkOffsetMs, mode, metrics)
                 ));
     }
 
@@ -105,9 +122,12 @@ class GraphFactory<T extends Serializable> {
      * Builds the Graph for the {@link EvaluationPipeline} using Akkas {@link GraphDSL}.
      * See https://doc.akka.io/docs/akka/2.5/stream/stream-graphs.html
      *
-     * @param streamSource Source
-     * @param pipeline     EvaluationPipeline to evaluate
-     * @param sink         result output
+     * @param streamSource      Source
+     * @param pipeline          EvaluationPipeline to evaluate
+     * @param sink              result output
+     * @param watermarkOffsetMs defines the sort window
+     * @param mode              decides whether the sorting is driven by wall clock or by event time
+     * @param metrics           are updated by all stages of the graph
      * @return Suitable parameter for {@link GraphDSL#create(Function)} method
      */
     @SuppressWarnings("unchecked") // manually checked
@@ -115,7 +135,9 @@ class GraphFactory<T extends Serializable> {
             Source<MRecord, NotUsed> streamSource,
             EvaluationPipeline<T> pipeline,
             EventSink<T> sink,
-            Long watermarkOffsetMs
+            Long watermarkOffsetMs,
+            ExecutionMode mode,
+            PipelineMetrics metrics
     ) {
         return (builder, out) -> {  // variables: builder (GraphDSL.Builder) and out (SinkShape)
             final Outlet<MRecord> builderSource = builder.add(streamSource).out();
@@ -133,18 +155,20 @@ class GraphFactory<T extends Serializable> {
 
                 // Generate a Flow from the Evaluation Functions
                 List<EvaluationFunction<T>> evalFunctions = subStream.getEvalFunctions();
-                // Initialize the eval functions
-                evalFunctions.forEach(EvaluationFunction::init);
 
                 // Prepare the stream
-              final Predicate<MRecord> channelFilter = createChannelFilter(subStream);
-              final MergerFunction merger = new MergerFunction();
               final UniformFanOutShape<MRecord, MRecord> fanOut = builder.add(Broadcast.create(2));
               builder.from(broadcast)
                   .via(builder.add(
                       Flow.of(MRecord.class)
                           // filter all incoming MRecords with predicate
-                          .filter(record -> subStream.getPredicate().validate(record)))
+                          .filter(record -> {
+                              if (subStream.getPredicate().validate(record)) {
+                                  return true;
+                              }
+                              metrics.filteredByPredicate();
+                              return false;
+                          }))
                   )
                   .toFanOut(fanOut);
               builder.from(fanOut)
@@ -157,23 +181,14 @@ class GraphFactory<T extends Serializable> {
                       }
                   ))).to(builder.add(Sink.ignore()));
               builder.from(fanOut)
-                  .via(builder.add(Flow.of(MRecord.class)
-                          // Record Handler
-                                        // filter all not relevant MRecords with channels that are never used
-                                        .filter(channelFilter::test)
-                                        // merge incoming MRecords
-                                        .flatMapConcat(merger)
-                                )
-                        )
-                        .via(builder.add(
-                                // Sort all incoming records by their timestamp in the time window defined by #watermarkOffsetMs
-                                new SortGraphFlow<>(watermarkOffsetMs)
-                        ))
-                        .via(builder.add(
-                                // pass all MRecords to all EvaluationFunctions and RecordHandlers of the current subStream
-                            GraphFactory.this.toFlow(evalFunctions, sink))
-                        )
-                        .toFanIn(merge);
+                  .via(builder.add(
+                      pipeline.getParallelism() > 1
+                          // evaluate the records in lanes partitioned by their source
+                          ? createPartitionedFlow(pipeline, subStream, evalFunctions, sink, watermarkOffsetMs, mode, metrics)
+                          // evaluate all records in this single flow
+                          : createEvaluationFlow(pipeline, subStream, evalFunctions, sink, watermarkOffsetMs, mode, metrics)
+                  ))
+                  .toFanIn(merge);
             }
             // Ignore this sink
             builder.from(merge).to(out);
@@ -182,6 +197,147 @@ class GraphFactory<T extends Serializable> {
         };
     }
 
+    /**
+     * Creates the Flow that evaluates the records of one lane.
+     * The records are filtered by the channels that are used, merged, sorted by their timestamp in the time window
+     * defined by the watermarkOffsetMs and then passed to all {@link EvaluationFunction}s.
+     *
+     * @param pipeline          that delivers the settings of the merge
+     * @param subStream         that delivers the channels for the filter and the handling of late records
+     * @param evalFunctions     functions that are evaluated in this lane
+     * @param sink              result output
+     * @param watermarkOffsetMs defines the sort window, if the {@link SubStream} has none
+     * @param mode              decides whether the sorting is driven by wall clock or by event time
+     * @param metrics           are updated by all stages of the lane
+     * @return Flow for usage in {@link #buildGraph(Source, EvaluationPipeline, EventSink, Long, ExecutionMode,
+     * PipelineMetrics)} method
+     */
+    private Flow<MRecord, MRecord, NotUsed> createEvaluationFlow(
+            EvaluationPipeline<T> pipeline,
+            SubStream<T> subStream,
+            List<EvaluationFunction<T>> evalFunctions,
+            EventSink<T> sink,
+            Long watermarkOffsetMs,
+            ExecutionMode mode,
+            PipelineMetrics metrics
+    ) {
+        // Initialize the eval functions
+        evalFunctions.forEach(EvaluationFunction::init);
+        final Predicate<MRecord> channelFilter = createChannelFilter(subStream);
+        // the sort window of the SubStream overrides the default of the executor
+        final long sortWindowMs = subStream.getSortWindowMs() > 0 ? subStream.getSortWindowMs() : watermarkOffsetMs;
+        final AdaptiveWatermarkOffset adaptiveOffset = subStream.isAdaptiveSortWindow()
+                ? new AdaptiveWatermarkOffset(sortWindowMs)
+                : null;
+
+        Flow<MRecord, MRecord, NotUsed> sorted = Flow.of(MRecord.class)
+                // filter all not relevant MRecords with channels that are never used
+                .filter(record -> {
+                    if (channelFilter.test(record)) {
+                        return true;
+                    }
+                    metrics.filteredByChannelFilter();
+                    return false;
+                })
+                // merge incoming MRecords
+                .via(new MergeGraphFlow(
+                        pipeline.getMaxSources(),
+                        pipeline.getSourceIdleTimeoutMs(),
+                        mode == ExecutionMode.BACKFILL
+                ))
+                .map(record -> {
+                    metrics.merged();
+                    return record;
+                })
+                // Sort all incoming records by their timestamp in the time window defined by #sortWindowMs
+                .via(mode == ExecutionMode.BACKFILL
+                        ? new EventTimeSortGraphFlow<>(sortWindowMs, new LongHeapSortFunction<>(),
+                                subStream.getAllowedLatenessMs(), subStream.getLateRecords(), adaptiveOffset, metrics)
+                        : new SortGraphFlow<>(sortWindowMs, new LongHeapSortFunction<>(),
+                                subStream.getAllowedLatenessMs(), subStream.getLateRecords(), adaptiveOffset, metrics));
+        if (mode == ExecutionMode.BACKFILL) {
+            // all records are emitted, so all results of the functions are due
+            sorted = sorted.concat(Source.<MRecord>single(WatermarkSignal.END));
+        } else if (subStream.getWatermarkIntervalMs() > 0) {
+            // advance the watermark with the wall clock while no records arrive
+            sorted = sorted.keepAlive(
+                    Duration.ofMillis(subStream.getWatermarkIntervalMs()),
+                    () -> WatermarkSignal.IDLE
+            );
+        }
+        // pass all MRecords to all EvaluationFunctions of the current subStream
+        return sorted.via(toFlow(evalFunctions, subStream, sortWindowMs, sink, metrics));
+    }
+
+    /**
+     * Creates a Flow that partitions the records by the hash of their source into
+     * {@link EvaluationPipeline#getParallelism()} lanes.
+     * Each lane runs asynchronously with its own merge, sort and {@link EvaluationFunction} instances, so all records
+     * of one source are still processed in order while different sources are processed in parallel.
+     *
+     * @param pipeline          that delivers the parallelism and the settings of the lanes
+     * @param subStream         that delivers the channels for the filter and the handling of late records of each
+     *                          lane
+     * @param evalFunctions     functions of the {@link SubStream}, these are used in the first lane and cloned for
+     *                          all other lanes
+     * @param sink              result output
+     * @param watermarkOffsetMs defines the sort window
+     * @param mode              decides whether the sorting is driven by wall clock or by event time
+     * @param metrics           are updated by all stages of the lanes
+     * @return Flow for usage in {@link #buildGraph(Source, EvaluationPipeline, EventSink, Long, ExecutionMode,
+     * PipelineMetrics)} method
+     */
+    private Flow<MRecord, MRecord, NotUsed> createPartitionedFlow(
+            EvaluationPipeline<T> pipeline,
+            SubStream<T> subStream,
+            List<EvaluationFunction<T>> evalFunctions,
+            EventSink<T> sink,
+            Long watermarkOffsetMs,
+            ExecutionMode mode,
+            PipelineMetrics metrics
+    ) {
+        int parallelism = pipeline.getParallelism();
+        return Flow.fromGraph(GraphDSL.create(builder -> {
+            UniformFanOutShape<MRecord, MRecord> partition = builder.add(
+                    Partition.create(parallelism, record -> partitionOf(record, parallelism))
+            );
+            UniformFanInShape<MRecord, MRecord> merge = builder.add(Merge.create(parallelism));
+
+            // every lane needs its own instances, as the functions have a state
+            List<List<EvaluationFunction<T>>> lanes = new ArrayList<>();
+            lanes.add(evalFunctions);
+            for (int lane = 1; lane < parallelism; lane++) {
+                List<EvaluationFunction<T>> laneFunctions = new ArrayList<>();
+                for (EvaluationFunction<T> function : evalFunctions) {
+                    laneFunctions.add(ClonerUtil.clone(function));
+                }
+                lanes.add(laneFunctions);
+            }
+
+            for (List<EvaluationFunction<T>> laneFunctions : lanes) {
+                builder.from(partition)
+                        .via(builder.add(
+                                createEvaluationFlow(pipeline, subStream, laneFunctions, sink, watermarkOffsetMs, mode, metrics)
+                                        // run each lane in its own actor
+                                        .async()
+                        ))
+                        .toFanIn(merge);
+            }
+            return FlowShape.of(partition.in(), merge.out());
+        }));
+    }
+
+    /**
+     * Calculates the lane of a record by the hash of its source.
+     *
+     * @param record      to be assigned to a lane
+     * @param parallelism number of lanes
+     * @return the index of the lane between 0 and parallelism - 1
+     */
+    static int partitionOf(MRecord record, int parallelism) {
+        return Math.floorMod(Objects.hashCode(record.getSource()), parallelism);
+    }
+
     /**
      * Creates a filter that is looking for the availability of the channels that are used.
      *
@@ -195,55 +351,86 @@ class GraphFactory<T extends Serializable> {
 
     /**
      * Helper Method to generate a Flow which does the "Evaluation" and forwards possible Events to the
-     * given Sink
+     * given Sink.
+     * A {@link WatermarkSignal} is not evaluated, but passed to {@link EvaluationFunction#onWatermark(long,
+     * EvaluationContext)} of all functions.
+     * While no records arrive, the watermark advances with the wall clock, but only after the sort window and the
+     * allowed lateness of the {@link SubStream} passed, as records up to that age can still be emitted by the sort
+     * stage. Records that are too late for the functions are passed to the {@link LateRecords} of the
+     * {@link SubStream}.
      *
-     * @param functions Functions to evaluate
-     * @param sink      Sink to forward results to
-     * @return Flow for usage in {@link #buildGraph(Source, EvaluationPipeline, EventSink, Long)} method
+     * @param functions    Functions to evaluate
+     * @param subStream    decides whether only the functions are evaluated, whose channels have been written in the
+     *                     record (see {@link ChannelIndex}), and delivers the allowed lateness and late records
+     * @param sortWindowMs maximal sort window of the records
+     * @param sink         Sink to forward results to
+     * @param metrics      receives the evaluation time of every function by its name in the sub stream and the
+     *                     number of events
+     * @return Flow for usage in {@link #buildGraph(Source, EvaluationPipeline, EventSink, Long, ExecutionMode,
+     * PipelineMetrics)} method
      */
     private Flow<MRecord, MRecord, NotUsed> toFlow(
             List<EvaluationFunction<T>> functions,
-            EventSink<T> sink
+            SubStream<T> subStream,
+            long sortWindowMs,
+            EventSink<T> sink,
+            PipelineMetrics metrics
     ) {
+        final ChannelIndex index = subStream.isIncrementalEvaluation() ? new ChannelIndex(functions) : null;
+        final LateRecords lateRecords = subStream.getLateRecords();
+        final long watermarkDelayMs = sortWindowMs + subStream.getAllowedLatenessMs();
+        final boolean[] selected = new boolean[functions.size()];
+        // the last evaluated record and the wall clock time of its evaluation
+        final MRecord[] last = new MRecord[1];
+        final long[] lastEvaluated = new long[1];
+        // look up the histograms once, not for every record
+        List<LatencyHistogram> evaluationTimes = new ArrayList<>(functions.size());
+        for (int i = 0; i < functions.size(); i++) {
+            evaluationTimes.add(metrics.evaluationTime(
+                    PipelineMetrics.functionName(subStream.getIdentifier(), i, functions.get(i).getClass())
+            ));
+        }
+        // one context per stage, so its EvaluationCache is reused for all records
+        final EventSinkContext<T> context = new EventSinkContext<>(sink, metrics, lateRecords);
         return Flow
                 .of(MRecord.class)
                 .map(
                         (Function<MRecord, MRecord>) param -> {
-                            EvaluationContext<T> context = new EventSinkContext<>(sink);
-                            ((EventSinkContext) context).setCurrent(param);
-                            for (EvaluationFunction<T> function : functions) {
-                                function.eval(context);
+                            if (param instanceof WatermarkSignal) {
+                                if (last[0] != null) {
+                                    context.setCurrent(last[0]);
+                                    long watermark = ((WatermarkSignal) param).isEnd()
+                                            ? Long.MAX_VALUE
+                                            : last[0].getTimestamp() + Math.max(
+                                                    0L,
+                                                    System.currentTimeMillis() - lastEvaluated[0] - watermarkDelayMs
+                                            );
+                                    for (EvaluationFunction<T> function : functions) {
+                                        function.onWatermark(watermark, context);
+                                    }
+                                }
+                                return param;
+                            }
+                            last[0] = param;
+                            lastEvaluated[0] = System.currentTimeMillis();
+                            context.setCurrent(param);
+                            // values of suppliers shared by the functions are evaluated once for the record
+                            if (index != null) {
+                                int count = index.select(param, selected);
+                                metrics.skippedEvaluations(functions.size() - count);
+                            }
+                            try (EvaluationCache ignored = context.getEvaluationCache().open(param)) {
+                                for (int i = 0; i < functions.size(); i++) {
+                                    if (index != null && !selected[i]) {
+                                        continue;
+                                    }
+                                    long start = System.nanoTime();
+                                    functions.get(i).eval(context);
+                                    evaluationTimes.get(i).record(System.nanoTime() - start);
+                                }
                             }
                             return param;
                         }
                 );
     }
-
-    /** Wrapps the UntypedValuesMergeFunction as a akka {@link Function} */
-    static class MergeFunction extends UntypedValuesMergeFunction implements Function<MRecord, MRecord>{
-        @Override
-        public MRecord apply(MRecord value) {
-            return merge(value);
-        }
-    }
-
-    private static class MergerFunction implements Function<MRecord, Source<MRecord, NotUsed>> {
-        private long lastTs = Long.MIN_VALUE;
-        private HashMap<String, Object> values = new HashMap<>();
-
-        @Override
-        public Source<MRecord, NotUsed> apply(MRecord param) throws Exception {
-            final Source<MRecord, NotUsed> result;
-            if (lastTs < param.getTimestamp()) {
-                result = Source.single(new UntypedValues(param.getSource(), lastTs, "", values));
-            } else {
-                result = Source.empty();
-            }
-            // Update Values
-            lastTs = param.getTimestamp();
-            param.getChannels().forEach(cn -> values.put(cn, param.get(cn)));
-            // Return the result
-            return result;
-        }
-    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import java.io.Serializable;
+
+/**
+ * Decides what the {@link MRecordSourceWrapper} does when the {@link MRecordSource} currently has no record to
+ * deliver. The stage can ask the source again right away ({@link #SPIN}), give the dispatcher thread to the other
+ * stages first ({@link #YIELD}) or park for a given time without occupying any thread.
+ */
+@FunctionalInterface
+public interface IdleStrategy extends Serializable {
+
+    /** Ask the source again immediately */
+    long SPIN = -1L;
+
+    /** Ask the source again after the stages waiting for the dispatcher had their turn */
+    long YIELD = 0L;
+
+    /**
+     * Is called every time the source had no record to deliver.
+     *
+     * @param idleCount number of fetches in a row which did not deliver a record, starting with 1
+     * @return {@link #SPIN}, {@link #YIELD} or the time to park in nanoseconds
+     */
+    long idle(int idleCount);
+
+    /**
+     * Asks the source again immediately, as long as it has no records. Keeps a core busy while the source is idle,
+     * but has the lowest latency.
+     *
+     * @return a busy spinning {@link IdleStrategy}
+     */
+    static IdleStrategy busySpin() {
+        return idleCount -> SPIN;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class implements the {@link SortFunction} interface with a binary min heap on primitive long timestamps.
+ * Unlike the {@link TimestampSortFunction} the values are not wrapped into tuples and the timestamps are not boxed,
+ * if the primitive methods {@link #process(long, long, Serializable)} and {@link #drainTo(long, Collection)} are used.
+ * Inserting and removing a value costs O(log n). Values with equal timestamps are returned in the order they were
+ * processed.
+ */
+public class LongHeapSortFunction<T extends Serializable> implements SortFunction<Long, T> {
+    private static final Logger logger = LoggerFactory.getLogger(LongHeapSortFunction.class);
+    private static final int DEFAULT_CAPACITY = 100;
+
+    private long[] timestamps;
+    /** Insertion order of the values, to keep the order of values with equal timestamps */
+    private long[] sequences;
+    private Object[] values;
+    private int size = 0;
+    private long sequence = 0;
+
+    /** basic main constructor */
+    public LongHeapSortFunction() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor that takes the initial capacity of the internal heap.
+     *
+     * @param capacity the initial capacity of the internal heap.
+     */
+    public LongHeapSortFunction(int capacity) {
+        int initialCapacity = Math.max(capacity, 1);
+        timestamps = new long[initialCapacity];
+        sequences = new long[initialCapacity];
+        values = new Object[initialCapacity];
+    }
+
+    /**
+     * Boxed variant of {@link #process(long, long, Serializable)}.
+     *
+     * @param timestamp relevant timestamp for sorting.
+     * @param watermark relevant watermark timestamp as the top limit for adding new values to the heap.
+     * @param value to be sorted by timestamp.
+     */
+    @Override
+    public void process(Long timestamp, Long watermark, T value) {
+        process(timestamp.longValue(), watermark.longValue(), value);
+    }
+
+    /**
+     * Takes a value into the internal heap, if it is newer than the watermark or the heap is empty, otherwise
+     * the value is discarded. The sort stages check the lateness before, so discarded values are only logged on the
+     * debug level.
+     *
+     * @param timestamp relevant timestamp for sorting.
+     * @param watermark relevant watermark timestamp as the top limit for adding new values to the heap.
+     * @param value to be sorted by timestamp.
+     */
+    public void process(long timestamp, long watermark, T value) {
+        if (size == 0 || timestamp > watermark) {
+            add(timestamp, value);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Value with old timestamp is discarded {} for {}", timestamp, value);
+        }
+    }
+
+    /**
+     * Collects all values with a timestamp &lt;= watermark from the internal heap in the order of their timestamps.
+     *
+     * @param watermark timestamp, that indicates which values are ready to be processed in the next step.
+     * @return a {@link Collection} of all values with a timestamp &lt;= watermark.
+     */
+    @Override
+    public Collection<T> onTimer(Long watermark) {
+        List<T> results = new ArrayList<>();
+        drainTo(watermark, results);
+        return results;
+    }
+
+    /**
+     * Moves all values with a timestamp &lt;= watermark from the internal heap to the target in the order of their
+     * timestamps.
+     *
+     * @param watermark timestamp, that indicates which values are ready to be processed in the next step.
+     * @param target    receives the values
+     * @return the number of values that have been moved
+     */
+    @SuppressWarnings("unchecked") // only values of type T are added
+    public int drainTo(long watermark, Collection<? super T> target) {
+        int count = 0;
+        while (size > 0 && timestamps[0] <= watermark) {
+            target.add((T) values[0]);
+            removeHead();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Number of values in the internal heap.
+     *
+     * @return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if no values are in the internal heap
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The smallest timestamp of all values in the internal heap.
+     *
+     * @return the timestamp of the next value or {@link Long#MAX_VALUE} if the heap is empty
+     */
+    public long peekTimestamp() {
+        return size == 0 ? Long.MAX_VALUE : timestamps[0];
+    }
+
+    private void add(long timestamp, T value) {
+        if (size == timestamps.length) {
+            int capacity = timestamps.length * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        siftUp(size, timestamp, sequence++, value);
+        size++;
+    }
+
+    private void removeHead() {
+        size--;
+        long timestamp = timestamps[size];
+        long seq = sequences[size];
+        Object value = values[size];
+        values[size] = null;
+        if (size > 0) {
+            siftDown(0, timestamp, seq, value);
+        }
+    }
+
+    private void siftUp(int index, long timestamp, long seq, Object value) {
+        int current = index;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            if (!less(timestamp, seq, timestamps[parent], sequences[parent])) {
+                break;
+            }
+            set(current, timestamps[parent], sequences[parent], values[parent]);
+            current = parent;
+        }
+        set(current, timestamp, seq, value);
+    }
+
+    private void siftDown(int index, long timestamp, long seq, Object value) {
+        int current = index;
+        int half = size >>> 1;
+        while (current < half) {
+            int child = 2 * current + 1;
+            int right = child + 1;
+            if (right < size && less(timestamps[right], sequences[right], timestamps[child], sequences[child])) {
+                child = right;
+            }
+            if (!less(timestamps[child], sequences[child], timestamp, seq)) {
+                break;
+            }
+            set(current, timestamps[child], sequences[child], values[child]);
+            current = child;
+        }
+        set(current, timestamp, seq, value);
+    }
+
+    private void set(int index, long timestamp, long seq, Object value) {
+        timestamps[index] = timestamp;
+        sequences[index] = seq;
+        values[index] = value;
+    }
+
+    private static boolean less(long timestamp1, long seq1, long timestamp2, long seq2) {
+        return timestamp1 < timestamp2 || (timestamp1 == timestamp2 && seq1 < seq2);
+    }
+}
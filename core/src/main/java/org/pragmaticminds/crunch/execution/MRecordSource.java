@@ -22,6 +22,7 @@ package org.pragmaticminds.crunch.execution;
 import org.pragmaticminds.crunch.api.records.MRecord;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * Source for {@link MRecordSource} can be finite or infinite.
@@ -45,6 +46,26 @@ public interface MRecordSource extends Serializable {
      */
     boolean hasRemaining();
 
+    /**
+     * Moves up to maxRecords records that are available right away into the target collection.
+     * Sources that receive their records in chunks (e.g. polls on a Kafka consumer) or that can read ahead cheaply
+     * should override this, so that the caller is able to fetch a whole chunk with a single call.
+     * The default implementation fetches a single record with {@link #get()}.
+     * Null records are skipped and not added to the target.
+     *
+     * @param target     collection the fetched records are added to
+     * @param maxRecords maximum number of records to add, has to be at least 1
+     * @return the number of records added to the target, may be 0
+     */
+    default int drainTo(Collection<MRecord> target, int maxRecords) {
+        MRecord record = get();
+        if (record == null) {
+            return 0;
+        }
+        target.add(record);
+        return 1;
+    }
+
     /**
      * Is called before first call to {@link #hasRemaining()} or {@link #get()}.
      */
@@ -23,16 +23,30 @@ import akka.stream.Attributes;
 import akka.stream.Outlet;
 import akka.stream.SourceShape;
 import akka.stream.stage.AbstractOutHandler;
+import akka.stream.stage.AsyncCallback;
 import akka.stream.stage.GraphStage;
 import akka.stream.stage.GraphStageLogic;
+import akka.stream.stage.TimerGraphStageLogic;
+import com.google.common.base.Preconditions;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+
 /**
  * Wrapper around the {@link MRecordSource} as Akka {@link GraphStage}.
  * It takes a {@link MRecordSource} and acts then as {@link GraphStage} which is the source
  * in an Akka Stream.
+ * <p>
+ * Records are fetched from the source in batches with {@link MRecordSource#drainTo(java.util.Collection, int)}
+ * and then emitted one by one from an internal buffer, so the cost of a fetch is shared by all records of a batch.
+ * <p>
+ * If the source has no record available, the stage does not block. The {@link IdleStrategy} decides whether the
+ * source is asked again right away, after the other stages on the dispatcher had their turn (via an async callback),
+ * or after a timer.
  *
  * ATTENTION: This code can be red (although it compiles) in IntelliJ due to a Bug
  *
@@ -43,6 +57,9 @@ class MRecordSourceWrapper extends GraphStage<SourceShape<MRecord>> {
 
     private static final Logger logger = LoggerFactory.getLogger(MRecordSourceWrapper.class);
 
+    /** Default maximum number of records that are fetched from the source at once */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
     // Define the (sole) output port of this stage
     public final Outlet<MRecord> out = Outlet.create("MRecordSource.out");
 
@@ -50,9 +67,44 @@ class MRecordSourceWrapper extends GraphStage<SourceShape<MRecord>> {
     private final SourceShape<MRecord> shape = SourceShape.of(out);
 
     private final MRecordSource source;
+    private final PipelineMetrics metrics;
+    private final int batchSize;
+    private final IdleStrategy idleStrategy;
 
     public MRecordSourceWrapper(MRecordSource source) {
+        this(source, new PipelineMetrics());
+    }
+
+    /**
+     * @param source  of the records
+     * @param metrics counts the records that are delivered by the source
+     */
+    public MRecordSourceWrapper(MRecordSource source, PipelineMetrics metrics) {
+        this(source, metrics, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param source    of the records
+     * @param metrics   counts the records that are delivered by the source
+     * @param batchSize maximum number of records that are fetched from the source at once
+     */
+    public MRecordSourceWrapper(MRecordSource source, PipelineMetrics metrics, int batchSize) {
+        this(source, metrics, batchSize, new BackoffIdleStrategy());
+    }
+
+    /**
+     * @param source       of the records
+     * @param metrics      counts the records that are delivered by the source
+     * @param batchSize    maximum number of records that are fetched from the source at once
+     * @param idleStrategy decides how to wait if the source has no record available
+     */
+    public MRecordSourceWrapper(MRecordSource source, PipelineMetrics metrics, int batchSize, IdleStrategy idleStrategy) {
+        Preconditions.checkArgument(batchSize >= 1, "the batchSize has to be at least 1");
+        Preconditions.checkNotNull(idleStrategy, "the idleStrategy must not be null");
         this.source = source;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.idleStrategy = idleStrategy;
     }
 
     @Override
@@ -63,37 +115,78 @@ class MRecordSourceWrapper extends GraphStage<SourceShape<MRecord>> {
     @Override
     @SuppressWarnings({"squid:S1171", "squid:S1188"}) // Use Init Block and keep it inline ( to stick to Akka Standards)
     public GraphStageLogic createLogic(Attributes inheritedAttributes) {
-        return new GraphStageLogic(shape()) {
+        return new TimerGraphStageLogic(shape()) {
             // All state MUST be inside the GraphStageLogic,
             // never inside the enclosing GraphStage.
             // This state is safe to access and modify from all the
             // callbacks that are provided by GraphStageLogic and the
             // registered handlers.
 
+            // Records that were fetched from the source but are not pushed yet
+            private final ArrayDeque<MRecord> buffer = new ArrayDeque<>(batchSize);
+            // Number of fetches in a row that did not deliver a record
+            private int idleCount = 0;
+            // Retries the fetch after the message is passed through the mailbox of the stage actor
+            private final AsyncCallback<Object> retry = createAsyncCallback(ignored -> fetchBatch());
+
             // Initialization in Akka Java is usually done in static init blocks
             {
                 setHandler(out, new AbstractOutHandler() {
                     @Override
                     public void onPull() {
-                        if (!source.hasRemaining()) {
+                        if (!buffer.isEmpty()) {
+                            push(out, buffer.poll());
+                        } else if (!source.hasRemaining()) {
                             complete(out);
-                            return;
-                        }
-                        // If the underlying source returned null we pull again
-                        MRecord record;
-                        while ((record = source.get()) == null) {
-                            if(logger.isTraceEnabled()) {
-                                logger.trace("Skipped Null Record from source, fetching next record");
-                            }
+                        } else {
+                            fetchBatch();
                         }
-                        if(logger.isTraceEnabled()) {
-                            logger.trace("Record {} from source {} processed ... pushing.",record,source);
-                        }
-                        push(out, record);
                     }
                 });
             }
 
+            /**
+             * Fetches the next batch from the source into the buffer and pushes the first record.
+             * If the underlying source delivers no record (only nulls), the {@link IdleStrategy} decides when it is
+             * asked again. If a finite source is exhausted by the nulls, the stage completes.
+             */
+            private void fetchBatch() {
+                int fetched;
+                while ((fetched = source.drainTo(buffer, batchSize)) == 0) {
+                    if (!source.hasRemaining()) {
+                        complete(out);
+                        return;
+                    }
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Skipped Null Record from source, fetching next record");
+                    }
+                    long idle = idleStrategy.idle(++idleCount);
+                    if (idle == IdleStrategy.YIELD) {
+                        retry.invoke(null);
+                        return;
+                    } else if (idle > 0) {
+                        scheduleOnce("retry", Duration.ofNanos(idle));
+                        return;
+                    }
+                }
+                idleCount = 0;
+                if (logger.isTraceEnabled()) {
+                    logger.trace("{} Records from source {} fetched ... pushing.", fetched, source);
+                }
+                metrics.recordsIn(fetched);
+                push(out, buffer.poll());
+            }
+
+            /**
+             * Is called when the park time of the {@link IdleStrategy} is over.
+             *
+             * @param key is ignored
+             */
+            @Override
+            public void onTimer(Object key) {
+                fetchBatch();
+            }
+
             @Override
             public void preStart() {
                 logger.info("Initializing stream source {} with Cardinality {}", source, source.getKind());
@@ -22,6 +22,7 @@ package org.pragmaticminds.crunch.execution;
 import org.pragmaticminds.crunch.api.records.MRecord;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
@@ -93,6 +94,19 @@ public class MRecordSources {
             public boolean hasRemaining() {
                 return iterator.hasNext();
             }
+
+            @Override
+            public int drainTo(Collection<MRecord> target, int maxRecords) {
+                int count = 0;
+                while (count < maxRecords && iterator.hasNext()) {
+                    MRecord record = iterator.next();
+                    if (record != null) {
+                        target.add(record);
+                        count++;
+                    }
+                }
+                return count;
+            }
         };
     }
 }
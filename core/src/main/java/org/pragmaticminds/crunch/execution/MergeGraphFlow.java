@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import akka.stream.Attributes;
+import akka.stream.FlowShape;
+import akka.stream.Inlet;
+import akka.stream.Outlet;
+import akka.stream.stage.AbstractInOutHandler;
+import akka.stream.stage.GraphStage;
+import akka.stream.stage.GraphStageLogic;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges all incoming {@link MRecord}s into one state per source and emits a snapshot of this state whenever a
+ * record of the source with a newer timestamp arrives. The emitted snapshot contains all channel values of the source
+ * up to (and including) the last timestamp. Nothing is emitted before the first record of a source has been merged.
+ * <p>
+ * Each state is held in a {@link CopyOnWriteChannelStore}, so emitting a snapshot does not copy all channels and no
+ * sub source has to be materialized per record. All stores share one {@link ChannelSchema}, the one of the first
+ * {@link ColumnarValues} if the records are columnar, so the snapshots are read by slot like the records themselves. The states of all sources are held in a {@link SourceStateCache},
+ * which evicts idle sources and limits the number of sources.
+ */
+class MergeGraphFlow extends GraphStage<FlowShape<MRecord, MRecord>> {
+
+    private final Inlet<MRecord> in = Inlet.create("MergeGraphFlow.in");
+    private final Outlet<MRecord> out = Outlet.create("MergeGraphFlow.out");
+    private final FlowShape<MRecord, MRecord> shape = FlowShape.of(in, out);
+
+    private final int maxSources;
+    private final long sourceIdleTimeoutMs;
+    private final boolean flushOnFinish;
+
+    /**
+     * Creates a merge stage with the default bounds of the {@link SourceStateCache}.
+     */
+    MergeGraphFlow() {
+        this(SourceStateCache.DEFAULT_MAX_SOURCES, SourceStateCache.DEFAULT_IDLE_TIMEOUT_MS, false);
+    }
+
+    /**
+     * Main constructor.
+     *
+     * @param maxSources          maximum number of sources whose state is kept
+     * @param sourceIdleTimeoutMs time in ms after which the state of a source without new records is evicted
+     * @param flushOnFinish       if true the last state of all sources is emitted when the upstream finishes
+     */
+    MergeGraphFlow(int maxSources, long sourceIdleTimeoutMs, boolean flushOnFinish) {
+        this.maxSources = maxSources;
+        this.sourceIdleTimeoutMs = sourceIdleTimeoutMs;
+        this.flushOnFinish = flushOnFinish;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FlowShape<MRecord, MRecord> shape() {
+        return shape;
+    }
+
+    @Override
+    @SuppressWarnings("squid:S1171") // have to use field initializers in here
+    public GraphStageLogic createLogic(Attributes inheritedAttributes) {
+        return new GraphStageLogic(shape()) {
+            // All state MUST be inside the GraphStageLogic,
+            // never inside the enclosing GraphStage.
+            private final SourceStateCache<SourceState> states = new SourceStateCache<>(maxSources, sourceIdleTimeoutMs);
+            private ChannelSchema schema;
+
+            // Initialization in Akka Java is usually done in static init blocks
+            {
+                setHandlers(in, out, new AbstractInOutHandler() {
+                    @Override
+                    public void onPush() {
+                        MRecord record = grab(in);
+                        if (schema == null) {
+                            schema = record instanceof ColumnarValues
+                                    ? ((ColumnarValues) record).getSchema()
+                                    : new ChannelSchema();
+                        }
+                        SourceState state = states.computeIfAbsent(
+                                record.getSource(), () -> new SourceState(record.getSource(), schema)
+                        );
+                        if (state.lastTs != Long.MIN_VALUE && state.lastTs < record.getTimestamp()) {
+                            // emit the state before the current record is merged
+                            push(out, state.store.snapshot(record.getSource(), state.lastTs));
+                        } else {
+                            pull(in);
+                        }
+                        // Update Values
+                        state.lastTs = record.getTimestamp();
+                        state.store.update(record);
+                    }
+
+                    @Override
+                    public void onPull() {
+                        pull(in);
+                    }
+
+                    @Override
+                    public void onUpstreamFinish() {
+                        if (flushOnFinish) {
+                            List<MRecord> snapshots = new ArrayList<>();
+                            for (SourceState state : states.values()) {
+                                snapshots.add(state.store.snapshot(state.source, state.lastTs));
+                            }
+                            // the completion is done after all snapshots are emitted
+                            emitMultiple(out, snapshots.iterator());
+                        }
+                        complete(out);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Merged values of one source.
+     */
+    private static final class SourceState implements Serializable {
+        private final String source;
+        private final CopyOnWriteChannelStore store;
+        private long lastTs = Long.MIN_VALUE;
+
+        private SourceState(String source, ChannelSchema schema) {
+            this.source = source;
+            this.store = new CopyOnWriteChannelStore(schema);
+        }
+    }
+}
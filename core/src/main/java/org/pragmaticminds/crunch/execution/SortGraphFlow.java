@@ -27,8 +27,11 @@ import akka.stream.stage.AbstractInOutHandler;
 import akka.stream.stage.GraphStage;
 import akka.stream.stage.GraphStageLogic;
 import akka.stream.stage.TimerGraphStageLogic;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.LateRecords;
 import org.pragmaticminds.crunch.api.pipe.SubStream;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,18 +39,25 @@ import java.io.Serializable;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
 
 /**
  * Realizes the sorting of incoming records by timestamps in a defined sort window.
- * Records outside the defined window a discarded.
+ * Records that are older than the latest already emitted record minus the allowed lateness can not be sorted in
+ * anymore, they are passed to the {@link LateRecords} of the {@link SubStream}.
+ * With an {@link AdaptiveWatermarkOffset} the sort window follows the observed disorder and records are passed through
+ * without waiting for the timer, as long as all sources deliver them in order.
+ * Records are requested from the upstream as long as no sorted records wait for the downstream, so the sort window is
+ * filled independently of the timer. When the upstream finishes all buffered records are flushed.
  *
  * @author Erwin Wagasow
  * Created by Erwin Wagasow on 04.10.2018
  */
 public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>> implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(SortGraphFlow.class);
+    private static final String TIMER_KEY = "key";
 
     // constructor parameters
     private final Long watermarkOffsetMs;
@@ -56,7 +66,11 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
     private final transient Outlet<T> out = Outlet.create("SortGraphFlow.out");
     private final FlowShape<T, T> shape = FlowShape.of(in, out);
 
-    private TimestampSortFunction<T> sortFunction;
+    private final SortFunction<Long, T> sortFunctionPrototype;
+    private final long allowedLatenessMs;
+    private final LateRecords lateRecords;
+    private final AdaptiveWatermarkOffset adaptiveOffsetPrototype;
+    private final PipelineMetrics metrics;
     private final Serializable bufferMutex = new Serializable() {};
     private final ArrayDeque<T> buffer = new ArrayDeque<>();
 
@@ -67,8 +81,85 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
      * @param watermarkOffsetMs defines the sort window
      */
     public SortGraphFlow(Long watermarkOffsetMs) {
+        this(watermarkOffsetMs, new TimestampSortFunction<>());
+    }
+
+    /**
+     * Constructor taking the watermark offset in milly seconds and the {@link SortFunction} that buffers the records.
+     * The given sortFunction is used as a prototype, each materialization of this stage works on its own clone.
+     *
+     * @param watermarkOffsetMs defines the sort window
+     * @param sortFunction      prototype of the sort buffer, e.g. {@link TimestampSortFunction} or
+     *                          {@link LongHeapSortFunction}
+     */
+    public SortGraphFlow(Long watermarkOffsetMs, SortFunction<Long, T> sortFunction) {
+        this(watermarkOffsetMs, sortFunction, 0L, new LateRecords(null));
+    }
+
+    /**
+     * Constructor taking the watermark offset in milly seconds, the {@link SortFunction} that buffers the records and
+     * the handling of late records.
+     *
+     * @param watermarkOffsetMs defines the sort window
+     * @param sortFunction      prototype of the sort buffer
+     * @param allowedLatenessMs how much older than the latest emitted record a record may be to be still processed
+     * @param lateRecords       receives all records that are too late
+     */
+    public SortGraphFlow(
+            Long watermarkOffsetMs,
+            SortFunction<Long, T> sortFunction,
+            long allowedLatenessMs,
+            LateRecords lateRecords
+    ) {
+        this(watermarkOffsetMs, sortFunction, allowedLatenessMs, lateRecords, null);
+    }
+
+    /**
+     * Constructor that additionally takes an {@link AdaptiveWatermarkOffset}, which replaces the fixed
+     * watermarkOffsetMs. The given adaptiveOffset is used as a prototype, each materialization of this stage works on
+     * its own clone.
+     *
+     * @param watermarkOffsetMs defines the sort window, if no adaptiveOffset is set
+     * @param sortFunction      prototype of the sort buffer
+     * @param allowedLatenessMs how much older than the latest emitted record a record may be to be still processed
+     * @param lateRecords       receives all records that are too late
+     * @param adaptiveOffset    prototype of the offset calculation, null for the fixed watermarkOffsetMs
+     */
+    public SortGraphFlow(
+            Long watermarkOffsetMs,
+            SortFunction<Long, T> sortFunction,
+            long allowedLatenessMs,
+            LateRecords lateRecords,
+            AdaptiveWatermarkOffset adaptiveOffset
+    ) {
+        this(watermarkOffsetMs, sortFunction, allowedLatenessMs, lateRecords, adaptiveOffset, new PipelineMetrics());
+    }
+
+    /**
+     * Constructor that additionally takes the {@link PipelineMetrics}, which receive the depth of the sort buffer and
+     * the number of late records.
+     *
+     * @param watermarkOffsetMs defines the sort window, if no adaptiveOffset is set
+     * @param sortFunction      prototype of the sort buffer
+     * @param allowedLatenessMs how much older than the latest emitted record a record may be to be still processed
+     * @param lateRecords       receives all records that are too late
+     * @param adaptiveOffset    prototype of the offset calculation, null for the fixed watermarkOffsetMs
+     * @param metrics           of the pipeline
+     */
+    public SortGraphFlow(
+            Long watermarkOffsetMs,
+            SortFunction<Long, T> sortFunction,
+            long allowedLatenessMs,
+            LateRecords lateRecords,
+            AdaptiveWatermarkOffset adaptiveOffset,
+            PipelineMetrics metrics
+    ) {
         this.watermarkOffsetMs = watermarkOffsetMs;
-        sortFunction = new TimestampSortFunction<>();
+        this.sortFunctionPrototype = sortFunction;
+        this.allowedLatenessMs = allowedLatenessMs;
+        this.lateRecords = lateRecords;
+        this.adaptiveOffsetPrototype = adaptiveOffset;
+        this.metrics = metrics;
     }
 
     /** {@inheritDoc} */
@@ -79,7 +170,7 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
 
     /**
      * Creates a Graph with an inner Sink and Source.
-     * The {@link TimestampSortFunction} is also integrated in the processing.
+     * The {@link SortFunction} is also integrated in the processing.
      *
      * @param inheritedAttributes are ignored
      * @return the {@link GraphStageLogic}
@@ -98,7 +189,19 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
             // callbacks that are provided by GraphStageLogic and the
             // registered handlers.
 
-            private AtomicReference<Long> systemTimeToRecordTimeDifference = new AtomicReference<>();
+            // primitive, as it is written for every record
+            private long systemTimeToRecordTimeDifference;
+            private boolean hasTimeDifference = false;
+            private final SortFunction<Long, T> sortFunction = ClonerUtil.clone(sortFunctionPrototype);
+            // the primitive methods of the heap neither box the timestamps nor allocate a result collection
+            private final LongHeapSortFunction<T> heap = sortFunction instanceof LongHeapSortFunction
+                    ? (LongHeapSortFunction<T>) sortFunction
+                    : null;
+            private long lastEmittedTimestamp = Long.MIN_VALUE;
+            // number of records in the sortFunction, that are not emitted yet
+            private long pending = 0;
+            private final AdaptiveWatermarkOffset adaptiveOffset =
+                    adaptiveOffsetPrototype == null ? null : ClonerUtil.clone(adaptiveOffsetPrototype);
 
             // Initialization in Akka Java is usually done in static init blocks
             {
@@ -111,10 +214,32 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
                     @Override
                     public void onPush() {
                         T record = grab(in);
-                        // for calculating the relative time difference
-                        systemTimeToRecordTimeDifference.set(System.currentTimeMillis() - record.getTimestamp());
-                        sortFunction.process(record.getTimestamp(), calculateWatermark(record.getTimestamp()), record);
-                        scheduleOnce("key", Duration.of(watermarkOffsetMs, ChronoUnit.MILLIS));
+                        if (adaptiveOffset != null) {
+                            adaptiveOffset.observe(record.getSource(), record.getTimestamp());
+                        }
+                        if (isLate(record.getTimestamp())) {
+                            metrics.lateRecord();
+                            lateRecords.handle(record);
+                        } else {
+                            // for calculating the relative time difference
+                            systemTimeToRecordTimeDifference = System.currentTimeMillis() - record.getTimestamp();
+                            hasTimeDifference = true;
+                            // the lateness is already checked, so the sort function has to take the record
+                            if (heap != null) {
+                                heap.process(record.getTimestamp(), Long.MIN_VALUE, record);
+                            } else {
+                                sortFunction.process(record.getTimestamp(), Long.MIN_VALUE, record);
+                            }
+                            pending++;
+                            metrics.sortBufferChanged(1);
+                            if (adaptiveOffset != null && adaptiveOffset.isInOrder()) {
+                                passThrough(record.getTimestamp());
+                            } else if (!isTimerActive(TIMER_KEY)) {
+                                // the timer is not restarted by every record, else it never fires on a busy stream
+                                scheduleOnce(TIMER_KEY, Duration.of(currentOffsetMs(), ChronoUnit.MILLIS));
+                            }
+                        }
+                        pullIfIdle();
                     }
 
                     /**
@@ -123,18 +248,92 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
                      */
                     @Override
                     public void onPull() {
-                        T record;
-                        if((record = bufferPop()) == null){
-                            if(!isClosed(in) && !hasBeenPulled(in)){
-                                pull(in);
-                            }
-                        }else{
-                            push(out, record);
+                        T record = bufferPop();
+                        if (record != null) {
+                            pushRecord(record);
                         }
+                        pullIfIdle();
+                    }
+
+                    /**
+                     * Flushes all buffered records, the stage completes after all of them are emitted.
+                     */
+                    @Override
+                    public void onUpstreamFinish() {
+                        drain(Long.MAX_VALUE);
+                        List<T> results = new ArrayList<>();
+                        for (T record = bufferPop(); record != null; record = bufferPop()) {
+                            results.add(record);
+                        }
+                        metrics.sortBufferChanged(-results.size());
+                        emitMultiple(out, results.iterator());
+                        complete(out);
                     }
                 });
             }
 
+            /**
+             * Requests the next record, as long as no emitted records are waiting for the downstream, so the back
+             * pressure of the downstream is kept.
+             */
+            private void pullIfIdle() {
+                boolean idle;
+                synchronized (bufferMutex) {
+                    idle = buffer.isEmpty();
+                }
+                if (idle && !isClosed(in) && !hasBeenPulled(in)) {
+                    pull(in);
+                }
+            }
+
+            /**
+             * Emits all buffered records up to the given timestamp without waiting for the timer, as all sources
+             * deliver their records in order.
+             *
+             * @param timestamp of the latest record
+             */
+            private void passThrough(long timestamp) {
+                drain(timestamp);
+                T record = isAvailable(out) ? bufferPop() : null;
+                if (record != null) {
+                    pushRecord(record);
+                }
+            }
+
+            /**
+             * Moves the sorted records of the {@link SortFunction} up to the watermark to the #buffer synchronized.
+             *
+             * @param watermark the timestamp up to which records are emitted
+             */
+            private void drain(long watermark) {
+                int count;
+                synchronized (bufferMutex) {
+                    // keep the sorted order, records are taken from the head of the buffer
+                    if (heap != null) {
+                        count = heap.drainTo(watermark, buffer);
+                    } else {
+                        Collection<T> results = sortFunction.onTimer(watermark);
+                        buffer.addAll(results);
+                        count = results.size();
+                    }
+                    if (count > 0) {
+                        // the records are sorted, so the last one has the latest timestamp
+                        lastEmittedTimestamp = Math.max(lastEmittedTimestamp, buffer.peekLast().getTimestamp());
+                    }
+                }
+                pending -= count;
+            }
+
+            /**
+             * Pushes a record to the out and removes it from the depth of the sort buffer in the metrics.
+             *
+             * @param record to be emitted
+             */
+            private void pushRecord(T record) {
+                metrics.sortBufferChanged(-1);
+                push(out, record);
+            }
+
             /**
              * Tries to get a record from the #buffer synchronized.
              *
@@ -150,33 +349,41 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
             }
 
             /**
-             * Is always called when a Timer created by scheduleOnce is reached.
+             * Is always called when a Timer created by scheduleOnce is reached. The timer is restarted as long as
+             * records are buffered.
              *
              * @param key is ignored
              */
             @Override
             public void onTimer(Object key){
                 // calculate watermark basing on the last difference of system time and record time
-                Long actualTimestamp = System.currentTimeMillis();
-                if(systemTimeToRecordTimeDifference.get() != null){
-                    actualTimestamp -= systemTimeToRecordTimeDifference.get();
+                long actualTimestamp = System.currentTimeMillis();
+                if(hasTimeDifference){
+                    actualTimestamp -= systemTimeToRecordTimeDifference;
                 }
 
                 // call onTimer to get all messages over the watermark
-                Collection<T> results = sortFunction.onTimer(calculateWatermark(actualTimestamp));
-                if(!results.isEmpty()){
-                    synchronized (bufferMutex) {
-                        results.forEach(buffer::push);
+                drain(calculateWatermark(actualTimestamp));
+                if (isAvailable(out)) {
+                    T record = bufferPop();
+                    if (record != null) {
+                        pushRecord(record);
                     }
                 }
-                T record1 = bufferPop();
-                if(record1 == null && !isClosed(in) && !hasBeenPulled(in)){
-                    pull(in);
-                }
-                while (record1 != null){
-                    push(out, record1);
-                    record1 = bufferPop();
+                if (pending > 0) {
+                    scheduleOnce(TIMER_KEY, Duration.of(Math.max(1L, currentOffsetMs()), ChronoUnit.MILLIS));
                 }
+                pullIfIdle();
+            }
+
+            /**
+             * Checks if a record is older than the latest emitted record minus the allowed lateness.
+             *
+             * @param timestamp of the record
+             * @return true if the record can not be processed anymore
+             */
+            private boolean isLate(long timestamp) {
+                return lastEmittedTimestamp != Long.MIN_VALUE && timestamp < lastEmittedTimestamp - allowedLatenessMs;
             }
 
             /**
@@ -186,7 +393,14 @@ public class SortGraphFlow<T extends MRecord> extends GraphStage<FlowShape<T, T>
              * @param timestamp relative time to records timestamps
              */
             private long calculateWatermark(long timestamp) {
-                return timestamp - watermarkOffsetMs;
+                return timestamp - currentOffsetMs();
+            }
+
+            /**
+             * @return the offset of the {@link AdaptiveWatermarkOffset} if set, otherwise the fixed watermarkOffsetMs
+             */
+            private long currentOffsetMs() {
+                return adaptiveOffset == null ? watermarkOffsetMs : adaptiveOffset.getOffsetMs();
             }
 
             /** {@inheritDoc} */
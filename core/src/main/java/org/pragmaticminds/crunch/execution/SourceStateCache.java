@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import com.google.common.base.Preconditions;
+import org.pragmaticminds.crunch.api.pipe.EvaluationPipeline;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache for state that is kept per record source, e.g. the merged values of a machine.
+ * <p>
+ * Sources that have not been accessed for longer than the idle timeout are evicted, and if more than the maximum
+ * number of sources are present the least recently accessed one is evicted. Thus the memory is proportional to the
+ * number of active sources.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <V> type of the state per source
+ */
+public class SourceStateCache<V extends Serializable> implements Serializable {
+
+    public static final int DEFAULT_MAX_SOURCES = EvaluationPipeline.DEFAULT_MAX_SOURCES;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = EvaluationPipeline.DEFAULT_SOURCE_IDLE_TIMEOUT_MS;
+
+    private final int maxSources;
+    private final long idleTimeoutMs;
+    /** Access ordered, so the least recently used entry is always the first one */
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates a cache with {@link #DEFAULT_MAX_SOURCES} and {@link #DEFAULT_IDLE_TIMEOUT_MS}.
+     */
+    public SourceStateCache() {
+        this(DEFAULT_MAX_SOURCES, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    /**
+     * Main constructor.
+     *
+     * @param maxSources    maximum number of sources that are kept
+     * @param idleTimeoutMs time in ms after which the state of a source that has not been accessed is evicted
+     */
+    public SourceStateCache(int maxSources, long idleTimeoutMs) {
+        Preconditions.checkArgument(maxSources > 0, "maxSources has to be positive");
+        Preconditions.checkArgument(idleTimeoutMs > 0, "idleTimeoutMs has to be positive");
+        this.maxSources = maxSources;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Returns the state of the source, or creates it if it is not present.
+     *
+     * @param source  of the state
+     * @param factory creates the initial state
+     * @return the state of the source
+     */
+    public V computeIfAbsent(String source, Supplier<V> factory) {
+        long now = System.currentTimeMillis();
+        evictIdle(now);
+        Entry<V> entry = entries.get(source);
+        if (entry == null) {
+            entry = new Entry<>(factory.get());
+            entries.put(source, entry);
+            evictExcess();
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    /**
+     * Returns the state of the source.
+     *
+     * @param source of the state
+     * @return the state or null if none is present
+     */
+    public V get(String source) {
+        long now = System.currentTimeMillis();
+        evictIdle(now);
+        Entry<V> entry = entries.get(source);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    /**
+     * Sets the state of the source.
+     *
+     * @param source of the state
+     * @param value  new state
+     */
+    public void put(String source, V value) {
+        long now = System.currentTimeMillis();
+        evictIdle(now);
+        Entry<V> entry = new Entry<>(value);
+        entry.lastAccess = now;
+        entries.put(source, entry);
+        evictExcess();
+    }
+
+    /**
+     * Returns the states of all sources, without updating their access time.
+     *
+     * @return a {@link List} with the states of all sources
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(entries.size());
+        for (Entry<V> entry : entries.values()) {
+            values.add(entry.value);
+        }
+        return values;
+    }
+
+    /**
+     * Number of sources that currently have a state.
+     *
+     * @return number of sources
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries that have not been accessed within the idle timeout.
+     *
+     * @param now current time in ms
+     */
+    void evictIdle(long now) {
+        Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && now - iterator.next().getValue().lastAccess > idleTimeoutMs) {
+            iterator.remove();
+        }
+    }
+
+    private void evictExcess() {
+        Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSources) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * State of one source with the time of the last access.
+     */
+    private static final class Entry<V extends Serializable> implements Serializable {
+        private final V value;
+        private long lastAccess;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+}
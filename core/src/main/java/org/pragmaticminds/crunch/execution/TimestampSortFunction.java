@@ -89,8 +89,7 @@ public class TimestampSortFunction<T extends Serializable> implements SortFuncti
         List<T> results = new ArrayList<>();
         Tuple2<Long,T> head = queue.peek();
         while (head != null && head.getF0() <= watermark) {
-            results.add(head.getF1());
-            queue.remove(head);
+            results.add(queue.poll().getF1());
             head = queue.peek();
         }
         return results;
@@ -20,22 +20,41 @@
 package org.pragmaticminds.crunch.execution;
 
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 
 import java.security.InvalidParameterException;
 
 /**
  * This class implements the interface {@link MergeFunction}.
- * It takes {@link UntypedValues} or {@link UntypedValues} as incoming values and produces outgoing {@link UntypedValues}.
+ * It takes {@link UntypedValues} or {@link ColumnarValues} as incoming values and produces outgoing values of the same type.
  * It combines the values of the internal {@link UntypedValues} with the incoming {@link MRecord} values and returns
  * the result in the {@link #merge(MRecord)} method.
+ * The values are merged per source of the records, the states of the sources are held in a {@link SourceStateCache}.
  *
  * @author Erwin Wagasow
  * Created by Erwin Wagasow on 02.10.2018
  */
 public class UntypedValuesMergeFunction implements MergeFunction<MRecord, MRecord> {
 
-    private UntypedValues values = null;
+    private final SourceStateCache<MRecord> values;
+
+    /**
+     * Creates a merge function with the default bounds of the {@link SourceStateCache}.
+     */
+    public UntypedValuesMergeFunction() {
+        this.values = new SourceStateCache<>();
+    }
+
+    /**
+     * Creates a merge function that keeps the state of at most maxSources sources.
+     *
+     * @param maxSources    maximum number of sources that are kept
+     * @param idleTimeoutMs time in ms after which the state of a source without new records is evicted
+     */
+    public UntypedValuesMergeFunction(int maxSources, long idleTimeoutMs) {
+        this.values = new SourceStateCache<>(maxSources, idleTimeoutMs);
+    }
 
     /**
      * Merges incomming values to a aggregated value containing all other sub values from before.
@@ -45,16 +64,23 @@ public class UntypedValuesMergeFunction implements MergeFunction<MRecord, MRecor
      */
     @Override
     public MRecord merge(MRecord currentValue) {
-        if (!(currentValue instanceof UntypedValues)) {
+        MRecord previous = values.get(currentValue.getSource());
+        MRecord state;
+        if (currentValue instanceof ColumnarValues) {
+            // merged slot by slot in place, without converting the values
+            state = previous instanceof ColumnarValues
+                    ? ((ColumnarValues) previous).merge(currentValue)
+                    : currentValue;
+        } else if (currentValue instanceof UntypedValues) {
+            state = mapWithoutState(previous instanceof UntypedValues ? (UntypedValues) previous : null, currentValue);
+        } else {
             throw new InvalidParameterException(String.format(
-                    "ValuesMergeFunction currently only supports UntypedValues and not %s",
+                    "ValuesMergeFunction currently only supports UntypedValues and ColumnarValues and not %s",
                     currentValue.getClass().getName()
             ));
         }
-
-        // Do the mapping
-        values = mapWithoutState(values, currentValue);
-        return values;
+        values.put(currentValue.getSource(), state);
+        return state;
     }
 
     /**
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.execution;
+
+import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Marker that is injected into the evaluation flow of a {@link org.pragmaticminds.crunch.api.pipe.SubStream} to
+ * advance the watermark of the {@link EvaluationFunction}s without a new record.
+ * It is consumed by the evaluation and never passed to a function as a record, so it has no channels.
+ */
+final class WatermarkSignal implements MRecord {
+    /** No record arrived for the watermark interval, the watermark follows the wall clock */
+    static final WatermarkSignal IDLE = new WatermarkSignal(false);
+    /** The source has ended, all remaining results are due */
+    static final WatermarkSignal END = new WatermarkSignal(true);
+
+    private final boolean end;
+
+    private WatermarkSignal(boolean end) {
+        this.end = end;
+    }
+
+    /** @return true if the source has ended */
+    boolean isEnd() {
+        return end;
+    }
+
+    @Override
+    public long getTimestamp() {
+        return end ? Long.MAX_VALUE : System.currentTimeMillis();
+    }
+
+    @Override
+    public String getSource() {
+        return null;
+    }
+
+    @Override
+    public Double getDouble(String channel) {
+        return null;
+    }
+
+    @Override
+    public Long getLong(String channel) {
+        return null;
+    }
+
+    @Override
+    public Boolean getBoolean(String channel) {
+        return null;
+    }
+
+    @Override
+    public Date getDate(String channel) {
+        return null;
+    }
+
+    @Override
+    public String getString(String channel) {
+        return null;
+    }
+
+    @Override
+    public Value getValue(String channel) {
+        return null;
+    }
+
+    @Override
+    public Object get(String channel) {
+        return null;
+    }
+
+    @Override
+    public Collection<String> getChannels() {
+        return Collections.emptyList();
+    }
+
+    /** Keeps the constants unique when deserialized */
+    private Object readResolve() {
+        return end ? END : IDLE;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Metrics of one running pipeline, they are updated by all stages of the pipeline.
+ * <p>
+ * All counters are {@link LongAdder}s, which are striped over the updating threads, so the stages of parallel lanes
+ * do not contend on them. The values can be pulled with the getters or read over JMX after
+ * {@link #register(String)} is called.
+ */
+public class PipelineMetrics implements PipelineMetricsMXBean, Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(PipelineMetrics.class);
+    private static final String DOMAIN = "org.pragmaticminds.crunch";
+
+    private final LongAdder recordsIn = new LongAdder();
+    private final LongAdder filteredByPredicate = new LongAdder();
+    private final LongAdder filteredByChannelFilter = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder sorted = new LongAdder();
+    private final LongAdder sortBufferDepth = new LongAdder();
+    private final LongAdder lateRecords = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder skippedEvaluations = new LongAdder();
+    private final LongAdder evictedKeys = new LongAdder();
+    private final ConcurrentHashMap<String, LatencyHistogram> evaluationTimes = new ConcurrentHashMap<>();
+
+    private transient ObjectName objectName;
+
+    /** A record is delivered by the source */
+    public void recordIn() {
+        recordsIn.increment();
+    }
+
+    /** A batch of records is delivered by the source */
+    public void recordsIn(int count) {
+        recordsIn.add(count);
+    }
+
+    /** A record is filtered by the predicate of a SubStream */
+    public void filteredByPredicate() {
+        filteredByPredicate.increment();
+    }
+
+    /** A record is filtered, as it contains no channel that is used in a SubStream */
+    public void filteredByChannelFilter() {
+        filteredByChannelFilter.increment();
+    }
+
+    /** A record is emitted by a merge stage */
+    public void merged() {
+        merged.increment();
+    }
+
+    /**
+     * Records are taken into or emitted from a sort stage.
+     *
+     * @param delta positive for buffered records, negative for emitted records
+     */
+    public void sortBufferChanged(long delta) {
+        sortBufferDepth.add(delta);
+        if (delta < 0) {
+            sorted.add(-delta);
+        }
+    }
+
+    /** A record arrived too late to be sorted in or to be evaluated by a function */
+    public void lateRecord() {
+        lateRecords.increment();
+    }
+
+    /** An event is passed to the sink */
+    public void event() {
+        events.increment();
+    }
+
+    /**
+     * Evaluations are skipped, as none of the channels of the functions changed.
+     *
+     * @param count number of skipped functions
+     */
+    public void skippedEvaluations(int count) {
+        skippedEvaluations.add(count);
+    }
+
+    /**
+     * Keys are evicted from the state of a function to bound its memory.
+     *
+     * @param count number of evicted keys
+     */
+    public void evictedKeys(long count) {
+        evictedKeys.add(count);
+    }
+
+    /**
+     * Returns the histogram of the evaluation times of an EvaluationFunction.
+     * The stages should look it up once and keep it, instead of calling this for every record.
+     *
+     * @param function name of the EvaluationFunction, see {@link #functionName(String, int, Class)}
+     * @return the histogram of the evaluation times in nano seconds
+     */
+    public LatencyHistogram evaluationTime(String function) {
+        return evaluationTimes.computeIfAbsent(function, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Names an EvaluationFunction uniquely, so functions of the same class get their own histograms.
+     *
+     * @param subStream identifier of the sub stream of the function
+     * @param index     position of the function in the sub stream
+     * @param type      class of the function
+     * @return the name in the form {@code <subStream>[<index>]:<class name>}
+     */
+    public static String functionName(String subStream, int index, Class<?> type) {
+        return String.format("%s[%d]:%s", subStream, index, type.getName());
+    }
+
+    /**
+     * Registers these metrics at the platform MBean server with the name
+     * {@code org.pragmaticminds.crunch:type=PipelineMetrics,name=<name>}.
+     * An already registered MBean with the same name is replaced.
+     *
+     * @param name of the pipeline
+     */
+    public synchronized void register(String name) {
+        unregister();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName newName = new ObjectName(DOMAIN + ":type=PipelineMetrics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(newName)) {
+                server.unregisterMBean(newName);
+            }
+            server.registerMBean(this, newName);
+            objectName = newName;
+        } catch (JMException e) {
+            logger.warn("Unable to register the metrics of pipeline {} at JMX", name, e);
+        }
+    }
+
+    /** Removes these metrics from the platform MBean server, if they are registered */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            logger.warn("Unable to unregister the metrics {} from JMX", objectName, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public long getRecordsIn() {
+        return recordsIn.sum();
+    }
+
+    @Override
+    public long getFilteredByPredicate() {
+        return filteredByPredicate.sum();
+    }
+
+    @Override
+    public long getFilteredByChannelFilter() {
+        return filteredByChannelFilter.sum();
+    }
+
+    @Override
+    public long getMerged() {
+        return merged.sum();
+    }
+
+    @Override
+    public long getSorted() {
+        return sorted.sum();
+    }
+
+    @Override
+    public long getSortBufferDepth() {
+        return sortBufferDepth.sum();
+    }
+
+    @Override
+    public long getLateRecords() {
+        return lateRecords.sum();
+    }
+
+    @Override
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public long getSkippedEvaluations() {
+        return skippedEvaluations.sum();
+    }
+
+    @Override
+    public long getEvictedKeys() {
+        return evictedKeys.sum();
+    }
+
+    @Override
+    public Map<String, Long> getEvaluationCounts() {
+        return evaluationValues(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getEvaluationMeanNs() {
+        return evaluationValues(LatencyHistogram::getMean);
+    }
+
+    @Override
+    public Map<String, Long> getEvaluationP99Ns() {
+        return evaluationValues(histogram -> histogram.getPercentile(0.99));
+    }
+
+    /**
+     * @return the histograms of the evaluation times per EvaluationFunction by its name
+     */
+    public Map<String, LatencyHistogram> getEvaluationTimes() {
+        return new TreeMap<>(evaluationTimes);
+    }
+
+    private Map<String, Long> evaluationValues(ToLongFunction<LatencyHistogram> value) {
+        Map<String, Long> values = new TreeMap<>();
+        evaluationTimes.forEach((function, histogram) -> values.put(function, value.applyAsLong(histogram)));
+        return values;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link PipelineMetrics}.
+ */
+public interface PipelineMetricsMXBean {
+
+    /** @return number of records that are delivered by the source */
+    long getRecordsIn();
+
+    /** @return number of records that are filtered by the predicates of the SubStreams */
+    long getFilteredByPredicate();
+
+    /** @return number of records that are filtered, as they contain no channel that is used in a SubStream */
+    long getFilteredByChannelFilter();
+
+    /** @return number of records that are emitted by the merge stages */
+    long getMerged();
+
+    /** @return number of records that are emitted by the sort stages */
+    long getSorted();
+
+    /** @return number of records that are currently buffered in the sort stages */
+    long getSortBufferDepth();
+
+    /** @return number of records that arrived too late to be sorted in or to be evaluated by a function */
+    long getLateRecords();
+
+    /** @return number of events that are passed to the sink */
+    long getEvents();
+
+    /** @return number of evaluations that are skipped, as none of the channels of the function changed */
+    long getSkippedEvaluations();
+
+    /** @return number of keys that are evicted from the state of the functions to bound their memory */
+    long getEvictedKeys();
+
+    /**
+     * The evaluation statistics are kept per EvaluationFunction, which are named by their sub stream, their position
+     * in it and their class, e.g. {@code lane[0]:com.example.MaxFunction}.
+     *
+     * @return number of evaluations per EvaluationFunction
+     */
+    Map<String, Long> getEvaluationCounts();
+
+    /** @return mean evaluation time in nano seconds per EvaluationFunction */
+    Map<String, Long> getEvaluationMeanNs();
+
+    /** @return estimated 99th percentile of the evaluation time in nano seconds per EvaluationFunction */
+    Map<String, Long> getEvaluationP99Ns();
+}
@@ -22,6 +22,8 @@ package org.pragmaticminds.crunch.api.pipe;
 import org.junit.Before;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
 import org.pragmaticminds.crunch.api.values.TypedValues;
 import org.pragmaticminds.crunch.api.values.dates.Value;
 
@@ -81,6 +83,19 @@ public class ChannelFilterTest {
         assertFalse(filter.filter(record2));
     }
 
+    @Test
+    public void filter_columnarValues() {
+        ChannelSchema schema = new ChannelSchema();
+        ColumnarValues record0 = new ColumnarValues(schema, "test", 123L, null);
+        record0.set("channelX", "test");
+        record0.set("channel3", "test");
+        ColumnarValues record1 = new ColumnarValues(schema, "test", 123L, null);
+        record1.set("channelX", "test");
+
+        assertTrue(filter.filter(record0));
+        assertFalse(filter.filter(record1));
+    }
+
     public static class MyRecordHandler implements RecordHandler {
         @Override public void init() { }
 
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.comparator.ExpressionSupplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.NamedSupplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.Suppliers;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Caster.castToString;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.dateChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.lowerThan;
+
+public class EvaluationCacheTest {
+    private static final AtomicInteger extractions = new AtomicInteger();
+
+    private MRecord record;
+    private EvaluationCache cache;
+
+    @Before
+    public void setUp() {
+        extractions.set(0);
+        Map<String, Object> values = new HashMap<>();
+        values.put("temp", 90L);
+        record = UntypedValues.builder().source("test").prefix("").timestamp(0L).values(values).build();
+        cache = new SimpleEvaluationContext<>(record).getEvaluationCache();
+    }
+
+    @After
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    public void active_onlyForOpenedRecord() {
+        assertNull(EvaluationCache.active(record));
+
+        cache.open(record);
+
+        assertSame(cache, EvaluationCache.active(record));
+        assertNull(EvaluationCache.active(UntypedValues.builder().source("other").prefix("").timestamp(0L)
+                .values(new HashMap<>()).build()));
+
+        cache.close();
+        assertNull(EvaluationCache.active(record));
+    }
+
+    @Test
+    public void getAndPut() {
+        cache.open(record);
+
+        assertSame(EvaluationCache.ABSENT, cache.get("key"));
+        cache.put("key", 1L);
+        cache.put("null", null);
+        assertEquals(1L, cache.get("key"));
+        assertNull(cache.get("null"));
+
+        // cleared for the next record
+        cache.open(record);
+        assertSame(EvaluationCache.ABSENT, cache.get("key"));
+    }
+
+    @Test
+    public void nested_restoresPrevious() {
+        EvaluationCache inner = new EvaluationCache();
+        cache.open(record);
+
+        try (EvaluationCache ignored = inner.open(record)) {
+            assertSame(inner, EvaluationCache.active(record));
+        }
+
+        assertSame(cache, EvaluationCache.active(record));
+    }
+
+    @Test
+    public void suppliers_withOpaqueOperandsAreNotShared() {
+        Supplier<Boolean> first = lowerThan(80.0, countingChannel("temp"));
+        Supplier<Boolean> second = Suppliers.compile(lowerThan(80.0, countingChannel("temp")));
+
+        // custom suppliers with the same identifier may deliver different values, so they are not cached
+        try (EvaluationCache ignored = cache.open(record)) {
+            assertTrue(first.extract(record));
+            assertTrue(second.extract(record));
+        }
+        assertEquals(2, extractions.getAndSet(0));
+
+        // without an open cache every supplier evaluates
+        assertTrue(first.extract(record));
+        assertTrue(second.extract(record));
+        assertEquals(2, extractions.get());
+    }
+
+    @Test
+    public void expressions_evaluatedOncePerRecord() {
+        Supplier<Boolean> first = lowerThan(80.0, countingExpression("temp"));
+        Supplier<Boolean> second = Suppliers.compile(lowerThan(80.0, countingExpression("temp")));
+
+        try (EvaluationCache ignored = cache.open(record)) {
+            assertTrue(first.extract(record));
+            assertTrue(second.extract(record));
+        }
+        assertEquals(1, extractions.getAndSet(0));
+
+        // without an open cache every supplier evaluates
+        assertTrue(first.extract(record));
+        assertTrue(second.extract(record));
+        assertEquals(2, extractions.get());
+    }
+
+    @Test
+    public void suppliers_distinguishChannelTypes() {
+        try (EvaluationCache ignored = cache.open(record)) {
+            assertEquals("90", castToString(longChannel("temp")).extract(record));
+            assertEquals("90.0", castToString(doubleChannel("temp")).extract(record));
+        }
+    }
+
+    @Test
+    public void expressions_distinguishConstantsWithTheSameString() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("d", new Date(1999L));
+        MRecord dated = UntypedValues.builder().source("test").prefix("").timestamp(0L).values(values).build();
+        Date first = new Date(1000L);
+        Date second = new Date(1999L);
+        assertEquals(first.toString(), second.toString());
+
+        try (EvaluationCache ignored = cache.open(dated)) {
+            assertFalse(Suppliers.Comparators.equals(first, dateChannel("d")).extract(dated));
+            assertTrue(Suppliers.Comparators.equals(second, dateChannel("d")).extract(dated));
+        }
+    }
+
+    /** @return an expression, which is identified by its operator and operand, that counts its evaluations */
+    private static Supplier<Double> countingExpression(String name) {
+        return ExpressionSupplier.unary(
+                name,
+                "counting",
+                null,
+                doubleChannel(name),
+                (Double value) -> {
+                    extractions.incrementAndGet();
+                    return value;
+                }
+        );
+    }
+
+    private static Supplier<Double> countingChannel(String name) {
+        return new NamedSupplier<>(
+                name,
+                values -> {
+                    extractions.incrementAndGet();
+                    return values.getDouble(name);
+                },
+                () -> new HashSet<>(Collections.singletonList(name))
+        );
+    }
+}
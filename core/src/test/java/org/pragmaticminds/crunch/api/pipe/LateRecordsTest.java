@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LateRecordsTest {
+
+    @Test
+    public void countsPerSource() {
+        List<MRecord> late = new ArrayList<>();
+        LateRecords lateRecords = new LateRecords(late::add);
+
+        lateRecords.handle(record("a"));
+        lateRecords.handle(record("a"));
+        lateRecords.handle(record("b"));
+
+        assertEquals(3, late.size());
+        assertEquals(2L, lateRecords.getCount("a"));
+        assertEquals(1L, lateRecords.getCount("b"));
+        assertEquals(0L, lateRecords.getCount("c"));
+        assertEquals(3L, lateRecords.getTotal());
+        assertEquals(2, lateRecords.getCounts().size());
+    }
+
+    @Test
+    public void countsWithoutSink() {
+        LateRecords lateRecords = new LateRecords(null);
+
+        lateRecords.handle(record("a"));
+
+        assertEquals(1L, lateRecords.getCount("a"));
+    }
+
+    @Test
+    public void subStreamKeepsLateRecords() {
+        SubStream<String> subStream = SubStream.<String>builder()
+                .withIdentifier("test")
+                .withPredicate(values -> true)
+                .withEvaluationFunction(new LambdaEvaluationFunction<>(context -> {}, HashSet::new))
+                .withAllowedLateness(100L)
+                .withLateRecordSink(record -> {})
+                .build();
+
+        assertEquals(100L, subStream.getAllowedLatenessMs());
+        assertEquals(0L, subStream.getLateRecords().getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeAllowedLateness() {
+        SubStream.<String>builder()
+                .withIdentifier("test")
+                .withPredicate(values -> true)
+                .withEvaluationFunction(new LambdaEvaluationFunction<>(context -> {}, HashSet::new))
+                .withAllowedLateness(-1L)
+                .build();
+    }
+
+    private static UntypedValues record(String source) {
+        return new UntypedValues(source, 0L, "", Collections.singletonMap("test", 1L));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class PrototypeTest {
+
+    @Test
+    public void newInstance_createsIndependentCopies() {
+        ArrayList<String> list = new ArrayList<>();
+        list.add("a");
+        Prototype<ArrayList<String>> prototype = new Prototype<>(list);
+
+        ArrayList<String> first = prototype.newInstance();
+        first.add("b");
+        ArrayList<String> second = prototype.newInstance();
+
+        assertNotSame(list, first);
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void newInstance_usesCopyable() {
+        Counter counter = new Counter();
+        counter.count = 3;
+        Prototype<Counter> prototype = new Prototype<>(counter);
+
+        Counter copy = prototype.newInstance();
+
+        assertNotSame(counter, copy);
+        assertTrue(copy.copied);
+        assertEquals(3, copy.count);
+        assertNotSame(counter, prototype.get());
+    }
+
+    @Test
+    public void laterModificationsOfThePrototype_doNotAffectTheInstances() {
+        ArrayList<String> list = new ArrayList<>();
+        Counter counter = new Counter();
+        Prototype<ArrayList<String>> serialized = new Prototype<>(list);
+        Prototype<Counter> copied = new Prototype<>(counter);
+
+        list.add("a");
+        counter.count = 3;
+
+        // both ways start from the state at the construction of the Prototype
+        assertEquals(0, serialized.newInstance().size());
+        assertEquals(0, copied.newInstance().count);
+        assertEquals(0, ClonerUtil.clone(serialized).newInstance().size());
+    }
+
+    @Test
+    public void survivesSerialization() {
+        Prototype<ArrayList<String>> prototype = new Prototype<>(new ArrayList<>());
+        prototype.newInstance();
+
+        Prototype<ArrayList<String>> cloned = ClonerUtil.clone(prototype);
+
+        assertEquals(0, cloned.newInstance().size());
+    }
+
+    @Test
+    public void clonerUtil_usesCopyable() {
+        Counter copy = ClonerUtil.clone(new Counter());
+
+        assertTrue(copy.copied);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullPrototype_fails() {
+        new Prototype<ArrayList<String>>(null);
+    }
+
+    private static class Counter implements Copyable<Counter> {
+        private int count;
+        private boolean copied;
+
+        @Override
+        public Counter copy() {
+            Counter copy = new Counter();
+            copy.count = count;
+            copy.copied = true;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.and;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.not;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Caster.castToDouble;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.booleanChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.dateChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.lowerThanEquals;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Mathematics.add;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Mathematics.divide;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Mathematics.subtract;
+
+public class PrimitiveSuppliersTest {
+    private static final double DELTA = 0.00001;
+
+    private MRecord record;
+
+    @Before
+    public void setUp() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 1.5);
+        values.put("long", 123L);
+        values.put("bool", true);
+        record = UntypedValues.builder().source("test").prefix("").timestamp(0L).values(values).build();
+    }
+
+    @Test
+    public void channels() {
+        assertEquals(1.5, doubleChannelPrimitive("double").extractAsDouble(record), DELTA);
+        assertEquals(123L, longChannelPrimitive("long").extractAsLong(record));
+        assertEquals(123.0, longChannelPrimitive("long").extractAsDouble(record), DELTA);
+        assertTrue(booleanChannelPrimitive("bool").test(record));
+
+        // absent values
+        assertTrue(Double.isNaN(doubleChannelPrimitive("missing").extractAsDouble(record)));
+        assertEquals(LongSupplier.ABSENT, longChannelPrimitive("missing").extractAsLong(record));
+        assertNull(doubleChannelPrimitive("missing").extract(record));
+        assertNull(longChannelPrimitive("missing").extract(record));
+        assertFalse(booleanChannelPrimitive("missing").test(record));
+
+        // boxed values
+        assertEquals(1.5, doubleChannelPrimitive("double").extract(record), DELTA);
+        assertEquals(123L, (long) longChannelPrimitive("long").extract(record));
+    }
+
+    @Test
+    public void columnarChannels() {
+        ColumnarValues columnar = ColumnarValues.of(record, new ChannelSchema());
+
+        assertEquals(1.5, doubleChannelPrimitive("double").extractAsDouble(columnar), DELTA);
+        assertEquals(123L, longChannelPrimitive("long").extractAsLong(columnar));
+        assertTrue(Double.isNaN(doubleChannelPrimitive("missing").extractAsDouble(columnar)));
+        assertTrue(greaterThan(2.0, doubleChannelPrimitive("double")).test(columnar));
+    }
+
+    @Test
+    public void comparators() {
+        BooleanSupplier supplier = greaterThan(2.0, doubleChannelPrimitive("double"));
+        assertTrue(supplier.extract(record));
+        assertEquals("greaterThan(2.0, double)", supplier.getIdentifier());
+        assertTrue(supplier.getChannelIdentifiers().contains("double"));
+
+        assertTrue(lowerThanEquals(doubleChannelPrimitive("double"), longChannelPrimitive("long")).extract(record));
+        assertNull(greaterThan(2.0, doubleChannelPrimitive("missing")).extract(record));
+        assertNull(lowerThanEquals(doubleChannelPrimitive("double"), longChannelPrimitive("missing")).extract(record));
+    }
+
+    @Test
+    public void booleanOperators() {
+        BooleanSupplier supplier = and(booleanChannelPrimitive("bool"), not(greaterThan(1.0, doubleChannelPrimitive("double"))));
+        assertTrue(supplier.extract(record));
+        assertEquals("and(bool,not(greaterThan(1.0, double)))", supplier.getIdentifier());
+        assertNull(and(booleanChannelPrimitive("bool"), booleanChannelPrimitive("missing")).extract(record));
+    }
+
+    @Test
+    public void mathematics() {
+        DoubleSupplier supplier = subtract(longChannelPrimitive("long"), 3.0);
+        assertEquals(120.0, supplier.extractAsDouble(record), DELTA);
+        assertEquals("subtract(long, 3.0)", supplier.getIdentifier());
+
+        assertEquals(-120.0, subtract(3.0, longChannelPrimitive("long")).extractAsDouble(record), DELTA);
+        assertEquals(124.5, add(doubleChannelPrimitive("double"), longChannelPrimitive("long")).extractAsDouble(record), DELTA);
+        assertEquals(82.0, divide(longChannelPrimitive("long"), doubleChannelPrimitive("double")).extractAsDouble(record), DELTA);
+        assertEquals(123.0, castToDouble(longChannelPrimitive("long")).extractAsDouble(record), DELTA);
+
+        assertTrue(Double.isNaN(add(doubleChannelPrimitive("missing"), 1.0).extractAsDouble(record)));
+        assertNull(add(doubleChannelPrimitive("missing"), 1.0).extract(record));
+    }
+
+    @Test
+    public void cacheKeys() {
+        assertEquals(
+                ExpressionSupplier.keyOf(greaterThan(2.0, doubleChannelPrimitive("double"))),
+                ExpressionSupplier.keyOf(greaterThan(2.0, doubleChannelPrimitive("double")))
+        );
+        // same identifier, but different types
+        assertNotEquals(
+                ExpressionSupplier.keyOf(doubleChannelPrimitive("long")),
+                ExpressionSupplier.keyOf(longChannelPrimitive("long"))
+        );
+        // equal constants of classes with the same simple name
+        assertNotEquals(
+                ExpressionSupplier.keyOf(Suppliers.Comparators.equals(new java.util.Date(0L), dateChannel("date"))),
+                ExpressionSupplier.keyOf(Suppliers.Comparators.equals(new java.sql.Date(0L), dateChannel("date")))
+        );
+    }
+
+    @Test
+    public void cached() {
+        BooleanSupplier supplier = greaterThan(2.0, doubleChannelPrimitive("double"));
+        try (EvaluationCache cache = new EvaluationCache().open(record)) {
+            assertTrue(supplier.test(record));
+            assertEquals(true, cache.get(ExpressionSupplier.keyOf(supplier)));
+        }
+    }
+
+    @Test
+    public void cloned() {
+        DoubleSupplier supplier = ClonerUtil.clone(add(doubleChannelPrimitive("double"), 1.0));
+        BooleanSupplier comparison = ClonerUtil.clone(greaterThan(2.0, doubleChannelPrimitive("double")));
+
+        assertEquals(2.5, supplier.extractAsDouble(record), DELTA);
+        assertTrue(comparison.test(record));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.trigger.comparator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.EvaluationCache;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.and;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.not;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.or;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.stringChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.lowerThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Mathematics.subtract;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.StringOperators.match;
+
+public class SupplierCompilerTest {
+    private static final AtomicInteger extractions = new AtomicInteger();
+
+    private MRecord record;
+
+    @Before
+    public void setUp() {
+        extractions.set(0);
+        Map<String, Object> values = new HashMap<>();
+        values.put("temp", 50.0);
+        values.put("count", 3L);
+        values.put("name", "value42");
+        record = UntypedValues.builder().source("test").prefix("").timestamp(0L).values(values).build();
+    }
+
+    @Test
+    public void compile_sharesIdenticalSubExpressions() {
+        Supplier<Boolean> supplier = and(
+                greaterThan(80.0, temp()),
+                lowerThan(10.0, temp())
+        );
+
+        Supplier<Boolean> compiled = Suppliers.compile(supplier);
+
+        // one channel extraction, two comparisons and the and operation
+        assertEquals(4, ((CompiledSupplier<Boolean>) compiled).getSteps());
+        assertEquals(supplier.extract(record), compiled.extract(record));
+        assertTrue(compiled.extract(record));
+        assertEquals(supplier.getIdentifier(), compiled.getIdentifier());
+        assertEquals(new HashSet<>(Collections.singletonList("temp")), compiled.getChannelIdentifiers());
+    }
+
+    @Test
+    public void compile_distinguishesOperandOrder() {
+        Supplier<Double> minuend = subtract(temp(), 10.0);
+        Supplier<Double> subtrahend = subtract(10.0, temp());
+
+        SupplierCompiler compiler = new SupplierCompiler();
+        Supplier<Double> compiled1 = compiler.compile(minuend);
+        Supplier<Double> compiled2 = compiler.compile(subtrahend);
+
+        assertEquals(40.0, compiled1.extract(record), 0.0001);
+        assertEquals(-40.0, compiled2.extract(record), 0.0001);
+    }
+
+    @Test
+    public void compile_evaluatesEachSubExpressionOnce() {
+        Supplier<Boolean> counting = countingChannel("temp");
+        Supplier<Boolean> supplier = or(and(counting, not(counting)), and(not(counting), counting));
+
+        Boolean expected = supplier.extract(record);
+        assertEquals(4, extractions.getAndSet(0));
+
+        Supplier<Boolean> compiled = Suppliers.compile(supplier);
+        assertEquals(expected, compiled.extract(record));
+        assertEquals(1, extractions.get());
+    }
+
+    @Test
+    public void compile_sharedCompiler() {
+        SupplierCompiler compiler = new SupplierCompiler();
+        Supplier<Boolean> first = compiler.compile(greaterThan(80.0, temp()));
+        Supplier<Boolean> second = compiler.compile(not(greaterThan(80.0, temp())));
+
+        Supplier<Boolean> firstRoot = ((CompiledSupplier<Boolean>) first).getSource();
+        assertTrue(first.extract(record));
+        assertFalse(second.extract(record));
+        // identical expressions are shared
+        assertSame(firstRoot, ((CompiledSupplier<Boolean>) compiler.compile(greaterThan(80.0, temp()))).getSource());
+        assertSame(firstRoot, ((CompiledSupplier<Boolean>) compiler.compile(first)).getSource());
+    }
+
+    @Test
+    public void compile_nullValues() {
+        Supplier<Boolean> compiled = Suppliers.compile(
+                and(match("value[0-9]+", stringChannel("name")), greaterThan(1L, longChannel("missing")))
+        );
+
+        assertNull(compiled.extract(record));
+        assertTrue(Suppliers.compile(match("value[0-9]+", stringChannel("name"))).extract(record));
+    }
+
+    @Test
+    public void compile_nothingToCompile() {
+        Supplier<Boolean> counting = countingChannel("temp");
+
+        assertSame(counting, Suppliers.compile(counting));
+    }
+
+    @Test
+    public void compile_cloned() {
+        Supplier<Boolean> compiled = Suppliers.compile(
+                or(greaterThan(80.0, temp()), lowerThan(10.0, temp()))
+        );
+
+        Supplier<Boolean> clone = ClonerUtil.clone(compiled);
+
+        assertEquals(compiled.extract(record), clone.extract(record));
+        for (Supplier<Boolean> supplier : Arrays.asList(compiled, clone)) {
+            assertEquals("or(greaterThan(80.0, temp),lowerThan(10.0, temp))", supplier.getIdentifier());
+        }
+    }
+
+    @Test
+    public void compile_primitiveExpressionsAreShared() {
+        SupplierCompiler compiler = new SupplierCompiler();
+        Supplier<Boolean> first = compiler.compile(greaterThan(80.0, doubleChannelPrimitive("temp")));
+        Supplier<Boolean> second = compiler.compile(greaterThan(80.0, doubleChannelPrimitive("temp")));
+
+        // primitive expressions are already flat, so they are only canonicalized
+        assertTrue(first instanceof BooleanExpression);
+        assertSame(first, second);
+        assertTrue(first.extract(record));
+    }
+
+    @Test
+    public void compile_opaqueOperandsWithTheSameIdentifierAreNotShared() {
+        Supplier<Double> one = new NamedSupplier<>("custom", values -> 1.0, HashSet::new);
+        Supplier<Double> two = new NamedSupplier<>("custom", values -> 2.0, HashSet::new);
+        SupplierCompiler compiler = new SupplierCompiler();
+        Supplier<Double> first = compiler.compile(subtract(one, 1.0));
+        Supplier<Double> second = compiler.compile(subtract(two, 1.0));
+
+        try (EvaluationCache cache = new EvaluationCache().open(record)) {
+            assertEquals(0.0, first.extract(record), 0.0001);
+            assertEquals(1.0, second.extract(record), 0.0001);
+            // not compiled
+            assertEquals(0.0, subtract(one, 1.0).extract(record), 0.0001);
+            assertEquals(1.0, subtract(two, 1.0).extract(record), 0.0001);
+            assertTrue(greaterThan(1.5, one).extract(record));
+            assertFalse(greaterThan(1.5, two).extract(record));
+        }
+    }
+
+    /** @return the temp channel as boxed {@link Supplier}, so the generic expressions are used */
+    private static Supplier<Double> temp() {
+        return doubleChannel("temp");
+    }
+
+    private static Supplier<Boolean> countingChannel(String name) {
+        return new NamedSupplier<>(
+                name,
+                values -> {
+                    extractions.incrementAndGet();
+                    return values.getDouble(name) > 0;
+                },
+                () -> new HashSet<>(Collections.singletonList(name))
+        );
+    }
+}
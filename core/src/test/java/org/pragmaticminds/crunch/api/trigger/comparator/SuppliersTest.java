@@ -23,6 +23,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
 import org.pragmaticminds.crunch.api.values.TypedValues;
 import org.pragmaticminds.crunch.api.values.dates.Value;
 
@@ -70,6 +72,19 @@ public class SuppliersTest {
         values = TypedValues.builder().timestamp(System.currentTimeMillis()).source("test").values(valueMap).build();
     }
 
+    @Test
+    public void channelExtractors_columnarValues() {
+        ColumnarValues columnar = ColumnarValues.of(values, new ChannelSchema());
+
+        assertEquals(true, booleanChannel("boolean").extract(columnar));
+        assertEquals(0.1, doubleChannel("double").extract(columnar), 0.0001);
+        assertEquals(123L, (long) longChannel("long").extract(columnar));
+        assertEquals(values.getDate("date"), dateChannel("date").extract(columnar));
+        assertEquals("string", stringChannel("string").extract(columnar));
+        assertEquals(Value.of(123L), channel("long").extract(columnar));
+        Assert.assertNull(doubleChannel("missing").extract(columnar));
+    }
+
     @Test
     public void booleanChannelTest(){
         // value test
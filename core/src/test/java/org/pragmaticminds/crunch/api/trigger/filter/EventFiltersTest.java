@@ -22,6 +22,7 @@ package org.pragmaticminds.crunch.api.trigger.filter;
 import org.junit.Before;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.Copyable;
 import org.pragmaticminds.crunch.api.values.TypedValues;
 import org.pragmaticminds.crunch.api.values.dates.Value;
 import org.pragmaticminds.crunch.events.GenericEvent;
@@ -83,4 +84,19 @@ public class EventFiltersTest {
         EventFilter<GenericEvent> clone = ClonerUtil.clone(filter);
         assertFalse(clone.apply(null, values1));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void valueChanged_copyKeepsTheLastValueIndependently() {
+        EventFilter<GenericEvent> filter = onValueChanged(stringChannel("val"));
+        assertFalse(filter.apply(null, values1));
+        assertTrue(filter instanceof Copyable);
+
+        EventFilter<GenericEvent> copy = ((Copyable<EventFilter<GenericEvent>>) filter).copy();
+        // the copy starts from the last value of the original
+        assertFalse(copy.apply(null, values1));
+        assertTrue(copy.apply(null, values2));
+        // the original is not affected by the copy
+        assertFalse(filter.apply(null, values1));
+    }
 }
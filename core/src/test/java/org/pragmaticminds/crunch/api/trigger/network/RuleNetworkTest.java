@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.trigger.network;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.trigger.TriggerEvaluationFunction;
+import org.pragmaticminds.crunch.api.trigger.comparator.BooleanSupplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.NumberSupplier;
+import org.pragmaticminds.crunch.api.trigger.comparator.Supplier;
+import org.pragmaticminds.crunch.api.trigger.handler.TriggerHandler;
+import org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategies;
+import org.pragmaticminds.crunch.api.trigger.strategy.TriggerStrategy;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.and;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.BooleanOperators.not;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.longChannelPrimitive;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.greaterThanEquals;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.lowerThan;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.Comparators.lowerThanEquals;
+
+public class RuleNetworkTest {
+
+    @Test
+    public void mergesIdenticalConditions() {
+        RuleNetwork<String> network = RuleNetwork.<String>builder()
+                .withRule(TriggerRule.onBecomeTrue(greaterThan(80.0, doubleChannelPrimitive("temp")), new Emit("r0")))
+                .withRule(TriggerRule.onBecomeFalse(greaterThan(80.0, doubleChannelPrimitive("temp")), new Emit("r1")))
+                .withRule(TriggerRule.onBecomeTrue(greaterThan(90.0, doubleChannelPrimitive("temp")), new Emit("r2")))
+                .withRule(TriggerRule.onBecomeTrue(
+                        and(greaterThan(80.0, doubleChannelPrimitive("temp")), lowerThan(1.0, doubleChannelPrimitive("pressure"))),
+                        new Emit("r3")
+                ))
+                .build();
+
+        assertEquals(3, network.getConditionCount());
+        assertEquals(2, network.getThresholdConditionCount());
+        assertFalse(network.requiresEveryRecord());
+    }
+
+    @Test
+    public void becomeTrueAndFalse() {
+        RuleNetwork<String> network = RuleNetwork.<String>builder()
+                .withRule(TriggerRule.onBecomeTrue(greaterThan(80.0, doubleChannelPrimitive("temp")), new Emit("below")))
+                .withRule(TriggerRule.onBecomeFalse(greaterThan(80.0, doubleChannelPrimitive("temp")), new Emit("above")))
+                .build();
+
+        assertEquals(Collections.emptyList(), eval(network, record(0L, "temp", 90.0)));
+        assertEquals(Collections.singletonList("below@1"), eval(network, record(1L, "temp", 70.0)));
+        assertEquals(Collections.emptyList(), eval(network, record(2L, "temp", 75.0)));
+        // missing values are ignored
+        assertEquals(Collections.emptyList(), eval(network, record(3L, "other", 1.0)));
+        assertEquals(Collections.singletonList("above@4"), eval(network, record(4L, "temp", 80.0)));
+    }
+
+    @Test
+    public void filter() {
+        RuleNetwork<String> network = RuleNetwork.<String>builder()
+                .withRule(TriggerRule.<String>onTrue(lowerThan(1.0, doubleChannelPrimitive("temp")), new Emit("hot"))
+                        .withFilter(new EmitFilter()))
+                .build();
+
+        assertTrue(network.requiresEveryRecord());
+        assertEquals(Collections.emptyList(), eval(network, record(1L, "temp", 2.0)));
+        assertEquals(Collections.singletonList("hot@2"), eval(network, record(2L, "temp", 2.0)));
+    }
+
+    @Test
+    public void sameEventsAsTriggerEvaluationFunctions() {
+        Random random = new Random(42);
+        List<TriggerRule<String>> rules = new ArrayList<>();
+        List<TriggerEvaluationFunction<String>> functions = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            BooleanSupplier condition = randomCondition(random);
+            Emit handler = new Emit("r" + i);
+            switch (random.nextInt(4)) {
+                case 0:
+                    rules.add(TriggerRule.onTrue(condition, handler));
+                    functions.add(function(TriggerStrategies.onTrue((Supplier<Boolean>) condition), handler));
+                    break;
+                case 1:
+                    rules.add(TriggerRule.onFalse(condition, handler));
+                    functions.add(function(TriggerStrategies.onFalse(condition), handler));
+                    break;
+                case 2:
+                    rules.add(TriggerRule.onBecomeTrue(condition, handler));
+                    functions.add(function(TriggerStrategies.onBecomeTrue(condition), handler));
+                    break;
+                default:
+                    rules.add(TriggerRule.onBecomeFalse(condition, handler));
+                    functions.add(function(TriggerStrategies.onBecomeFalse(condition), handler));
+                    break;
+            }
+        }
+        RuleNetwork<String> network = ClonerUtil.clone(RuleNetwork.<String>builder().withRules(rules).build());
+
+        for (long timestamp = 0; timestamp < 500; timestamp++) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("a", random.nextInt(21) / 2.0);
+            values.put("b", (long) random.nextInt(11));
+            if (random.nextInt(10) > 0) {
+                values.put("c", random.nextInt(11) / 1.0);
+            }
+            MRecord record = UntypedValues.builder().source("test").prefix("").timestamp(timestamp).values(values).build();
+
+            SimpleEvaluationContext<String> context = new SimpleEvaluationContext<>(record);
+            for (TriggerEvaluationFunction<String> function : functions) {
+                function.eval(context);
+            }
+            assertEquals("record " + timestamp, context.getEvents(), eval(network, record));
+        }
+    }
+
+    private static BooleanSupplier randomCondition(Random random) {
+        double threshold = random.nextInt(21) / 2.0;
+        NumberSupplier<?> channel = random.nextBoolean() ? doubleChannelPrimitive("a") : longChannelPrimitive("b");
+        switch (random.nextInt(6)) {
+            case 0:
+                return lowerThan(threshold, channel);
+            case 1:
+                return lowerThanEquals(threshold, channel);
+            case 2:
+                return greaterThan(threshold, channel);
+            case 3:
+                return greaterThanEquals(threshold, channel);
+            case 4:
+                return not(lowerThan(threshold, doubleChannelPrimitive("c")));
+            default:
+                return and(greaterThan(threshold, channel), lowerThanEquals(threshold, doubleChannelPrimitive("c")));
+        }
+    }
+
+    private static TriggerEvaluationFunction<String> function(TriggerStrategy strategy, Emit handler) {
+        return TriggerEvaluationFunction.<String>builder()
+                .withTriggerStrategy(strategy)
+                .withTriggerHandler(handler)
+                .build();
+    }
+
+    private static List<String> eval(RuleNetwork<String> network, MRecord record) {
+        SimpleEvaluationContext<String> context = new SimpleEvaluationContext<>(record);
+        network.eval(context);
+        return context.getEvents();
+    }
+
+    private static MRecord record(long timestamp, String channel, Object value) {
+        return UntypedValues.builder()
+                .source("test")
+                .prefix("")
+                .timestamp(timestamp)
+                .values(Collections.singletonMap(channel, value))
+                .build();
+    }
+
+    /** Emits the name of the rule and the timestamp of the record */
+    private static class Emit implements TriggerHandler<String> {
+        private final String name;
+
+        private Emit(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void handle(EvaluationContext<String> context) {
+            context.collect(name + "@" + context.get().getTimestamp());
+        }
+
+        @Override
+        public Set<String> getChannelIdentifiers() {
+            return Collections.emptySet();
+        }
+    }
+
+    /** Only lets events of even timestamps pass */
+    private static class EmitFilter implements org.pragmaticminds.crunch.api.trigger.filter.EventFilter<String> {
+        @Override
+        public boolean apply(String event, MRecord values) {
+            return values.getTimestamp() % 2 == 0;
+        }
+
+        @Override
+        public List<String> getChannelIdentifiers() {
+            return Arrays.asList();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ChannelSchemaTest {
+
+    @Test
+    public void register_assignsStableSlots() {
+        ChannelSchema schema = new ChannelSchema(Arrays.asList("a", "b", "a"));
+
+        assertEquals(2, schema.size());
+        assertEquals(0, schema.slotOf("a"));
+        assertEquals(1, schema.slotOf("b"));
+        assertEquals(-1, schema.slotOf("c"));
+        assertEquals(2, schema.register("c"));
+        assertEquals(2, schema.register("c"));
+        assertEquals("c", schema.channelAt(2));
+    }
+
+    @Test
+    public void register_growsBeyondInitialCapacity() {
+        ChannelSchema schema = new ChannelSchema();
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i, schema.register("channel" + i));
+        }
+
+        assertEquals(2000, schema.size());
+        assertEquals("channel1999", schema.channelAt(1999));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void channelAt_unknownSlot() {
+        new ChannelSchema().channelAt(0);
+    }
+
+    @Test
+    public void serializable_resolvesTheSharedInstance() {
+        ChannelSchema schema = new ChannelSchema(Arrays.asList("a", "b"));
+
+        assertSame(schema, ClonerUtil.clone(schema));
+        assertEquals(2, schema.size());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChannelSlotTest {
+
+    private UntypedValues untypedValues;
+
+    @Before
+    public void setUp() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 1.5);
+        values.put("long", 2L);
+        values.put("bool", true);
+        values.put("string", "text");
+        values.put("date", new Date(4L));
+        untypedValues = new UntypedValues("source", 100L, "prefix", values);
+    }
+
+    @Test
+    public void readsColumnarValuesAndOtherRecordsAlike() {
+        ColumnarValues columnar = ColumnarValues.of(untypedValues, new ChannelSchema());
+
+        assertEquals(untypedValues.getDouble("double"), ChannelSlot.of("double").getDouble(columnar));
+        assertEquals(untypedValues.getLong("long"), ChannelSlot.of("long").getLong(columnar));
+        assertEquals(untypedValues.getBoolean("bool"), ChannelSlot.of("bool").getBoolean(columnar));
+        assertEquals(untypedValues.getDate("date"), ChannelSlot.of("date").getDate(columnar));
+        assertEquals(untypedValues.getString("string"), ChannelSlot.of("string").getString(columnar));
+        assertEquals(Value.of(2L), ChannelSlot.of("long").getValue(columnar));
+        assertEquals(1.5, ChannelSlot.of("double").getDouble(untypedValues), 0.0);
+        assertNull(ChannelSlot.of("missing").getDouble(columnar));
+    }
+
+    @Test
+    public void slotIn_resolvesPerSchema() {
+        ChannelSchema schema = new ChannelSchema();
+        schema.register("other");
+        schema.register("double");
+        ChannelSchema other = new ChannelSchema();
+        other.register("double");
+        ChannelSlot slot = ChannelSlot.of("double");
+
+        assertEquals(1, slot.slotIn(schema));
+        assertEquals(0, slot.slotIn(other));
+        assertEquals(1, slot.slotIn(schema));
+    }
+
+    @Test
+    public void missingChannels_areNotRegistered() {
+        ChannelSchema schema = new ChannelSchema();
+        ColumnarValues columnar = ColumnarValues.of(untypedValues, schema);
+        int channels = schema.size();
+        ChannelSlot slot = ChannelSlot.of("missing");
+
+        assertEquals(-1, slot.slotIn(schema));
+        assertNull(slot.getDouble(columnar));
+        assertTrue(Double.isNaN(slot.getAsDouble(columnar)));
+        assertFalse(slot.isPresentIn(columnar));
+        assertEquals(channels, schema.size());
+
+        // resolved as soon as a record registers the channel
+        schema.register("missing");
+        assertEquals(channels, slot.slotIn(schema));
+    }
+
+    @Test
+    public void isPresentIn() {
+        ColumnarValues columnar = ColumnarValues.of(untypedValues, new ChannelSchema());
+
+        assertTrue(ChannelSlot.of("double").isPresentIn(columnar));
+        assertTrue(ChannelSlot.of("double").isPresentIn(untypedValues));
+        assertFalse(ChannelSlot.of("missing").isPresentIn(columnar));
+        assertFalse(ChannelSlot.of("missing").isPresentIn(untypedValues));
+    }
+
+    @Test
+    public void serializable() {
+        ChannelSchema schema = new ChannelSchema();
+        schema.register("double");
+        ChannelSlot slot = ChannelSlot.of("double");
+        slot.slotIn(schema);
+
+        ChannelSlot clone = ClonerUtil.clone(slot);
+
+        assertEquals("double", clone.getName());
+        assertEquals(0, clone.slotIn(schema));
+    }
+
+    @Test
+    public void resolutionSurvivesSerializationOfTheRecord() {
+        ChannelSchema schema = new ChannelSchema();
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+        ChannelSlot slot = ChannelSlot.of("double");
+        int resolved = slot.slotIn(schema);
+        int channels = schema.size();
+
+        ColumnarValues clone = ClonerUtil.clone(record);
+
+        assertSame(schema, clone.getSchema());
+        assertEquals(1.5, slot.getAsDouble(clone), 0.00001);
+        assertEquals(resolved, slot.slotIn(clone.getSchema()));
+        // nothing is registered into a copy of the schema
+        assertEquals(channels, clone.getSchema().size());
+        assertEquals(1.5, ClonerUtil.clone(slot).getAsDouble(clone), 0.00001);
+    }
+}
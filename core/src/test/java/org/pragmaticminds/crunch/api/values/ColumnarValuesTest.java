@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.api.values;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.exceptions.UnknownRecordItemException;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.records.DataType;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarValuesTest {
+
+    private static final double DELTA = 0.00001;
+
+    private ChannelSchema schema;
+    private UntypedValues untypedValues;
+
+    @Before
+    public void setUp() {
+        schema = new ChannelSchema();
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 1.5);
+        values.put("long", 2L);
+        values.put("int", 3);
+        values.put("bool", true);
+        values.put("string", "text");
+        values.put("date", new Date(4L));
+        untypedValues = new UntypedValues("source", 100L, "prefix", values);
+    }
+
+    @Test
+    public void of_untypedValues() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+
+        assertEquals("source", record.getSource());
+        assertEquals(100L, record.getTimestamp());
+        assertEquals("prefix", record.getPrefix());
+        assertEquals(6, schema.size());
+        assertEquals(new HashSet<>(untypedValues.getChannels()), new HashSet<>(record.getChannels()));
+        assertEquals(1.5, record.getDouble("double"), DELTA);
+        assertEquals(2L, (long) record.getLong("long"));
+        assertEquals(3L, (long) record.getLong("int"));
+        assertTrue(record.getBoolean("bool"));
+        assertEquals("text", record.getString("string"));
+        assertEquals(new Date(4L), record.getDate("date"));
+    }
+
+    @Test
+    public void primitiveGetters() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+
+        assertEquals(1.5, record.getDoubleAsPrimitive(schema.slotOf("double")), DELTA);
+        assertEquals(2.0, record.getDoubleAsPrimitive(schema.slotOf("long")), DELTA);
+        assertEquals(2L, record.getLongAsPrimitive(schema.slotOf("long")));
+        assertTrue(record.getBooleanAsPrimitive(schema.slotOf("bool")));
+        assertEquals(4L, record.getDateAsPrimitive(schema.slotOf("date")));
+        assertEquals(2L, record.getDateAsPrimitive(schema.slotOf("long")));
+        assertEquals(DataType.DOUBLE, record.getType(schema.slotOf("double")));
+        assertEquals(DataType.TIMESTAMP, record.getType(schema.slotOf("date")));
+        assertNull(record.getType(schema.register("missing")));
+    }
+
+    @Test(expected = UnknownRecordItemException.class)
+    public void primitiveGetter_missingSlot() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+
+        record.getDoubleAsPrimitive(schema.register("missing"));
+    }
+
+    @Test
+    public void conversionsBehaveLikeUntypedValues() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+
+        assertEquals(untypedValues.getString("long"), record.getString("long"));
+        assertEquals(untypedValues.getDouble("string"), record.getDouble("string"));
+        assertEquals(untypedValues.getDate("long"), record.getDate("long"));
+        assertEquals(untypedValues.getValue("double"), record.getValue("double"));
+        assertNull(record.get("missing"));
+        assertNull(record.getDouble("missing"));
+    }
+
+    @Test
+    public void recordsCreatedBeforeNewChannelsGrow() {
+        ColumnarValues record = new ColumnarValues(schema, "source", 1L, null);
+        int slot = schema.register("late");
+
+        assertFalse(record.isPresent(slot));
+        record.setDouble(slot, 2.5);
+        record.setString(schema.register("later"), "x");
+
+        assertEquals(2.5, record.getDoubleAsPrimitive(slot), DELTA);
+        assertEquals("x", record.getString("later"));
+    }
+
+    @Test
+    public void fewChannelsOfALargeSchema_onlyHoldThePresentChannels() {
+        for (int i = 0; i < 1000; i++) {
+            schema.register("channel" + i);
+        }
+        ColumnarValues record = new ColumnarValues(schema, "source", 1L, null);
+        record.setString(schema.slotOf("channel900"), "x");
+        record.setDouble(schema.slotOf("channel7"), 2.5);
+        record.setLong(schema.slotOf("channel500"), 3L);
+        record.remove(schema.slotOf("channel500"));
+
+        assertEquals(2, record.channelCount());
+        assertEquals(schema.slotOf("channel7"), record.slotAt(0));
+        assertEquals(schema.slotOf("channel900"), record.slotAt(1));
+        assertFalse(record.isPresent(schema.slotOf("channel500")));
+        assertFalse(record.isPresent(schema.slotOf("channel8")));
+        assertEquals(2.5, record.getDoubleAsPrimitive(schema.slotOf("channel7")), DELTA);
+        assertEquals("x", record.getString("channel900"));
+
+        ColumnarValues state = new ColumnarValues(schema, "source", 0L, null);
+        state.setBoolean(schema.slotOf("channel0"), true);
+        state.merge(record);
+        assertEquals(3, state.channelCount());
+        assertEquals("x", state.getStringAt(schema.slotOf("channel900")));
+        assertEquals(record, ClonerUtil.clone(record));
+    }
+
+    @Test
+    public void merge_overridesAndKeepsValues() {
+        ColumnarValues state = ColumnarValues.of(untypedValues, schema);
+        ColumnarValues update = new ColumnarValues(schema, "source", 200L, "prefix");
+        update.setString(schema.slotOf("double"), "now a string");
+        update.set("new", 7L);
+
+        ColumnarValues merged = state.merge(update);
+
+        assertEquals("now a string", merged.getString("double"));
+        assertEquals(7L, (long) merged.getLong("new"));
+        assertEquals(2L, (long) merged.getLong("long"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_otherSource() {
+        ColumnarValues state = ColumnarValues.of(untypedValues, schema);
+
+        state.merge(new ColumnarValues(schema, "other", 200L, "prefix"));
+    }
+
+    @Test
+    public void setNull_removes() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+
+        record.set("string", null);
+
+        assertFalse(record.isPresent(schema.slotOf("string")));
+        assertEquals(5, record.getChannels().size());
+    }
+
+    @Test
+    public void toUntypedValues() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+        untypedValues.getValues().put("int", 3L);
+
+        assertEquals(untypedValues, record.toUntypedValues());
+    }
+
+    @Test
+    public void serializable() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+
+        ColumnarValues clone = ClonerUtil.clone(record);
+
+        assertEquals(record, clone);
+        assertEquals(1.5, clone.getDouble("double"), DELTA);
+    }
+
+    @Test
+    public void serializable_resolvesTheSharedSchema() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+        int channels = schema.size();
+
+        ColumnarValues clone = ClonerUtil.clone(record);
+
+        assertSame(schema, clone.getSchema());
+        assertEquals(channels, schema.size());
+        assertEquals("text", clone.getString("string"));
+        assertEquals(new Date(4L), clone.getDate("date"));
+        assertEquals(record.toUntypedValues(), clone.toUntypedValues());
+    }
+}
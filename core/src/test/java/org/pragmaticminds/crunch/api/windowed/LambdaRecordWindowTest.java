@@ -27,6 +27,7 @@ import org.pragmaticminds.crunch.api.records.MRecord;
 import java.util.ArrayList;
 import java.util.Collections;
 
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -58,4 +59,12 @@ public class LambdaRecordWindowTest {
         assertTrue(window.getChannelIdentifiers().contains("test"));
         assertTrue(clone.getChannelIdentifiers().contains("test"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void copy() {
+        LambdaRecordWindow copy = window.copy();
+        assertNotSame(window, copy);
+        assertTrue(copy.inWindow(mock(MRecord.class)));
+        assertTrue(copy.getChannelIdentifiers().contains("test"));
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.EvaluationContext;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.windowed.extractor.DefaultGenericEventGroupAggregationFinalizer;
+import org.pragmaticminds.crunch.api.windowed.extractor.GroupByExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.MergeableWindowExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.WindowExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+
+public class TimeWindowedEvaluationFunctionTest {
+
+    @Test
+    public void tumbling() {
+        TimeWindowedEvaluationFunction<String> function = create(TimeWindows.tumbling(10));
+
+        assertEquals(Collections.emptyList(), eval(function, 3L, 1.0));
+        assertEquals(Collections.emptyList(), eval(function, 9L, 2.0));
+        // the end of the window belongs to the next window
+        assertEquals(Collections.singletonList("3.0@10"), eval(function, 10L, 4.0));
+        // windows without records are not emitted
+        assertEquals(Collections.singletonList("4.0@20"), eval(function, 35L, 8.0));
+        // late records are ignored
+        assertEquals(Collections.emptyList(), eval(function, 12L, 16.0));
+        assertEquals(Collections.singletonList("8.0@40"), watermark(function, 40L));
+    }
+
+    @Test
+    public void sliding() {
+        TimeWindowedEvaluationFunction<String> function = create(TimeWindows.sliding(10, 5));
+
+        assertEquals(Collections.emptyList(), eval(function, 0L, 1.0));
+        assertEquals(Collections.singletonList("1.0@5"), eval(function, 7L, 2.0));
+        assertEquals(Collections.singletonList("3.0@10"), eval(function, 12L, 4.0));
+        assertEquals(Arrays.asList("6.0@15", "4.0@20"), watermark(function, 20L));
+        assertEquals(Collections.emptyList(), watermark(function, 21L));
+    }
+
+    @Test
+    public void sliding_mergeableExtractor_aggregatesEachRecordOnceInItsPane() {
+        MergeableSumExtractor.applied = 0;
+        TimeWindowedEvaluationFunction<String> function = TimeWindowedEvaluationFunction.<String>builder()
+                .timeWindow(TimeWindows.sliding(10, 5))
+                .extractor(new MergeableSumExtractor())
+                .build();
+
+        // the first pane [0, 5) of the window [0, 10) is empty
+        assertEquals(Collections.emptyList(), eval(function, 7L, 1.0));
+        assertEquals(Collections.singletonList("1.0@10"), eval(function, 12L, 2.0));
+        assertEquals(Collections.singletonList("3.0@15"), eval(function, 16L, 4.0));
+        // [10, 20) is still open
+        assertEquals(Collections.emptyList(), eval(function, 14L, 8.0));
+        assertEquals(Arrays.asList("14.0@20", "4.0@25"), watermark(function, 25L));
+        assertEquals(Collections.emptyList(), watermark(function, Long.MAX_VALUE));
+        assertEquals(4, MergeableSumExtractor.applied);
+    }
+
+    @Test
+    public void sliding_mergeableExtractor_matchesTheExtractorPerWindow() {
+        TimeWindowedEvaluationFunction<String> perWindow = create(TimeWindows.sliding(30, 10));
+        TimeWindowedEvaluationFunction<String> panes = TimeWindowedEvaluationFunction.<String>builder()
+                .timeWindow(TimeWindows.sliding(30, 10))
+                .extractor(new MergeableSumExtractor())
+                .build();
+
+        for (long timestamp = 0; timestamp < 100; timestamp += 7) {
+            assertEquals(eval(perWindow, timestamp, timestamp), eval(panes, timestamp, timestamp));
+        }
+        assertEquals(watermark(perWindow, Long.MAX_VALUE), watermark(panes, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void sources_haveTheirOwnWindows() {
+        TimeWindowedEvaluationFunction<GenericEvent> function = TimeWindowedEvaluationFunction.<GenericEvent>builder()
+                .timeWindow(TimeWindows.tumbling(10))
+                .extractor(GroupByExtractor.<GenericEvent>builder()
+                        .aggregate(Aggregations.sum(), doubleChannel("value"), "sum")
+                        .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                        .build())
+                .build();
+
+        function.eval(new SimpleEvaluationContext<>(record("a", 1L, 1.0)));
+        function.eval(new SimpleEvaluationContext<>(record("b", 2L, 2.0)));
+        // finishes only the window of source a
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record("a", 12L, 4.0));
+        function.eval(context);
+        function.onWatermark(20L, context);
+
+        List<GenericEvent> events = context.getEvents();
+        assertEquals(3, events.size());
+        assertEquals("a", events.get(0).getSource());
+        assertEquals(1.0, events.get(0).getParameter("sum").getAsDouble(), 0.0001);
+        // the watermark finishes the windows source by source
+        assertEquals("a", events.get(1).getSource());
+        assertEquals(4.0, events.get(1).getParameter("sum").getAsDouble(), 0.0001);
+        assertEquals("b", events.get(2).getSource());
+        assertEquals(2.0, events.get(2).getParameter("sum").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void recordsOfFinishedWindowsAreLate() {
+        TimeWindowedEvaluationFunction<String> function = create(TimeWindows.tumbling(10));
+        eval(function, 3L, 1.0);
+        assertEquals(Collections.singletonList("1.0@10"), watermark(function, 10L));
+
+        List<MRecord> late = new ArrayList<>();
+        SimpleEvaluationContext<String> context = new SimpleEvaluationContext<String>(record(5L, 2.0)) {
+            @Override
+            public void late(MRecord record) {
+                late.add(record);
+            }
+        };
+        function.eval(context);
+
+        assertEquals(1, late.size());
+        assertEquals(5L, late.get(0).getTimestamp());
+    }
+
+    @Test
+    public void slidingRecordOfAnOpenWindowIsNotLate() {
+        TimeWindowedEvaluationFunction<String> function = create(TimeWindows.sliding(10, 5));
+        eval(function, 1L, 1.0);
+        eval(function, 6L, 2.0);
+        assertEquals(Collections.singletonList("3.0@10"), watermark(function, 10L));
+
+        // [0, 10) is finished, but [5, 15) is still open
+        List<MRecord> late = new ArrayList<>();
+        SimpleEvaluationContext<String> context = new SimpleEvaluationContext<String>(record(7L, 4.0)) {
+            @Override
+            public void late(MRecord record) {
+                late.add(record);
+            }
+        };
+        function.eval(context);
+
+        assertEquals(Collections.emptyList(), late);
+        assertEquals(Collections.singletonList("6.0@15"), watermark(function, 15L));
+    }
+
+    @Test
+    public void session() {
+        TimeWindowedEvaluationFunction<String> function = create(TimeWindows.session(10));
+
+        assertEquals(Collections.emptyList(), eval(function, 0L, 1.0));
+        assertEquals(Collections.emptyList(), eval(function, 9L, 2.0));
+        assertEquals(Collections.emptyList(), eval(function, 18L, 4.0));
+        assertEquals(Collections.emptyList(), watermark(function, 27L));
+        assertEquals(Collections.singletonList("7.0@28"), watermark(function, 28L));
+        assertEquals(Collections.emptyList(), eval(function, 50L, 8.0));
+        assertEquals(Collections.singletonList("8.0@60"), eval(function, 60L, 16.0));
+        assertEquals(Collections.singletonList("16.0@70"), watermark(function, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void clone_hasOwnWindows() {
+        TimeWindowedEvaluationFunction<String> function = create(TimeWindows.tumbling(10));
+        eval(function, 1L, 1.0);
+        TimeWindowedEvaluationFunction<String> clone = ClonerUtil.clone(function);
+        eval(clone, 2L, 2.0);
+
+        assertEquals(Collections.singletonList("1.0@10"), watermark(function, 10L));
+        assertEquals(Collections.singletonList("3.0@10"), watermark(clone, 10L));
+    }
+
+    @Test
+    public void groupByExtractor() {
+        TimeWindowedEvaluationFunction<GenericEvent> function = TimeWindowedEvaluationFunction.<GenericEvent>builder()
+                .timeWindow(TimeWindows.tumbling(10))
+                .extractor(GroupByExtractor.<GenericEvent>builder()
+                        .aggregate(Aggregations.max(), doubleChannel("value"), "max")
+                        .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                        .build())
+                .build();
+        assertTrue(function.getChannelIdentifiers().contains("value"));
+
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record(1L, 2.0));
+        function.eval(context);
+        function.eval(new SimpleEvaluationContext<>(record(2L, 3.0)));
+        function.onWatermark(10L, context);
+
+        assertEquals(1, context.getEvents().size());
+        GenericEvent event = context.getEvents().get(0);
+        assertEquals(10L, event.getTimestamp());
+        assertEquals(3.0, event.getParameter("max").getAsDouble(), 0.0001);
+    }
+
+    private static TimeWindowedEvaluationFunction<String> create(TimeWindow timeWindow) {
+        return TimeWindowedEvaluationFunction.<String>builder()
+                .timeWindow(timeWindow)
+                .extractor(new SumExtractor())
+                .build();
+    }
+
+    private static List<String> eval(TimeWindowedEvaluationFunction<String> function, long timestamp, double value) {
+        SimpleEvaluationContext<String> context = new SimpleEvaluationContext<>(record(timestamp, value));
+        function.eval(context);
+        return context.getEvents();
+    }
+
+    private static List<String> watermark(TimeWindowedEvaluationFunction<String> function, long watermark) {
+        SimpleEvaluationContext<String> context = new SimpleEvaluationContext<>(record(0L, 0.0));
+        function.onWatermark(watermark, context);
+        return context.getEvents();
+    }
+
+    private static MRecord record(long timestamp, double value) {
+        return record("test", timestamp, value);
+    }
+
+    private static MRecord record(String source, long timestamp, double value) {
+        return UntypedValues.builder()
+                .source(source)
+                .prefix("")
+                .timestamp(timestamp)
+                .values(Collections.singletonMap("value", value))
+                .build();
+    }
+
+    /** Emits the sum of all values and the timestamp of the window end */
+    private static class SumExtractor implements WindowExtractor<String> {
+        protected double sum = 0.0;
+
+        @Override
+        public void apply(MRecord record) {
+            sum += record.getDouble("value");
+        }
+
+        @Override
+        public void finish(EvaluationContext<String> context) {
+            context.collect(sum + "@" + context.get().getTimestamp());
+        }
+    }
+
+    /** {@link SumExtractor} that can be merged and counts all applied records */
+    private static class MergeableSumExtractor extends SumExtractor implements MergeableWindowExtractor<String> {
+        private static int applied = 0;
+
+        @Override
+        public void apply(MRecord record) {
+            applied++;
+            super.apply(record);
+        }
+
+        @Override
+        public void merge(MergeableWindowExtractor<String> other) {
+            sum += ((MergeableSumExtractor) other).sum;
+        }
+    }
+}
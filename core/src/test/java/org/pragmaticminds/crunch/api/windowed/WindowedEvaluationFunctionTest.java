@@ -29,12 +29,16 @@ import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.trigger.filter.EventFilter;
 import org.pragmaticminds.crunch.api.values.TypedValues;
 import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.pragmaticminds.crunch.api.windowed.extractor.DefaultGenericEventGroupAggregationFinalizer;
+import org.pragmaticminds.crunch.api.windowed.extractor.KeyedGroupByExtractor;
 import org.pragmaticminds.crunch.api.windowed.extractor.WindowExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
 import org.pragmaticminds.crunch.events.GenericEvent;
 import org.pragmaticminds.crunch.events.GenericEventBuilder;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -43,6 +47,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertTrue;
 import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.booleanChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
 import static org.pragmaticminds.crunch.api.windowed.Windows.bitActive;
 
 /**
@@ -147,6 +152,27 @@ public class WindowedEvaluationFunctionTest implements Serializable {
         Assert.assertEquals(3.0, events.get(0).getParameter("maxValue").getAsDouble(), 0.00001);
     }
 
+    @Test
+    public void evictedKeys_areReportedToTheContext() {
+        WindowedEvaluationFunction<GenericEvent> keyed = WindowedEvaluationFunction.<GenericEvent>builder()
+                .recordWindow(bitActive(booleanChannel("flag")))
+                .extractor(KeyedGroupByExtractor.<GenericEvent>builder()
+                        .groupBy(doubleChannel("value"))
+                        .aggregate(Aggregations.max(), doubleChannel("value"))
+                        .maxKeys(1)
+                        .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                        .build())
+                .build();
+        for (MRecord record : Arrays.asList(record1, record2, record3, record4)) {
+            keyed.eval(new SimpleEvaluationContext<>(record));
+        }
+
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record5);
+        keyed.eval(context);
+        Assert.assertEquals(3, context.getEvents().size());
+        Assert.assertEquals(2L, context.getEvictedKeys());
+    }
+
     @Test
     public void getChannelIdentifiers() {
         Collection<String> channels = function.getChannelIdentifiers();
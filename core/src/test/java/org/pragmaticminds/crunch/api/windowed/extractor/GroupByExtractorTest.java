@@ -130,6 +130,58 @@ public class GroupByExtractorTest implements Serializable {
         Assert.assertEquals(1D, event2.getParameter("min.x").getAsDouble(), 0.0001);
     }
 
+    @Test
+    public void merge() {
+        Assert.assertTrue(extractor.isMergeable());
+        records.subList(0, 4).forEach(record -> extractor.apply(record));
+        records.subList(4, 10).forEach(record -> clone1.apply(record));
+
+        extractor.merge(clone1);
+        context1 = new SimpleEvaluationContext<>(records.get(records.size()-1));
+        extractor.finish(context1);
+
+        GenericEvent event = context1.getEvents().get(0);
+        Assert.assertEquals(10D, event.getParameter("max.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(1D, event.getParameter("min.x").getAsDouble(), 0.0001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_otherAggregations() {
+        extractor.merge(extractor2);
+    }
+
+    @Test
+    public void notMergeable_withSlidingAggregations() {
+        GroupByExtractor<GenericEvent> sliding = GroupByExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.max(), doubleChannel("x"))
+                .aggregate(Aggregations.slidingMax(), doubleChannel("x"))
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+
+        Assert.assertFalse(sliding.isMergeable());
+    }
+
+    @Test
+    public void copy() {
+        records.subList(0, 4).forEach(record -> extractor.apply(record));
+        GroupByExtractor<GenericEvent> copy = extractor.copy();
+        records.subList(4, 10).forEach(record -> copy.apply(record));
+
+        // the copy continues from the state of the original
+        context1 = new SimpleEvaluationContext<>(records.get(records.size()-1));
+        copy.finish(context1);
+        GenericEvent event1 = context1.getEvents().get(0);
+        Assert.assertEquals(10D, event1.getParameter("max.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(1D, event1.getParameter("min.x").getAsDouble(), 0.0001);
+
+        // the original is not affected by the copy
+        context2 = new SimpleEvaluationContext<>(records.get(records.size()-1));
+        extractor.finish(context2);
+        GenericEvent event2 = context2.getEvents().get(0);
+        Assert.assertEquals(4D, event2.getParameter("max.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(1D, event2.getParameter("min.x").getAsDouble(), 0.0001);
+    }
+
     @Test
     public void extractNoFinalizer() {
         context1 = new SimpleEvaluationContext<>(records.get(records.size()-1));
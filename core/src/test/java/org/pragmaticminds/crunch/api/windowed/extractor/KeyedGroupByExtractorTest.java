@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.stringChannel;
+
+public class KeyedGroupByExtractorTest implements Serializable {
+
+    private KeyedGroupByExtractor.Builder<GenericEvent> builder;
+
+    @Before
+    public void setUp() {
+        builder = KeyedGroupByExtractor.<GenericEvent>builder()
+                .groupBy(stringChannel("tool"))
+                .aggregate(Aggregations.max(), doubleChannel("x"))
+                .aggregate(Aggregations.sum(), doubleChannel("x"))
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer());
+    }
+
+    @Test
+    public void extractPerKey() {
+        KeyedGroupByExtractor<GenericEvent> extractor = builder.build();
+        for (int i = 1; i <= 10; i++) {
+            extractor.apply(record(i % 2 == 0 ? "even" : "odd", i, i));
+        }
+        // records without a key are ignored
+        extractor.apply(record(null, 100, 11));
+
+        Map<String, GenericEvent> events = finish(extractor);
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(10D, events.get("even").getParameter("max.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(30D, events.get("even").getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(9D, events.get("odd").getParameter("max.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(25D, events.get("odd").getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(0L, extractor.getEvictedKeys());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedKeys() {
+        KeyedGroupByExtractor<GenericEvent> extractor = builder.but().maxKeys(4).build();
+        for (int i = 0; i < 100; i++) {
+            extractor.apply(record("key" + i, 1, i));
+            // the first key stays active and must not be evicted
+            extractor.apply(record("key0", 1, i));
+        }
+
+        Assert.assertEquals(4, extractor.getKeyCount());
+        Assert.assertEquals(96L, extractor.getEvictedKeys());
+        Map<String, GenericEvent> events = finish(extractor);
+        // the evicted keys are finalized as well
+        Assert.assertEquals(100, events.size());
+        Assert.assertFalse(evicted(events.get("key0")));
+        Assert.assertFalse(evicted(events.get("key99")));
+        Assert.assertTrue(evicted(events.get("key1")));
+        Assert.assertEquals(101D, events.get("key0").getParameter("sum.x").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void evictIdleKeys() {
+        KeyedGroupByExtractor<GenericEvent> extractor = builder.but().idleTimeoutMs(100).build();
+        extractor.apply(record("a", 1, 0));
+        extractor.apply(record("b", 1, 0));
+        extractor.apply(record("a", 1, 150));
+        // a new key triggers the search for idle keys
+        extractor.apply(record("c", 1, 200));
+
+        Assert.assertEquals(2, extractor.getKeyCount());
+        Assert.assertEquals(1L, extractor.getEvictedKeys());
+        Map<String, GenericEvent> events = finish(extractor);
+        Assert.assertTrue(evicted(events.get("b")));
+        Assert.assertEquals(1D, events.get("b").getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertFalse(evicted(events.get("a")));
+        Assert.assertEquals(2D, events.get("a").getParameter("sum.x").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void evictedKeyReappears() {
+        KeyedGroupByExtractor<GenericEvent> extractor = builder.but().maxKeys(1).build();
+        extractor.apply(record("a", 1, 0));
+        // evicts a
+        extractor.apply(record("b", 2, 1));
+        // evicts b, a starts with new aggregations
+        extractor.apply(record("a", 3, 2));
+
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record("test", 0, 0));
+        extractor.finish(context);
+        List<GenericEvent> events = context.getEvents();
+        Assert.assertEquals(3, events.size());
+        // the partial values of the evicted keys come first
+        Assert.assertEquals("a", key(events.get(0)));
+        Assert.assertTrue(evicted(events.get(0)));
+        Assert.assertEquals(1D, events.get(0).getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertEquals("b", key(events.get(1)));
+        Assert.assertTrue(evicted(events.get(1)));
+        Assert.assertEquals("a", key(events.get(2)));
+        Assert.assertFalse(evicted(events.get(2)));
+        Assert.assertEquals(3D, events.get(2).getParameter("sum.x").getAsDouble(), 0.0001);
+        // the evictions are reported to the context
+        Assert.assertEquals(2L, context.getEvictedKeys());
+    }
+
+    @Test
+    public void keyIdentifierAndChannels() {
+        KeyedGroupByExtractor<GenericEvent> extractor = builder.but().keyIdentifier("toolId").build();
+        extractor.apply(record("a", 1, 0));
+
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record("a", 1, 0));
+        extractor.finish(context);
+        Assert.assertEquals("a", context.getEvents().get(0).getParameter("toolId").getAsString());
+        Assert.assertEquals(2, extractor.getChannelIdentifiers().size());
+        Assert.assertTrue(extractor.getChannelIdentifiers().contains("tool"));
+    }
+
+    @Test
+    public void cloneIsIndependent() {
+        KeyedGroupByExtractor<GenericEvent> extractor = builder.build();
+        extractor.apply(record("a", 1, 0));
+        KeyedGroupByExtractor<GenericEvent> clone = ClonerUtil.clone(extractor);
+        clone.apply(record("a", 2, 1));
+        clone.apply(record("b", 3, 2));
+
+        Assert.assertEquals(1, extractor.getKeyCount());
+        Assert.assertEquals(1D, finish(extractor).get("a").getParameter("sum.x").getAsDouble(), 0.0001);
+        Map<String, GenericEvent> events = finish(clone);
+        Assert.assertEquals(3D, events.get("a").getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(3D, events.get("b").getParameter("sum.x").getAsDouble(), 0.0001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxKeys() {
+        builder.but().maxKeys(0).build();
+    }
+
+    private Map<String, GenericEvent> finish(KeyedGroupByExtractor<GenericEvent> extractor) {
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record("test", 0, 0));
+        extractor.finish(context);
+        List<GenericEvent> events = context.getEvents();
+        return events.stream().collect(Collectors.toMap(
+                this::key,
+                event -> event
+        ));
+    }
+
+    private String key(GenericEvent event) {
+        return event.getParameter(KeyedGroupByExtractor.DEFAULT_KEY_IDENTIFIER).getAsString();
+    }
+
+    private boolean evicted(GenericEvent event) {
+        return event.getParameter(KeyedGroupByExtractor.DEFAULT_EVICTED_IDENTIFIER).getAsBoolean();
+    }
+
+    private MRecord record(String tool, double x, long timestamp) {
+        Map<String, Object> valueMap = new HashMap<>();
+        valueMap.put("x", x);
+        if (tool != null) {
+            valueMap.put("tool", tool);
+        }
+        return UntypedValues.builder()
+                .prefix("")
+                .source("test")
+                .timestamp(timestamp)
+                .values(valueMap)
+                .build();
+    }
+}
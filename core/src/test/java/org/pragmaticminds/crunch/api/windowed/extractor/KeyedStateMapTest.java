@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class KeyedStateMapTest {
+
+    @Test
+    public void behavesLikeHashMap() {
+        KeyedStateMap<Integer> map = new KeyedStateMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int timestamp = 0; timestamp < 20_000; timestamp++) {
+            int key = random.nextInt(500);
+            Integer value = map.get(key, timestamp);
+            Assert.assertEquals(expected.get(key), value);
+            if (value == null) {
+                map.put(key, key, timestamp);
+                expected.put(key, key);
+            }
+            if (timestamp % 1_000 == 999) {
+                map.evictIdle(timestamp - 200, (k, v) -> Assert.assertEquals(k, v));
+                Map<Integer, Integer> remaining = new HashMap<>();
+                map.forEach((k, v) -> remaining.put((Integer) k, v));
+                Assert.assertTrue(expected.keySet().containsAll(remaining.keySet()));
+                expected = remaining;
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+    }
+
+    @Test
+    public void evictIdle() {
+        KeyedStateMap<String> map = new KeyedStateMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i, i);
+        }
+        Map<Object, String> evicted = new HashMap<>();
+        Assert.assertEquals(50, map.evictIdle(50, evicted::put));
+        Assert.assertEquals(50, evicted.size());
+        Assert.assertEquals("v0", evicted.get(0));
+        Assert.assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i < 50 ? null : "v" + i, map.get(i, 100));
+        }
+    }
+
+    @Test
+    public void evictSampleRemovesOldest() {
+        KeyedStateMap<String> map = new KeyedStateMap<>();
+        map.put("a", "a", 10);
+        map.put("b", "b", 5);
+        map.put("c", "c", 20);
+        List<Object> evicted = new ArrayList<>();
+        map.evictSample(8, (key, value) -> evicted.add(value));
+        Assert.assertEquals(Collections.singletonList("b"), evicted);
+        Assert.assertEquals(2, map.size());
+        Assert.assertNull(map.get("b", 30));
+        Assert.assertEquals("a", map.get("a", 30));
+        Assert.assertEquals("c", map.get("c", 30));
+    }
+}
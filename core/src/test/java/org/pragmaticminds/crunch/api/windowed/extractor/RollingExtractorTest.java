@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.api.windowed.extractor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.pipe.SimpleEvaluationContext;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.windowed.WindowedEvaluationFunction;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.booleanChannel;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
+import static org.pragmaticminds.crunch.api.windowed.Windows.bitActive;
+
+public class RollingExtractorTest implements Serializable {
+
+    @Test
+    public void evictsByCount() {
+        RollingExtractor<GenericEvent> extractor = RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingSum(), doubleChannel("x"))
+                .aggregate(Aggregations.slidingMax(), doubleChannel("x"))
+                .lastValues(3)
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+
+        for (int i = 1; i <= 10; i++) {
+            extractor.apply(record(i * 100L, (double) i));
+        }
+
+        GenericEvent event = finish(extractor);
+        Assert.assertEquals(27.0, event.getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(10.0, event.getParameter("max.x").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void evictsByAge() {
+        RollingExtractor<GenericEvent> extractor = RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingSum(), doubleChannel("x"))
+                .lastMs(300)
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+
+        for (int i = 1; i <= 10; i++) {
+            extractor.apply(record(i * 100L, (double) i));
+        }
+
+        // the values at 800, 900 and 1000 are younger than 300 ms
+        Assert.assertEquals(27.0, finish(extractor).getParameter("sum.x").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void evictsByCountAndAge() {
+        RollingExtractor<GenericEvent> extractor = RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingSum(), doubleChannel("x"))
+                .lastValues(2)
+                .lastMs(300)
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+
+        for (int i = 1; i <= 10; i++) {
+            extractor.apply(record(i * 100L, (double) i));
+        }
+        Assert.assertEquals(19.0, finish(extractor).getParameter("sum.x").getAsDouble(), 0.0001);
+
+        // a gap evicts the values by their age, the count bound keeps the queue of timestamps in line
+        extractor.apply(record(2000L, 20.0));
+        Assert.assertEquals(20.0, finish(extractor).getParameter("sum.x").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void absentValuesAreNotAggregated() {
+        RollingExtractor<GenericEvent> extractor = RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingAvg(), doubleChannel("x"))
+                .lastMs(300)
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+
+        extractor.apply(record(100L, 2.0));
+        extractor.apply(UntypedValues.builder()
+                .prefix("")
+                .source("test")
+                .timestamp(200L)
+                .values(new HashMap<>())
+                .build());
+        extractor.apply(record(300L, 4.0));
+        Assert.assertEquals(3.0, finish(extractor).getParameter("avg.x").getAsDouble(), 0.0001);
+
+        extractor.apply(record(450L, 6.0));
+        Assert.assertEquals(5.0, finish(extractor).getParameter("avg.x").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void cloneKeepsTheValues() {
+        RollingExtractor<GenericEvent> extractor = RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingSum(), doubleChannel("x"))
+                .lastValues(2)
+                .lastMs(1000)
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+        extractor.apply(record(100L, 1.0));
+        extractor.apply(record(200L, 2.0));
+
+        RollingExtractor<GenericEvent> clone = ClonerUtil.clone(extractor);
+        clone.apply(record(300L, 3.0));
+
+        Assert.assertEquals(3.0, finish(extractor).getParameter("sum.x").getAsDouble(), 0.0001);
+        Assert.assertEquals(5.0, finish(clone).getParameter("sum.x").getAsDouble(), 0.0001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsABound() {
+        RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingSum(), doubleChannel("x"))
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+    }
+
+    @Test
+    public void getChannelIdentifiers() {
+        RollingExtractor<GenericEvent> extractor = RollingExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.slidingSum(), doubleChannel("x"))
+                .aggregate(Aggregations.slidingMin(), doubleChannel("y"))
+                .lastValues(10)
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build();
+
+        Assert.assertTrue(extractor.getChannelIdentifiers().contains("x"));
+        Assert.assertTrue(extractor.getChannelIdentifiers().contains("y"));
+    }
+
+    /**
+     * Runs the rolling extractor in a {@link WindowedEvaluationFunction}, so it only holds the last values of each
+     * window and starts over with the next window.
+     */
+    @Test
+    public void rollsInAWindowedEvaluationFunction() {
+        WindowedEvaluationFunction<GenericEvent> function = WindowedEvaluationFunction.<GenericEvent>builder()
+                .recordWindow(bitActive(booleanChannel("flag")))
+                .extractor(RollingExtractor.<GenericEvent>builder()
+                        .aggregate(Aggregations.slidingAvg(), doubleChannel("x"), "avg")
+                        .aggregate(Aggregations.slidingMin(), doubleChannel("x"), "min")
+                        .lastValues(3)
+                        .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                        .build())
+                .build();
+        WindowedEvaluationFunction<GenericEvent> clone = ClonerUtil.clone(function);
+
+        List<GenericEvent> events = runWindow(function, 0L, 1000);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(998.0, events.get(0).getParameter("avg").getAsDouble(), 0.0001);
+        Assert.assertEquals(997.0, events.get(0).getParameter("min").getAsDouble(), 0.0001);
+
+        // the next window does not see the values of the last one
+        events = runWindow(function, 10_000L, 2);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(0.5, events.get(0).getParameter("avg").getAsDouble(), 0.0001);
+        Assert.assertEquals(0.0, events.get(0).getParameter("min").getAsDouble(), 0.0001);
+
+        events = runWindow(clone, 0L, 5);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(3.0, events.get(0).getParameter("avg").getAsDouble(), 0.0001);
+    }
+
+    /** Passes the values 0 until count while the flag is set, and a record that closes the window */
+    private List<GenericEvent> runWindow(WindowedEvaluationFunction<GenericEvent> function, long start, int count) {
+        for (int i = 0; i < count; i++) {
+            SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(
+                    record(start + i, true, (double) i)
+            );
+            function.eval(context);
+            Assert.assertTrue(context.getEvents().isEmpty());
+        }
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(
+                record(start + count, false, 0.0)
+        );
+        function.eval(context);
+        return context.getEvents();
+    }
+
+    private GenericEvent finish(RollingExtractor<GenericEvent> extractor) {
+        SimpleEvaluationContext<GenericEvent> context = new SimpleEvaluationContext<>(record(0L, 0.0));
+        extractor.finish(context);
+        Assert.assertEquals(1, context.getEvents().size());
+        return context.getEvents().get(0);
+    }
+
+    private MRecord record(long timestamp, double x) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("x", x);
+        return record(timestamp, values);
+    }
+
+    private MRecord record(long timestamp, boolean flag, double x) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("flag", flag);
+        values.put("x", x);
+        return record(timestamp, values);
+    }
+
+    private MRecord record(long timestamp, Map<String, Object> values) {
+        return UntypedValues.builder()
+                .prefix("")
+                .source("test")
+                .timestamp(timestamp)
+                .values(values)
+                .build();
+    }
+}
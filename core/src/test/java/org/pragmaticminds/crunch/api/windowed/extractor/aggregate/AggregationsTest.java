@@ -23,6 +23,13 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
 /**
  * @author Erwin Wagasow
  * Created by Erwin Wagasow on 16.08.2018
@@ -141,4 +148,251 @@ public class AggregationsTest {
         Assert.assertEquals("avg", avg.getIdentifier());
         avg.reset();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void avgCopy() {
+        Aggregation<Integer> avg = Aggregations.avg();
+        avg.aggregate(1);
+        avg.aggregate(3);
+        Aggregation<Integer> copy = ClonerUtil.clone(avg);
+        copy.aggregate(5);
+        Assert.assertEquals(2, avg.getAggregated(), DELTA);
+        Assert.assertEquals(3, copy.getAggregated(), DELTA);
+        Assert.assertTrue(copy instanceof Avg);
+    }
+
+    @Test
+    public void aggregateDouble() {
+        DoubleAggregation<Double> sum = Aggregations.sum();
+        DoubleAggregation<Double> avg = Aggregations.avg();
+        DoubleAggregation<Double> max = Aggregations.max();
+        DoubleAggregation<Double> min = Aggregations.min();
+        for (DoubleAggregation<Double> aggregation : Arrays.asList(sum, avg, max, min)) {
+            Assert.assertNull(aggregation.getAggregated());
+            aggregation.aggregateDouble(-1D);
+            aggregation.aggregate(3D);
+            aggregation.aggregateDouble(4D);
+        }
+        Assert.assertEquals(6D, sum.getAggregated(), DELTA);
+        Assert.assertEquals(2D, avg.getAggregated(), DELTA);
+        Assert.assertEquals(4D, max.getAggregated(), DELTA);
+        Assert.assertEquals(-1D, min.getAggregated(), DELTA);
+
+        max.reset();
+        Assert.assertNull(max.getAggregated());
+        max.aggregateDouble(-5D);
+        Assert.assertEquals(-5D, max.getAggregated(), DELTA);
+    }
+
+    @Test
+    public void sliding() {
+        SlidingAggregation<Double> sum = Aggregations.slidingSum();
+        SlidingAggregation<Double> avg = Aggregations.slidingAvg();
+        SlidingAggregation<Double> max = Aggregations.slidingMax();
+        SlidingAggregation<Double> min = Aggregations.slidingMin();
+        List<SlidingAggregation<Double>> aggregations = Arrays.asList(sum, avg, max, min);
+
+        Random random = new Random(42);
+        ArrayDeque<Double> window = new ArrayDeque<>();
+        for (int i = 0; i < 10_000; i++) {
+            // small values, so equal values are evicted too
+            double value = random.nextInt(50) - 20;
+            window.addLast(value);
+            aggregations.forEach(aggregation -> aggregation.aggregateDouble(value));
+            // the size of the window varies between 0 and 100 values
+            while (window.size() > random.nextInt(100)) {
+                window.removeFirst();
+                aggregations.forEach(SlidingAggregation::evict);
+            }
+
+            Assert.assertEquals(window.size(), sum.size());
+            if (window.isEmpty()) {
+                aggregations.forEach(aggregation -> Assert.assertNull(aggregation.getAggregated()));
+                continue;
+            }
+            double expectedSum = window.stream().mapToDouble(Double::doubleValue).sum();
+            Assert.assertEquals(expectedSum, sum.getAggregated(), DELTA);
+            Assert.assertEquals(expectedSum / window.size(), avg.getAggregated(), DELTA);
+            Assert.assertEquals(Collections.max(window), max.getAggregated(), DELTA);
+            Assert.assertEquals(Collections.min(window), min.getAggregated(), DELTA);
+        }
+    }
+
+    @Test
+    public void slidingSumDoesNotDrift() {
+        SlidingAggregation<Double> sum = Aggregations.slidingSum();
+        sum.aggregateDouble(1e16);
+        for (int i = 0; i < 1_000; i++) {
+            sum.aggregateDouble(1.0);
+        }
+        sum.evict();
+        Assert.assertEquals(1_000.0, sum.getAggregated(), 0.0);
+    }
+
+    @Test
+    public void slidingCloned() {
+        SlidingAggregation<Double> max = Aggregations.slidingMax();
+        max.aggregateDouble(3D);
+        max.aggregateDouble(1D);
+        SlidingAggregation<Double> copy = ClonerUtil.clone(max);
+        copy.evict();
+        Assert.assertEquals(3D, max.getAggregated(), DELTA);
+        Assert.assertEquals(1D, copy.getAggregated(), DELTA);
+        Assert.assertEquals("max", copy.getIdentifier());
+
+        SlidingAggregation<Double> avg = ClonerUtil.clone(Aggregations.<Double>slidingAvg());
+        avg.aggregate(2D);
+        avg.aggregate(4D);
+        Assert.assertEquals(3D, avg.getAggregated(), DELTA);
+        Assert.assertEquals("avg", avg.getIdentifier());
+        avg.reset();
+        Assert.assertNull(avg.getAggregated());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void slidingEvictEmpty() {
+        Aggregations.slidingMin().evict();
+    }
+
+    @Test
+    public void quantile() {
+        MergeableDoubleAggregation<Double> p50 = Aggregations.quantile(0.5);
+        MergeableDoubleAggregation<Double> p99 = Aggregations.quantile(0.99);
+        MergeableDoubleAggregation<Double> p0 = Aggregations.quantile(0);
+        Assert.assertNull(p50.getAggregated());
+        Assert.assertEquals("p50", p50.getIdentifier());
+        Assert.assertEquals("p99.9", Aggregations.quantile(0.999).getIdentifier());
+
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // cycle times with a long tail, some negative values
+            values[i] = Math.exp(random.nextGaussian() * 2) - 0.1;
+            for (MergeableDoubleAggregation<Double> aggregation : Arrays.asList(p50, p99, p0)) {
+                aggregation.aggregateDouble(values[i]);
+            }
+        }
+        Arrays.sort(values);
+        assertRelative(values[values.length / 2], p50.getAggregated(), 0.01);
+        assertRelative(values[(int) (0.99 * (values.length - 1))], p99.getAggregated(), 0.01);
+        assertRelative(values[0], p0.getAggregated(), 0.01);
+    }
+
+    @Test
+    public void quantileMerged() {
+        MergeableDoubleAggregation<Integer> all = Aggregations.quantile(0.95);
+        MergeableDoubleAggregation<Integer> even = Aggregations.quantile(0.95);
+        MergeableDoubleAggregation<Integer> odd = ClonerUtil.clone(Aggregations.<Integer>quantile(0.95));
+        for (int i = 0; i <= 1000; i++) {
+            all.aggregate(i);
+            (i % 2 == 0 ? even : odd).aggregate(i);
+        }
+        even.merge(odd);
+        Assert.assertEquals(all.getAggregated(), even.getAggregated(), 0.0);
+        assertRelative(950, all.getAggregated(), 0.01);
+    }
+
+    @Test
+    public void quantileOfWideRange() {
+        MergeableDoubleAggregation<Double> max = Aggregations.quantile(1);
+        MergeableDoubleAggregation<Double> min = Aggregations.quantile(0);
+        for (int exponent = 300; exponent >= -300; exponent--) {
+            max.aggregateDouble(Math.pow(10, exponent));
+            min.aggregateDouble(Math.pow(10, exponent));
+        }
+        max.aggregateDouble(Double.POSITIVE_INFINITY);
+        // the buckets of the smallest values are collapsed, the biggest values keep their accuracy
+        assertRelative(1e300, max.getAggregated(), 0.01);
+        Assert.assertTrue(min.getAggregated() > 1e-300);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void quantileMergedWithOtherQuantile() {
+        Aggregations.<Double>quantile(0.5).merge(Aggregations.quantile(0.9));
+    }
+
+    @Test
+    public void sumAvgMaxMin_merge() {
+        List<MergeableDoubleAggregation<Double>> all = Arrays.asList(
+                Aggregations.sum(), Aggregations.avg(), Aggregations.max(), Aggregations.min());
+        List<MergeableDoubleAggregation<Double>> firsts = Arrays.asList(
+                Aggregations.sum(), Aggregations.avg(), Aggregations.max(), Aggregations.min());
+        List<MergeableDoubleAggregation<Double>> seconds = Arrays.asList(
+                Aggregations.sum(), Aggregations.avg(), Aggregations.max(), Aggregations.min());
+        for (int i = 0; i < all.size(); i++) {
+            for (int value = -5; value < 10; value++) {
+                all.get(i).aggregateDouble(value);
+                (value < 3 ? firsts : seconds).get(i).aggregateDouble(value);
+            }
+            firsts.get(i).merge(seconds.get(i));
+            Assert.assertEquals(all.get(i).getAggregated(), firsts.get(i).getAggregated(), 0.0);
+
+            // merging an empty aggregation changes nothing
+            MergeableDoubleAggregation<Double> empty = ClonerUtil.clone(all.get(i));
+            empty.reset();
+            Double before = seconds.get(i).getAggregated();
+            seconds.get(i).merge(empty);
+            Assert.assertEquals(before, seconds.get(i).getAggregated());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sum_mergeOtherKind() {
+        Aggregations.<Double>sum().merge(Aggregations.avg());
+    }
+
+    @Test
+    public void distinctCount() {
+        MergeableAggregation<String> distinct = Aggregations.distinctCount();
+        MergeableAggregation<String> first = Aggregations.distinctCount();
+        MergeableAggregation<String> second = ClonerUtil.clone(Aggregations.<String>distinctCount());
+        Assert.assertNull(distinct.getAggregated());
+        Assert.assertEquals("distinctCount", distinct.getIdentifier());
+
+        for (int i = 0; i < 10; i++) {
+            distinct.aggregate("part" + i % 5);
+        }
+        Assert.assertEquals(5, distinct.getAggregated(), DELTA);
+
+        distinct.reset();
+        for (int i = 0; i < 200_000; i++) {
+            // every part is aggregated twice
+            String part = "part" + i / 2;
+            distinct.aggregate(part);
+            (i < 100_000 ? first : second).aggregate(part);
+        }
+        assertRelative(100_000, distinct.getAggregated(), 0.03);
+        first.merge(second);
+        Assert.assertEquals(distinct.getAggregated(), first.getAggregated(), 0.0);
+    }
+
+    @Test
+    public void variance() {
+        MergeableDoubleAggregation<Double> variance = Aggregations.variance();
+        MergeableDoubleAggregation<Double> stddev = Aggregations.stddev();
+        MergeableDoubleAggregation<Double> first = Aggregations.variance();
+        MergeableDoubleAggregation<Double> second = ClonerUtil.clone(Aggregations.<Double>variance());
+        Assert.assertNull(variance.getAggregated());
+        Assert.assertEquals("stddev", stddev.getIdentifier());
+
+        // a big offset, that would cancel out with the naive sum of squares
+        double[] values = {1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16};
+        for (int i = 0; i < values.length; i++) {
+            variance.aggregateDouble(values[i]);
+            stddev.aggregateDouble(values[i]);
+            (i < 1 ? first : second).aggregateDouble(values[i]);
+        }
+        Assert.assertEquals(30.0, variance.getAggregated(), DELTA);
+        Assert.assertEquals(Math.sqrt(30.0), stddev.getAggregated(), DELTA);
+        first.merge(second);
+        Assert.assertEquals(30.0, first.getAggregated(), DELTA);
+
+        variance.reset();
+        variance.aggregate(5D);
+        Assert.assertEquals(0.0, variance.getAggregated(), DELTA);
+    }
+
+    private static void assertRelative(double expected, double actual, double relativeError) {
+        Assert.assertEquals(expected, actual, Math.abs(expected) * relativeError);
+    }
+}
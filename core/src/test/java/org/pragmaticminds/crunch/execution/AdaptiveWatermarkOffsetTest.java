@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveWatermarkOffsetTest {
+
+    @Test
+    public void shrinksForRecordsInOrder() {
+        AdaptiveWatermarkOffset offset = new AdaptiveWatermarkOffset(100L, 0.99, 10);
+        assertEquals(100L, offset.getOffsetMs());
+
+        for (long timestamp = 0; timestamp < 10; timestamp++) {
+            offset.observe("a", timestamp);
+        }
+
+        assertEquals(0L, offset.getOffsetMs());
+        assertTrue(offset.isInOrder());
+    }
+
+    @Test
+    public void widensImmediately() {
+        AdaptiveWatermarkOffset offset = new AdaptiveWatermarkOffset(100L, 0.99, 10);
+        for (long timestamp = 0; timestamp < 10; timestamp++) {
+            offset.observe("a", timestamp);
+        }
+
+        offset.observe("a", 50L);
+        offset.observe("a", 20L);
+
+        assertEquals(30L, offset.getOffsetMs());
+        assertFalse(offset.isInOrder());
+    }
+
+    @Test
+    public void isLimitedByTheMaximum() {
+        AdaptiveWatermarkOffset offset = new AdaptiveWatermarkOffset(100L, 0.99, 10);
+        for (long timestamp = 0; timestamp < 10; timestamp++) {
+            offset.observe("a", timestamp);
+        }
+
+        offset.observe("a", 1000L);
+        offset.observe("a", 0L);
+
+        assertEquals(100L, offset.getOffsetMs());
+    }
+
+    @Test
+    public void usesThePercentileOfTheRegressions() {
+        AdaptiveWatermarkOffset offset = new AdaptiveWatermarkOffset(100L, 0.5, 10);
+        long timestamp = 0;
+        for (int i = 0; i < 5; i++) {
+            // regression of 10 for every second record
+            offset.observe("a", timestamp + 10);
+            offset.observe("a", timestamp);
+            timestamp += 20;
+        }
+
+        assertEquals(0L, offset.getOffsetMs());
+        assertFalse(offset.isInOrder());
+    }
+
+    @Test
+    public void unknownSourceUsesTheMaximum() {
+        AdaptiveWatermarkOffset offset = new AdaptiveWatermarkOffset(100L, 0.99, 10);
+        for (long timestamp = 0; timestamp < 10; timestamp++) {
+            offset.observe("a", timestamp);
+        }
+        assertTrue(offset.isInOrder());
+
+        offset.observe("b", 5L);
+
+        assertEquals(100L, offset.getOffsetMs());
+        assertFalse(offset.isInOrder());
+    }
+
+    @Test
+    public void skewedSourcesAreNotInOrder() {
+        AdaptiveWatermarkOffset offset = new AdaptiveWatermarkOffset(100L, 0.99, 10);
+        // each source alone is in order, but the clock of b is 50 ms behind the one of a
+        for (long timestamp = 0; timestamp < 20; timestamp++) {
+            offset.observe("a", 100L + timestamp);
+            offset.observe("b", 50L + timestamp);
+        }
+
+        assertFalse(offset.isInOrder());
+        assertEquals(50L, offset.getOffsetMs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPercentile() {
+        new AdaptiveWatermarkOffset(100L, 0.0, 10);
+    }
+}
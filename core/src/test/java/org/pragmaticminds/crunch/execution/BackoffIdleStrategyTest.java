@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BackoffIdleStrategyTest {
+
+    @Test
+    public void spinsThenYieldsThenParks() {
+        BackoffIdleStrategy strategy = new BackoffIdleStrategy(2, 2, 10, 50);
+
+        assertEquals(IdleStrategy.SPIN, strategy.idle(1));
+        assertEquals(IdleStrategy.SPIN, strategy.idle(2));
+        assertEquals(IdleStrategy.YIELD, strategy.idle(3));
+        assertEquals(IdleStrategy.YIELD, strategy.idle(4));
+        assertEquals(10, strategy.idle(5));
+        assertEquals(20, strategy.idle(6));
+        assertEquals(40, strategy.idle(7));
+        assertEquals(50, strategy.idle(8));
+        assertEquals(50, strategy.idle(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void busySpinAlwaysSpins() {
+        assertEquals(IdleStrategy.SPIN, IdleStrategy.busySpin().idle(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxParkLessThanMinPark_fails() {
+        new BackoffIdleStrategy(0, 0, 10, 5);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.execution;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.EvaluationFunction;
+import org.pragmaticminds.crunch.api.pipe.LambdaEvaluationFunction;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ChannelIndexTest {
+
+    @Test
+    public void select() {
+        List<EvaluationFunction<String>> functions = Arrays.asList(
+                function("a", "b"),
+                function("b"),
+                function("c"),
+                function()
+        );
+        ChannelIndex index = new ChannelIndex(functions);
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore();
+        boolean[] selected = new boolean[functions.size()];
+
+        store.put("b", 1L);
+        assertEquals(3, index.select(store.snapshot("test", 1L), selected));
+        assertArrayEquals(new boolean[]{true, true, false, true}, selected);
+
+        store.put("c", 1L);
+        assertEquals(2, index.select(store.snapshot("test", 2L), selected));
+        assertArrayEquals(new boolean[]{false, false, true, true}, selected);
+
+        store.put("d", 1L);
+        assertEquals(1, index.select(store.snapshot("test", 3L), selected));
+        assertArrayEquals(new boolean[]{false, false, false, true}, selected);
+    }
+
+    @Test
+    public void selectAllForOtherRecords() {
+        ChannelIndex index = new ChannelIndex(Arrays.asList(function("a"), function("b")));
+        boolean[] selected = new boolean[2];
+
+        assertEquals(2, index.select(new UntypedValues(), selected));
+        assertArrayEquals(new boolean[]{true, true}, selected);
+    }
+
+    private static EvaluationFunction<String> function(String... channels) {
+        return new LambdaEvaluationFunction<>(
+                context -> { /* not evaluated */ },
+                () -> new HashSet<>(channels.length == 0 ? Collections.emptyList() : Arrays.asList(channels))
+        );
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ChannelSlot;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CopyOnWriteChannelStoreTest {
+
+    @Test
+    public void snapshotIsNotAffectedByLaterUpdates() {
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore();
+        store.update(record(1L, "a", 1L));
+
+        MRecord first = store.snapshot("test", 1L);
+        store.update(record(2L, "a", 2L));
+        store.update(record(2L, "b", "string"));
+        MRecord second = store.snapshot("test", 2L);
+
+        assertEquals(1L, (long) first.getLong("a"));
+        assertNull(first.get("b"));
+        assertEquals(Arrays.asList("a"), first.getChannels());
+
+        assertEquals(2L, (long) second.getLong("a"));
+        assertEquals("string", second.getString("b"));
+        assertEquals(Arrays.asList("a", "b"), second.getChannels());
+        assertEquals("test", second.getSource());
+        assertEquals(2L, second.getTimestamp());
+    }
+
+    @Test
+    public void manyChannels() {
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore();
+        int channels = CopyOnWriteChannelStore.CHUNK_SIZE * 3 + 1;
+        for (int i = 0; i < channels; i++) {
+            store.put("channel" + i, (double) i);
+        }
+        MRecord first = store.snapshot("test", 1L);
+        store.put("channel" + (channels - 1), -1.0);
+        MRecord second = store.snapshot("test", 2L);
+
+        assertEquals(channels, store.size());
+        assertEquals(channels, first.getChannels().size());
+        for (int i = 0; i < channels; i++) {
+            assertEquals(i, first.getDouble("channel" + i), 0.0);
+        }
+        assertEquals(-1.0, second.getDouble("channel" + (channels - 1)), 0.0);
+        assertEquals(0.0, second.getDouble("channel0"), 0.0);
+    }
+
+    @Test
+    public void changedChannels() {
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore();
+        store.update(record(1L, "a", 1L));
+        store.update(record(1L, "b", 1L));
+        store.update(record(1L, "a", 2L));
+        CopyOnWriteChannelStore.Snapshot first = store.snapshot("test", 1L);
+        store.update(record(2L, "b", 2L));
+        CopyOnWriteChannelStore.Snapshot second = store.snapshot("test", 2L);
+        CopyOnWriteChannelStore.Snapshot third = store.snapshot("test", 3L);
+
+        assertEquals(Arrays.asList("a", "b"), first.getChangedChannels());
+        assertEquals(Arrays.asList("b"), second.getChangedChannels());
+        assertTrue(third.getChangedChannels().isEmpty());
+        assertEquals(Arrays.asList("a", "b"), third.getChannels());
+    }
+
+    @Test
+    public void columnarRecords_areMergedAndReadBySlot() {
+        ChannelSchema schema = new ChannelSchema();
+        ColumnarValues record = new ColumnarValues(schema, "test", 1L, "");
+        record.set("a", 1.5);
+        record.set("b", "string");
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore(schema);
+        store.update(record);
+        store.update(record(2L, "c", 3));
+
+        CopyOnWriteChannelStore.Snapshot snapshot = store.snapshot("test", 2L);
+
+        assertSame(schema, snapshot.getSchema());
+        assertTrue(snapshot.isPresent(schema.slotOf("a")));
+        assertEquals(1.5, snapshot.getDoubleAsPrimitive(schema.slotOf("a")), 0.0);
+        assertEquals(1.5, ChannelSlot.of("a").getAsDouble(snapshot), 0.0);
+        assertEquals("string", snapshot.getStringAt(schema.slotOf("b")));
+        assertEquals(3, snapshot.get("c"));
+        assertEquals(3L, snapshot.getLongAsPrimitive(schema.slotOf("c")));
+        assertEquals(Arrays.asList("a", "b", "c"), snapshot.getChannels());
+    }
+
+    @Test
+    public void nullValues_areKnownButNotPresent() {
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore();
+        store.update(record(1L, "a", null));
+        CopyOnWriteChannelStore.Snapshot snapshot = store.snapshot("test", 1L);
+
+        assertEquals(Arrays.asList("a"), snapshot.getChannels());
+        assertFalse(snapshot.isPresent(snapshot.getSchema().slotOf("a")));
+        assertNull(snapshot.get("a"));
+    }
+
+    @Test
+    public void serializable() {
+        CopyOnWriteChannelStore store = new CopyOnWriteChannelStore();
+        store.update(record(1L, "a", 1L));
+        MRecord clone = ClonerUtil.clone(store.snapshot("test", 1L));
+
+        assertEquals(1L, (long) clone.getLong("a"));
+    }
+
+    private static UntypedValues record(long timestamp, String channel, Object value) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(channel, value);
+        return new UntypedValues("test", timestamp, "", values);
+    }
+}
@@ -27,19 +27,40 @@ import org.pragmaticminds.crunch.api.pipe.EvaluationPipeline;
 import org.pragmaticminds.crunch.api.pipe.RecordHandler;
 import org.pragmaticminds.crunch.api.pipe.SubStream;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ChannelSlot;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.SlottedRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.windowed.TimeWindowedEvaluationFunction;
+import org.pragmaticminds.crunch.api.windowed.TimeWindows;
+import org.pragmaticminds.crunch.api.windowed.extractor.DefaultGenericEventGroupAggregationFinalizer;
+import org.pragmaticminds.crunch.api.windowed.extractor.GroupByExtractor;
+import org.pragmaticminds.crunch.api.windowed.extractor.aggregate.Aggregations;
+import org.pragmaticminds.crunch.events.GenericEvent;
 import org.pragmaticminds.crunch.events.GenericEventBuilder;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
+import static org.pragmaticminds.crunch.api.trigger.comparator.Suppliers.ChannelExtractors.doubleChannel;
 
 /**
  * "Integration" test to check {@link GraphFactory} and {@link CrunchExecutor}.
@@ -78,6 +99,10 @@ public class CrunchExecutorTest {
         // Ensure that two events have been reported
       // It shoudl only fire 1 event because timestamp increases 1 time
       Mockito.verify(sink, times(1)).handle(any());
+      // the metrics are updated by the stages
+      assertEquals(2L, crunchExecutor.getMetrics().getRecordsIn());
+      assertEquals(1L, crunchExecutor.getMetrics().getEvents());
+      assertFalse(crunchExecutor.getMetrics().getEvaluationCounts().isEmpty());
     }
 
     @Test
@@ -130,6 +155,352 @@ public class CrunchExecutorTest {
     assertEquals(3, TestRecordHandler.records.size());
   }
 
+  @Test
+  public void runBackfill() {
+    MRecordSource source = MRecordSources.of(VALUES_FACTORY.apply(123L),
+        VALUES_FACTORY.apply(124L), VALUES_FACTORY.apply(125L));
+    // Create Pipeline
+    EvaluationPipeline pipeline = createPipeline();
+    // Create Sink
+    EventSink sink = Mockito.mock(EventSink.class);
+    // Create the Executor
+    CrunchExecutor crunchExecutor = new CrunchExecutor(source, pipeline, sink, ExecutionMode.BACKFILL);
+    // Run the executor
+    crunchExecutor.run();
+
+    // All records are flushed at the end of the source
+    Mockito.verify(sink, times(3)).handle(any());
+  }
+
+  @Test
+  public void runBackfillOfOneWeek() {
+    // One record per minute for one week
+    List<MRecord> records = new ArrayList<>();
+    for (long minute = 0; minute < 7 * 24 * 60; minute++) {
+      records.add(VALUES_FACTORY.apply(minute * 60_000L));
+    }
+    MRecordSource source = MRecordSources.of(records);
+    // Create Sink
+    AtomicInteger counter = new AtomicInteger();
+    // Create the Executor
+    CrunchExecutor crunchExecutor = new CrunchExecutor(source, createPipeline(), event -> counter.incrementAndGet(),
+        ExecutionMode.BACKFILL);
+    // Run the executor
+    crunchExecutor.run();
+
+    assertEquals(records.size(), counter.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void backfillWithInfiniteSource() {
+    MRecordSource source = MRecordSources.of(MRecordSource.Kind.INFINITE, Collections.<MRecord>emptyList().iterator());
+    new CrunchExecutor(source, createPipeline(), NoOpSink.INSTANCE, ExecutionMode.BACKFILL);
+  }
+
+  @Test
+  public void contextIsReusedForAllRecords() {
+    MRecordSource source = MRecordSources.of(VALUES_FACTORY.apply(123L),
+        VALUES_FACTORY.apply(124L), VALUES_FACTORY.apply(125L));
+    ContextEvaluationFunction.contexts.clear();
+    ContextEvaluationFunction.caches.clear();
+    EvaluationPipeline pipeline = EvaluationPipeline.builder()
+        .withIdentifier("bsdf")
+        .withSubStream(
+            SubStream.builder()
+                .withIdentifier("asdf")
+                .withPredicate(x -> true)
+                .withEvaluationFunction(new ContextEvaluationFunction())
+                .build()
+        )
+        .build();
+    CrunchExecutor crunchExecutor = new CrunchExecutor(source, pipeline, NoOpSink.INSTANCE, ExecutionMode.BACKFILL);
+    crunchExecutor.run();
+
+    // one context and one cache for all records of the stage
+    assertEquals(1, ContextEvaluationFunction.contexts.size());
+    assertEquals(1, ContextEvaluationFunction.caches.size());
+  }
+
+  @Test
+  public void mergedColumnarRecordsAreReadBySlot() {
+    ChannelSchema schema = new ChannelSchema();
+    List<MRecord> records = new ArrayList<>();
+    for (long timestamp = 1; timestamp <= 3; timestamp++) {
+      ColumnarValues record = new ColumnarValues(schema, "test", timestamp, "");
+      record.setDouble(schema.register("value"), timestamp * 1.5);
+      records.add(record);
+    }
+    SlotEvaluationFunction.schemas.clear();
+    SlotEvaluationFunction.values.clear();
+    EvaluationPipeline pipeline = EvaluationPipeline.builder()
+        .withIdentifier("bsdf")
+        .withSubStream(
+            SubStream.builder()
+                .withIdentifier("asdf")
+                .withPredicate(x -> true)
+                .withEvaluationFunction(new SlotEvaluationFunction())
+                .build()
+        )
+        .build();
+    CrunchExecutor crunchExecutor = new CrunchExecutor(MRecordSources.of(records), pipeline, NoOpSink.INSTANCE,
+        ExecutionMode.BACKFILL);
+    crunchExecutor.run();
+
+    // the merged records share the schema of the incoming records and hold the values by slot
+    assertEquals(Collections.singleton(schema), SlotEvaluationFunction.schemas);
+    assertEquals(Arrays.asList(1.5, 3.0, 4.5), SlotEvaluationFunction.values);
+  }
+
+  @Test
+  public void runPartitioned() {
+    SourceOrderEvaluationFunction.timestamps.clear();
+    SourceOrderEvaluationFunction.lanes.clear();
+    // Create source with interleaved records from multiple sources
+    List<MRecord> records = new ArrayList<>();
+    for (long timestamp = 0; timestamp < 400; timestamp++) {
+      records.add(UntypedValues.builder()
+          .source("source" + (timestamp % 8))
+          .prefix("")
+          .timestamp(timestamp)
+          .values(Collections.singletonMap("test", "test"))
+          .build());
+    }
+    MRecordSource source = MRecordSources.of(records);
+    // Create Pipeline with 4 lanes
+    EvaluationPipeline pipeline = EvaluationPipeline.builder()
+        .withIdentifier("bsdf")
+        .withParallelism(4)
+        .withSubStream(
+            SubStream.builder()
+                .withIdentifier("asdf")
+                .withPredicate(x -> true)
+                .withEvaluationFunction(new SourceOrderEvaluationFunction())
+                .build()
+        )
+        .build();
+    // Create the Executor
+    CrunchExecutor crunchExecutor = new CrunchExecutor(source, pipeline, NoOpSink.INSTANCE);
+    // Run the executor
+    crunchExecutor.run();
+
+    // Assertions, all records of one source have to be evaluated in order
+    assertFalse(SourceOrderEvaluationFunction.timestamps.isEmpty());
+    for (List<Long> timestamps : SourceOrderEvaluationFunction.timestamps.values()) {
+      for (int i = 1; i < timestamps.size(); i++) {
+        assertTrue(timestamps.get(i - 1) < timestamps.get(i));
+      }
+    }
+    // all records of one source ran in one lane, sources of different partitions in different lanes
+    Map<String, Set<Object>> lanes = SourceOrderEvaluationFunction.lanes;
+    assertEquals(8, lanes.size());
+    for (String first : lanes.keySet()) {
+      assertEquals(1, lanes.get(first).size());
+      for (String second : lanes.keySet()) {
+        boolean samePartition = GraphFactory.partitionOf(records.get(Integer.parseInt(first.substring(6))), 4)
+            == GraphFactory.partitionOf(records.get(Integer.parseInt(second.substring(6))), 4);
+        assertEquals(samePartition, lanes.get(first).equals(lanes.get(second)));
+      }
+    }
+    assertTrue(new HashSet<>(lanes.values()).size() > 1);
+  }
+
+  @Test
+  public void runIncremental() {
+    // each record writes only one of the channels
+    List<MRecord> records = new ArrayList<>();
+    String[] channels = {"a", "b", "b", "a"};
+    for (int timestamp = 0; timestamp < channels.length; timestamp++) {
+      records.add(UntypedValues.builder()
+          .source("test")
+          .prefix("")
+          .timestamp(timestamp)
+          .values(Collections.singletonMap(channels[timestamp], timestamp))
+          .build());
+    }
+    CountingEvaluationFunction.counts.clear();
+    EvaluationPipeline pipeline = EvaluationPipeline.builder()
+        .withIdentifier("bsdf")
+        .withSubStream(
+            SubStream.builder()
+                .withIdentifier("asdf")
+                .withPredicate(x -> true)
+                .withIncrementalEvaluation(true)
+                .withEvaluationFunction(new CountingEvaluationFunction("a", false))
+                .withEvaluationFunction(new CountingEvaluationFunction("b", false))
+                .withEvaluationFunction(new CountingEvaluationFunction("a", true))
+                .build()
+        )
+        .build();
+    CrunchExecutor crunchExecutor = new CrunchExecutor(MRecordSources.of(records), pipeline, NoOpSink.INSTANCE,
+        ExecutionMode.BACKFILL);
+    crunchExecutor.run();
+
+    // functions are only evaluated if their channel was written, except they require every record
+    assertEquals(2, CountingEvaluationFunction.counts.get("a").get());
+    assertEquals(2, CountingEvaluationFunction.counts.get("b").get());
+    assertEquals(4, CountingEvaluationFunction.counts.get("a-every").get());
+    assertEquals(4L, crunchExecutor.getMetrics().getSkippedEvaluations());
+    // functions of the same class are measured separately
+    Map<String, Long> evaluations = crunchExecutor.getMetrics().getEvaluationCounts();
+    assertEquals(3, evaluations.size());
+    assertEquals(Long.valueOf(2L), evaluations.get(
+        PipelineMetrics.functionName("asdf", 0, CountingEvaluationFunction.class)));
+    assertEquals(Long.valueOf(2L), evaluations.get(
+        PipelineMetrics.functionName("asdf", 1, CountingEvaluationFunction.class)));
+    assertEquals(Long.valueOf(4L), evaluations.get(
+        PipelineMetrics.functionName("asdf", 2, CountingEvaluationFunction.class)));
+  }
+
+  @Test
+  public void runTimeWindowedBackfill() {
+    List<MRecord> records = new ArrayList<>();
+    for (long timestamp = 0; timestamp < 100; timestamp++) {
+      records.add(UntypedValues.builder()
+          .source("test")
+          .prefix("")
+          .timestamp(timestamp)
+          .values(Collections.singletonMap("value", 1.0))
+          .build());
+    }
+    EvaluationPipeline<GenericEvent> pipeline = EvaluationPipeline.<GenericEvent>builder()
+        .withIdentifier("bsdf")
+        .withSubStream(
+            SubStream.<GenericEvent>builder()
+                .withIdentifier("asdf")
+                .withPredicate(x -> true)
+                .withEvaluationFunction(TimeWindowedEvaluationFunction.<GenericEvent>builder()
+                    .timeWindow(TimeWindows.tumbling(10))
+                    .extractor(GroupByExtractor.<GenericEvent>builder()
+                        .aggregate(Aggregations.sum(), doubleChannel("value"), "sum")
+                        .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                        .build())
+                    .build())
+                .build()
+        )
+        .build();
+    List<GenericEvent> events = new CopyOnWriteArrayList<>();
+    CrunchExecutor crunchExecutor = new CrunchExecutor(MRecordSources.of(records), pipeline,
+        event -> events.add((GenericEvent) event), ExecutionMode.BACKFILL);
+    crunchExecutor.run();
+
+    // the last window is finished by the end of the source
+    assertEquals(10, events.size());
+    for (GenericEvent event : events) {
+      assertEquals(10.0, event.getParameter("sum").getAsDouble(), 0.0001);
+    }
+    assertEquals(100L, events.get(9).getTimestamp());
+  }
+
+  @Test
+  public void idleWatermarkWaitsForTheAllowedLateness() {
+    SubStream<GenericEvent> subStream = createStallingSubStream(1_000L);
+    List<GenericEvent> events = runStallingSource(subStream);
+
+    // the backlog after the stall is still aggregated in its window
+    assertEquals(1, events.size());
+    assertEquals(10.0, events.get(0).getParameter("sum").getAsDouble(), 0.0001);
+    assertEquals(0L, subStream.getLateRecords().getTotal());
+  }
+
+  @Test
+  public void recordsOfWindowsFinishedByTheIdleWatermarkAreLate() {
+    SubStream<GenericEvent> subStream = createStallingSubStream(0L);
+    List<GenericEvent> events = runStallingSource(subStream);
+
+    // the window is finished while the source stalls, so the backlog is late, the record 40 is held back by the
+    // merge until the next record of its source arrives, so it is late as well
+    assertEquals(1, events.size());
+    assertEquals(4.0, events.get(0).getParameter("sum").getAsDouble(), 0.0001);
+    assertEquals(6L, subStream.getLateRecords().getTotal());
+  }
+
+  private SubStream<GenericEvent> createStallingSubStream(long allowedLatenessMs) {
+    return SubStream.<GenericEvent>builder()
+        .withIdentifier("asdf")
+        .withPredicate(x -> true)
+        .withSortWindow(100L)
+        .withAllowedLateness(allowedLatenessMs)
+        .withWatermarkInterval(20L)
+        .withEvaluationFunction(TimeWindowedEvaluationFunction.<GenericEvent>builder()
+            .timeWindow(TimeWindows.tumbling(100))
+            .extractor(GroupByExtractor.<GenericEvent>builder()
+                .aggregate(Aggregations.sum(), doubleChannel("value"), "sum")
+                .finalizer(new DefaultGenericEventGroupAggregationFinalizer())
+                .build())
+            .build())
+        .build();
+  }
+
+  /**
+   * Runs a source, that stalls for 600 ms after the records 0 to 40 of the window [0, 100) and then delivers the
+   * backlog 50 to 90 and the records 1000 and 1001, as the merge emits a record when the next one arrives, the record
+   * 1000 finishes the window.
+   */
+  private List<GenericEvent> runStallingSource(SubStream<GenericEvent> subStream) {
+    List<MRecord> records = new ArrayList<>();
+    for (long timestamp = 0; timestamp < 100; timestamp += 10) {
+      records.add(UntypedValues.builder()
+          .source("test")
+          .prefix("")
+          .timestamp(timestamp)
+          .values(Collections.singletonMap("value", 1.0))
+          .build());
+    }
+    for (long timestamp = 1_000L; timestamp <= 1_001L; timestamp++) {
+      records.add(UntypedValues.builder()
+          .source("test")
+          .prefix("")
+          .timestamp(timestamp)
+          .values(Collections.singletonMap("value", 0.0))
+          .build());
+    }
+    MRecordSource source = new AbstractMRecordSource(MRecordSource.Kind.FINITE) {
+      private int next = 0;
+      private long stallUntil = Long.MAX_VALUE;
+
+      @Override
+      public MRecord get() {
+        return records.get(next++);
+      }
+
+      @Override
+      public boolean hasRemaining() {
+        return next < records.size();
+      }
+
+      @Override
+      public int drainTo(Collection<MRecord> target, int maxRecords) {
+        if (next == 5) {
+          if (stallUntil == Long.MAX_VALUE) {
+            stallUntil = System.currentTimeMillis() + 600L;
+          }
+          if (System.currentTimeMillis() < stallUntil) {
+            return 0;
+          }
+        }
+        target.add(get());
+        return 1;
+      }
+    };
+    EvaluationPipeline<GenericEvent> pipeline = EvaluationPipeline.<GenericEvent>builder()
+        .withIdentifier("bsdf")
+        .withSubStream(subStream)
+        .build();
+    List<GenericEvent> events = new CopyOnWriteArrayList<>();
+    new CrunchExecutor(source, pipeline, event -> events.add((GenericEvent) event)).run();
+    return events;
+  }
+
+  @Test
+  public void partitionOf() {
+    UntypedValues values = VALUES_FACTORY.apply(123L);
+    int lane = GraphFactory.partitionOf(values, 4);
+
+    assertTrue(lane >= 0 && lane < 4);
+    assertEquals(lane, GraphFactory.partitionOf(VALUES_FACTORY.apply(124L), 4));
+    assertEquals(0, GraphFactory.partitionOf(new UntypedValues(), 4));
+  }
+
   private EvaluationPipeline createPipeline() {
         return EvaluationPipeline.builder()
                 .withIdentifier("bsdf")
@@ -197,6 +568,95 @@ public class CrunchExecutorTest {
         }
     }
 
+  private static class SourceOrderEvaluationFunction implements EvaluationFunction {
+
+    public static Map<String, List<Long>> timestamps = new ConcurrentHashMap<>();
+    /** every lane evaluates its own clone of the function, so the instance identifies the lane */
+    public static Map<String, Set<Object>> lanes = new ConcurrentHashMap<>();
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+      MRecord record = ctx.get();
+      timestamps.computeIfAbsent(record.getSource(), key -> new CopyOnWriteArrayList<>())
+          .add(record.getTimestamp());
+      lanes.computeIfAbsent(record.getSource(), key -> Collections.synchronizedSet(
+          Collections.newSetFromMap(new IdentityHashMap<>()))).add(this);
+    }
+
+    @Override
+    public Set<String> getChannelIdentifiers() {
+      return Collections.singleton("test");
+    }
+  }
+
+  private static class ContextEvaluationFunction implements EvaluationFunction {
+
+    public static Set<Object> contexts = Collections.newSetFromMap(new IdentityHashMap<>());
+    public static Set<Object> caches = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+      contexts.add(ctx);
+      caches.add(ctx.getEvaluationCache());
+    }
+
+    @Override
+    public Set<String> getChannelIdentifiers() {
+      return Collections.singleton("test");
+    }
+  }
+
+  private static class SlotEvaluationFunction implements EvaluationFunction {
+
+    public static Set<ChannelSchema> schemas = Collections.newSetFromMap(new IdentityHashMap<>());
+    public static List<Double> values = new CopyOnWriteArrayList<>();
+
+    private final ChannelSlot slot = ChannelSlot.of("value");
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+      SlottedRecord record = (SlottedRecord) ctx.get();
+      schemas.add(record.getSchema());
+      int index = slot.slotIn(record.getSchema());
+      assertTrue(record.isPresent(index));
+      values.add(record.getDoubleAsPrimitive(index));
+    }
+
+    @Override
+    public Set<String> getChannelIdentifiers() {
+      return Collections.singleton("value");
+    }
+  }
+
+  private static class CountingEvaluationFunction implements EvaluationFunction {
+
+    public static Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final boolean everyRecord;
+
+    private CountingEvaluationFunction(String channel, boolean everyRecord) {
+      this.channel = channel;
+      this.everyRecord = everyRecord;
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+      counts.computeIfAbsent(everyRecord ? channel + "-every" : channel, key -> new AtomicInteger())
+          .incrementAndGet();
+    }
+
+    @Override
+    public Set<String> getChannelIdentifiers() {
+      return Collections.singleton(channel);
+    }
+
+    @Override
+    public boolean requiresEveryRecord() {
+      return everyRecord;
+    }
+  }
+
   private static class TestRecordHandler implements RecordHandler {
 
     public static List<MRecord> records = new ArrayList<>();
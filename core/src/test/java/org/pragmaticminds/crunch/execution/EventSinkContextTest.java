@@ -26,6 +26,7 @@ import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 import org.pragmaticminds.crunch.events.GenericEvent;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +60,17 @@ public class EventSinkContextTest {
         Mockito.verify(mock).handle(ArgumentMatchers.eq(event));
     }
 
+    @Test
+    public void evictedKeys_areCountedInTheMetrics() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        EventSinkContext<GenericEvent> context = new EventSinkContext<>(new InnerEventSink(), metrics);
+
+        context.evictedKeys(2);
+        context.evictedKeys(3);
+
+        assertEquals(5L, metrics.getEvictedKeys());
+    }
+
     @Test
     public void serializable() {
         EventSinkContext<GenericEvent> context = new EventSinkContext<>(new InnerEventSink());
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.LateRecords;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventTimeSortGraphFlowTest {
+
+    @Test
+    public void sortsByEventTimeAndFlushesAtTheEnd() throws ExecutionException, InterruptedException {
+        ActorSystem system = ActorSystem.create("eventTimeSortGraphFlowTest");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+
+        List<MRecord> result = Source.from(Arrays.<MRecord>asList(
+                record(10L),
+                record(30L),
+                record(20L),
+                record(100L),
+                record(90L),
+                // older than the watermark, is discarded
+                record(5L),
+                record(110L)
+        ))
+                .via(new EventTimeSortGraphFlow<>(50L))
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get();
+
+        assertEquals(
+                Arrays.asList(10L, 20L, 30L, 90L, 100L, 110L),
+                result.stream().map(MRecord::getTimestamp).collect(Collectors.toList())
+        );
+        system.terminate();
+    }
+
+    @Test
+    public void passesLateRecordsToTheLateRecords() throws ExecutionException, InterruptedException {
+        ActorSystem system = ActorSystem.create("eventTimeSortGraphFlowTest");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+        List<MRecord> late = Collections.synchronizedList(new ArrayList<>());
+        LateRecords lateRecords = new LateRecords(late::add);
+
+        List<MRecord> result = Source.from(Arrays.<MRecord>asList(
+                record(10L),
+                record(30L),
+                record(20L),
+                record(100L),
+                // older than the last emitted record, but within the allowed lateness
+                record(25L),
+                // too late
+                record(5L),
+                record(110L)
+        ))
+                .via(new EventTimeSortGraphFlow<>(50L, new SortGraphFlowTest.PrimitiveOnlySortFunction(), 10L, lateRecords))
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get();
+
+        assertEquals(
+                Arrays.asList(10L, 20L, 30L, 25L, 100L, 110L),
+                result.stream().map(MRecord::getTimestamp).collect(Collectors.toList())
+        );
+        assertEquals(1, late.size());
+        assertEquals(5L, (long) late.get(0).getTimestamp());
+        assertEquals(1L, lateRecords.getCount("test"));
+        assertEquals(0L, lateRecords.getCount("other"));
+        system.terminate();
+    }
+
+    private static UntypedValues record(long timestamp) {
+        return new UntypedValues("test", timestamp, "", Collections.singletonMap("test", timestamp));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LongHeapSortFunctionTest {
+
+    @Test
+    public void sorting() {
+        LongHeapSortFunction<String> function = new LongHeapSortFunction<>();
+        LongHeapSortFunction<String> clone = ClonerUtil.clone(function);
+        innerSorting(function);
+        innerSorting(clone);
+    }
+
+    @Test
+    public void equalTimestampsKeepTheirOrder() {
+        LongHeapSortFunction<String> function = new LongHeapSortFunction<>(1);
+        function.process(20L, 0L, "test3");
+        function.process(10L, 0L, "test1");
+        function.process(20L, 0L, "test4");
+        function.process(10L, 0L, "test2");
+
+        List<String> results = new ArrayList<>();
+        assertEquals(4, function.drainTo(20L, results));
+        assertEquals(Arrays.asList("test1", "test2", "test3", "test4"), results);
+        assertTrue(function.isEmpty());
+    }
+
+    @Test
+    public void randomOrder() {
+        LongHeapSortFunction<Long> function = new LongHeapSortFunction<>(4);
+        Random random = new Random(42L);
+        for (int i = 0; i < 10_000; i++) {
+            Long timestamp = (long) random.nextInt(1_000_000);
+            function.process(timestamp.longValue(), Long.MIN_VALUE, timestamp);
+        }
+        assertEquals(10_000, function.size());
+
+        List<Long> results = new ArrayList<>();
+        function.drainTo(500_000L, results);
+        function.drainTo(Long.MAX_VALUE, results);
+
+        assertEquals(10_000, results.size());
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1) <= results.get(i));
+        }
+        assertEquals(Long.MAX_VALUE, function.peekTimestamp());
+    }
+
+    private void innerSorting(LongHeapSortFunction<String> function) {
+        function.process(60L, 10L, "test5");
+        function.process(0L, 10L, "test6"); // should be discarded
+        function.process(25L, 10L, "test3");
+        function.process(55L, 10L, "test4");
+        function.process(15L, 10L, "test1");
+        function.process(20L, 10L, "test2");
+
+        // should ignore "test4" and "test5"
+        Collection<String> strings = function.onTimer(50L);
+
+        assertEquals(3, strings.size());
+        assertEquals(Arrays.asList("test1", "test2", "test3"), strings);
+        assertEquals(55L, function.peekTimestamp());
+    }
+}
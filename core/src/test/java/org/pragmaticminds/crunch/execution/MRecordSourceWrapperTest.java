@@ -24,18 +24,27 @@ import akka.NotUsed;
 import akka.actor.ActorSystem;
 import akka.japi.function.Procedure;
 import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
 import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.pragmaticminds.crunch.metrics.PipelineMetrics;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author julian
@@ -128,6 +137,116 @@ public class MRecordSourceWrapperTest {
         system.terminate();
     }
 
+    @Test
+    public void emitsAllRecordsFetchedInBatches() throws ExecutionException, InterruptedException {
+        List<MRecord> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            records.add(UntypedValues.builder().source("test").timestamp(i).prefix("").values(new HashMap<>()).build());
+        }
+        AtomicInteger fetches = new AtomicInteger();
+        MRecordSource delegate = MRecordSources.of(records);
+        MRecordSource source = new AbstractMRecordSource(MRecordSource.Kind.FINITE) {
+            @Override
+            public MRecord get() {
+                return delegate.get();
+            }
+
+            @Override
+            public boolean hasRemaining() {
+                return delegate.hasRemaining();
+            }
+
+            @Override
+            public int drainTo(Collection<MRecord> target, int maxRecords) {
+                fetches.incrementAndGet();
+                return delegate.drainTo(target, maxRecords);
+            }
+        };
+        PipelineMetrics metrics = new PipelineMetrics();
+        MRecordSourceWrapper wrapper = new MRecordSourceWrapper(source, metrics, 4);
+
+        ActorSystem system = ActorSystem.create("testExecutor");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+
+        List<MRecord> result = Source.fromGraph(wrapper)
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get();
+
+        assertEquals(records, result);
+        // 10 records in batches of 4
+        assertEquals(3, fetches.get());
+        assertEquals(10, metrics.getRecordsIn());
+        system.terminate();
+    }
+
+    @Test
+    public void parksWhileSourceIsIdle() throws ExecutionException, InterruptedException {
+        long availableAt = System.currentTimeMillis() + 200;
+        AtomicInteger fetches = new AtomicInteger();
+        MRecordSource source = new AbstractMRecordSource(MRecordSource.Kind.FINITE) {
+            private boolean delivered = false;
+
+            @Override
+            public MRecord get() {
+                return null;
+            }
+
+            @Override
+            public boolean hasRemaining() {
+                return !delivered;
+            }
+
+            @Override
+            public int drainTo(Collection<MRecord> target, int maxRecords) {
+                fetches.incrementAndGet();
+                if (System.currentTimeMillis() < availableAt) {
+                    return 0;
+                }
+                delivered = true;
+                target.add(DUMMY_RECORD);
+                return 1;
+            }
+        };
+        // park for 20 ms on every idle fetch
+        IdleStrategy idleStrategy = idleCount -> TimeUnit.MILLISECONDS.toNanos(20);
+        MRecordSourceWrapper wrapper = new MRecordSourceWrapper(source, new PipelineMetrics(), 4, idleStrategy);
+
+        ActorSystem system = ActorSystem.create("testExecutor");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+
+        List<MRecord> result = Source.fromGraph(wrapper)
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get();
+
+        assertEquals(1, result.size());
+        // a spinning stage would ask the source millions of times in 200 ms
+        assertTrue(fetches.get() <= 12);
+        system.terminate();
+    }
+
+    @Test
+    public void completesIfOnlyNullsAreRemaining() throws Exception {
+        List<MRecord> records = new ArrayList<>();
+        records.add(DUMMY_RECORD);
+        // e.g. trailing blank lines of a file
+        records.add(null);
+        records.add(null);
+        MRecordSourceWrapper wrapper = new MRecordSourceWrapper(MRecordSources.of(records));
+
+        ActorSystem system = ActorSystem.create("testExecutor");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+
+        List<MRecord> result = Source.fromGraph(wrapper)
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, result.size());
+        system.terminate();
+    }
+
     /**
      * Returns a source that returns 100 null values and then one dummy record.
      *
@@ -145,7 +264,8 @@ public class MRecordSourceWrapperTest {
 
             @Override
             public boolean hasRemaining() {
-                return (counter < 100);
+                // the dummy record is still remaining after the null values
+                return (counter <= 100);
             }
 
             @Override
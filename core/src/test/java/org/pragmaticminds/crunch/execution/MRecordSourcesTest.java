@@ -23,8 +23,10 @@ import org.junit.Test;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -66,6 +68,19 @@ public class MRecordSourcesTest {
         assertEquals(MRecordSource.Kind.FINITE, source.getKind());
     }
 
+    @Test
+    public void drainTo_respectsMaxRecords() {
+        MRecordSource source = MRecordSources.of(new UntypedValues(), new UntypedValues(), new UntypedValues());
+        List<MRecord> batch = new ArrayList<>();
+
+        assertEquals(2, source.drainTo(batch, 2));
+        assertEquals(2, batch.size());
+        assertEquals(1, source.drainTo(batch, 2));
+        assertEquals(3, batch.size());
+        assertFalse(source.hasRemaining());
+        assertEquals(0, source.drainTo(batch, 2));
+    }
+
     /**
      * Asserts that the source has exactly two elements.
      *
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+
+public class MergeGraphFlowTest {
+
+    @Test
+    public void emitsMergedStateOnNewTimestamp() throws ExecutionException, InterruptedException {
+        ActorSystem system = ActorSystem.create("mergeGraphFlowTest");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+
+        List<MRecord> result = Source.from(Arrays.<MRecord>asList(
+                record(1L, "a", 1L),
+                record(1L, "b", 2L),
+                record(2L, "a", 3L),
+                record(3L, "c", 4L)
+        ))
+                .via(new MergeGraphFlow())
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get();
+
+        // the state at 1 and the state at 2
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getTimestamp());
+        assertEquals(1L, (long) result.get(0).getLong("a"));
+        assertEquals(2L, (long) result.get(0).getLong("b"));
+        assertEquals(2L, result.get(1).getTimestamp());
+        assertEquals(3L, (long) result.get(1).getLong("a"));
+        assertEquals(2L, (long) result.get(1).getLong("b"));
+        system.terminate();
+    }
+
+    @Test
+    public void mergesPerSource() throws ExecutionException, InterruptedException {
+        ActorSystem system = ActorSystem.create("mergeGraphFlowTest");
+        ActorMaterializer materializer = ActorMaterializer.create(system);
+
+        List<MRecord> result = Source.from(Arrays.<MRecord>asList(
+                record("source1", 1L, "a", 1L),
+                record("source2", 2L, "b", 2L),
+                record("source1", 3L, "a", 3L),
+                record("source2", 4L, "b", 4L)
+        ))
+                .via(new MergeGraphFlow())
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get();
+
+        // one state for each source, the channels do not bleed into each other
+        assertEquals(2, result.size());
+        assertEquals("source1", result.get(0).getSource());
+        assertEquals(1L, result.get(0).getTimestamp());
+        assertEquals(Collections.singletonList("a"), result.get(0).getChannels());
+        assertEquals("source2", result.get(1).getSource());
+        assertEquals(2L, result.get(1).getTimestamp());
+        assertEquals(Collections.singletonList("b"), result.get(1).getChannels());
+        system.terminate();
+    }
+
+    private static UntypedValues record(long timestamp, String channel, Object value) {
+        return record("test", timestamp, channel, value);
+    }
+
+    private static UntypedValues record(String source, long timestamp, String channel, Object value) {
+        return new UntypedValues(source, timestamp, "", Collections.singletonMap(channel, value));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.execution;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.SinkQueueWithCancel;
+import akka.stream.javadsl.Source;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.LateRecords;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortGraphFlowTest {
+    private ActorSystem system;
+    private ActorMaterializer materializer;
+
+    @Before
+    public void setUp() {
+        system = ActorSystem.create("sortGraphFlowTest");
+        materializer = ActorMaterializer.create(system);
+    }
+
+    @After
+    public void tearDown() {
+        system.terminate();
+    }
+
+    @Test
+    public void passesRecordsInOrderThrough() throws Exception {
+        List<MRecord> records = new ArrayList<>();
+        for (long timestamp = 0; timestamp < 1_000; timestamp++) {
+            records.add(record("test", timestamp));
+        }
+        // the sort window is far longer than the test, so the records have to be passed through
+        SinkQueueWithCancel<MRecord> probe = run(records, new SortGraphFlow<>(
+                60_000L,
+                new PrimitiveOnlySortFunction(),
+                0L,
+                new LateRecords(null),
+                new AdaptiveWatermarkOffset(60_000L, 0.99, 16)
+        ));
+
+        for (long timestamp = 0; timestamp < 1_000; timestamp++) {
+            assertEquals(timestamp, next(probe).getTimestamp());
+        }
+    }
+
+    @Test
+    public void sortsSkewedSources() throws Exception {
+        // each source alone is in order, but the clock of b is 50 ms behind the one of a
+        List<MRecord> records = new ArrayList<>();
+        for (long timestamp = 0; timestamp < 100; timestamp++) {
+            records.add(record("b", 950L + timestamp));
+            records.add(record("a", 1_000L + timestamp));
+        }
+        List<MRecord> late = new CopyOnWriteArrayList<>();
+        SinkQueueWithCancel<MRecord> probe = run(records, new SortGraphFlow<>(
+                200L,
+                new PrimitiveOnlySortFunction(),
+                0L,
+                new LateRecords(late::add),
+                new AdaptiveWatermarkOffset(200L, 0.99, 16)
+        ));
+
+        long lastTimestamp = Long.MIN_VALUE;
+        for (int i = 0; i < records.size(); i++) {
+            long timestamp = next(probe).getTimestamp();
+            assertTrue(timestamp + " after " + lastTimestamp, timestamp >= lastTimestamp);
+            lastTimestamp = timestamp;
+        }
+        assertEquals(Collections.emptyList(), late);
+    }
+
+    /**
+     * Runs the records through the flow, the upstream is kept open, so the flow can not flush its buffer on
+     * completion.
+     */
+    private SinkQueueWithCancel<MRecord> run(List<MRecord> records, SortGraphFlow<MRecord> flow) {
+        return Source.from(records)
+                .concat(Source.<MRecord>maybe())
+                .via(flow)
+                .runWith(Sink.queue(), materializer);
+    }
+
+    private static MRecord next(SinkQueueWithCancel<MRecord> probe) throws Exception {
+        Optional<MRecord> record = probe.pull().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertTrue("the stream completed", record.isPresent());
+        return record.get();
+    }
+
+    /** Fails if a stage uses the boxed methods instead of the primitive ones */
+    static class PrimitiveOnlySortFunction extends LongHeapSortFunction<MRecord> {
+        @Override
+        public void process(Long timestamp, Long watermark, MRecord value) {
+            throw new UnsupportedOperationException("boxed process");
+        }
+
+        @Override
+        public Collection<MRecord> onTimer(Long watermark) {
+            throw new UnsupportedOperationException("boxed onTimer");
+        }
+    }
+
+    private static UntypedValues record(String source, long timestamp) {
+        return new UntypedValues(source, timestamp, "", Collections.singletonMap("test", timestamp));
+    }
+}
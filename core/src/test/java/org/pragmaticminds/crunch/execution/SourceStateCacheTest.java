@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.execution;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SourceStateCacheTest {
+
+    @Test
+    public void computeIfAbsent() {
+        SourceStateCache<String> cache = new SourceStateCache<>();
+
+        assertEquals("a", cache.computeIfAbsent("source1", () -> "a"));
+        assertEquals("a", cache.computeIfAbsent("source1", () -> "b"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedSource() {
+        SourceStateCache<String> cache = new SourceStateCache<>(2, 60_000L);
+        cache.put("source1", "a");
+        cache.put("source2", "b");
+        // access source1, so source2 is the least recently used
+        cache.get("source1");
+        cache.put("source3", "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get("source1"));
+        assertNull(cache.get("source2"));
+        assertEquals("c", cache.get("source3"));
+    }
+
+    @Test
+    public void evictsIdleSources() {
+        SourceStateCache<String> cache = new SourceStateCache<>(10, 1_000L);
+        cache.put("source1", "a");
+        cache.put("source2", "b");
+
+        cache.evictIdle(System.currentTimeMillis() + 2_000L);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void serializable() {
+        SourceStateCache<String> cache = new SourceStateCache<>();
+        cache.put("source1", "a");
+
+        assertEquals("a", ClonerUtil.clone(cache).get("source1"));
+    }
+}
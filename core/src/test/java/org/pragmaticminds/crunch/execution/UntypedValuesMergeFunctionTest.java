@@ -22,6 +22,8 @@ package org.pragmaticminds.crunch.execution;
 import org.junit.Before;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 
 import java.io.Serializable;
@@ -29,6 +31,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Erwin Wagasow
@@ -65,6 +68,21 @@ public class UntypedValuesMergeFunctionTest implements Serializable {
         assertEquals("string", result.getValue("test2").getAsString());
     }
 
+    @Test
+    public void mergePerSource() {
+        UntypedValues other = new UntypedValues("other", 125L, "prefix", new HashMap<>(record2.getValues()));
+        mergeFunction.merge(record1);
+        UntypedValues result = (UntypedValues) mergeFunction.merge(other);
+
+        assertEquals("other", result.getSource());
+        assertEquals(1, result.getValues().size());
+        assertEquals("string", result.getValue("test2").getAsString());
+
+        result = (UntypedValues) mergeFunction.merge(record2);
+        assertEquals("test", result.getSource());
+        assertEquals(2, result.getValues().size());
+    }
+
     @Test
     public void mapWithoutState() {
         UntypedValues result = mergeFunction.mapWithoutState(record1, record2);
@@ -75,4 +93,18 @@ public class UntypedValuesMergeFunctionTest implements Serializable {
         assertEquals(123L, (long)result.getValue("test1").getAsLong());
         assertEquals("string", result.getValue("test2").getAsString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void mergeColumnarValues() {
+        ChannelSchema schema = new ChannelSchema();
+        ColumnarValues columnar1 = ColumnarValues.of(record1, schema);
+        ColumnarValues columnar2 = ColumnarValues.of(record2, schema);
+
+        mergeFunction.merge(columnar1);
+        ColumnarValues result = (ColumnarValues) mergeFunction.merge(columnar2);
+
+        assertSame(columnar1, result);
+        assertEquals(123L, result.getLongAsPrimitive(schema.slotOf("test1")));
+        assertEquals("string", result.getString("test2"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.metrics;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineMetricsTest {
+
+    @Test
+    public void countsRecords() {
+        PipelineMetrics metrics = new PipelineMetrics();
+
+        metrics.recordIn();
+        metrics.recordIn();
+        metrics.filteredByPredicate();
+        metrics.filteredByChannelFilter();
+        metrics.merged();
+        metrics.sortBufferChanged(3);
+        metrics.sortBufferChanged(-2);
+        metrics.lateRecord();
+        metrics.event();
+        metrics.evictedKeys(3);
+        metrics.evaluationTime("function").record(100L);
+
+        assertEquals(2L, metrics.getRecordsIn());
+        assertEquals(1L, metrics.getFilteredByPredicate());
+        assertEquals(1L, metrics.getFilteredByChannelFilter());
+        assertEquals(1L, metrics.getMerged());
+        assertEquals(2L, metrics.getSorted());
+        assertEquals(1L, metrics.getSortBufferDepth());
+        assertEquals(1L, metrics.getLateRecords());
+        assertEquals(1L, metrics.getEvents());
+        assertEquals(3L, metrics.getEvictedKeys());
+        assertEquals(Long.valueOf(1L), metrics.getEvaluationCounts().get("function"));
+        assertEquals(Long.valueOf(100L), metrics.getEvaluationMeanNs().get("function"));
+    }
+
+    @Test
+    public void readableOverJmx() throws Exception {
+        PipelineMetrics metrics = new PipelineMetrics();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.pragmaticminds.crunch:type=PipelineMetrics,name=\"test\"");
+
+        metrics.register("test");
+        metrics.recordIn();
+
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "RecordsIn"));
+
+        metrics.unregister();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void functionName() {
+        assertEquals("lane[2]:java.lang.String", PipelineMetrics.functionName("lane", 2, String.class));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.pragmaticminds.crunch.api.values.TypedValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.pragmaticminds.crunch.events.GenericEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Function;
+
+import static org.pragmaticminds.crunch.serialization.BinaryFormat.*;
+
+/**
+ * Deserializes the {@link BinaryFormat} written by the {@link BinarySerializer} to the given Class, which is one of
+ * {@link UntypedValues}, {@link TypedValues} or {@link GenericEvent}.
+ *
+ * @param <T> Type of Class
+ */
+public class BinaryDeserializer<T> implements Deserializer<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryDeserializer.class);
+
+    private final Class<T> clazz;
+    private final ChannelDictionary dictionary;
+
+    /**
+     * Creates a deserializer for records which contain all channel names.
+     *
+     * @param clazz Clazz to deserialize to
+     */
+    public BinaryDeserializer(Class<T> clazz) {
+        this(clazz, ChannelDictionary.empty());
+    }
+
+    /**
+     * @param clazz      Clazz to deserialize to
+     * @param dictionary the same dictionary the {@link BinarySerializer} used
+     */
+    public BinaryDeserializer(Class<T> clazz, ChannelDictionary dictionary) {
+        this.clazz = clazz;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        try {
+            BinaryReader reader = new BinaryReader(dictionary, bytes);
+            byte version = reader.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported version " + version + " of the binary format");
+            }
+            Object result = read(reader.readByte(), reader);
+            if (!reader.isExhausted()) {
+                throw new IllegalArgumentException("Unexpected bytes after the end of the binary record");
+            }
+            return clazz.cast(result);
+        } catch (RuntimeException e) {
+            logger.warn("Unable to deserialize Object from byte array returning null", e);
+            return null;
+        }
+    }
+
+    private Object read(byte kind, BinaryReader reader) {
+        switch (kind) {
+            case KIND_UNTYPED_VALUES:
+                return new UntypedValues(
+                        reader.readString(),
+                        reader.readSignedVarLong(),
+                        reader.readString(),
+                        reader.readValues(Function.identity())
+                );
+            case KIND_TYPED_VALUES:
+                return new TypedValues(
+                        reader.readString(),
+                        reader.readSignedVarLong(),
+                        reader.readValues(Value::of)
+                );
+            case KIND_GENERIC_EVENT:
+                return new GenericEvent(
+                        reader.readSignedVarLong(),
+                        reader.readString(),
+                        reader.readString(),
+                        reader.readValues(Value::of)
+                );
+            default:
+                throw new IllegalArgumentException("Unknown record kind " + kind);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Intentionally left blank
+    }
+}
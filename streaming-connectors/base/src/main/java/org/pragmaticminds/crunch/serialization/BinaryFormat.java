@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+/**
+ * Constants of the binary format written by {@link BinarySerializer}.
+ * <p>
+ * Every message starts with the {@link #VERSION} and the kind of the record. Numbers are written as varints, signed
+ * ones zig zag encoded, doubles as 8 bytes. Strings are written as varint length + 1 (0 means null) followed by
+ * their UTF-8 bytes. Channel names are written as varint index + 1 into the {@link ChannelDictionary}, or as 0
+ * followed by the name if they are not part of it. Each value is prefixed by one of the type tags of the
+ * {@link ValueCodec}.
+ */
+final class BinaryFormat {
+
+    static final byte VERSION = 1;
+
+    static final byte KIND_UNTYPED_VALUES = 1;
+    static final byte KIND_TYPED_VALUES = 2;
+    static final byte KIND_GENERIC_EVENT = 3;
+
+    private BinaryFormat() {
+        throw new UnsupportedOperationException();
+    }
+}
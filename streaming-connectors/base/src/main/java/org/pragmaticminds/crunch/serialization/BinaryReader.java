@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Reads the primitives of the {@link BinaryFormat} from a byte array.
+ * Malformed input results in an {@link IllegalArgumentException}.
+ */
+class BinaryReader implements ValueCodec.Input {
+
+    private final ChannelDictionary dictionary;
+    private final byte[] bytes;
+    private int position = 0;
+
+    /**
+     * @param dictionary to look up the channel names
+     * @param bytes      to read from
+     */
+    BinaryReader(ChannelDictionary dictionary, byte[] bytes) {
+        this.dictionary = dictionary;
+        this.bytes = bytes;
+    }
+
+    @Override
+    public byte readByte() {
+        if (position >= bytes.length) {
+            throw new IllegalArgumentException("Unexpected end of the binary record at position " + position);
+        }
+        return bytes[position++];
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at position " + position);
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public long readLong() {
+        return readSignedVarLong();
+    }
+
+    @Override
+    public double readDouble() {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= (readByte() & 0xFFL) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    @Override
+    public String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        if (length > bytes.length - position) {
+            throw new IllegalArgumentException("String of length " + length + " exceeds the binary record");
+        }
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    String readChannel() {
+        long index = readVarLong();
+        if (index == 0) {
+            return readString();
+        }
+        return dictionary.get((int) (index - 1));
+    }
+
+    /**
+     * Reads a tagged value as the plain java object, i.e. Boolean, Long, Double, String or Date.
+     *
+     * @return the value, may be null
+     */
+    Object readObject() {
+        return ValueCodec.read(this);
+    }
+
+    /**
+     * Reads a map from channel names to values.
+     *
+     * @param converter converts the plain java objects into the type of the map values
+     * @param <V>       type of the map values
+     * @return the map, may be null
+     */
+    <V> HashMap<String, V> readValues(Function<Object, V> converter) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+        // avoid huge allocations for malformed input
+        HashMap<String, V> values = new HashMap<>(Math.min(size, bytes.length) * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            String channel = readChannel();
+            values.put(channel, converter.apply(readObject()));
+        }
+        return values;
+    }
+
+    boolean isExhausted() {
+        return position == bytes.length;
+    }
+
+    /**
+     * @return a length written as value + 1, -1 if null was written
+     */
+    private int readLength() {
+        long length = readVarLong() - 1;
+        if (length < -1 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Length " + length + " exceeds the binary record");
+        }
+        return (int) length;
+    }
+}
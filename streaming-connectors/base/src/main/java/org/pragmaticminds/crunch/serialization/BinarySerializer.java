@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.pragmaticminds.crunch.api.values.TypedValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.events.GenericEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.pragmaticminds.crunch.serialization.BinaryFormat.*;
+
+/**
+ * Serializes {@link UntypedValues}, {@link TypedValues} and {@link GenericEvent}s into the compact
+ * {@link BinaryFormat}. The values keep their type, so no guessing is necessary when they are read again.
+ * Can be used instead of the {@link JsonSerializer}, the bytes have to be read by a {@link BinaryDeserializer}
+ * with the same {@link ChannelDictionary}.
+ */
+public class BinarySerializer<T> implements Serializer<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinarySerializer.class);
+    private static final int INITIAL_CAPACITY = 128;
+
+    private final ChannelDictionary dictionary;
+
+    /**
+     * Creates a serializer which writes all channel names.
+     */
+    public BinarySerializer() {
+        this(ChannelDictionary.empty());
+    }
+
+    /**
+     * @param dictionary channels which are written as index instead of their name
+     */
+    public BinarySerializer(ChannelDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public byte[] serialize(T data) {
+        BinaryWriter writer = new BinaryWriter(dictionary, INITIAL_CAPACITY);
+        writer.writeByte(VERSION);
+        try {
+            if (data instanceof UntypedValues) {
+                UntypedValues values = (UntypedValues) data;
+                writer.writeByte(KIND_UNTYPED_VALUES);
+                writer.writeString(values.getSource());
+                writer.writeSignedVarLong(values.getTimestamp());
+                writer.writeString(values.getPrefix());
+                writer.writeValues(values.getValues());
+            } else if (data instanceof TypedValues) {
+                TypedValues values = (TypedValues) data;
+                writer.writeByte(KIND_TYPED_VALUES);
+                writer.writeString(values.getSource());
+                writer.writeSignedVarLong(values.getTimestamp());
+                writer.writeValues(values.getValues());
+            } else if (data instanceof GenericEvent) {
+                GenericEvent event = (GenericEvent) data;
+                writer.writeByte(KIND_GENERIC_EVENT);
+                writer.writeSignedVarLong(event.getTimestamp());
+                writer.writeString(event.getEventName());
+                writer.writeString(event.getSource());
+                writer.writeValues(event.getParameters());
+            } else {
+                throw new IllegalArgumentException("Type " + (data == null ? null : data.getClass())
+                        + " is not supported by the binary format");
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Unable to serialize the given object " + data, e);
+            return new byte[0];
+        }
+        return writer.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        // Do nothing
+    }
+}
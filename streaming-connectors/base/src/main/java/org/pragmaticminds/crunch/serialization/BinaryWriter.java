@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.pragmaticminds.crunch.api.values.dates.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Writes the primitives of the {@link BinaryFormat} into a growing byte array.
+ */
+class BinaryWriter implements ValueCodec.Output {
+
+    private final ChannelDictionary dictionary;
+    private byte[] buffer;
+    private int position = 0;
+
+    /**
+     * @param dictionary      to look up the channel names
+     * @param initialCapacity of the buffer in bytes
+     */
+    BinaryWriter(ChannelDictionary dictionary, int initialCapacity) {
+        this.dictionary = dictionary;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    @Override
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes an unsigned varint, 7 bits per byte, lowest bits first.
+     *
+     * @param value to write, is interpreted as unsigned
+     */
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+    }
+
+    /**
+     * Writes a signed value zig zag encoded, so that small negative values take few bytes.
+     *
+     * @param value to write
+     */
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes longs and dates of values zig zag encoded.
+     *
+     * @param value to write
+     */
+    @Override
+    public void writeLong(long value) {
+        writeSignedVarLong(value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        ensureCapacity(8);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            buffer[position++] = (byte) (bits >>> (8 * i));
+        }
+    }
+
+    @Override
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeChannel(String channel) {
+        int index = dictionary.indexOf(channel);
+        writeVarLong(index + 1L);
+        if (index < 0) {
+            writeString(channel);
+        }
+    }
+
+    /**
+     * Writes a value with its type tag. Supports all types that are accepted by {@link Value#of(Object)}.
+     *
+     * @param value to write, may be null
+     */
+    void writeObject(Object value) {
+        ValueCodec.write(value, this);
+    }
+
+    /**
+     * Writes a map from channel names to values, null is written as well.
+     *
+     * @param values to write
+     */
+    void writeValues(Map<String, ?> values) {
+        if (values == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(values.size() + 1L);
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            writeChannel(entry.getKey());
+            writeObject(entry.getValue());
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+}
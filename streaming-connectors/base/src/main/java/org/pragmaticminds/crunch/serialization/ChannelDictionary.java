@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Fixed list of channel names which is shared by the {@link BinarySerializer} and the {@link BinaryDeserializer}.
+ * Channels contained in the dictionary are written as their (varint) index instead of their name.
+ * Both sides have to use a dictionary with the same channels in the same order, new channels can only be appended.
+ */
+public class ChannelDictionary implements Serializable {
+
+    private static final ChannelDictionary EMPTY = new ChannelDictionary(new ArrayList<>());
+
+    private final ArrayList<String> channels;
+    private final HashMap<String, Integer> indices;
+
+    /**
+     * @param channels names of the channels in a fixed order, without duplicates
+     */
+    public ChannelDictionary(Collection<String> channels) {
+        this.channels = new ArrayList<>(channels);
+        this.indices = new HashMap<>();
+        for (int i = 0; i < this.channels.size(); i++) {
+            if (indices.put(this.channels.get(i), i) != null) {
+                throw new IllegalArgumentException("The channel " + this.channels.get(i) + " is contained twice");
+            }
+        }
+    }
+
+    /**
+     * @return a dictionary without channels, all names are written as they are
+     */
+    public static ChannelDictionary empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param channel name of the channel
+     * @return the index of the channel or -1 if it is not part of this dictionary
+     */
+    public int indexOf(String channel) {
+        Integer index = indices.get(channel);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index of the channel
+     * @return the name of the channel
+     */
+    public String get(int index) {
+        if (index < 0 || index >= channels.size()) {
+            throw new IllegalArgumentException("No channel with index " + index + " in the dictionary");
+        }
+        return channels.get(index);
+    }
+
+    public List<String> getChannels() {
+        return new ArrayList<>(channels);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Deserializes the JSON of {@link UntypedValues} directly into {@link ColumnarValues}.
+ * The JSON is streamed and each value is written into its slot, so neither the intermediate map nor the boxed values
+ * of {@link UntypedValues} are created. Channel names are canonicalized by the parser and thus not allocated again
+ * for every record.
+ */
+public class ColumnarValuesJsonDeserializer implements Deserializer<ColumnarValues> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarValuesJsonDeserializer.class);
+
+    private final ChannelSchema schema;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param schema resolves the channel names to slots, new channels are registered
+     */
+    public ColumnarValuesJsonDeserializer(ChannelSchema schema) {
+        this.schema = schema;
+        this.mapper = new ObjectMapper(new JsonFactory());
+    }
+
+    @Override
+    public ColumnarValues deserialize(byte[] bytes) {
+        try (JsonParser parser = mapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object");
+            }
+            ColumnarValues record = new ColumnarValues(schema, null, 0L, null);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "source":
+                        record.setSource(parser.getValueAsString());
+                        break;
+                    case "timestamp":
+                        record.setTimestamp(parser.getValueAsLong());
+                        break;
+                    case "prefix":
+                        record.setPrefix(parser.getValueAsString());
+                        break;
+                    case "values":
+                        if (token == JsonToken.START_OBJECT) {
+                            readValues(parser, record);
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return record;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Unable to deserialize Object from byte array returning null", e);
+            return null;
+        }
+    }
+
+    private void readValues(JsonParser parser, ColumnarValues record) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int slot = schema.register(parser.getCurrentName());
+            switch (parser.nextToken()) {
+                case VALUE_NUMBER_INT:
+                    record.setLong(slot, parser.getLongValue());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    record.setDouble(slot, parser.getDoubleValue());
+                    break;
+                case VALUE_TRUE:
+                    record.setBoolean(slot, true);
+                    break;
+                case VALUE_FALSE:
+                    record.setBoolean(slot, false);
+                    break;
+                case VALUE_STRING:
+                    record.setString(slot, parser.getText());
+                    break;
+                case VALUE_NULL:
+                    record.remove(slot);
+                    break;
+                default:
+                    // nested structures, e.g. serialized dates, are interpreted like in UntypedValues
+                    record.set(slot, mapper.readValue(parser, Object.class));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        // Intentionally left blank
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.serialization;
+
+import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.pragmaticminds.crunch.events.UntypedEvent;
+
+import java.util.Date;
+
+/**
+ * Type tagged encoding of single values, which is shared by the {@link BinaryFormat} and other binary formats like
+ * the excerpts of the chronicle connector. Each value is written as one of the type tags followed by its payload.
+ * How longs, doubles and strings are encoded is up to the {@link Output} and {@link Input} of the format.
+ */
+public final class ValueCodec {
+
+    public static final byte TAG_NULL = 0;
+    public static final byte TAG_FALSE = 1;
+    public static final byte TAG_TRUE = 2;
+    public static final byte TAG_LONG = 3;
+    public static final byte TAG_DOUBLE = 4;
+    public static final byte TAG_STRING = 5;
+    public static final byte TAG_DATE = 6;
+
+    /** Creates the plain java objects, i.e. Boolean, Long, Double, String or Date */
+    private static final Target<Object> OBJECTS = new Target<Object>() {
+        @Override
+        public Object onNull() {
+            return null;
+        }
+
+        @Override
+        public Object onBoolean(boolean value) {
+            return value;
+        }
+
+        @Override
+        public Object onLong(long value) {
+            return value;
+        }
+
+        @Override
+        public Object onDouble(double value) {
+            return value;
+        }
+
+        @Override
+        public Object onString(String value) {
+            return value;
+        }
+
+        @Override
+        public Object onDate(long timeMs) {
+            return new Date(timeMs);
+        }
+    };
+
+    private ValueCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Writes a value with its type tag. Supports all types that are accepted by {@link Value#of(Object)}.
+     *
+     * @param value to write, may be null
+     * @param out   to write to
+     */
+    public static void write(Object value, Output out) {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            writeBoolean((Boolean) value, out);
+        } else if (value instanceof Double || value instanceof Float) {
+            writeDouble(((Number) value).doubleValue(), out);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue(), out);
+        } else if (value instanceof String) {
+            writeString((String) value, out);
+        } else if (value instanceof Date) {
+            writeDate(((Date) value).getTime(), out);
+        } else if (value instanceof UntypedEvent.SerializableDate) {
+            write(((UntypedEvent.SerializableDate) value).asDate(), out);
+        } else if (value instanceof Value) {
+            write(((Value) value).getAsObject(), out);
+        } else {
+            // let the Value decide how to interpret all other shapes, fails for unknown types
+            write(Value.of(value).getAsObject(), out);
+        }
+    }
+
+    public static void writeBoolean(boolean value, Output out) {
+        out.writeByte(value ? TAG_TRUE : TAG_FALSE);
+    }
+
+    public static void writeLong(long value, Output out) {
+        out.writeByte(TAG_LONG);
+        out.writeLong(value);
+    }
+
+    public static void writeDouble(double value, Output out) {
+        out.writeByte(TAG_DOUBLE);
+        out.writeDouble(value);
+    }
+
+    /**
+     * @param value to write, null is written as {@link #TAG_NULL}
+     * @param out   to write to
+     */
+    public static void writeString(String value, Output out) {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+        out.writeByte(TAG_STRING);
+        out.writeString(value);
+    }
+
+    /**
+     * @param timeMs date as ms since epoch
+     * @param out    to write to
+     */
+    public static void writeDate(long timeMs, Output out) {
+        out.writeByte(TAG_DATE);
+        out.writeLong(timeMs);
+    }
+
+    /**
+     * Reads a tagged value as the plain java object, i.e. Boolean, Long, Double, String or Date.
+     *
+     * @param in to read from
+     * @return the value, may be null
+     */
+    public static Object read(Input in) {
+        return read(in, OBJECTS);
+    }
+
+    /**
+     * Reads a tagged value and passes it to the target without boxing it.
+     *
+     * @param in     to read from
+     * @param target receives the value
+     * @param <R>    type of the results of the target
+     * @return the result of the target
+     * @throws IllegalArgumentException if the tag is unknown
+     */
+    public static <R> R read(Input in, Target<R> target) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return target.onNull();
+            case TAG_FALSE:
+                return target.onBoolean(false);
+            case TAG_TRUE:
+                return target.onBoolean(true);
+            case TAG_LONG:
+                return target.onLong(in.readLong());
+            case TAG_DOUBLE:
+                return target.onDouble(in.readDouble());
+            case TAG_STRING:
+                return target.onString(in.readString());
+            case TAG_DATE:
+                return target.onDate(in.readLong());
+            default:
+                throw new IllegalArgumentException("Unknown type tag " + tag);
+        }
+    }
+
+    /** Writes the payloads of the values in the encoding of a format */
+    public interface Output {
+        void writeByte(int value);
+
+        /** @param value signed, longs and dates */
+        void writeLong(long value);
+
+        void writeDouble(double value);
+
+        /** @param value not null */
+        void writeString(String value);
+    }
+
+    /** Reads the payloads of the values in the encoding of a format */
+    public interface Input {
+        byte readByte();
+
+        long readLong();
+
+        double readDouble();
+
+        String readString();
+    }
+
+    /**
+     * Receives a value that is read by {@link #read(Input, Target)}.
+     *
+     * @param <R> type of the results
+     */
+    public interface Target<R> {
+        R onNull();
+
+        R onBoolean(boolean value);
+
+        R onLong(long value);
+
+        R onDouble(double value);
+
+        R onString(String value);
+
+        /** @param timeMs date as ms since epoch */
+        R onDate(long timeMs);
+    }
+}
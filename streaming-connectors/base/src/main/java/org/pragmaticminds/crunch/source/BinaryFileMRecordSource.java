@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.source;
+
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.execution.AbstractMRecordSource;
+import org.pragmaticminds.crunch.execution.MRecordSource;
+import org.pragmaticminds.crunch.serialization.BinaryDeserializer;
+import org.pragmaticminds.crunch.serialization.ChannelDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+/**
+ * This class reads {@link UntypedValues} in the binary format of the
+ * {@link org.pragmaticminds.crunch.serialization.BinarySerializer} from a File and presents them as a
+ * {@link MRecordSource}. Each record in the file is prefixed by its length in bytes as a 4 byte big endian int, as it
+ * is written by {@link java.io.DataOutputStream#writeInt(int)}.
+ */
+public class BinaryFileMRecordSource extends AbstractMRecordSource implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BinaryFileMRecordSource.class);
+
+    private final transient DataInputStream                   input;
+    private final           BinaryDeserializer<UntypedValues> deserializer;
+    // length of the next record, -1 if the end of the file is reached
+    private transient       int                               nextLength;
+
+    /**
+     * Opens the file for records which contain all channel names.
+     * If a the file of interest is not existing or in a other way damaged, a {@link UncheckedIOException} can be thrown.
+     *
+     * @param filePath of the binary serialized UntypedValues data file.
+     */
+    public BinaryFileMRecordSource(String filePath) {
+        this(filePath, ChannelDictionary.empty());
+    }
+
+    /**
+     * Opens the file.
+     * If a the file of interest is not existing or in a other way damaged, a {@link UncheckedIOException} can be thrown.
+     *
+     * @param filePath   of the binary serialized UntypedValues data file.
+     * @param dictionary the same dictionary the serializer used
+     */
+    public BinaryFileMRecordSource(String filePath, ChannelDictionary dictionary) {
+        // set Kind as finite
+        super(MRecordSource.Kind.FINITE);
+
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)));
+        } catch (IOException ex) {
+            logger.error("File could not be read!", ex);
+            throw new UncheckedIOException(ex);
+        }
+        deserializer = new BinaryDeserializer<>(UntypedValues.class, dictionary);
+        nextLength = readLength();
+    }
+
+    /**
+     * Request the next record.
+     *
+     * @return record or null if the end of the file is reached
+     */
+    @Override
+    public MRecord get() {
+        if (nextLength < 0) {
+            return null;
+        }
+        return readRecord();
+    }
+
+    /**
+     * Reads up to maxRecords records from the file.
+     *
+     * @param target     collection the records are added to
+     * @param maxRecords maximum number of records to add
+     * @return the number of records added to the target
+     */
+    @Override
+    public int drainTo(Collection<MRecord> target, int maxRecords) {
+        int count = 0;
+        while (count < maxRecords && nextLength >= 0) {
+            MRecord record = readRecord();
+            if (record != null) {
+                target.add(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Check whether more records are available for fetch
+     *
+     * @return true if records can be fetched using {@link #get()}
+     */
+    @Override
+    public boolean hasRemaining() {
+        return nextLength >= 0;
+    }
+
+    /**
+     * Closes the file handle to the source file.
+     */
+    @Override
+    public void close() {
+        super.close();
+        try {
+            input.close();
+        } catch (IOException ex) {
+            logger.error("File could not be closed!", ex);
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Reads the record with the known length and the length of the following record.
+     *
+     * @return the record, null if it could not be deserialized
+     */
+    private MRecord readRecord() {
+        byte[] bytes = new byte[nextLength];
+        try {
+            input.readFully(bytes);
+        } catch (IOException ex) {
+            logger.error("File could not be read!", ex);
+            throw new UncheckedIOException(ex);
+        }
+        nextLength = readLength();
+        return deserializer.deserialize(bytes);
+    }
+
+    /**
+     * @return the length of the next record or -1 at the end of the file
+     */
+    private int readLength() {
+        try {
+            int length = input.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid record length " + length);
+            }
+            return length;
+        } catch (EOFException ex) {
+            return -1;
+        } catch (IOException ex) {
+            logger.error("File could not be read!", ex);
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
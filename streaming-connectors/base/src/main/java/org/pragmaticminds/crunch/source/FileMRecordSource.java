@@ -23,6 +23,7 @@ import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 import org.pragmaticminds.crunch.execution.AbstractMRecordSource;
 import org.pragmaticminds.crunch.execution.MRecordSource;
+import org.pragmaticminds.crunch.serialization.Deserializer;
 import org.pragmaticminds.crunch.serialization.JsonDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +34,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
@@ -48,7 +50,7 @@ public class FileMRecordSource extends AbstractMRecordSource implements AutoClos
     private final transient BufferedReader                  reader;
     private final transient Iterator<String>                iterator;
     private final transient FileReader                      fileReader;
-    private final           JsonDeserializer<UntypedValues> deserializer;
+    private final           Deserializer<? extends MRecord> deserializer;
 
     /**
      * Main constructor.
@@ -58,6 +60,18 @@ public class FileMRecordSource extends AbstractMRecordSource implements AutoClos
      * @param filePath of the serialized UntypedValues data file.
      */
     public FileMRecordSource(String filePath) {
+        this(filePath, new JsonDeserializer<>(UntypedValues.class));
+    }
+
+    /**
+     * Creates a source that parses each line with the given {@link Deserializer}, e.g. a
+     * {@link org.pragmaticminds.crunch.serialization.ColumnarValuesJsonDeserializer}.
+     * If a the file of interest is not existing or in a other way damaged, a {@link UncheckedIOException} can be thrown.
+     *
+     * @param filePath     of the serialized data file.
+     * @param deserializer parses a single line
+     */
+    public FileMRecordSource(String filePath, Deserializer<? extends MRecord> deserializer) {
         // set Kind as finite
         super(MRecordSource.Kind.FINITE);
 
@@ -71,8 +85,7 @@ public class FileMRecordSource extends AbstractMRecordSource implements AutoClos
             throw new UncheckedIOException(ex);
         }
 
-        // initialize json parser
-        deserializer = new JsonDeserializer<>(UntypedValues.class);
+        this.deserializer = deserializer;
     }
 
     /**
@@ -92,6 +105,26 @@ public class FileMRecordSource extends AbstractMRecordSource implements AutoClos
         return null;
     }
 
+    /**
+     * Reads and parses up to maxRecords lines from the file.
+     *
+     * @param target     collection the parsed records are added to
+     * @param maxRecords maximum number of records to add
+     * @return the number of records added to the target
+     */
+    @Override
+    public int drainTo(Collection<MRecord> target, int maxRecords) {
+        int count = 0;
+        while (count < maxRecords && iterator.hasNext()) {
+            MRecord record = deserializer.deserialize(iterator.next().getBytes(StandardCharsets.UTF_8));
+            if (record != null) {
+                target.add(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
 
     /**
      * Check whether more records are available for fetch
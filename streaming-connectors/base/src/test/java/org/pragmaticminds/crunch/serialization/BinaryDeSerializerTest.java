@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.values.TypedValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+import org.pragmaticminds.crunch.events.GenericEvent;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BinarySerializer} and {@link BinaryDeserializer}
+ */
+public class BinaryDeSerializerTest {
+
+    private static final UntypedValues VALUES = new UntypedValues("source", 1_539_856_800_000L, "prefix", values());
+
+    @Test
+    public void untypedValues_roundTrip() {
+        UntypedValues result = new BinaryDeserializer<>(UntypedValues.class)
+                .deserialize(new BinarySerializer<UntypedValues>().serialize(VALUES));
+
+        assertEquals(VALUES, result);
+        // the types are kept without guessing
+        assertEquals(Long.class, result.get("long").getClass());
+        assertEquals(Date.class, result.get("date").getClass());
+    }
+
+    @Test
+    public void untypedValues_smallerThanJson() {
+        byte[] binary = new BinarySerializer<UntypedValues>().serialize(VALUES);
+        byte[] json = new JsonSerializer<UntypedValues>().serialize(VALUES);
+
+        assertTrue(binary.length < json.length);
+    }
+
+    @Test
+    public void untypedValues_withNulls() {
+        UntypedValues values = new UntypedValues(null, -1L, null, null);
+
+        UntypedValues result = new BinaryDeserializer<>(UntypedValues.class)
+                .deserialize(new BinarySerializer<UntypedValues>().serialize(values));
+
+        assertEquals(values, result);
+    }
+
+    @Test
+    public void typedValues_roundTrip() {
+        TypedValues values = VALUES.toTypedValues();
+
+        TypedValues result = new BinaryDeserializer<>(TypedValues.class)
+                .deserialize(new BinarySerializer<TypedValues>().serialize(values));
+
+        assertEquals(values, result);
+    }
+
+    @Test
+    public void genericEvent_roundTrip() {
+        Map<String, Value> parameters = new HashMap<>();
+        parameters.put("double", Value.of(1.5));
+        parameters.put("string", Value.of("text"));
+        GenericEvent event = new GenericEvent(123L, "event", "source", parameters);
+
+        GenericEvent result = new BinaryDeserializer<>(GenericEvent.class)
+                .deserialize(new BinarySerializer<GenericEvent>().serialize(event));
+
+        assertEquals(event, result);
+    }
+
+    @Test
+    public void dictionary_writesChannelsAsIndex() {
+        ChannelDictionary dictionary = new ChannelDictionary(Arrays.asList("double", "long", "string"));
+        byte[] withDictionary = new BinarySerializer<UntypedValues>(dictionary).serialize(VALUES);
+        byte[] withoutDictionary = new BinarySerializer<UntypedValues>().serialize(VALUES);
+
+        UntypedValues result = new BinaryDeserializer<>(UntypedValues.class, dictionary).deserialize(withDictionary);
+
+        assertEquals(VALUES, result);
+        assertTrue(withDictionary.length < withoutDictionary.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dictionary_duplicateChannel_fails() {
+        new ChannelDictionary(Arrays.asList("a", "a"));
+    }
+
+    @Test
+    public void deserialize_wrongClass_returnsNull() {
+        byte[] bytes = new BinarySerializer<UntypedValues>().serialize(VALUES);
+
+        assertNull(new BinaryDeserializer<>(GenericEvent.class).deserialize(bytes));
+    }
+
+    @Test
+    public void deserialize_truncated_returnsNull() {
+        byte[] bytes = new BinarySerializer<UntypedValues>().serialize(VALUES);
+
+        assertNull(new BinaryDeserializer<>(UntypedValues.class).deserialize(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    public void serialize_unsupportedType_returnsEmptyArray() {
+        assertEquals(0, new BinarySerializer<String>().serialize("text").length);
+    }
+
+    private static Map<String, Object> values() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 0.25);
+        values.put("long", 42L);
+        values.put("negative", -42L);
+        values.put("bool", true);
+        values.put("string", "text");
+        values.put("date", new Date(1_539_856_800_000L));
+        values.put("null", null);
+        return values;
+    }
+}
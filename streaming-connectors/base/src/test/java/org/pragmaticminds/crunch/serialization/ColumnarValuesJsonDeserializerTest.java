@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link ColumnarValuesJsonDeserializer}
+ */
+public class ColumnarValuesJsonDeserializerTest {
+
+    @Test
+    public void deserialize_sameAsUntypedValues() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 1.5);
+        values.put("long", 12345678901L);
+        values.put("int", 3);
+        values.put("bool", false);
+        values.put("string", "text");
+        values.put("date", new Date(4L));
+        UntypedValues untypedValues = new UntypedValues("source", 100L, "prefix", values);
+        byte[] bytes;
+        try (JsonSerializer<UntypedValues> serializer = new JsonSerializer<>()) {
+            bytes = serializer.serialize(untypedValues);
+        }
+
+        ChannelSchema schema = new ChannelSchema();
+        ColumnarValues record;
+        try (ColumnarValuesJsonDeserializer deserializer = new ColumnarValuesJsonDeserializer(schema)) {
+            record = deserializer.deserialize(bytes);
+        }
+        UntypedValues expected;
+        try (JsonDeserializer<UntypedValues> deserializer = new JsonDeserializer<>(UntypedValues.class)) {
+            expected = deserializer.deserialize(bytes);
+        }
+
+        assertEquals(ColumnarValues.of(expected, schema), record);
+        assertEquals(1.5, record.getDoubleAsPrimitive(schema.slotOf("double")), 0.0);
+        assertEquals(4L, record.getLongAsPrimitive(schema.slotOf("date")));
+    }
+
+    @Test
+    public void deserialize_nullValue() {
+        String json = "{\"source\":\"s\",\"timestamp\":1,\"prefix\":null,\"values\":{\"a\":null,\"b\":2},\"unknown\":[1]}";
+        ChannelSchema schema = new ChannelSchema();
+
+        ColumnarValues record = new ColumnarValuesJsonDeserializer(schema).deserialize(json.getBytes());
+
+        assertEquals("s", record.getSource());
+        assertNull(record.getPrefix());
+        assertFalse(record.isPresent(schema.slotOf("a")));
+        assertEquals(2L, record.getLongAsPrimitive(schema.slotOf("b")));
+    }
+
+    @Test
+    public void deserialize_invalid() {
+        assertNull(new ColumnarValuesJsonDeserializer(new ChannelSchema()).deserialize("[1]".getBytes()));
+    }
+}
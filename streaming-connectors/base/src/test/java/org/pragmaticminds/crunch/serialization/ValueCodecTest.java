@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.serialization;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.values.dates.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ValueCodec}
+ */
+public class ValueCodecTest {
+
+    @Test
+    public void writesAndReadsAllTypes() {
+        List<Object> values = Arrays.asList(null, true, false, -3L, 1.5, "text", new Date(4L));
+        BinaryWriter writer = new BinaryWriter(new ChannelDictionary(new ArrayList<>()), 16);
+        for (Object value : values) {
+            ValueCodec.write(value, writer);
+        }
+        // other shapes are written as their plain java objects
+        ValueCodec.write(7, writer);
+        ValueCodec.write(Value.of(2.5), writer);
+
+        BinaryReader reader = new BinaryReader(new ChannelDictionary(new ArrayList<>()), writer.toByteArray());
+        for (Object value : values) {
+            assertEquals(value, ValueCodec.read(reader));
+        }
+        assertEquals(7L, ValueCodec.read(reader));
+        assertEquals(2.5, ValueCodec.read(reader));
+        assertTrue(reader.isExhausted());
+    }
+
+    @Test
+    public void readsPrimitivesIntoATarget() {
+        BinaryWriter writer = new BinaryWriter(new ChannelDictionary(new ArrayList<>()), 16);
+        ValueCodec.writeLong(42L, writer);
+        ValueCodec.writeDate(4L, writer);
+        ValueCodec.writeString(null, writer);
+
+        BinaryReader reader = new BinaryReader(new ChannelDictionary(new ArrayList<>()), writer.toByteArray());
+        assertEquals("long 42", ValueCodec.read(reader, new DescribingTarget()));
+        assertEquals("date 4", ValueCodec.read(reader, new DescribingTarget()));
+        assertEquals("null", ValueCodec.read(reader, new DescribingTarget()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownTag() {
+        ValueCodec.read(new BinaryReader(new ChannelDictionary(new ArrayList<>()), new byte[]{42}));
+    }
+
+    private static class DescribingTarget implements ValueCodec.Target<String> {
+        @Override
+        public String onNull() {
+            return "null";
+        }
+
+        @Override
+        public String onBoolean(boolean value) {
+            return "boolean " + value;
+        }
+
+        @Override
+        public String onLong(long value) {
+            return "long " + value;
+        }
+
+        @Override
+        public String onDouble(double value) {
+            return "double " + value;
+        }
+
+        @Override
+        public String onString(String value) {
+            return "string " + value;
+        }
+
+        @Override
+        public String onDate(long timeMs) {
+            return "date " + timeMs;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.source;
+
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.serialization.BinarySerializer;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BinaryFileMRecordSourceTest {
+
+    @Test
+    public void readsAllRecords() throws IOException {
+        File file = File.createTempFile("records", ".bin");
+        file.deleteOnExit();
+        BinarySerializer<UntypedValues> serializer = new BinarySerializer<>();
+        List<UntypedValues> records = new ArrayList<>();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < 5; i++) {
+                UntypedValues values = new UntypedValues("source", i, "", Collections.singletonMap("channel", (long) i));
+                records.add(values);
+                byte[] bytes = serializer.serialize(values);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        List<MRecord> result = new ArrayList<>();
+        try (BinaryFileMRecordSource source = new BinaryFileMRecordSource(file.getAbsolutePath())) {
+            assertTrue(source.hasRemaining());
+            result.add(source.get());
+            assertEquals(3, source.drainTo(result, 3));
+            assertEquals(1, source.drainTo(result, 3));
+            assertFalse(source.hasRemaining());
+            assertNull(source.get());
+        }
+
+        assertEquals(records, result);
+    }
+
+    @Test
+    public void emptyFile_hasNoRecords() throws IOException {
+        File file = File.createTempFile("records", ".bin");
+        file.deleteOnExit();
+
+        try (BinaryFileMRecordSource source = new BinaryFileMRecordSource(file.getAbsolutePath())) {
+            assertFalse(source.hasRemaining());
+        }
+    }
+}
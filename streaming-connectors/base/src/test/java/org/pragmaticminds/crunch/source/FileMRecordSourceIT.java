@@ -21,7 +21,11 @@ package org.pragmaticminds.crunch.source;
 
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.serialization.ColumnarValuesJsonDeserializer;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 /**
@@ -43,4 +47,20 @@ public class FileMRecordSourceIT {
             assertNotNull(mRecord);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void readFile_columnar() {
+        ChannelSchema schema = new ChannelSchema();
+        FileMRecordSource source = new FileMRecordSource("./src/test/resources/LHL_06.json");
+        FileMRecordSource columnarSource = new FileMRecordSource(
+                "./src/test/resources/LHL_06.json", new ColumnarValuesJsonDeserializer(schema)
+        );
+
+        while (source.hasRemaining()) {
+            MRecord expected = source.get();
+            MRecord record = columnarSource.get();
+
+            assertEquals(ColumnarValues.of(expected, schema), record);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.chronicle;
+
+import net.openhft.chronicle.bytes.Bytes;
+
+import java.io.Serializable;
+
+/**
+ * Writes values directly into the {@link Bytes} of a Chronicle excerpt and reads them back from there, without
+ * copying them into intermediate byte arrays first.
+ * <p>
+ * A queue has to be written and read with the same marshaller, the excerpts of a
+ * {@link org.pragmaticminds.crunch.serialization.Serializer} based {@link ChronicleProducer} can not be read by it.
+ *
+ * @param <T> Type of the values
+ */
+public interface BytesMarshaller<T> extends Serializable {
+
+    /**
+     * Writes the value at the write position of the bytes.
+     *
+     * @param value to write
+     * @param bytes of the excerpt
+     */
+    void write(T value, Bytes<?> bytes);
+
+    /**
+     * Reads a value from the read position of the bytes.
+     *
+     * @param bytes of the excerpt
+     * @return the value
+     */
+    T read(Bytes<?> bytes);
+}
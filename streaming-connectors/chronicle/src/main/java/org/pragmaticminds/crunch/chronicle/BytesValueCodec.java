@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.pragmaticminds.crunch.chronicle;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.pragmaticminds.crunch.serialization.ValueCodec;
+
+/**
+ * Encodes the payloads of the {@link ValueCodec} on chronicle {@link Bytes}: longs and dates as stop bit encoded
+ * longs, doubles as 8 bytes and strings as UTF-8.
+ * The bytes are exchanged for every excerpt, so one instance is reused by a marshaller.
+ */
+final class BytesValueCodec implements ValueCodec.Output, ValueCodec.Input {
+
+    private Bytes<?> bytes;
+
+    /**
+     * @param bytes to read from or write to
+     * @return this
+     */
+    BytesValueCodec on(Bytes<?> bytes) {
+        this.bytes = bytes;
+        return this;
+    }
+
+    @Override
+    public void writeByte(int value) {
+        bytes.writeByte((byte) value);
+    }
+
+    @Override
+    public void writeLong(long value) {
+        bytes.writeStopBit(value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        bytes.writeDouble(value);
+    }
+
+    @Override
+    public void writeString(String value) {
+        bytes.writeUtf8(value);
+    }
+
+    @Override
+    public byte readByte() {
+        return bytes.readByte();
+    }
+
+    @Override
+    public long readLong() {
+        return bytes.readStopBit();
+    }
+
+    @Override
+    public double readDouble() {
+        return bytes.readDouble();
+    }
+
+    @Override
+    public String readString() {
+        return bytes.readUtf8();
+    }
+}
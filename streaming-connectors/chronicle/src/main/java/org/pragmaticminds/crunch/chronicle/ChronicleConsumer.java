@@ -53,6 +53,7 @@ public class ChronicleConsumer<T> implements AutoCloseable, Serializable {
     private final ConsumerManager manager;
     private final String consumer;
     private final Deserializer<T> deserializer;
+    private final BytesMarshaller<T> marshaller;
     // Offset of the last "read" record
     private long currentIndex;
     private long lastIndex;
@@ -76,13 +77,30 @@ public class ChronicleConsumer<T> implements AutoCloseable, Serializable {
      * @param deserializer Deserializer to use
      */
     ChronicleConsumer(Properties properties, ConsumerManager manager, Deserializer<T> deserializer) {
+        this(properties, manager, Preconditions.checkNotNull(deserializer), null);
+    }
+
+    /**
+     * Creates a Chronicle Consumer which reads the values directly from the excerpts with the given
+     * {@link BytesMarshaller}, i.e. the queue has to be written with the same marshaller.
+     *
+     * @param properties Properties to use, see above
+     * @param manager ConsumerManager to manage Consumers
+     * @param marshaller reads the values from the excerpts
+     */
+    ChronicleConsumer(Properties properties, ConsumerManager manager, BytesMarshaller<T> marshaller) {
+        this(properties, manager, null, Preconditions.checkNotNull(marshaller));
+    }
+
+    private ChronicleConsumer(Properties properties, ConsumerManager manager, Deserializer<T> deserializer,
+                              BytesMarshaller<T> marshaller) {
         Preconditions.checkArgument(properties.containsKey(CHRONICLE_PATH_KEY),
                 "No chronicle path given.");
         Preconditions.checkArgument(properties.containsKey(CHRONICLE_CONSUMER_KEY),
                 "No chronicle consumer given.");
-        Preconditions.checkNotNull(deserializer);
         Preconditions.checkNotNull(manager);
 
+        this.marshaller = marshaller;
         this.deserializer = deserializer;
         this.manager = manager;
         consumer = properties.getProperty(CHRONICLE_CONSUMER_KEY);
@@ -197,17 +215,29 @@ public class ChronicleConsumer<T> implements AutoCloseable, Serializable {
                 return null;
             }
 
-            String msg = wire
+            if (marshaller != null) {
+                // decode straight from the bytes of the excerpt
+                try {
+                    return marshaller.read(wire.bytes());
+                } catch (Exception e) {
+                    // Forces to skip the corrupt excerpt
+                    logger.warn("Unable to read the record at index " + currentIndex + ", skipping it", e);
+                    return null;
+                }
+            }
+
+            // read the raw bytes, so binary serialized records stay intact
+            byte[] msg = wire
                     .read("msg")
-                    .text();
+                    .bytes();
 
-            logger.trace("Current offset is {} record is {}", currentIndex, msg);
+            logger.trace("Current offset is {} record has {} bytes", currentIndex, msg == null ? 0 : msg.length);
 
             if (msg == null) {
                 // Forces to skip these situations
                 return null;
             } else {
-                return this.deserializer.deserialize(msg.getBytes());
+                return this.deserializer.deserialize(msg);
             }
         }
     }
@@ -229,6 +259,7 @@ public class ChronicleConsumer<T> implements AutoCloseable, Serializable {
         private Long acknowledgementRate;
         private ConsumerManager manager;
         private Deserializer<T> deserializer;
+        private BytesMarshaller<T> marshaller;
 
         private Builder() {
             this.acknowledgementRate=null;
@@ -269,19 +300,35 @@ public class ChronicleConsumer<T> implements AutoCloseable, Serializable {
             return this;
         }
 
+        /**
+         * Reads the values directly from the excerpts instead of using a {@link Deserializer}.
+         *
+         * @param marshaller marshaller the queue was written with
+         * @return this instance
+         */
+        public Builder<T> withMarshaller(BytesMarshaller<T> marshaller) {
+            this.marshaller = marshaller;
+            return this;
+        }
+
         public ChronicleConsumer<T> build() {
+            Preconditions.checkArgument(deserializer == null || marshaller == null,
+                    "Only one of deserializer and marshaller can be set.");
             Properties properties = new Properties();
             properties.put(CHRONICLE_PATH_KEY, path);
             properties.put(CHRONICLE_CONSUMER_KEY, name);
-            if (manager == null) {
+            ConsumerManager consumerManager = manager;
+            if (consumerManager == null) {
                 if(acknowledgementRate==null){
-                    return new ChronicleConsumer<>(properties, new JdbcConsumerManager(Paths.get(path)), deserializer);
+                    consumerManager = new JdbcConsumerManager(Paths.get(path));
                 } else{
-                    return new ChronicleConsumer<>(properties, new JdbcConsumerManager(Paths.get(path),acknowledgementRate), deserializer);
+                    consumerManager = new JdbcConsumerManager(Paths.get(path),acknowledgementRate);
                 }
-            } else {
-                return new ChronicleConsumer<>(properties, manager, deserializer);
             }
+            if (marshaller != null) {
+                return new ChronicleConsumer<>(properties, consumerManager, marshaller);
+            }
+            return new ChronicleConsumer<>(properties, consumerManager, deserializer);
         }
     }
 }
@@ -45,6 +45,7 @@ public class ChronicleProducer<T> implements AutoCloseable {
     private final ChronicleQueue chronicleQueue;
 
     private final Serializer<T>   serializer;
+    private final BytesMarshaller<T> marshaller;
     private final ExcerptAppender appender;
 
     /**
@@ -53,11 +54,26 @@ public class ChronicleProducer<T> implements AutoCloseable {
      * @param properties
      */
     public ChronicleProducer(Properties properties, Serializer<T> serializer) {
+        this(properties, Preconditions.checkNotNull(serializer), null);
+    }
+
+    /**
+     * Creates a Chronicle Producer which writes the values directly into the excerpts with the given
+     * {@link BytesMarshaller}. The queue can only be read by a {@link ChronicleConsumer} with the same marshaller.
+     *
+     * @param properties
+     * @param marshaller writes the values into the excerpts
+     */
+    public ChronicleProducer(Properties properties, BytesMarshaller<T> marshaller) {
+        this(properties, null, Preconditions.checkNotNull(marshaller));
+    }
+
+    private ChronicleProducer(Properties properties, Serializer<T> serializer, BytesMarshaller<T> marshaller) {
         Preconditions.checkArgument(properties.containsKey(CHRONICLE_PATH_KEY),
                 "No chronicle path given.");
-        Preconditions.checkNotNull(serializer);
 
         this.serializer = serializer;
+        this.marshaller = marshaller;
 
         String path = properties.getProperty(CHRONICLE_PATH_KEY);
 
@@ -72,6 +88,9 @@ public class ChronicleProducer<T> implements AutoCloseable {
     }
 
     public boolean send(T value) {
+        if (marshaller != null) {
+            return write(value);
+        }
         byte[] bytes = serializer.serialize(value);
         try (final DocumentContext dc = appender.writingDocument()) {
             dc.wire().write(() -> "msg").bytes(bytes);
@@ -85,6 +104,31 @@ public class ChronicleProducer<T> implements AutoCloseable {
         }
     }
 
+    /**
+     * Writes the value directly into the bytes of the excerpt.
+     *
+     * @param value to write
+     * @return true if the value was stored
+     */
+    private boolean write(T value) {
+        try (final DocumentContext dc = appender.writingDocument()) {
+            try {
+                marshaller.write(value, dc.wire().bytes());
+            } catch (Exception e) {
+                // do not publish the partially written excerpt
+                dc.rollbackOnClose();
+                throw e;
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("Data {} was store to index {}", value, dc.index());
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Unable to store value " + value + " to chronicle", e);
+            return false;
+        }
+    }
+
     @Override
     public void close() {
         logger.info("Closing Chronicle Producer");
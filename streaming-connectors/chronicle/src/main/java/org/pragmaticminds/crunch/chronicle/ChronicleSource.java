@@ -23,11 +23,13 @@ package org.pragmaticminds.crunch.chronicle;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 import org.pragmaticminds.crunch.execution.MRecordSource;
+import org.pragmaticminds.crunch.serialization.Deserializer;
 import org.pragmaticminds.crunch.serialization.JsonDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * Wrapper around the {@link ChronicleConsumer} exposing a {@link MRecordSource} interface for usage in Pipelines.
@@ -43,7 +45,7 @@ public class ChronicleSource implements MRecordSource {
     private static final Logger logger = LoggerFactory.getLogger(ChronicleSource.class);
 
     private final ChronicleConsumerFactory consumerFactory;
-    private ChronicleConsumer<UntypedValues> consumer;
+    private ChronicleConsumer<? extends MRecord> consumer;
 
     /**
      * Creates a Source which instantiates a default consumer.
@@ -66,6 +68,36 @@ public class ChronicleSource implements MRecordSource {
         consumerFactory = new ChronicleConsumerFactoryImpl(path, consumerName,acknowledgementRate);
     }
 
+    /**
+     * Creates a Source which instantiates a default consumer with a custom acknowledgementRate and a custom
+     * {@link Deserializer}, e.g. a {@link org.pragmaticminds.crunch.serialization.BinaryDeserializer} or a
+     * {@link org.pragmaticminds.crunch.serialization.ColumnarValuesJsonDeserializer}.
+     *
+     * @param path                  path to the chronicle queue
+     * @param consumerName          Name for the consumer to use
+     * @param acknowledgementRate   AcknowledgemntRate that indicates every xth offset will be commited
+     * @param deserializer          reads the records, has to match the serializer of the producer
+     */
+    public ChronicleSource(String path, String consumerName, Long acknowledgementRate,
+                           Deserializer<? extends MRecord> deserializer) {
+        consumerFactory = new ChronicleConsumerFactoryImpl(path, consumerName, acknowledgementRate, deserializer, null);
+    }
+
+    /**
+     * Creates a Source which reads the records directly from the excerpts with the given {@link BytesMarshaller},
+     * e.g. an {@link UntypedValuesMarshaller} or a {@link ColumnarValuesMarshaller}. The queue has to be written by a
+     * {@link ChronicleProducer} with the same format.
+     *
+     * @param path                  path to the chronicle queue
+     * @param consumerName          Name for the consumer to use
+     * @param acknowledgementRate   AcknowledgemntRate that indicates every xth offset will be commited
+     * @param marshaller            reads the records from the excerpts
+     */
+    public ChronicleSource(String path, String consumerName, Long acknowledgementRate,
+                           BytesMarshaller<? extends MRecord> marshaller) {
+        consumerFactory = new ChronicleConsumerFactoryImpl(path, consumerName, acknowledgementRate, null, marshaller);
+    }
+
     /**
      * For fine grained control or testing.
      *
@@ -80,6 +112,25 @@ public class ChronicleSource implements MRecordSource {
         return consumer.poll();
     }
 
+    /**
+     * Reads the records which are already written to the queue, until either maxRecords are read or the consumer
+     * reaches the end of the queue.
+     *
+     * @param target     collection the fetched records are added to
+     * @param maxRecords maximum number of records to add
+     * @return the number of records added to the target
+     */
+    @Override
+    public int drainTo(Collection<MRecord> target, int maxRecords) {
+        int count = 0;
+        MRecord record;
+        while (count < maxRecords && (record = consumer.poll()) != null) {
+            target.add(record);
+            count++;
+        }
+        return count;
+    }
+
     @Override
     public boolean hasRemaining() {
         return true;
@@ -111,7 +162,7 @@ public class ChronicleSource implements MRecordSource {
     @FunctionalInterface
     interface ChronicleConsumerFactory extends Serializable {
 
-        ChronicleConsumer<UntypedValues> create();
+        ChronicleConsumer<? extends MRecord> create();
 
     }
 
@@ -123,24 +174,53 @@ public class ChronicleSource implements MRecordSource {
         private final String path;
         private final String consumerName;
         private final Long acknowledgementRate;
+        private final Deserializer<? extends MRecord> deserializer;
+        private final BytesMarshaller<? extends MRecord> marshaller;
 
         ChronicleConsumerFactoryImpl(String path, String consumerName) {
             this(path,consumerName,null);
         }
 
         ChronicleConsumerFactoryImpl(String path, String consumerName,Long acknowledgementRate) {
+            this(path, consumerName, acknowledgementRate, new JsonDeserializer<>(UntypedValues.class), null);
+        }
+
+        /**
+         * Exactly one of deserializer and marshaller has to be set.
+         */
+        ChronicleConsumerFactoryImpl(String path, String consumerName, Long acknowledgementRate,
+                                     Deserializer<? extends MRecord> deserializer,
+                                     BytesMarshaller<? extends MRecord> marshaller) {
             this.path = path;
             this.consumerName = consumerName;
             this.acknowledgementRate = acknowledgementRate;
+            this.deserializer = deserializer;
+            this.marshaller = marshaller;
         }
 
         @Override
-        public ChronicleConsumer<UntypedValues> create() {
-            return ChronicleConsumer.<UntypedValues>builder()
+        public ChronicleConsumer<? extends MRecord> create() {
+            if (marshaller != null) {
+                return create(marshaller);
+            }
+            return create(deserializer);
+        }
+
+        private <T extends MRecord> ChronicleConsumer<T> create(BytesMarshaller<T> marshaller) {
+            return ChronicleConsumer.<T>builder()
+                    .withPath(path)
+                    .withConsumerName(consumerName)
+                    .withAcknowledgementRate(acknowledgementRate)
+                    .withMarshaller(marshaller)
+                    .build();
+        }
+
+        private <T extends MRecord> ChronicleConsumer<T> create(Deserializer<T> deserializer) {
+            return ChronicleConsumer.<T>builder()
                     .withPath(path)
                     .withConsumerName(consumerName)
                     .withAcknowledgementRate(acknowledgementRate)
-                    .withDeserializer(new JsonDeserializer<>(UntypedValues.class))
+                    .withDeserializer(deserializer)
                     .build();
         }
     }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.chronicle;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.pool.StringInterner;
+import org.pragmaticminds.crunch.api.records.DataType;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.serialization.ValueCodec;
+
+import static org.pragmaticminds.crunch.chronicle.UntypedValuesMarshaller.INTERNER_CAPACITY;
+import static org.pragmaticminds.crunch.chronicle.UntypedValuesMarshaller.VERSION;
+
+/**
+ * {@link BytesMarshaller} for {@link ColumnarValues}, which uses the same excerpt format as the
+ * {@link UntypedValuesMarshaller}. Thus queues written with either of both can be read with the other one.
+ * <p>
+ * The values are read directly into their slots, no map and no boxed values are created. Channel names are interned
+ * and resolved by the shared {@link ChannelSchema}, unknown channels are registered.
+ * <p>
+ * Not thread safe, every consumer needs its own instance.
+ */
+public class ColumnarValuesMarshaller implements BytesMarshaller<ColumnarValues> {
+
+    private final ChannelSchema schema;
+
+    private transient StringInterner interner;
+    private transient StringBuilder buffer;
+    private transient BytesValueCodec codec;
+    private transient SlotTarget target;
+
+    /**
+     * @param schema resolves the channel names to slots
+     */
+    public ColumnarValuesMarshaller(ChannelSchema schema) {
+        this.schema = schema;
+    }
+
+    @Override
+    public void write(ColumnarValues value, Bytes<?> bytes) {
+        bytes.writeByte(VERSION);
+        bytes.writeUtf8(value.getSource());
+        bytes.writeStopBit(value.getTimestamp());
+        bytes.writeUtf8(value.getPrefix());
+        ChannelSchema recordSchema = value.getSchema();
+        int count = value.channelCount();
+        bytes.writeStopBit(count);
+        BytesValueCodec out = codec(bytes);
+        for (int index = 0; index < count; index++) {
+            int slot = value.slotAt(index);
+            bytes.writeUtf8(recordSchema.channelAt(slot));
+            writeSlot(value, slot, value.getType(slot), out);
+        }
+    }
+
+    private static void writeSlot(ColumnarValues value, int slot, DataType type, BytesValueCodec out) {
+        switch (type) {
+            case BOOL:
+                ValueCodec.writeBoolean(value.getBooleanAsPrimitive(slot), out);
+                break;
+            case LONG:
+                ValueCodec.writeLong(value.getLongAsPrimitive(slot), out);
+                break;
+            case DOUBLE:
+                ValueCodec.writeDouble(value.getDoubleAsPrimitive(slot), out);
+                break;
+            case TIMESTAMP:
+                ValueCodec.writeDate(value.getDateAsPrimitive(slot), out);
+                break;
+            default:
+                ValueCodec.writeString(value.getStringAt(slot), out);
+        }
+    }
+
+    @Override
+    public ColumnarValues read(Bytes<?> bytes) {
+        byte version = bytes.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version + " of the UntypedValues excerpt");
+        }
+        String source = readInterned(bytes);
+        long timestamp = bytes.readStopBit();
+        String prefix = readInterned(bytes);
+        ColumnarValues result = new ColumnarValues(schema, source, timestamp, prefix);
+        long size = bytes.readStopBit();
+        BytesValueCodec in = codec(bytes);
+        for (long i = 0; i < size; i++) {
+            int slot = schema.register(readInterned(bytes));
+            ValueCodec.read(in, target.of(result, slot));
+        }
+        return result;
+    }
+
+    private BytesValueCodec codec(Bytes<?> bytes) {
+        if (codec == null) {
+            codec = new BytesValueCodec();
+            target = new SlotTarget();
+        }
+        return codec.on(bytes);
+    }
+
+    /**
+     * Reads a string into the reused buffer and returns the interned instance.
+     *
+     * @param bytes to read from
+     * @return the string, may be null
+     */
+    private String readInterned(Bytes<?> bytes) {
+        if (interner == null) {
+            interner = new StringInterner(INTERNER_CAPACITY);
+            buffer = new StringBuilder();
+        }
+        if (!bytes.readUtf8(buffer)) {
+            return null;
+        }
+        return interner.intern(buffer);
+    }
+
+    /** Sets the values that are read into a slot of a record, without boxing them */
+    private static final class SlotTarget implements ValueCodec.Target<Void> {
+        private ColumnarValues record;
+        private int slot;
+
+        private SlotTarget of(ColumnarValues record, int slot) {
+            this.record = record;
+            this.slot = slot;
+            return this;
+        }
+
+        @Override
+        public Void onNull() {
+            record.remove(slot);
+            return null;
+        }
+
+        @Override
+        public Void onBoolean(boolean value) {
+            record.setBoolean(slot, value);
+            return null;
+        }
+
+        @Override
+        public Void onLong(long value) {
+            record.setLong(slot, value);
+            return null;
+        }
+
+        @Override
+        public Void onDouble(double value) {
+            record.setDouble(slot, value);
+            return null;
+        }
+
+        @Override
+        public Void onString(String value) {
+            record.setString(slot, value);
+            return null;
+        }
+
+        @Override
+        public Void onDate(long timeMs) {
+            record.setDate(slot, timeMs);
+            return null;
+        }
+    }
+}
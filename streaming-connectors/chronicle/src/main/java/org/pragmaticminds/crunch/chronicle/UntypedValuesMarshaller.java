@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.chronicle;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.pool.StringInterner;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.serialization.ValueCodec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link BytesMarshaller} for {@link UntypedValues}.
+ * Every value is written with a type tag of the {@link ValueCodec}, numbers as stop bit encoded (varint) longs and
+ * doubles as 8 bytes, so no type has to be guessed when reading. Source, prefix and channel names repeat in nearly
+ * every record, thus they are decoded into a reused buffer and interned, which avoids allocating them again for
+ * every record.
+ * <p>
+ * Not thread safe, every consumer needs its own instance.
+ */
+public class UntypedValuesMarshaller implements BytesMarshaller<UntypedValues> {
+
+    static final byte VERSION = 1;
+
+    static final int INTERNER_CAPACITY = 4096;
+
+    private transient StringInterner interner;
+    private transient StringBuilder buffer;
+    private transient BytesValueCodec codec;
+
+    @Override
+    public void write(UntypedValues value, Bytes<?> bytes) {
+        bytes.writeByte(VERSION);
+        bytes.writeUtf8(value.getSource());
+        bytes.writeStopBit(value.getTimestamp());
+        bytes.writeUtf8(value.getPrefix());
+        Map<String, Object> values = value.getValues();
+        if (values == null) {
+            bytes.writeStopBit(-1L);
+            return;
+        }
+        bytes.writeStopBit(values.size());
+        BytesValueCodec out = codec(bytes);
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            bytes.writeUtf8(entry.getKey());
+            ValueCodec.write(entry.getValue(), out);
+        }
+    }
+
+    @Override
+    public UntypedValues read(Bytes<?> bytes) {
+        byte version = bytes.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version + " of the UntypedValues excerpt");
+        }
+        String source = readInterned(bytes);
+        long timestamp = bytes.readStopBit();
+        String prefix = readInterned(bytes);
+        long size = bytes.readStopBit();
+        HashMap<String, Object> values = null;
+        if (size >= 0) {
+            values = new HashMap<>((int) (size * 4 / 3 + 1));
+            BytesValueCodec in = codec(bytes);
+            for (long i = 0; i < size; i++) {
+                String channel = readInterned(bytes);
+                values.put(channel, ValueCodec.read(in));
+            }
+        }
+        UntypedValues result = new UntypedValues();
+        result.setSource(source);
+        result.setTimestamp(timestamp);
+        result.setPrefix(prefix);
+        // the map is owned by this record, thus it does not need to be copied by the constructor
+        result.setValues(values);
+        return result;
+    }
+
+    private BytesValueCodec codec(Bytes<?> bytes) {
+        if (codec == null) {
+            codec = new BytesValueCodec();
+        }
+        return codec.on(bytes);
+    }
+
+    /**
+     * Reads a string into the reused buffer and returns the interned instance.
+     *
+     * @param bytes to read from
+     * @return the string, may be null
+     */
+    private String readInterned(Bytes<?> bytes) {
+        if (interner == null) {
+            interner = new StringInterner(INTERNER_CAPACITY);
+            buffer = new StringBuilder();
+        }
+        if (!bytes.readUtf8(buffer)) {
+            return null;
+        }
+        return interner.intern(buffer);
+    }
+}
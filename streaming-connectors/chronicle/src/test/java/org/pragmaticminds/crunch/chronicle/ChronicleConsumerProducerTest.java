@@ -22,10 +22,13 @@ package org.pragmaticminds.crunch.chronicle;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.openhft.chronicle.bytes.Bytes;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 import org.pragmaticminds.crunch.chronicle.consumers.MemoryManager;
+import org.pragmaticminds.crunch.serialization.BinaryDeserializer;
+import org.pragmaticminds.crunch.serialization.BinarySerializer;
 import org.pragmaticminds.crunch.serialization.Deserializer;
 import org.pragmaticminds.crunch.serialization.JsonDeserializer;
 import org.pragmaticminds.crunch.serialization.JsonSerializer;
@@ -37,7 +40,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 
@@ -153,6 +159,136 @@ public class ChronicleConsumerProducerTest {
         assertEquals(1_001, counter);
     }
 
+    @Test
+    public void produceAndConsume_binary() throws Exception {
+        String basePath = System.getProperty("java.io.tmpdir");
+        String path = Files.createTempDirectory(Paths.get(basePath), "chronicle-")
+                .toAbsolutePath()
+                .toString();
+        logger.info("Using temp path '{}'", path);
+
+        Properties properties = new Properties();
+        properties.put(ChronicleConsumer.CHRONICLE_PATH_KEY, path);
+        properties.put(ChronicleConsumer.CHRONICLE_CONSUMER_KEY, "asdf");
+
+        UntypedValues values = UntypedValues.builder()
+                .prefix("")
+                .source("test")
+                .timestamp(Instant.now().toEpochMilli())
+                .values(Collections.singletonMap("key", 0.5))
+                .build();
+
+        UntypedValues result;
+        try (ChronicleConsumer<UntypedValues> consumer = new ChronicleConsumer<>(properties, new MemoryManager(), new BinaryDeserializer<>(UntypedValues.class))) {
+            try (ChronicleProducer<UntypedValues> producer = new ChronicleProducer<>(properties, new BinarySerializer<>())) {
+                assertTrue(producer.send(values));
+                result = consumer.poll();
+            }
+        }
+
+        assertEquals(values, result);
+    }
+
+    @Test
+    public void produceAndConsume_marshaller() throws Exception {
+        String basePath = System.getProperty("java.io.tmpdir");
+        String path = Files.createTempDirectory(Paths.get(basePath), "chronicle-")
+                .toAbsolutePath()
+                .toString();
+        logger.info("Using temp path '{}'", path);
+
+        Properties properties = new Properties();
+        properties.put(ChronicleConsumer.CHRONICLE_PATH_KEY, path);
+        properties.put(ChronicleConsumer.CHRONICLE_CONSUMER_KEY, "asdf");
+
+        int counter = 0;
+        try (ChronicleConsumer<UntypedValues> consumer = new ChronicleConsumer<>(properties, new MemoryManager(), new UntypedValuesMarshaller())) {
+            try (ChronicleProducer<UntypedValues> producer = new ChronicleProducer<>(properties, new UntypedValuesMarshaller())) {
+                for (int i = 0; i < 100; i++) {
+                    assertTrue(producer.send(
+                            UntypedValues.builder()
+                                    .prefix("")
+                                    .source("test")
+                                    .timestamp(i)
+                                    .values(Collections.singletonMap("key", (long) i))
+                                    .build()
+                    ));
+                }
+                UntypedValues values;
+                while ((values = consumer.poll()) != null) {
+                    assertEquals(counter, values.getTimestamp());
+                    assertEquals((long) counter, values.get("key"));
+                    counter++;
+                }
+            }
+        }
+        assertEquals(100, counter);
+    }
+
+    @Test
+    public void produceAndConsume_marshallerFailures_areSkipped() throws Exception {
+        String basePath = System.getProperty("java.io.tmpdir");
+        String path = Files.createTempDirectory(Paths.get(basePath), "chronicle-")
+                .toAbsolutePath()
+                .toString();
+        logger.info("Using temp path '{}'", path);
+
+        Properties properties = new Properties();
+        properties.put(ChronicleConsumer.CHRONICLE_PATH_KEY, path);
+        properties.put(ChronicleConsumer.CHRONICLE_CONSUMER_KEY, "asdf");
+
+        List<Long> timestamps = new ArrayList<>();
+        try (ChronicleConsumer<UntypedValues> consumer = new ChronicleConsumer<>(properties, new MemoryManager(), new FailingMarshaller(2))) {
+            try (ChronicleProducer<UntypedValues> producer = new ChronicleProducer<>(properties, new FailingMarshaller(1))) {
+                for (int i = 0; i < 4; i++) {
+                    assertEquals(i != 1, producer.send(
+                            UntypedValues.builder()
+                                    .prefix("")
+                                    .source("test")
+                                    .timestamp(i)
+                                    .values(Collections.singletonMap("key", (long) i))
+                                    .build()
+                    ));
+                }
+                for (int i = 0; i < 5; i++) {
+                    UntypedValues values = consumer.poll();
+                    if (values != null) {
+                        timestamps.add(values.getTimestamp());
+                    }
+                }
+            }
+        }
+        // the partial excerpt of 1 is rolled back, the unreadable excerpt of 2 is skipped
+        assertEquals(Arrays.asList(0L, 3L), timestamps);
+    }
+
+    /** Fails after writing or reading the record with the given timestamp */
+    private static class FailingMarshaller implements BytesMarshaller<UntypedValues> {
+        private final UntypedValuesMarshaller delegate = new UntypedValuesMarshaller();
+        private final long failing;
+
+        FailingMarshaller(long failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public void write(UntypedValues value, Bytes<?> bytes) {
+            delegate.write(value, bytes);
+            if (value.getTimestamp() == failing) {
+                throw new IllegalStateException("write failed");
+            }
+        }
+
+        @Override
+        public UntypedValues read(Bytes<?> bytes) {
+            UntypedValues value = delegate.read(bytes);
+            if (value.getTimestamp() == failing) {
+                throw new IllegalStateException("read failed");
+            }
+            return value;
+        }
+    }
+
     // Test with custom POJO
 
     @Test
@@ -21,7 +21,13 @@ package org.pragmaticminds.crunch.chronicle;
 
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -57,4 +63,20 @@ public class ChronicleSourceTest {
         // Assert poll on source
         verify(consumer, times(1)).poll();
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void drainTo_stopsAtEndOfQueue() {
+        ChronicleConsumer<UntypedValues> consumer = Mockito.mock(ChronicleConsumer.class);
+        UntypedValues record = new UntypedValues();
+        when(consumer.poll()).thenReturn(record, record, null);
+        ChronicleSource source = new ChronicleSource(() -> consumer);
+        source.init();
+
+        List<MRecord> batch = new ArrayList<>();
+
+        assertEquals(2, source.drainTo(batch, 10));
+        assertEquals(2, batch.size());
+        verify(consumer, times(3)).poll();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.chronicle;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.values.ChannelSchema;
+import org.pragmaticminds.crunch.api.values.ColumnarValues;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColumnarValuesMarshallerTest {
+
+    private UntypedValues untypedValues;
+    private ChannelSchema schema;
+
+    @Before
+    public void setUp() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 0.25);
+        values.put("long", -42L);
+        values.put("bool", false);
+        values.put("string", "text");
+        values.put("date", new Date(1_539_856_800_000L));
+        untypedValues = new UntypedValues("source", 1_539_856_800_000L, "prefix", values);
+        schema = new ChannelSchema();
+    }
+
+    @Test
+    public void roundTrip() {
+        ColumnarValues record = ColumnarValues.of(untypedValues, schema);
+        ColumnarValuesMarshaller marshaller = new ColumnarValuesMarshaller(schema);
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+
+        marshaller.write(record, bytes);
+        marshaller.write(record, bytes);
+
+        assertEquals(record, marshaller.read(bytes));
+        assertEquals(record, marshaller.read(bytes));
+        bytes.release();
+    }
+
+    @Test
+    public void readsExcerptsOfUntypedValuesMarshaller() {
+        ColumnarValuesMarshaller marshaller = new ColumnarValuesMarshaller(schema);
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+
+        new UntypedValuesMarshaller().write(untypedValues, bytes);
+        ColumnarValues record = marshaller.read(bytes);
+
+        assertEquals(ColumnarValues.of(untypedValues, schema), record);
+        assertEquals(0.25, record.getDoubleAsPrimitive(schema.slotOf("double")), 0.0);
+        bytes.release();
+    }
+
+    @Test
+    public void writesExcerptsForUntypedValuesMarshaller() {
+        ColumnarValuesMarshaller marshaller = new ColumnarValuesMarshaller(schema);
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+
+        marshaller.write(ColumnarValues.of(untypedValues, schema), bytes);
+
+        assertEquals(untypedValues, new UntypedValuesMarshaller().read(bytes));
+        bytes.release();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.chronicle;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+import org.pragmaticminds.crunch.api.values.UntypedValues;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class UntypedValuesMarshallerTest {
+
+    @Test
+    public void roundTrip() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("double", 0.25);
+        values.put("long", -42L);
+        values.put("bool", false);
+        values.put("string", "text");
+        values.put("date", new Date(1_539_856_800_000L));
+        values.put("null", null);
+        UntypedValues record = new UntypedValues("source", 1_539_856_800_000L, "prefix", values);
+        UntypedValuesMarshaller marshaller = new UntypedValuesMarshaller();
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+
+        marshaller.write(record, bytes);
+        marshaller.write(record, bytes);
+        UntypedValues first = marshaller.read(bytes);
+        UntypedValues second = marshaller.read(bytes);
+
+        assertEquals(record, first);
+        assertEquals(record, second);
+        // repeating strings are not allocated again
+        assertSame(first.getSource(), second.getSource());
+        bytes.release();
+    }
+
+    @Test
+    public void roundTrip_nullValues() {
+        UntypedValues record = new UntypedValues(null, 1L, null, null);
+        UntypedValuesMarshaller marshaller = new UntypedValuesMarshaller();
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+
+        marshaller.write(record, bytes);
+
+        assertEquals(record, marshaller.read(bytes));
+        bytes.release();
+    }
+}
@@ -68,9 +68,12 @@ public class EvaluationProcessFunction<T extends Serializable> extends ProcessFu
                 .withOut(out)
                 .build();
 
-        // process the incoming values with the cloned evaluation functions
-        for (EvaluationFunction<T> evalFunction : this.evaluationFunctions) {
-            evalFunction.eval(evaluationContext);
+        // process the incoming values with the cloned evaluation functions,
+        // values of suppliers shared by the functions are evaluated once for the record
+        try (EvaluationCache ignored = evaluationContext.getEvaluationCache().open(value)) {
+            for (EvaluationFunction<T> evalFunction : this.evaluationFunctions) {
+                evalFunction.eval(evaluationContext);
+            }
         }
 
         // all output events are already passed to the "out" Collector<GenericEvent>
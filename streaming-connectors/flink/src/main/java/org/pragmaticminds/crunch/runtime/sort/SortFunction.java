@@ -27,7 +27,9 @@ import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.TimerService;
 import org.apache.flink.streaming.api.functions.ProcessFunction;
 import org.apache.flink.util.Collector;
+import org.pragmaticminds.crunch.api.pipe.ClonerUtil;
 import org.pragmaticminds.crunch.api.records.MRecord;
+import org.pragmaticminds.crunch.execution.LongHeapSortFunction;
 import org.pragmaticminds.crunch.execution.TimestampSortFunction;
 
 import java.io.IOException;
@@ -42,12 +44,14 @@ import java.util.PriorityQueue;
  * Created by julian on 03.11.17
  */
 public class SortFunction extends ProcessFunction<MRecord, MRecord> {
-    private int capacity = 100;
-    private transient ValueState<TimestampSortFunction<MRecord>> valueState;
+    private static final int DEFAULT_CAPACITY = 100;
+
+    private final org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord> prototype;
+    private transient ValueState<org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord>> valueState;
 
     /** Basic constructor */
     public SortFunction() {
-        /* do nothing */
+        this(DEFAULT_CAPACITY);
     }
 
     /**
@@ -56,7 +60,17 @@ public class SortFunction extends ProcessFunction<MRecord, MRecord> {
      * @param capacity initial value of the queue in the {@link #valueState}.
      */
     public SortFunction(int capacity) {
-        this.capacity = capacity;
+        this(new TimestampSortFunction<>(capacity));
+    }
+
+    /**
+     * Constructor with the sort buffer that is used for each key, e.g. a {@link TimestampSortFunction} or a
+     * {@link LongHeapSortFunction}. The given prototype is cloned for every key.
+     *
+     * @param prototype of the sort buffer in the {@link #valueState}.
+     */
+    public SortFunction(org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord> prototype) {
+        this.prototype = prototype;
     }
 
     /**
@@ -66,11 +80,11 @@ public class SortFunction extends ProcessFunction<MRecord, MRecord> {
      */
     @Override
     public void open(Configuration config) {
-        ValueStateDescriptor<TimestampSortFunction<MRecord>> descriptor = new ValueStateDescriptor<>(
+        ValueStateDescriptor<org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord>> descriptor = new ValueStateDescriptor<>(
                 // state name
                 "sorted-events",
                 // type information of state
-                TypeInformation.of(new TypeHint<TimestampSortFunction<MRecord>>() {})
+                TypeInformation.of(new TypeHint<org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord>>() {})
         );
         valueState = getRuntimeContext().getState(descriptor);
     }
@@ -87,9 +101,9 @@ public class SortFunction extends ProcessFunction<MRecord, MRecord> {
     public void processElement(MRecord record, Context context, Collector<MRecord> out) throws IOException {
         TimerService timerService = context.timerService();
 
-        TimestampSortFunction<MRecord> innerSortFunction = valueState.value();
+        org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord> innerSortFunction = valueState.value();
         if(innerSortFunction == null){
-            innerSortFunction = new TimestampSortFunction<>(capacity);
+            innerSortFunction = ClonerUtil.clone(prototype);
         }
 
         // process record
@@ -118,9 +132,9 @@ public class SortFunction extends ProcessFunction<MRecord, MRecord> {
     public void onTimer(long timestamp, OnTimerContext context, Collector<MRecord> out) throws IOException {
         Long watermark = context.timerService().currentWatermark();
 
-        TimestampSortFunction<MRecord> innerSortFunction = valueState.value();
+        org.pragmaticminds.crunch.execution.SortFunction<Long, MRecord> innerSortFunction = valueState.value();
         if(innerSortFunction == null){
-            innerSortFunction = new TimestampSortFunction<>(capacity);
+            innerSortFunction = ClonerUtil.clone(prototype);
         }
 
         Collection<MRecord> results = innerSortFunction.onTimer(watermark);
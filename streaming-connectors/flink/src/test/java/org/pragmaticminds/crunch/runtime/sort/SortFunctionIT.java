@@ -26,6 +26,7 @@ import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.junit.Test;
 import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
+import org.pragmaticminds.crunch.execution.LongHeapSortFunction;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -118,6 +119,45 @@ public class SortFunctionIT {
         assertEquals(Lists.newArrayList(event1, event2), CollectSink.values);
     }
 
+    /**
+     * Sorts three out of order events with the {@link LongHeapSortFunction} as sort buffer.
+     *
+     * @throws Exception
+     */
+    @Test
+    @SuppressWarnings("squid:S3415")
+    public void testSorting_longHeapSortFunction() throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+        // configure your test environment
+        env.setParallelism(1);
+
+        // GenericEvent Time Processing
+        env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+
+        // results are collected in a static variable
+        CollectSink.values.clear();
+
+        // create a stream of custom elements and apply transformations
+
+        UntypedValues event1 = UntypedValues.builder().timestamp(10).build();
+        UntypedValues event2 = UntypedValues.builder().timestamp(15).build();
+        UntypedValues event3 = UntypedValues.builder().timestamp(20).build();
+
+        env.fromElements(event3, event1, event2)
+                .map(untypedValues -> (MRecord) untypedValues)
+                .assignTimestampsAndWatermarks(new ValueEventAssigner(15))
+                .keyBy(untypedValues -> 1L)
+                .process(new SortFunction(new LongHeapSortFunction<>(50)))
+                .addSink(new CollectSink());
+
+        // execute
+        env.execute();
+
+        // verify your results
+        assertEquals(Lists.newArrayList(event1, event2, event3), CollectSink.values);
+    }
+
     // create a testing sink
     private static class CollectSink implements SinkFunction<MRecord> {
 
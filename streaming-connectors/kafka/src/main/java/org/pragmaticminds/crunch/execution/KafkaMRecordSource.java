@@ -25,6 +25,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.pragmaticminds.crunch.LoggingUtil;
+import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 import org.pragmaticminds.crunch.serialization.JsonDeserializerWrapper;
 import org.slf4j.Logger;
@@ -42,6 +43,11 @@ import java.util.*;
 public class KafkaMRecordSource implements MRecordSource {
 
     static final long POLL_TIMEOUT_MS = 1_000L;
+    /**
+     * Timeout for {@link #drainTo(Collection, int)}, the poll does not block, as the caller may call it many times in a
+     * row, while it waits for new records with its own idle strategy
+     */
+    static final long DRAIN_POLL_TIMEOUT_MS = 0L;
     private static final Logger logger = LoggerFactory.getLogger(KafkaMRecordSource.class);
 
     private transient KafkaConsumer<String, UntypedValues>      consumer;
@@ -95,6 +101,21 @@ public class KafkaMRecordSource implements MRecordSource {
         initialize(kafkaUrl, kafkaGroup, topics, additionalProperties, false);
     }
 
+    /**
+     * Main constructor. Creates a new instance of the {@link KafkaConsumer} which reads the values with the given
+     * {@link Deserializer}, e.g. a {@link org.pragmaticminds.crunch.serialization.BinaryDeserializerWrapper}.
+     *
+     * @param kafkaUrl             to connect to kafka
+     * @param kafkaGroup           to connect to kafka
+     * @param topics               {@link List} of all to be subscribed
+     * @param additionalProperties extra properties to be set up, may be null
+     * @param valueDeserializer    reads the values, has to match the serializer of the producer
+     */
+    public KafkaMRecordSource(String kafkaUrl, String kafkaGroup, Collection<String> topics,
+                              Map<String, Object> additionalProperties, Deserializer<UntypedValues> valueDeserializer) {
+        initialize(kafkaUrl, kafkaGroup, topics, additionalProperties, false, valueDeserializer);
+    }
+
     /**
      * Helper for the constructors
      * @param kafkaUrl to connect to kafka
@@ -106,6 +127,24 @@ public class KafkaMRecordSource implements MRecordSource {
     private void initialize(
             String kafkaUrl, String kafkaGroup, Collection<String> topics, Map<String, Object> additionalProperties,
             boolean fromBeginning
+    ) {
+        initialize(kafkaUrl, kafkaGroup, topics, additionalProperties, fromBeginning,
+                new JsonDeserializerWrapper<>(UntypedValues.class));
+    }
+
+    /**
+     * Helper for the constructors
+     * @param kafkaUrl to connect to kafka
+     * @param kafkaGroup to connect to kafka
+     * @param topics {@link List} of all to be subscribed
+     * @param additionalProperties extra properties to be set up
+     * @param fromBeginning If this should read from the beginning of the kafka topics if group is unset
+     * @param valueDeserializer reads the values
+     */
+    @SuppressWarnings("squid:S2095") // KafkaConsumer is responsible for the closing of the Deserializers
+    private void initialize(
+            String kafkaUrl, String kafkaGroup, Collection<String> topics, Map<String, Object> additionalProperties,
+            boolean fromBeginning, Deserializer<UntypedValues> valueDeserializer
     ) {
         Map<String, Object> properties;
         if(additionalProperties == null){
@@ -121,7 +160,6 @@ public class KafkaMRecordSource implements MRecordSource {
             properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         }
         Deserializer<String> keyDeserializer = new JsonDeserializerWrapper<>(String.class);
-        Deserializer<UntypedValues> valueDeserializer = new JsonDeserializerWrapper<>(UntypedValues.class);
         this.consumer = new KafkaConsumer<>(properties, keyDeserializer, valueDeserializer);
         this.consumer.subscribe(topics);
     }
@@ -145,6 +183,36 @@ public class KafkaMRecordSource implements MRecordSource {
         return next.value();
     }
 
+    /**
+     * Moves the records of the current {@link ConsumerRecords} batch into the target.
+     * Only if no records are left from the last poll, the {@link KafkaConsumer} is polled once without blocking.
+     * If no records were fetched yet, none are added, so the caller can decide how to wait for new records.
+     *
+     * @param target     collection the fetched records are added to
+     * @param maxRecords maximum number of records to add
+     * @return the number of records added to the target
+     */
+    @Override
+    public int drainTo(Collection<MRecord> target, int maxRecords) {
+        if (recordIterator == null || !recordIterator.hasNext()) {
+            recordIterator = consumer.poll(DRAIN_POLL_TIMEOUT_MS).iterator();
+        }
+
+        int count = 0;
+        while (count < maxRecords && recordIterator.hasNext()) {
+            ConsumerRecord<String, UntypedValues> next = recordIterator.next();
+            if (next.value() == null) {
+                continue;
+            }
+            if (logger.isTraceEnabled() && next.offset() % LoggingUtil.getTraceLogReportCheckpoint() == 0) {
+                logger.trace("Offset {} @ {}", next.offset(), Instant.ofEpochMilli(next.value().getTimestamp()));
+            }
+            target.add(next.value());
+            count++;
+        }
+        return count;
+    }
+
     /**
      * polls until it gets records
      */
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * This class wraps a {@link BinaryDeserializer} into a Kafka {@link Deserializer}.
+ */
+public class BinaryDeserializerWrapper<T> implements Deserializer<T> {
+    private final BinaryDeserializer<T> innerDeserializer;
+
+    /**
+     * Main constructor, which takes the type class to deserialize
+     * @param clazz to be deserialized
+     */
+    public BinaryDeserializerWrapper(Class<T> clazz) {
+        this(clazz, ChannelDictionary.empty());
+    }
+
+    /**
+     * @param clazz      to be deserialized
+     * @param dictionary the same dictionary the {@link BinarySerializer} used
+     */
+    public BinaryDeserializerWrapper(Class<T> clazz, ChannelDictionary dictionary) {
+        this.innerDeserializer = new BinaryDeserializer<>(clazz, dictionary);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        /* nothing to configure */
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return innerDeserializer.deserialize(data);
+    }
+
+    @Override
+    public void close() {
+        innerDeserializer.close();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.pragmaticminds.crunch.serialization;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * This class wraps a {@link BinarySerializer} into a Kafka {@link Serializer}.
+ */
+public class BinarySerializerWrapper<T> implements Serializer<T> {
+
+    private final BinarySerializer<T> serializer;
+
+    public BinarySerializerWrapper() {
+        this(ChannelDictionary.empty());
+    }
+
+    /**
+     * @param dictionary channels which are written as index instead of their name
+     */
+    public BinarySerializerWrapper(ChannelDictionary dictionary) {
+        serializer = new BinarySerializer<>(dictionary);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        /* nothing to do in here */
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return serializer.serialize(data);
+    }
+
+    @Override
+    public void close() {
+        serializer.close();
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.kafka.common.TopicPartition;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.pragmaticminds.crunch.api.records.MRecord;
 import org.pragmaticminds.crunch.api.values.UntypedValues;
 
 import java.io.Serializable;
@@ -35,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
+import static org.pragmaticminds.crunch.execution.KafkaMRecordSource.DRAIN_POLL_TIMEOUT_MS;
 import static org.pragmaticminds.crunch.execution.KafkaMRecordSource.POLL_TIMEOUT_MS;
 
 /**
@@ -65,6 +67,7 @@ public class KafkaMRecordSourceTest implements Serializable {
 
         consumer = Mockito.mock(KafkaConsumer.class);
         Mockito.when(consumer.poll(POLL_TIMEOUT_MS)).thenReturn(consumerRecords);
+        Mockito.when(consumer.poll(DRAIN_POLL_TIMEOUT_MS)).thenReturn(consumerRecords);
 
         source = new KafkaMRecordSource(consumer);
     }
@@ -81,6 +84,28 @@ public class KafkaMRecordSourceTest implements Serializable {
         Mockito.verify(consumer, Mockito.times(2)).poll(POLL_TIMEOUT_MS);
     }
 
+    @Test
+    public void drainTo() {
+        List<MRecord> batch = new ArrayList<>();
+
+        // the first batch is limited by maxRecords, the second by the records left from the poll
+        assertEquals(4, source.drainTo(batch, 4));
+        assertEquals(2, source.drainTo(batch, 4));
+        assertEquals(6, batch.size());
+        Mockito.verify(consumer, Mockito.times(1)).poll(DRAIN_POLL_TIMEOUT_MS);
+
+        // now the consumer is polled again
+        assertEquals(4, source.drainTo(batch, 4));
+        Mockito.verify(consumer, Mockito.times(2)).poll(DRAIN_POLL_TIMEOUT_MS);
+    }
+
+    @Test
+    public void drainTo_returnsNothingIfPollTimesOut() {
+        Mockito.when(consumer.poll(DRAIN_POLL_TIMEOUT_MS)).thenReturn(ConsumerRecords.empty());
+
+        assertEquals(0, source.drainTo(new ArrayList<>(), 4));
+    }
+
     @Test
     public void hasRemaining() {
         assertTrue(source.hasRemaining());